@@ -30,6 +30,7 @@ import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
 import com.datastax.oss.dsbulk.sampler.DataSizes;
+import com.datastax.oss.dsbulk.sampler.Sizeable;
 import com.datastax.oss.dsbulk.sampler.SizeableBatchStatement;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -295,8 +296,17 @@ public class DefaultStatementBatcher implements StatementBatcher {
 
   @NonNull
   protected BatchStatement createBatchStatement(@NonNull Iterable<BatchableStatement<?>> children) {
-    return new SizeableBatchStatement(
-        BatchStatement.newInstance(batchType, children), protocolVersion, codecRegistry);
+    BatchStatement batch = BatchStatement.newInstance(batchType, children);
+    // If all children sizes are known already, e.g. because they were needed to size batches, the
+    // batch size comes for free; otherwise, compute it lazily, only if it is needed.
+    long dataSize = 0;
+    for (BatchableStatement<?> child : children) {
+      if (!(child instanceof Sizeable) || !((Sizeable) child).isDataSizeKnown()) {
+        return new SizeableBatchStatement(batch, protocolVersion, codecRegistry);
+      }
+      dataSize += ((Sizeable) child).getDataSize();
+    }
+    return new SizeableBatchStatement(batch, dataSize);
   }
 
   @NonNull
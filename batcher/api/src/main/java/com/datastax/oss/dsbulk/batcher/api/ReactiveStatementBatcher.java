@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.batcher.api;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
 import org.reactivestreams.Publisher;
 
 /**
@@ -53,6 +54,33 @@ public interface ReactiveStatementBatcher extends StatementBatcher {
   @NonNull
   Publisher<Statement<?>> batchByGroupingKey(@NonNull Publisher<BatchableStatement<?>> statements);
 
+  /**
+   * Batches together the given statements into groups of statements having the same grouping key,
+   * without splitting the stream into independent windows.
+   *
+   * <p>Unlike {@link #batchByGroupingKey(Publisher)}, which is meant to operate on finite chunks of
+   * statements, this method keeps one open batch per grouping key across the whole stream. Each
+   * batch is emitted as soon as it reaches the maximum number of statements or the maximum data
+   * size, or when it has been open for longer than {@code maxBatchAge}. To bound memory usage, at
+   * most {@code maxBufferedStatements} statements are held in open batches at any given time: when
+   * this limit is exceeded, the oldest open batch is emitted, regardless of its size.
+   *
+   * <p>This allows batches to grow much larger on skewed or loosely ordered data, where statements
+   * sharing the same grouping key are spread over the stream.
+   *
+   * @param statements the statements to batch together.
+   * @param maxBufferedStatements the maximum number of statements held in open batches; must be
+   *     strictly positive.
+   * @param maxBatchAge the maximum amount of time a batch can remain open; if zero or negative,
+   *     batches are never emitted because of their age.
+   * @return A {@link Publisher} of batched statements.
+   */
+  @NonNull
+  Publisher<Statement<?>> batchByGroupingKey(
+      @NonNull Publisher<BatchableStatement<?>> statements,
+      int maxBufferedStatements,
+      @NonNull Duration maxBatchAge);
+
   /**
    * Batches together all the given statements into groups of statements, <em>regardless of their
    * grouping key</em>. Each group size is capped by the maximum number of statements and the
@@ -26,6 +26,7 @@ import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.context.DriverContext;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.data.ByteUtils;
@@ -35,6 +36,8 @@ import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.token.Token;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.collect.Sets;
+import com.datastax.oss.dsbulk.sampler.SizeableBatchStatement;
+import com.datastax.oss.dsbulk.sampler.SizeableBoundStatement;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -198,6 +201,26 @@ public class StatementBatcherTest {
     Statement<?> statement = statements.get(0);
     assertThat(((BatchStatement) statement))
         .containsExactly(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6);
+    // the children sizes are not known, so the batch data size is computed lazily
+    assertThat(statement).isInstanceOf(SizeableBatchStatement.class);
+    assertThat(((SizeableBatchStatement) statement).isDataSizeKnown()).isFalse();
+    assertThat(((SizeableBatchStatement) statement).getDataSize()).isEqualTo(6 * 4);
+    assertThat(((SizeableBatchStatement) statement).isDataSizeKnown()).isTrue();
+  }
+
+  @Test
+  void should_compute_batch_data_size_from_children_when_known() {
+    SizeableBoundStatement child1 = new SizeableBoundStatement(mock(BoundStatement.class), 4);
+    SizeableBoundStatement child2 = new SizeableBoundStatement(mock(BoundStatement.class), 6);
+    StatementBatcher batcher = new DefaultStatementBatcher();
+    List<Statement<?>> statements = batcher.batchAll(child1, child2);
+    assertThat(statements).hasSize(1);
+    Statement<?> statement = statements.get(0);
+    assertThat(((BatchStatement) statement)).containsExactly(child1, child2);
+    // the batch data size is computed from its children when the batch is created
+    assertThat(statement).isInstanceOf(SizeableBatchStatement.class);
+    assertThat(((SizeableBatchStatement) statement).isDataSizeKnown()).isTrue();
+    assertThat(((SizeableBatchStatement) statement).getDataSize()).isEqualTo(10);
   }
 
   @Test
@@ -22,18 +22,28 @@ import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import com.datastax.oss.dsbulk.batcher.api.BatchMode;
 import com.datastax.oss.dsbulk.batcher.api.DefaultStatementBatcher;
 import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcher;
 import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcherFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 
 public class ReactorStatementBatcher extends DefaultStatementBatcher
     implements ReactiveStatementBatcher {
 
+  /** A signal emitted periodically to check for expired batches. */
+  private static final Object TICK = new Object();
+
   /**
    * Creates a new {@link ReactorStatementBatcher} that produces {@linkplain
    * DefaultBatchType#UNLOGGED unlogged} batches, operates in {@linkplain BatchMode#PARTITION_KEY
@@ -196,5 +206,136 @@ public class ReactorStatementBatcher extends DefaultStatementBatcher
                                 : createBatchStatement(children)));
   }
 
+  @Override
+  @NonNull
+  public Flux<Statement<?>> batchByGroupingKey(
+      @NonNull Publisher<BatchableStatement<?>> statements,
+      int maxBufferedStatements,
+      @NonNull Duration maxBatchAge) {
+    Preconditions.checkArgument(
+        maxBufferedStatements > 0,
+        "maxBufferedStatements must be strictly positive, got: %s",
+        maxBufferedStatements);
+    boolean ageLimited = !maxBatchAge.isNegative() && !maxBatchAge.isZero();
+    return Flux.from(statements)
+        .publish(
+            upstream -> {
+              OpenBatches batches = new OpenBatches(maxBufferedStatements, maxBatchAge);
+              Flux<Object> signals = upstream.cast(Object.class);
+              if (ageLimited) {
+                // check for expired batches twice per period, until the upstream completes
+                Duration period = maxBatchAge.dividedBy(2);
+                Flux<Object> ticks =
+                    Flux.interval(period.isZero() ? maxBatchAge : period)
+                        .onBackpressureDrop()
+                        .map(tick -> TICK)
+                        .takeUntilOther(upstream.then());
+                signals = Flux.merge(signals, ticks);
+              }
+              // merged signals are serialized, so batches are never accessed concurrently
+              return signals
+                  .concatMapIterable(batches::onSignal)
+                  .concatWith(Flux.defer(() -> Flux.fromIterable(batches.flushAll())));
+            });
+  }
+
   private class ReactorAdaptiveSizingBatchPredicate extends AdaptiveSizingBatchPredicate {}
+
+  /**
+   * The batches currently open, one per grouping key, in creation order.
+   *
+   * <p>This class is not thread-safe.
+   */
+  private class OpenBatches {
+
+    private final int maxBufferedStatements;
+    private final long maxBatchAgeNanos;
+    private final Map<Object, OpenBatch> batches = new LinkedHashMap<>();
+
+    private int bufferedStatements;
+
+    private OpenBatches(int maxBufferedStatements, Duration maxBatchAge) {
+      this.maxBufferedStatements = maxBufferedStatements;
+      this.maxBatchAgeNanos =
+          maxBatchAge.isNegative() || maxBatchAge.isZero() ? -1 : maxBatchAge.toNanos();
+    }
+
+    private List<Statement<?>> onSignal(Object signal) {
+      if (signal == TICK) {
+        return flushExpired(new ArrayList<>());
+      }
+      BatchableStatement<?> statement = (BatchableStatement<?>) signal;
+      Object key = groupingKey(statement);
+      if (key == statement) {
+        // no grouping key: the statement cannot be batched
+        return Collections.singletonList(statement);
+      }
+      List<Statement<?>> flushed = new ArrayList<>(1);
+      OpenBatch batch = batches.get(key);
+      if (batch == null) {
+        batch = new OpenBatch();
+        batches.put(key, batch);
+      }
+      bufferedStatements++;
+      if (batch.add(statement)) {
+        batches.remove(key);
+        flush(batch, flushed);
+      }
+      // evict the oldest batches if too many statements are buffered
+      Iterator<OpenBatch> it = batches.values().iterator();
+      while (bufferedStatements > maxBufferedStatements && it.hasNext()) {
+        OpenBatch eldest = it.next();
+        it.remove();
+        flush(eldest, flushed);
+      }
+      return flushExpired(flushed);
+    }
+
+    private List<Statement<?>> flushExpired(List<Statement<?>> flushed) {
+      if (maxBatchAgeNanos > 0) {
+        long now = System.nanoTime();
+        Iterator<OpenBatch> it = batches.values().iterator();
+        while (it.hasNext()) {
+          OpenBatch eldest = it.next();
+          if (now - eldest.createdAt < maxBatchAgeNanos) {
+            // batches are iterated in creation order: all the next ones are younger
+            break;
+          }
+          it.remove();
+          flush(eldest, flushed);
+        }
+      }
+      return flushed;
+    }
+
+    private List<Statement<?>> flushAll() {
+      List<Statement<?>> flushed = new ArrayList<>(batches.size());
+      for (OpenBatch batch : batches.values()) {
+        flush(batch, flushed);
+      }
+      batches.clear();
+      return flushed;
+    }
+
+    private void flush(OpenBatch batch, List<Statement<?>> flushed) {
+      bufferedStatements -= batch.children.size();
+      flushed.add(
+          batch.children.size() == 1
+              ? batch.children.get(0)
+              : createBatchStatement(batch.children));
+    }
+  }
+
+  private class OpenBatch {
+
+    private final long createdAt = System.nanoTime();
+    private final List<BatchableStatement<?>> children = new ArrayList<>();
+    private final AdaptiveSizingBatchPredicate full = new ReactorAdaptiveSizingBatchPredicate();
+
+    /** @return true if the batch is full and should be flushed, false otherwise. */
+    private boolean add(BatchableStatement<?> statement) {
+      children.add(statement);
+      return full.test(statement);
+    }
+  }
 }
@@ -21,11 +21,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.dsbulk.batcher.api.BatchMode;
 import com.datastax.oss.dsbulk.batcher.api.StatementBatcherTest;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
@@ -244,4 +246,66 @@ class ReactorStatementBatcherTest extends StatementBatcherTest {
         .extracting(EXTRACTOR)
         .contains(tuple(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6));
   }
+
+  @Test
+  void should_batch_by_grouping_key_across_stream() {
+    assignRoutingTokens();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.batchByGroupingKey(
+            Flux.just(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6), 100, Duration.ZERO);
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactlyInAnyOrder(tuple(stmt1, stmt2, stmt5, stmt6), tuple(stmt3, stmt4));
+  }
+
+  @Test
+  void should_honor_max_batch_statements_across_stream() {
+    assignRoutingTokens();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher(2);
+    Flux<Statement<?>> statements =
+        batcher.batchByGroupingKey(
+            Flux.just(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6), 100, Duration.ZERO);
+    // full batches are emitted as soon as they are complete
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3, stmt4), tuple(stmt5, stmt6));
+  }
+
+  @Test
+  void should_flush_oldest_batch_when_too_many_statements_buffered() {
+    assignRoutingTokens();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.batchByGroupingKey(
+            Flux.just(stmt1, stmt2, stmt3, stmt4, stmt5, stmt6), 3, Duration.ZERO);
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3, stmt4), tuple(stmt5, stmt6));
+  }
+
+  @Test
+  void should_not_buffer_statements_without_grouping_key() {
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    Flux<Statement<?>> statements =
+        batcher.batchByGroupingKey(Flux.just(stmt1, stmt2), 100, Duration.ofMinutes(1));
+    assertThat(statements.collectList().block())
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1), tuple(stmt2));
+  }
+
+  @Test
+  void should_flush_batch_when_max_batch_age_reached() {
+    assignRoutingTokens();
+    ReactorStatementBatcher batcher = new ReactorStatementBatcher();
+    // the upstream never completes, so only the batch age can trigger a flush
+    Flux<Statement<?>> statements =
+        batcher.batchByGroupingKey(
+            Flux.<BatchableStatement<?>>just(stmt1, stmt2, stmt3).concatWith(Flux.never()),
+            100,
+            Duration.ofMillis(50));
+    assertThat(statements.take(2).collectList().block(Duration.ofSeconds(10)))
+        .extracting(EXTRACTOR)
+        .containsExactly(tuple(stmt1, stmt2), tuple(stmt3));
+  }
 }
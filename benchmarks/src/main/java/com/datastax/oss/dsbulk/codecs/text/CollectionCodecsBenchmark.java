@@ -0,0 +1,105 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the encoding of list and map literals read from text, when elements are streamed
+ * directly into the binary form of the collection, with the encoding that goes through an
+ * intermediary Json tree and Java collection.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionCodecsBenchmark {
+
+  @Param({"10", "100", "1000"})
+  int elements;
+
+  private ConvertingCodec<String, List<Integer>> listCodec;
+  private ConvertingCodec<String, Map<String, Double>> mapCodec;
+  private String list;
+  private String map;
+
+  @Setup
+  public void setup() {
+    ConvertingCodecFactory factory = new ConvertingCodecFactory(new TextConversionContext());
+    listCodec =
+        factory.createConvertingCodec(DataTypes.listOf(DataTypes.INT), GenericType.STRING, true);
+    mapCodec =
+        factory.createConvertingCodec(
+            DataTypes.mapOf(DataTypes.TEXT, DataTypes.DOUBLE), GenericType.STRING, true);
+    StringBuilder listBuilder = new StringBuilder("[");
+    StringBuilder mapBuilder = new StringBuilder("{");
+    for (int i = 0; i < elements; i++) {
+      if (i > 0) {
+        listBuilder.append(',');
+        mapBuilder.append(',');
+      }
+      listBuilder.append(i * 31);
+      mapBuilder.append("\"key").append(i).append("\":").append(i * 1.5);
+    }
+    list = listBuilder.append(']').toString();
+    map = mapBuilder.append('}').toString();
+  }
+
+  @Benchmark
+  public ByteBuffer encodeListStreaming() {
+    return listCodec.encode(list, ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeListIntermediary() {
+    return listCodec
+        .getInternalCodec()
+        .encode(listCodec.externalToInternal(list), ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeMapStreaming() {
+    return mapCodec.encode(map, ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeMapIntermediary() {
+    return mapCodec
+        .getInternalCodec()
+        .encode(mapCodec.externalToInternal(map), ProtocolVersion.DEFAULT);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of numeric text fields, for plain decimal literals, and for literals that
+ * the configured number format cannot parse and that fall back to other parsers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NumberCodecsBenchmark {
+
+  private ConvertingCodec<String, Integer> intCodec;
+  private ConvertingCodec<String, Long> bigintCodec;
+  private ConvertingCodec<String, Double> doubleCodec;
+  private ConvertingCodec<String, BigDecimal> decimalCodec;
+
+  @Setup
+  public void setup() {
+    ConvertingCodecFactory factory = new ConvertingCodecFactory(new TextConversionContext());
+    intCodec = factory.createConvertingCodec(DataTypes.INT, GenericType.STRING, true);
+    bigintCodec = factory.createConvertingCodec(DataTypes.BIGINT, GenericType.STRING, true);
+    doubleCodec = factory.createConvertingCodec(DataTypes.DOUBLE, GenericType.STRING, true);
+    decimalCodec = factory.createConvertingCodec(DataTypes.DECIMAL, GenericType.STRING, true);
+  }
+
+  @Benchmark
+  public Integer parseInt() {
+    return intCodec.externalToInternal("-123456");
+  }
+
+  @Benchmark
+  public Long parseBigint() {
+    return bigintCodec.externalToInternal("1234567890123");
+  }
+
+  @Benchmark
+  public Double parseDouble() {
+    return doubleCodec.externalToInternal("-12345.678");
+  }
+
+  @Benchmark
+  public BigDecimal parseDecimal() {
+    return decimalCodec.externalToInternal("123456789.123456789");
+  }
+
+  @Benchmark
+  public Double parseScientificDouble() {
+    // not parseable by the default number format, falls back to BigDecimal
+    return doubleCodec.externalToInternal("1.2345e-7");
+  }
+
+  @Benchmark
+  public Double parseHexDouble() {
+    // falls back to Double.valueOf
+    return doubleCodec.externalToInternal("0x1.8p1");
+  }
+}
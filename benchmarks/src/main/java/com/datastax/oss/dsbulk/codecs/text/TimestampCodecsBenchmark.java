@@ -0,0 +1,76 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text;
+
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing and formatting of timestamps with the default CQL timestamp format, for the
+ * most common layouts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimestampCodecsBenchmark {
+
+  @Param({
+    "2019-08-01T12:34:56.789Z",
+    "2019-08-01 12:34:56+0200",
+    "2019-08-01T12:34:56",
+    "2019-08-01"
+  })
+  String timestamp;
+
+  private ConvertingCodec<String, Instant> codec;
+  private Instant instant;
+
+  @Setup
+  public void setup() {
+    codec =
+        new ConvertingCodecFactory(new TextConversionContext())
+            .createConvertingCodec(DataTypes.TIMESTAMP, GenericType.STRING, true);
+    instant = codec.externalToInternal(timestamp);
+  }
+
+  @Benchmark
+  public Instant parse() {
+    return codec.externalToInternal(timestamp);
+  }
+
+  @Benchmark
+  public String format() {
+    return codec.internalToExternal(instant);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.type.DefaultVectorType;
+import com.datastax.oss.driver.internal.core.type.codec.VectorCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonCodecUtils;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonNodeConvertingCodecProvider;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonNodeToVectorCodec;
+import com.datastax.oss.dsbulk.codecs.text.string.StringToVectorCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conversion of {@code vector<float, n>} values between their textual or JSON forms
+ * and their binary form, in both directions, for typical embedding dimensions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VectorCodecsBenchmark {
+
+  @Param({"128", "768", "1536"})
+  int dimensions;
+
+  private StringToVectorCodec<Float> stringCodec;
+  private JsonNodeToVectorCodec<Float> jsonCodec;
+  private String literal;
+  private JsonNode node;
+  private ByteBuffer bytes;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    VectorCodec<Float> vectorCodec =
+        new VectorCodec<>(new DefaultVectorType(DataTypes.FLOAT, dimensions), TypeCodecs.FLOAT);
+    ObjectMapper objectMapper = JsonCodecUtils.getObjectMapper();
+    stringCodec = new StringToVectorCodec<>(vectorCodec, Collections.emptyList());
+    jsonCodec =
+        new JsonNodeToVectorCodec<>(
+            vectorCodec,
+            (ConvertingCodec<JsonNode, Float>)
+                new JsonNodeConvertingCodecProvider()
+                    .maybeProvide(
+                        DataTypes.FLOAT,
+                        GenericType.of(JsonNode.class),
+                        new ConvertingCodecFactory(),
+                        false)
+                    .orElseThrow(IllegalStateException::new),
+            objectMapper,
+            Collections.emptyList());
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < dimensions; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      // embeddings are usually normalized, with values in [-1, 1]
+      sb.append(random.nextFloat() * 2 - 1);
+    }
+    literal = sb.append(']').toString();
+    try {
+      node = objectMapper.readTree(literal);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    bytes = stringCodec.encode(literal, ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeString() {
+    return stringCodec.encode(literal, ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public String decodeString() {
+    return stringCodec.decode(bytes.duplicate(), ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public ByteBuffer encodeJson() {
+    return jsonCodec.encode(node, ProtocolVersion.DEFAULT);
+  }
+
+  @Benchmark
+  public JsonNode decodeJson() {
+    return jsonCodec.decode(bytes.duplicate(), ProtocolVersion.DEFAULT);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.univocity.parsers.common.record.Record;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the parsing of a CSV file by univocity's {@link CsvParser}, which decodes the whole
+ * input into characters before parsing it, with {@link CSVByteTokenizer}, which tokenizes raw bytes
+ * and only decodes field contents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CSVTokenizerBenchmark {
+
+  private static final int RECORDS = 10_000;
+
+  /** The percentage of quoted values; one in ten quoted values contains an escaped quote. */
+  @Param({"0", "20"})
+  int quotedPercent;
+
+  private byte[] input;
+  private CsvParserSettings settings;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < RECORDS; i++) {
+      sb.append(i).append(',');
+      sb.append(random.nextLong()).append(',');
+      for (int j = 0; j < 4; j++) {
+        String text = "text value " + random.nextInt(100_000);
+        if (random.nextInt(100) < quotedPercent) {
+          sb.append('"').append(text);
+          if (random.nextInt(10) == 0) {
+            sb.append("\\\"");
+          }
+          sb.append(", quoted\"");
+        } else {
+          sb.append(text);
+        }
+        sb.append(',');
+      }
+      sb.append("2020-01-01T00:00:00Z\n");
+    }
+    input = sb.toString().getBytes(UTF_8);
+    // same settings as CSVConnector with its default configuration
+    settings = new CsvParserSettings();
+    settings.getFormat().setQuoteEscape('\\');
+    settings.setNullValue(null);
+    settings.setEmptyValue("");
+    settings.setLineSeparatorDetectionEnabled(true);
+    settings.setMaxCharsPerColumn(4096);
+    settings.setMaxColumns(512);
+    settings.setNormalizeLineEndingsWithinQuotes(false);
+    settings.setIgnoreLeadingWhitespaces(false);
+    settings.setIgnoreTrailingWhitespaces(false);
+    settings.setIgnoreLeadingWhitespacesInQuotes(false);
+    settings.setIgnoreTrailingWhitespacesInQuotes(false);
+  }
+
+  @Benchmark
+  public void parseWithUnivocity(Blackhole bh) {
+    CsvParser parser = new CsvParser(settings);
+    parser.beginParsing(new InputStreamReader(new ByteArrayInputStream(input), UTF_8));
+    Record record;
+    while ((record = parser.parseNextRecord()) != null) {
+      bh.consume(record.getValues());
+    }
+    parser.stopParsing();
+  }
+
+  @Benchmark
+  public void parseWithByteTokenizer(Blackhole bh) throws Exception {
+    try (CSVByteTokenizer tokenizer =
+        new CSVByteTokenizer(new ByteArrayInputStream(input), UTF_8, settings)) {
+      String[] values;
+      while ((values = tokenizer.parseNext()) != null) {
+        bh.consume(values);
+      }
+    }
+  }
+}
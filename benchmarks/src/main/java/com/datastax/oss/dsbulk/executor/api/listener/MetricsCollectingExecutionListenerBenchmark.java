@@ -0,0 +1,111 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.listener;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the contention on read metrics when many threads receive rows concurrently, with metrics
+ * recorded for each row, or once per page.
+ *
+ * <p>Each invocation receives one page of {@link #pageSize} rows; throughput is thus expressed in
+ * pages. Throughput in bytes is not tracked, since computing data sizes costs the same in both
+ * modes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsCollectingExecutionListenerBenchmark {
+
+  private static final Statement<?> STATEMENT = SimpleStatement.newInstance("SELECT * FROM ks.t");
+
+  @Param({"false", "true"})
+  boolean recordReadsPerPage;
+
+  @Param({"100"})
+  int pageSize;
+
+  private MetricsCollectingExecutionListener listener;
+
+  @Setup
+  public void setup() {
+    listener =
+        new MetricsCollectingExecutionListener(
+            new MetricRegistry(),
+            ProtocolVersion.DEFAULT,
+            CodecRegistry.DEFAULT,
+            false,
+            recordReadsPerPage);
+  }
+
+  @State(Scope.Thread)
+  public static class Request {
+
+    private final DefaultExecutionContext context = new DefaultExecutionContext();
+
+    @Setup
+    public void setup() {
+      context.start();
+      context.stop();
+    }
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void receivePage8Threads(Request request) {
+    receivePage(request.context);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void receivePage16Threads(Request request) {
+    receivePage(request.context);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public void receivePage32Threads(Request request) {
+    receivePage(request.context);
+  }
+
+  private void receivePage(ExecutionContext context) {
+    for (int i = 0; i < pageSize; i++) {
+      // rows are not inspected when throughput in bytes is not tracked
+      listener.onRowReceived(null, context);
+    }
+    listener.onPageReceived(STATEMENT, pageSize, context);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log.checkpoint;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of recording the consumed positions of a resource in a {@link RangeSet}, when
+ * positions are completed out of order.
+ *
+ * <p>Reordering is modeled after a {@code flatMap} with a concurrency of {@link #window}: positions
+ * enter an in-flight window in ascending order, and a random in-flight position completes each time
+ * a new one enters. This produces a few long-lived gaps, as well as many short-lived ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RangeSetBenchmark {
+
+  @Param({"1000000"})
+  int positions;
+
+  @Param({"1", "1000", "10000"})
+  int window;
+
+  private long[] completed;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    completed = new long[positions];
+    long[] inFlight = new long[window];
+    int size = 0;
+    int emitted = 0;
+    for (long position = 1; position <= positions; position++) {
+      if (size == window) {
+        int i = random.nextInt(size);
+        completed[emitted++] = inFlight[i];
+        inFlight[i] = inFlight[--size];
+      }
+      inFlight[size++] = position;
+    }
+    while (size > 0) {
+      int i = random.nextInt(size);
+      completed[emitted++] = inFlight[i];
+      inFlight[i] = inFlight[--size];
+    }
+  }
+
+  @Benchmark
+  public RangeSet update() {
+    RangeSet rangeSet = new RangeSet();
+    for (long position : completed) {
+      rangeSet.update(position);
+    }
+    return rangeSet;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinition;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultPreparedStatement;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSetMultimap;
+import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
+import com.datastax.oss.dsbulk.codecs.text.TextConversionContext;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
+import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.FieldTable;
+import com.datastax.oss.dsbulk.mapping.CQLWord;
+import com.datastax.oss.dsbulk.mapping.DefaultMapping;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the mapping of {@link ArrayBackedRecord}s, which goes through precompiled binding plans,
+ * with the mapping of equivalent {@link DefaultRecord}s, which resolves variables and codecs for
+ * every field of every record.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DefaultRecordMapperBenchmark {
+
+  private static final URI RESOURCE = URI.create("file://benchmark.csv");
+
+  @Param({"4", "16", "64"})
+  int columns;
+
+  private DefaultRecordMapper mapper;
+  private Field[] fields;
+  private FieldTable fieldTable;
+  private Object[] values;
+
+  @Setup
+  public void setup() {
+    fields = new Field[columns];
+    values = new Object[columns];
+    ColumnDefinition[] definitions = new ColumnDefinition[columns];
+    ImmutableSetMultimap.Builder<Field, CQLWord> fieldsToVariables = ImmutableSetMultimap.builder();
+    for (int i = 0; i < columns; i++) {
+      String name = "c" + i;
+      fields[i] = new DefaultMappedField(name);
+      // alternate between int and text columns
+      boolean numeric = i % 2 == 0;
+      values[i] = numeric ? String.valueOf(i * 1000) : "value" + i;
+      RawType type =
+          RawType.PRIMITIVES.get(
+              numeric ? ProtocolConstants.DataType.INT : ProtocolConstants.DataType.VARCHAR);
+      definitions[i] =
+          new DefaultColumnDefinition(
+              new ColumnSpec("ks", "t", name, i, type), AttachmentPoint.NONE);
+      fieldsToVariables.put(fields[i], CQLWord.fromInternal(name));
+    }
+    PreparedStatement ps = newPreparedStatement(definitions);
+    mapper =
+        new DefaultRecordMapper(
+            ImmutableList.of(ps),
+            ImmutableSet.of(CQLWord.fromInternal("c0")),
+            ImmutableSet.of(),
+            ProtocolVersion.DEFAULT,
+            new DefaultMapping(
+                fieldsToVariables.build(),
+                new ConvertingCodecFactory(new TextConversionContext()),
+                ImmutableSet.of()),
+            (field, cqlType) -> GenericType.STRING,
+            false,
+            false,
+            false);
+    fieldTable = FieldTable.mapped(fields);
+  }
+
+  @Benchmark
+  public void mapArrayBackedRecord(Blackhole bh) {
+    // records are cleared once mapped, so a new one must be created for each invocation
+    ArrayBackedRecord record = new ArrayBackedRecord(null, RESOURCE, 1, fieldTable, values);
+    mapper.map(record).subscribe(bh::consume);
+  }
+
+  @Benchmark
+  public void mapDefaultRecord(Blackhole bh) {
+    DefaultRecord record = DefaultRecord.mapped(null, RESOURCE, 1, fields, values);
+    mapper.map(record).subscribe(bh::consume);
+  }
+
+  private static PreparedStatement newPreparedStatement(ColumnDefinition[] definitions) {
+    return new DefaultPreparedStatement(
+        ByteBuffer.wrap(new byte[] {1}),
+        "INSERT INTO ks.t ...",
+        DefaultColumnDefinitions.valueOf(Arrays.asList(definitions)),
+        Collections.singletonList(0),
+        null,
+        DefaultColumnDefinitions.valueOf(Collections.emptyList()),
+        null,
+        Collections.emptyMap(),
+        null,
+        null,
+        null,
+        null,
+        null,
+        Collections.emptyMap(),
+        null,
+        null,
+        null,
+        Integer.MIN_VALUE,
+        ConsistencyLevel.LOCAL_ONE,
+        null,
+        false,
+        CodecRegistry.DEFAULT,
+        ProtocolVersion.DEFAULT);
+  }
+}
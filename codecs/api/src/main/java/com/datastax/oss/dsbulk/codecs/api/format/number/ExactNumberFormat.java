@@ -27,9 +27,19 @@ import java.text.ParsePosition;
 public class ExactNumberFormat extends NumberFormat {
 
   private final NumberFormat delegate;
+  private final boolean plainDecimals;
 
   public ExactNumberFormat(NumberFormat delegate) {
     this.delegate = delegate;
+    plainDecimals = CodecUtils.isPlainDecimalFormat(delegate);
+  }
+
+  /**
+   * @return whether plain decimal literals can be parsed without using this format.
+   * @see CodecUtils#isPlainDecimalFormat(NumberFormat)
+   */
+  public boolean parsesPlainDecimals() {
+    return plainDecimals;
   }
 
   @Override
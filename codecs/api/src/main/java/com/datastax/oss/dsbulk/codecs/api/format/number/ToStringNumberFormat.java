@@ -15,6 +15,7 @@
  */
 package com.datastax.oss.dsbulk.codecs.api.format.number;
 
+import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import java.text.FieldPosition;
 import java.text.NumberFormat;
 import java.text.ParsePosition;
@@ -26,9 +27,19 @@ import java.text.ParsePosition;
 public class ToStringNumberFormat extends NumberFormat {
 
   private final NumberFormat delegate;
+  private final boolean plainDecimals;
 
   public ToStringNumberFormat(NumberFormat delegate) {
     this.delegate = delegate;
+    plainDecimals = CodecUtils.isPlainDecimalFormat(delegate);
+  }
+
+  /**
+   * @return whether plain decimal literals can be parsed without using this format.
+   * @see CodecUtils#isPlainDecimalFormat(NumberFormat)
+   */
+  public boolean parsesPlainDecimals() {
+    return plainDecimals;
   }
 
   @Override
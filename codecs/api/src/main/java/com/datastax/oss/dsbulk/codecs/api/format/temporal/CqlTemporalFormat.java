@@ -22,29 +22,327 @@ import static java.time.temporal.ChronoField.NANO_OF_SECOND;
 import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
 import static java.util.Locale.US;
 
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.chrono.IsoChronology;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.time.zone.ZoneRules;
 
 /**
  * A special zoned temporal format that recognizes all valid CQL input formats when parsing.
  *
  * <p>When formatting, this format uses {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} as the
  * formatting pattern, which is compliant with both CQL and ISO-8601.
+ *
+ * <p>The most common layouts, that is, {@code yyyy-MM-dd}, optionally followed by {@code 'T'} or a
+ * blank and {@code HH:mm[:ss[.fffffffff]]}, optionally followed by {@code Z} or a numeric offset,
+ * are parsed and formatted without going through {@link DateTimeFormatter}, which allocates a
+ * significant amount of intermediary objects per value. All other inputs, including invalid ones,
+ * are handed to the full parser, so results and errors are the same.
  */
 public class CqlTemporalFormat extends ZonedTemporalFormat {
 
   public static final CqlTemporalFormat DEFAULT_INSTANCE = new CqlTemporalFormat(ZoneId.of("UTC"));
 
+  private static final int SECONDS_PER_DAY = 86400;
+
+  /** The maximum absolute offset accepted by {@link ZoneOffset}. */
+  private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+  /** Returned by the fast parser when the input does not contain a time zone. */
+  private static final int NO_OFFSET = Integer.MIN_VALUE;
+
+  private final ZoneId timeZone;
+  private final ZoneRules rules;
+
+  /** The offset of the time zone, if fixed, or {@link #NO_OFFSET}. */
+  private final int fixedOffset;
+
   public CqlTemporalFormat(@NonNull ZoneId timeZone) {
     super(createParser(), createFormatter(timeZone), timeZone);
+    this.timeZone = timeZone;
+    rules = timeZone.getRules();
+    fixedOffset =
+        rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : NO_OFFSET;
+  }
+
+  @Override
+  public TemporalAccessor parse(String text) {
+    if (text == null || text.isEmpty()) {
+      return null;
+    }
+    TemporalAccessor temporal = parseCommonLayout(text, false);
+    return temporal == null ? super.parse(text) : temporal;
+  }
+
+  /**
+   * Parses the given string directly as an {@link Instant}; this is equivalent to, but cheaper
+   * than, parsing it with {@link #parse(String)} and converting the result to an instant.
+   *
+   * @param text the string to parse, may be {@code null}.
+   * @return an {@link Instant} or {@code null} if the string was {@code null} or empty.
+   * @throws DateTimeException if the string cannot be parsed.
+   */
+  @Nullable
+  public Instant parseInstant(String text) {
+    if (text == null || text.isEmpty()) {
+      return null;
+    }
+    TemporalAccessor temporal = parseCommonLayout(text, true);
+    if (temporal == null) {
+      temporal = super.parse(text);
+    }
+    return Instant.from(temporal);
+  }
+
+  @Override
+  public String format(TemporalAccessor temporal) {
+    if (temporal instanceof Instant) {
+      String formatted = formatInstant((Instant) temporal);
+      if (formatted != null) {
+        return formatted;
+      }
+    }
+    return super.format(temporal);
+  }
+
+  /**
+   * Parses the common CQL layouts.
+   *
+   * @param s The string to parse.
+   * @param instant Whether to return an {@link Instant}; otherwise, the result is a {@link
+   *     ZonedDateTime}, in the input's offset if any, or in the default time zone otherwise, as it
+   *     would be obtained from the full parser.
+   * @return the parsed temporal, or {@code null} if the input does not use a common layout, or is
+   *     invalid.
+   */
+  @Nullable
+  private TemporalAccessor parseCommonLayout(String s, boolean instant) {
+    int length = s.length();
+    // yyyy-MM-dd; years with more than 4 digits, or signed, are left to the full parser
+    if (length < 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+      return null;
+    }
+    int year = parseDigits(s, 0, 4);
+    int month = parseDigits(s, 5, 2);
+    int day = parseDigits(s, 8, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+      return null;
+    }
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int nano = 0;
+    int i = 10;
+    // ['T'|' ']HH:mm[:ss[.fffffffff]]
+    if (i + 6 <= length && (s.charAt(i) == 'T' || s.charAt(i) == ' ') && isDigit(s.charAt(i + 1))) {
+      hour = parseDigits(s, i + 1, 2);
+      minute = s.charAt(i + 3) == ':' ? parseDigits(s, i + 4, 2) : -1;
+      if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+        return null;
+      }
+      i += 6;
+      if (i < length && s.charAt(i) == ':') {
+        second = i + 3 <= length ? parseDigits(s, i + 1, 2) : -1;
+        if (second < 0 || second > 59) {
+          return null;
+        }
+        i += 3;
+        if (i < length && s.charAt(i) == '.') {
+          int start = ++i;
+          while (i < length && i - start < 9 && isDigit(s.charAt(i))) {
+            nano = nano * 10 + (s.charAt(i++) - '0');
+          }
+          if (i == start) {
+            return null;
+          }
+          for (int digits = i - start; digits < 9; digits++) {
+            nano *= 10;
+          }
+        }
+      }
+    }
+    // Z, +HH:MM, +HHMM or +HH
+    int offset = NO_OFFSET;
+    if (i < length) {
+      char c = s.charAt(i);
+      if (c == 'Z') {
+        offset = 0;
+        i++;
+      } else if ((c == '+' || c == '-') && i + 3 <= length) {
+        int offsetHours = parseDigits(s, i + 1, 2);
+        int offsetMinutes = 0;
+        i += 3;
+        if (i + 3 <= length && s.charAt(i) == ':') {
+          offsetMinutes = parseDigits(s, i + 1, 2);
+          i += 3;
+        } else if (i + 2 <= length && isDigit(s.charAt(i))) {
+          offsetMinutes = parseDigits(s, i, 2);
+          i += 2;
+        }
+        if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59) {
+          return null;
+        }
+        offset = offsetHours * 3600 + offsetMinutes * 60;
+        if (offset > MAX_OFFSET_SECONDS) {
+          return null;
+        }
+        if (c == '-') {
+          offset = -offset;
+        }
+      }
+    }
+    if (i != length) {
+      return null;
+    }
+    long localSeconds =
+        toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    if (instant) {
+      if (offset == NO_OFFSET) {
+        offset = fixedOffset;
+      }
+      if (offset != NO_OFFSET) {
+        return Instant.ofEpochSecond(localSeconds - offset, nano);
+      }
+    }
+    LocalDateTime local = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    // same as ZonedTemporalFormat when the input has no time zone
+    ZoneId zone = offset == NO_OFFSET ? timeZone : ZoneOffset.ofTotalSeconds(offset);
+    ZonedDateTime zoned = ZonedDateTime.of(local, zone);
+    return instant ? zoned.toInstant() : zoned;
+  }
+
+  /**
+   * Formats the given instant as {@link DateTimeFormatter#ISO_OFFSET_DATE_TIME} would, in the
+   * default time zone.
+   *
+   * @return the formatted instant, or {@code null} if its year does not have exactly 4 digits.
+   */
+  @Nullable
+  private String formatInstant(Instant instant) {
+    long epochSecond = instant.getEpochSecond();
+    int offset =
+        fixedOffset == NO_OFFSET ? rules.getOffset(instant).getTotalSeconds() : fixedOffset;
+    long localSeconds = epochSecond + offset;
+    long epochDay = Math.floorDiv(localSeconds, SECONDS_PER_DAY);
+    int secondOfDay = (int) Math.floorMod(localSeconds, SECONDS_PER_DAY);
+    // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+    long z = epochDay + 719468;
+    long era = Math.floorDiv(z, 146097);
+    int dayOfEra = (int) (z - era * 146097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    if (year < 0 || year > 9999) {
+      return null;
+    }
+    // yyyy-MM-ddTHH:mm:ss.fffffffff+HH:MM:ss
+    char[] chars = new char[38];
+    appendDigits(chars, 0, (int) year, 4);
+    chars[4] = '-';
+    appendDigits(chars, 5, month, 2);
+    chars[7] = '-';
+    appendDigits(chars, 8, day, 2);
+    chars[10] = 'T';
+    appendDigits(chars, 11, secondOfDay / 3600, 2);
+    chars[13] = ':';
+    appendDigits(chars, 14, secondOfDay / 60 % 60, 2);
+    chars[16] = ':';
+    appendDigits(chars, 17, secondOfDay % 60, 2);
+    int i = 19;
+    int nano = instant.getNano();
+    if (nano != 0) {
+      chars[i++] = '.';
+      int digits = 9;
+      while (nano % 10 == 0) {
+        nano /= 10;
+        digits--;
+      }
+      appendDigits(chars, i, nano, digits);
+      i += digits;
+    }
+    if (offset == 0) {
+      chars[i++] = 'Z';
+    } else {
+      chars[i++] = offset < 0 ? '-' : '+';
+      int absOffset = Math.abs(offset);
+      appendDigits(chars, i, absOffset / 3600, 2);
+      chars[i + 2] = ':';
+      appendDigits(chars, i + 3, absOffset / 60 % 60, 2);
+      i += 5;
+      if (absOffset % 60 != 0) {
+        chars[i] = ':';
+        appendDigits(chars, i + 1, absOffset % 60, 2);
+        i += 3;
+      }
+    }
+    return new String(chars, 0, i);
+  }
+
+  /** @return the value of the given number of ASCII digits, or -1 if they are not all digits. */
+  private static int parseDigits(String s, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      char c = s.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static void appendDigits(char[] chars, int start, int value, int count) {
+    for (int i = start + count - 1; i >= start; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /** Days from civil, see http://howardhinnant.github.io/date_algorithms.html */
+  private static long toEpochDay(int year, int month, int day) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = Math.floorDiv(y, 400);
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468;
   }
 
   @NonNull
-  private static DateTimeFormatter createParser() {
+  @VisibleForTesting
+  static DateTimeFormatter createParser() {
     // this formatter is a hybrid parser that combines all valid CQL patterns declared in C* 2.2+
     // into a single parser. To achieve that we "cheat" a little bit and accept many optional
     // components that would not make sense together. For example, we accept both 'T' and blank as
@@ -97,7 +395,8 @@ public class CqlTemporalFormat extends ZonedTemporalFormat {
   }
 
   @NonNull
-  private static DateTimeFormatter createFormatter(ZoneId timeZone) {
+  @VisibleForTesting
+  static DateTimeFormatter createFormatter(ZoneId timeZone) {
     return DateTimeFormatter.ISO_OFFSET_DATE_TIME
         .withLocale(US)
         .withResolverStyle(ResolverStyle.STRICT)
@@ -115,55 +115,267 @@ public class CodecUtils {
     if (s == null || s.isEmpty()) {
       return null;
     }
-    Number number;
-    try {
-      // 1) try user-specified patterns
-      number = parseNumber(s, numberFormat);
-    } catch (ParseException e1) {
+    // 1) try plain decimals, if the user-specified patterns would parse them the same way
+    if (parsesPlainDecimals(numberFormat)) {
+      BigDecimal decimal = parsePlainDecimal(s);
+      if (decimal != null) {
+        return decimal;
+      }
+    }
+    // 2) try user-specified patterns
+    Number number = parseNumberOrNull(s, numberFormat, null);
+    if (number == null && isJavaDecimal(s)) {
+      // 3) try new BigDecimal(s)
       try {
-        // 2) try new BigDecimal(s)
         number = new BigDecimal(s);
-      } catch (NumberFormatException e2) {
-        e2.addSuppressed(e1);
-        try {
-          // 3) try Double.valueOf(s)
-          number = Double.valueOf(s);
-        } catch (NumberFormatException e3) {
-          e3.addSuppressed(e2);
-          try {
-            // 4) try a temporal, then convert to units since epoch
-            TemporalAccessor temporal = temporalFormat.parse(s);
-            assert temporal != null;
-            Instant instant = toInstant(temporal, timeZone, epoch.toLocalDate());
-            number = instantToNumber(instant, timeUnit, epoch.toInstant());
-          } catch (DateTimeException e4) {
-            // 5) Lastly, try a boolean word, then convert to number
-            Boolean b = booleanStrings.get(s.toLowerCase());
-            if (b != null) {
-              number = booleanNumbers.get(b ? 0 : 1);
-            } else {
-              e4.addSuppressed(e3);
-              IllegalArgumentException e5 =
-                  new IllegalArgumentException(
-                      String.format(
-                          "Could not parse '%s'; accepted formats are: "
-                              + "a valid number (e.g. '%s'), "
-                              + "a valid Java numeric format (e.g. '-123.45e6'), "
-                              + "a valid date-time pattern (e.g. '%s'), "
-                              + "or a valid boolean word",
-                          s,
-                          formatNumber(1234.56, numberFormat),
-                          temporalFormat.format(Instant.now())));
-              e5.addSuppressed(e4);
-              throw e5;
-            }
-          }
+      } catch (NumberFormatException ignored) {
+        // exponent overflow
+      }
+    }
+    if (number == null && isJavaFloatingPoint(s)) {
+      // 4) try Double.valueOf(s)
+      try {
+        number = Double.valueOf(s);
+      } catch (NumberFormatException ignored) {
+        // malformed hexadecimal literal
+      }
+    }
+    if (number == null) {
+      try {
+        // 5) try a temporal, then convert to units since epoch
+        TemporalAccessor temporal = temporalFormat.parse(s);
+        assert temporal != null;
+        Instant instant = toInstant(temporal, timeZone, epoch.toLocalDate());
+        number = instantToNumber(instant, timeUnit, epoch.toInstant());
+      } catch (DateTimeException e4) {
+        // 6) Lastly, try a boolean word, then convert to number
+        Boolean b = booleanStrings.get(s.toLowerCase());
+        if (b != null) {
+          number = booleanNumbers.get(b ? 0 : 1);
+        } else {
+          throw parseNumberFailure(s, numberFormat, temporalFormat, e4);
         }
       }
     }
     return number;
   }
 
+  /**
+   * Creates the error reported when a string cannot be parsed as a number; the errors raised by
+   * each of the numeric parsers tried are recreated here and attached as suppressed exceptions, as
+   * they are not raised when these parsers are tried in {@link #parseNumber(String, NumberFormat,
+   * TemporalFormat, ZoneId, TimeUnit, ZonedDateTime, Map, List)}.
+   */
+  private static IllegalArgumentException parseNumberFailure(
+      String s,
+      NumberFormat numberFormat,
+      TemporalFormat temporalFormat,
+      DateTimeException temporalError) {
+    ParsePosition pos = new ParsePosition(0);
+    parseNumberOrNull(s, numberFormat, pos);
+    Exception error =
+        new ParseException(
+            "Invalid number format: " + s,
+            pos.getErrorIndex() == -1 ? pos.getIndex() : pos.getErrorIndex());
+    try {
+      new BigDecimal(s);
+    } catch (NumberFormatException e2) {
+      e2.addSuppressed(error);
+      error = e2;
+    }
+    try {
+      Double.valueOf(s);
+    } catch (NumberFormatException e3) {
+      e3.addSuppressed(error);
+      error = e3;
+    }
+    temporalError.addSuppressed(error);
+    IllegalArgumentException e5 =
+        new IllegalArgumentException(
+            String.format(
+                "Could not parse '%s'; accepted formats are: "
+                    + "a valid number (e.g. '%s'), "
+                    + "a valid Java numeric format (e.g. '-123.45e6'), "
+                    + "a valid date-time pattern (e.g. '%s'), "
+                    + "or a valid boolean word",
+                s, formatNumber(1234.56, numberFormat), temporalFormat.format(Instant.now())));
+    e5.addSuppressed(temporalError);
+    return e5;
+  }
+
+  /**
+   * Whether the given format parses plain decimal literals, that is, literals made of an optional
+   * sign, digits and an optional dot, to the same values as {@link BigDecimal#BigDecimal(String)}.
+   *
+   * <p>This is the case for {@link DecimalFormat}s using the dot as their decimal separator and
+   * parsing {@link BigDecimal}s, without affixes other than the minus sign, as the ones created by
+   * {@link #getNumberFormat(String, Locale, RoundingMode, boolean)} for English locales. Other
+   * formats, such as the ones using the dot as their grouping separator, may interpret such
+   * literals differently.
+   *
+   * @param format The format to inspect; cannot be {@code null}.
+   * @return {@code true} if plain decimal literals can be parsed without using the given format.
+   */
+  public static boolean isPlainDecimalFormat(@NonNull NumberFormat format) {
+    if (!(format instanceof DecimalFormat)) {
+      return false;
+    }
+    DecimalFormat decimalFormat = (DecimalFormat) format;
+    DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+    return decimalFormat.isParseBigDecimal()
+        && !decimalFormat.isParseIntegerOnly()
+        && decimalFormat.getMultiplier() == 1
+        && symbols.getDecimalSeparator() == '.'
+        && symbols.getGroupingSeparator() != '.'
+        && symbols.getMinusSign() == '-'
+        && decimalFormat.getPositivePrefix().isEmpty()
+        && decimalFormat.getPositiveSuffix().isEmpty()
+        && decimalFormat.getNegativePrefix().equals("-")
+        && decimalFormat.getNegativeSuffix().isEmpty();
+  }
+
+  private static boolean parsesPlainDecimals(NumberFormat format) {
+    if (format instanceof ExactNumberFormat) {
+      return ((ExactNumberFormat) format).parsesPlainDecimals();
+    }
+    if (format instanceof ToStringNumberFormat) {
+      return ((ToStringNumberFormat) format).parsesPlainDecimals();
+    }
+    // other formats would have to be inspected for every parsed string
+    return false;
+  }
+
+  /**
+   * Parses the given string as a plain decimal literal, that is, an optional sign, followed by
+   * digits and an optional dot, such as {@code 12345} or {@code -1234.56}, without throwing.
+   *
+   * @param s the string to parse; cannot be {@code null}.
+   * @return the same {@link BigDecimal} as {@link BigDecimal#BigDecimal(String)}, including its
+   *     scale, or {@code null} if the string is not a plain decimal literal.
+   */
+  @Nullable
+  public static BigDecimal parsePlainDecimal(@NonNull String s) {
+    int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+      negative = s.charAt(0) == '-';
+      i++;
+    }
+    long unscaled = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean point = false;
+    for (; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        // 18 digits always fit in a long
+        if (digits < 18) {
+          unscaled = unscaled * 10 + (c - '0');
+        }
+        digits++;
+        if (point) {
+          scale++;
+        }
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        return null;
+      }
+    }
+    if (digits == 0) {
+      return null;
+    }
+    if (digits > 18) {
+      // the literal is known to be valid at this point
+      return new BigDecimal(s);
+    }
+    return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+  }
+
+  /** Whether {@link BigDecimal#BigDecimal(String)} accepts the given string. */
+  private static boolean isJavaDecimal(String s) {
+    int length = s.length();
+    int i = skipSign(s, 0);
+    int start = i;
+    i = skipDigits(s, i);
+    boolean digits = i > start;
+    if (i < length && s.charAt(i) == '.') {
+      int fraction = ++i;
+      i = skipDigits(s, i);
+      digits |= i > fraction;
+    }
+    if (!digits) {
+      return false;
+    }
+    if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i = skipSign(s, i + 1);
+      int exponent = i;
+      i = skipDigits(s, i);
+      if (i == exponent) {
+        return false;
+      }
+    }
+    return i == length;
+  }
+
+  /**
+   * Whether {@link Double#valueOf(String)} may accept the given string; this is exact for decimal
+   * literals, but hexadecimal literals are only recognized by their prefix.
+   */
+  private static boolean isJavaFloatingPoint(String s) {
+    int length = s.length();
+    int i = 0;
+    // Double.valueOf trims its input
+    while (i < length && s.charAt(i) <= ' ') {
+      i++;
+    }
+    while (length > i && s.charAt(length - 1) <= ' ') {
+      length--;
+    }
+    i = skipSign(s, i);
+    if (s.startsWith("NaN", i) || s.startsWith("Infinity", i)) {
+      return i + (s.charAt(i) == 'N' ? 3 : 8) == length;
+    }
+    if (s.startsWith("0x", i) || s.startsWith("0X", i)) {
+      return true;
+    }
+    int start = i;
+    i = skipDigits(s, i);
+    boolean digits = i > start;
+    if (i < length && s.charAt(i) == '.') {
+      int fraction = ++i;
+      i = skipDigits(s, i);
+      digits |= i > fraction;
+    }
+    if (!digits) {
+      return false;
+    }
+    if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i = skipSign(s, i + 1);
+      int exponent = i;
+      i = skipDigits(s, i);
+      if (i == exponent) {
+        return false;
+      }
+    }
+    if (i < length && "fFdD".indexOf(s.charAt(i)) != -1) {
+      i++;
+    }
+    return i == length;
+  }
+
+  private static int skipSign(String s, int i) {
+    return i < s.length() && (s.charAt(i) == '-' || s.charAt(i) == '+') ? i + 1 : i;
+  }
+
+  private static int skipDigits(String s, int i) {
+    while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+      i++;
+    }
+    return i;
+  }
+
   /**
    * Attempts to convert the given number to the target class, using loss-less conversions. If the
    * conversion fails, applies the overflow strategy and returns the narrowed number.
@@ -271,12 +483,28 @@ public class CodecUtils {
       return null;
     }
     ParsePosition pos = new ParsePosition(0);
-    Number number = format.parse(s.trim(), pos);
+    Number number = parseNumberOrNull(s, format, pos);
     if (number == null) {
-      throw new ParseException("Invalid number format: " + s, pos.getErrorIndex());
+      throw new ParseException(
+          "Invalid number format: " + s,
+          pos.getErrorIndex() == -1 ? pos.getIndex() : pos.getErrorIndex());
     }
-    if (pos.getIndex() != s.length()) {
-      throw new ParseException("Invalid number format: " + s, pos.getIndex());
+    return number;
+  }
+
+  /**
+   * Parses the given non-empty string using the given {@link NumberFormat}, returning {@code null}
+   * instead of throwing if the entire string cannot be parsed.
+   */
+  @Nullable
+  private static Number parseNumberOrNull(
+      String s, NumberFormat format, @Nullable ParsePosition pos) {
+    if (pos == null) {
+      pos = new ParsePosition(0);
+    }
+    Number number = format.parse(s.trim(), pos);
+    if (number == null || pos.getIndex() != s.length()) {
+      return null;
     }
     return number;
   }
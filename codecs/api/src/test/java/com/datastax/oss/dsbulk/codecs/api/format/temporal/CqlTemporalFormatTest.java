@@ -25,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -34,7 +35,9 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -64,6 +67,121 @@ class CqlTemporalFormatTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  void should_parse_and_format_like_full_formatter() {
+    Random random = new Random(42);
+    List<String> inputs =
+        Lists.newArrayList(
+            "2019-08-01",
+            "2019-08-01Z",
+            "2019-08-01+02:00",
+            "2019-08-01 12:34",
+            "2019-08-01T12:34:56",
+            "2019-08-01T12:34:56.1",
+            "2019-08-01T12:34:56.123456789",
+            "2019-08-01T12:34:56.1234567891",
+            "2019-08-01T12:34:56.",
+            "2019-08-01T12:34:56Z",
+            "2019-08-01T12:34:56+0200",
+            "2019-08-01T12:34:56-02",
+            "2019-08-01T12:34:56+18:00",
+            "2019-08-01T12:34:56+19:00",
+            "2019-08-01T12:34:56+02:00:30",
+            "2019-08-01T12:34:56 UTC",
+            "2019-08-01T12:34:56 CEST",
+            "2019-08-01T 12:34:56",
+            "2019-08-01T",
+            "2019-08-01 ",
+            " 2019-08-01",
+            "+12019-08-01",
+            "0000-01-01T00:00",
+            "2019-02-29",
+            "2020-02-29",
+            "2100-02-29",
+            "2019-13-01",
+            "2019-04-31",
+            "2019-08-01T24:00",
+            "2019-08-01T23:60",
+            "2019-08-01T23:59:60",
+            "2019-08-01T1:00",
+            "2019-03-31T02:30",
+            "2019-10-27T02:30",
+            "2019-8-1");
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder sb =
+          new StringBuilder(
+              String.format(
+                  "%04d-%02d-%02d",
+                  random.nextInt(10000), 1 + random.nextInt(12), 1 + random.nextInt(31)));
+      if (random.nextBoolean()) {
+        sb.append(random.nextBoolean() ? 'T' : ' ')
+            .append(String.format("%02d:%02d", random.nextInt(25), random.nextInt(60)));
+        if (random.nextBoolean()) {
+          sb.append(String.format(":%02d", random.nextInt(60)));
+          if (random.nextBoolean()) {
+            sb.append('.').append(random.nextInt(1000000000));
+          }
+        }
+      }
+      switch (random.nextInt(5)) {
+        case 0:
+          sb.append('Z');
+          break;
+        case 1:
+          sb.append(String.format("%+03d:%02d", random.nextInt(37) - 18, random.nextInt(60)));
+          break;
+        case 2:
+          sb.append(String.format("%+03d%02d", random.nextInt(37) - 18, random.nextInt(60)));
+          break;
+        default:
+      }
+      inputs.add(sb.toString());
+    }
+    for (ZoneId zone : ZONES) {
+      CqlTemporalFormat format = new CqlTemporalFormat(zone);
+      ZonedTemporalFormat reference =
+          new ZonedTemporalFormat(
+              CqlTemporalFormat.createParser(), CqlTemporalFormat.createFormatter(zone), zone);
+      for (String input : inputs) {
+        Object expected;
+        try {
+          TemporalAccessor temporal = reference.parse(input);
+          expected = ZonedDateTime.from(temporal);
+        } catch (DateTimeException e) {
+          expected = e.getMessage();
+        }
+        Object actual;
+        Object actualInstant;
+        try {
+          actual = ZonedDateTime.from(format.parse(input));
+        } catch (DateTimeException e) {
+          actual = e.getMessage();
+        }
+        try {
+          actualInstant = format.parseInstant(input);
+        } catch (DateTimeException e) {
+          actualInstant = e.getMessage();
+        }
+        assertThat(actual).as("'%s' with zone %s", input, zone).isEqualTo(expected);
+        assertThat(actualInstant)
+            .as("'%s' with zone %s", input, zone)
+            .isEqualTo(
+                expected instanceof ZonedDateTime
+                    ? ((ZonedDateTime) expected).toInstant()
+                    : expected);
+      }
+      for (int i = 0; i < 2000; i++) {
+        Instant instant =
+            Instant.ofEpochSecond(
+                random.nextLong() % 400_000_000_000L,
+                random.nextBoolean() ? 0 : random.nextInt(1_000_000_000));
+        assertThat(format.format(instant))
+            .as("%s with zone %s", instant, zone)
+            .isEqualTo(reference.format(instant));
+      }
+    }
+  }
+
   // all valid CQL patterns, as used in Cassandra 2.2+
   private static final List<String> PATTERNS =
       Lists.newArrayList(
@@ -45,6 +45,8 @@ import static java.time.Instant.ofEpochMilli;
 import static java.time.Instant.ofEpochSecond;
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZoneOffset.ofHours;
+import static java.util.Locale.FRANCE;
+import static java.util.Locale.GERMANY;
 import static java.util.Locale.US;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.HOURS;
@@ -70,6 +72,8 @@ import com.datastax.oss.driver.api.core.uuid.Uuids;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.api.format.number.ExactNumberFormat;
+import com.datastax.oss.dsbulk.codecs.api.format.number.ToStringNumberFormat;
 import com.datastax.oss.dsbulk.codecs.api.format.temporal.TemporalFormat;
 import io.netty.util.concurrent.FastThreadLocal;
 import java.math.BigDecimal;
@@ -87,6 +91,7 @@ import java.time.ZonedDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -288,6 +293,189 @@ class CodecUtilsTest {
         .hasMessageContaining("Invalid number format: 0.1234 ABC");
   }
 
+  @Test
+  void should_parse_plain_decimal() {
+    for (String s :
+        new String[] {
+          "0",
+          "-0",
+          "+5",
+          "007",
+          "1.",
+          ".5",
+          "-.5",
+          "1.50",
+          "-0.0",
+          "123456789012345678",
+          "-999999999999999999",
+          "1234567890123456789",
+          "-12345678901234567890.123456789"
+        }) {
+      // BigDecimal.equals also compares scales
+      assertThat(CodecUtils.parsePlainDecimal(s)).as(s).isEqualTo(new BigDecimal(s));
+    }
+    for (String s :
+        new String[] {
+          "", "-", "+", ".", "-.", "1..2", "1.2.3", "1e5", " 1", "1 ", "1,000", "--1", "0x10",
+          "\u0661"
+        }) {
+      assertThat(CodecUtils.parsePlainDecimal(s)).as(s).isNull();
+    }
+  }
+
+  @Test
+  void should_detect_plain_decimal_formats() {
+    assertThat(((ExactNumberFormat) numberFormat1).parsesPlainDecimals()).isTrue();
+    assertThat(((ExactNumberFormat) numberFormat2).parsesPlainDecimals()).isTrue();
+    assertThat(((ToStringNumberFormat) numberFormat4).parsesPlainDecimals()).isTrue();
+    assertThat(
+            ((ExactNumberFormat) CodecUtils.getNumberFormat("#,###.##", GERMANY, HALF_EVEN, true))
+                .parsesPlainDecimals())
+        .isFalse();
+    assertThat(
+            ((ExactNumberFormat) CodecUtils.getNumberFormat("#,###.##", FRANCE, HALF_EVEN, true))
+                .parsesPlainDecimals())
+        .isFalse();
+    assertThat(
+            ((ExactNumberFormat) CodecUtils.getNumberFormat("#,###.##%", US, HALF_EVEN, true))
+                .parsesPlainDecimals())
+        .isFalse();
+  }
+
+  @Test
+  void should_parse_number_like_exception_driven_parsers() {
+    List<NumberFormat> formats =
+        Lists.newArrayList(
+            numberFormat1,
+            numberFormat2,
+            numberFormat3,
+            numberFormat4,
+            CodecUtils.getNumberFormat("#,###.##", GERMANY, HALF_EVEN, true),
+            CodecUtils.getNumberFormat("#,###.##", FRANCE, HALF_EVEN, true),
+            CodecUtils.getNumberFormat("#,###.##%", US, HALF_EVEN, true));
+    List<String> inputs =
+        Lists.newArrayList(
+            "-123456.78",
+            "-123,456.78",
+            "1.234,56",
+            "1,234.123E78",
+            "1e5",
+            "1E5",
+            "1e0000000001",
+            "1e99999999999",
+            "0x1.fffP+1023",
+            "0x1.fffQ",
+            "+Infinity",
+            "-Infinity",
+            "NaN",
+            " 12 ",
+            "12d",
+            "1.5f",
+            "50%",
+            "2017-12-05T12:44:36+01:00",
+            "2017-12-05",
+            "TRUE",
+            "false",
+            "not a number",
+            "-",
+            ".",
+            "1.2.3");
+    Random random = new Random(42);
+    String chars = "0123456789.,-+eE ";
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder sb = new StringBuilder();
+      int length = 1 + random.nextInt(12);
+      for (int j = 0; j < length; j++) {
+        // mostly digits, with a sprinkle of separators, signs and exponents
+        sb.append(
+            chars.charAt(
+                random.nextInt(4) == 0 ? random.nextInt(chars.length()) : random.nextInt(10)));
+      }
+      inputs.add(sb.toString());
+    }
+    for (NumberFormat format : formats) {
+      for (String input : inputs) {
+        Object expected;
+        try {
+          expected = parseNumberWithExceptions(input, format);
+        } catch (IllegalArgumentException e) {
+          expected = IllegalArgumentException.class;
+        }
+        Object actual;
+        try {
+          actual =
+              parseNumber(
+                  input,
+                  format,
+                  timestampFormat1,
+                  UTC,
+                  MILLISECONDS,
+                  EPOCH.atZone(UTC),
+                  booleanInputWords,
+                  booleanNumbers);
+        } catch (IllegalArgumentException e) {
+          actual = IllegalArgumentException.class;
+        }
+        // BigDecimal.equals also compares scales
+        assertThat(actual).as("'%s'", input).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void should_report_all_parse_errors() {
+    assertThatThrownBy(
+            () ->
+                parseNumber(
+                    "not a number",
+                    numberFormat1,
+                    timestampFormat1,
+                    UTC,
+                    MILLISECONDS,
+                    EPOCH.atZone(UTC),
+                    booleanInputWords,
+                    booleanNumbers))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Could not parse 'not a number'; accepted formats are: ")
+        .satisfies(
+            e -> {
+              Throwable temporal = e.getSuppressed()[0];
+              assertThat(temporal).isInstanceOf(DateTimeException.class);
+              Throwable doubleError = temporal.getSuppressed()[0];
+              assertThat(doubleError).isInstanceOf(NumberFormatException.class);
+              Throwable decimalError = doubleError.getSuppressed()[0];
+              assertThat(decimalError).isInstanceOf(NumberFormatException.class);
+              assertThat(decimalError.getSuppressed()[0]).isInstanceOf(ParseException.class);
+            });
+  }
+
+  /** The number parsing chain as it was implemented with exceptions, used as a reference. */
+  private Number parseNumberWithExceptions(String s, NumberFormat numberFormat) {
+    try {
+      return parseNumber(s, numberFormat);
+    } catch (ParseException e1) {
+      try {
+        return new BigDecimal(s);
+      } catch (NumberFormatException e2) {
+        try {
+          return Double.valueOf(s);
+        } catch (NumberFormatException e3) {
+          try {
+            Instant instant =
+                toInstant(timestampFormat1.parse(s), UTC, EPOCH.atZone(UTC).toLocalDate());
+            return instantToNumber(instant, MILLISECONDS, EPOCH);
+          } catch (DateTimeException e4) {
+            Boolean b = booleanInputWords.get(s.toLowerCase());
+            if (b != null) {
+              return booleanNumbers.get(b ? 0 : 1);
+            }
+            throw new IllegalArgumentException(s);
+          }
+        }
+      }
+    }
+  }
+
   @Test
   void should_format_number() {
     assertThat(formatNumber(null, numberFormat1)).isNull();
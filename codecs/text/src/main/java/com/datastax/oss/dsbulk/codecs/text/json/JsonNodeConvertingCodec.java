@@ -46,7 +46,8 @@ public abstract class JsonNodeConvertingCodec<T> extends ConvertingCodec<JsonNod
     return node == null
         || node.isNull()
         || node.isMissingNode()
-        || (node.isValueNode() && nullStrings.contains(node.asText()));
+        // avoid formatting numeric nodes when there are no null strings to compare against
+        || (!nullStrings.isEmpty() && node.isValueNode() && nullStrings.contains(node.asText()));
   }
 
   /**
@@ -63,6 +64,7 @@ public abstract class JsonNodeConvertingCodec<T> extends ConvertingCodec<JsonNod
    * <p>Do NOT use this method for textual CQL types; use {@link #isNull(JsonNode)} instead.
    */
   protected boolean isNullOrEmpty(JsonNode node) {
-    return isNull(node) || (node.isValueNode() && node.asText().isEmpty());
+    // the textual form of a numeric node is never empty
+    return isNull(node) || (node.isValueNode() && !node.isNumber() && node.asText().isEmpty());
   }
 }
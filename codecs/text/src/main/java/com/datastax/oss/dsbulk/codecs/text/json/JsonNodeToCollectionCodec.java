@@ -47,6 +47,11 @@ public abstract class JsonNodeToCollectionCodec<E, C extends Collection<E>>
     this.emptyCollection = emptyCollection;
   }
 
+  /** @return the codec used to convert the collection's elements. */
+  public ConvertingCodec<JsonNode, E> getElementCodec() {
+    return eltCodec;
+  }
+
   @Override
   public C externalToInternal(JsonNode node) {
     if (isNullOrEmpty(node)) {
@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.codecs.text.json;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.dsbulk.codecs.api.format.temporal.CqlTemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.format.temporal.TemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -42,6 +43,12 @@ public class JsonNodeToInstantCodec extends JsonNodeToTemporalCodec<Instant> {
 
   @Override
   public Instant externalToInternal(JsonNode node) {
+    if (temporalFormat instanceof CqlTemporalFormat) {
+      // avoid intermediary temporals
+      return isNullOrEmpty(node)
+          ? null
+          : ((CqlTemporalFormat) temporalFormat).parseInstant(node.asText());
+    }
     TemporalAccessor temporal = parseTemporalAccessor(node);
     if (temporal == null) {
       return null;
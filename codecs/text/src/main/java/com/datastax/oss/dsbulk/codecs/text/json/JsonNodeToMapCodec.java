@@ -46,6 +46,16 @@ public class JsonNodeToMapCodec<K, V> extends JsonNodeConvertingCodec<Map<K, V>>
     emptyMap = ImmutableMap.of();
   }
 
+  /** @return the codec used to convert the map's keys. */
+  public ConvertingCodec<String, K> getKeyCodec() {
+    return keyCodec;
+  }
+
+  /** @return the codec used to convert the map's values. */
+  public ConvertingCodec<JsonNode, V> getValueCodec() {
+    return valueCodec;
+  }
+
   @Override
   public Map<K, V> externalToInternal(JsonNode node) {
     if (isNullOrEmpty(node)) {
@@ -15,13 +15,18 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.json;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.data.CqlVector;
+import com.datastax.oss.driver.api.core.type.VectorType;
 import com.datastax.oss.driver.internal.core.type.codec.VectorCodec;
 import com.datastax.oss.driver.shaded.guava.common.collect.Streams;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.text.utils.FloatVectorUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,6 +36,8 @@ public class JsonNodeToVectorCodec<SubtypeT extends Number>
 
   private final ConvertingCodec<JsonNode, SubtypeT> subtypeCodec;
   private final ObjectMapper objectMapper;
+  private final boolean floatVector;
+  private final int dimensions;
 
   public JsonNodeToVectorCodec(
       VectorCodec<SubtypeT> targetCodec,
@@ -40,6 +47,44 @@ public class JsonNodeToVectorCodec<SubtypeT extends Number>
     super(targetCodec, nullStrings);
     this.subtypeCodec = subtypeCodec;
     this.objectMapper = objectMapper;
+    floatVector = FloatVectorUtils.isFloatVector(targetCodec.getCqlType());
+    dimensions = ((VectorType) targetCodec.getCqlType()).getDimensions();
+  }
+
+  @Override
+  public ByteBuffer encode(JsonNode external, @NonNull ProtocolVersion protocolVersion) {
+    if (floatVector && external != null && external.isArray() && external.size() >= dimensions) {
+      // fast path: write the elements straight into the vector's binary form
+      ByteBuffer bytes = ByteBuffer.allocate(dimensions * 4);
+      int i = 0;
+      for (JsonNode element : external) {
+        SubtypeT value = subtypeCodec.externalToInternal(element);
+        if (value == null) {
+          // let the vector codec report the error
+          return super.encode(external, protocolVersion);
+        }
+        if (i < dimensions) {
+          bytes.putFloat(i * 4, value.floatValue());
+        }
+        i++;
+      }
+      return bytes;
+    }
+    return super.encode(external, protocolVersion);
+  }
+
+  @Override
+  public JsonNode decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    if (floatVector && bytes != null && bytes.remaining() == dimensions * 4) {
+      // fast path: read the elements straight from the vector's binary form
+      ArrayNode root = objectMapper.createArrayNode();
+      int position = bytes.position();
+      for (int i = 0; i < dimensions; i++) {
+        root.add(bytes.getFloat(position + i * 4));
+      }
+      return root;
+    }
+    return super.decode(bytes, protocolVersion);
   }
 
   @Override
@@ -0,0 +1,138 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.string;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.IOException;
+
+/**
+ * Reads the elements of a Json array or object one at a time, without materializing the enclosing
+ * container.
+ *
+ * <p>Each element is returned as a {@link JsonNode} identical to the one that {@link
+ * ObjectMapper#readTree(String)} would have produced for it: scalar nodes are created directly from
+ * the current token, while nested containers are read with the object mapper.
+ */
+final class JsonElementReader {
+
+  private final ObjectMapper objectMapper;
+  private final ObjectReader subtreeReader;
+  private final JsonNodeFactory nodeFactory;
+  private final boolean failOnTrailingTokens;
+  private final boolean plainNumbers;
+
+  JsonElementReader(@NonNull ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    DeserializationConfig config = objectMapper.getDeserializationConfig();
+    // trailing tokens are checked once the enclosing container has been consumed
+    subtreeReader =
+        objectMapper
+            .readerFor(JsonNode.class)
+            .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    nodeFactory = config.getNodeFactory();
+    failOnTrailingTokens = config.isEnabled(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    plainNumbers =
+        !config.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            && !config.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)
+            && !config.isEnabled(DeserializationFeature.USE_LONG_FOR_INTS);
+  }
+
+  /**
+   * Creates a parser for the given Json document, positioned on its root token.
+   *
+   * @param json The Json document.
+   * @param expected The expected root token, {@link JsonToken#START_ARRAY} or {@link
+   *     JsonToken#START_OBJECT}.
+   * @return A parser positioned on the root token, or {@code null} if the root token is not the
+   *     expected one.
+   */
+  @Nullable
+  JsonParser open(@NonNull String json, @NonNull JsonToken expected) throws IOException {
+    JsonParser parser = objectMapper.createParser(json);
+    if (parser.nextToken() != expected) {
+      parser.close();
+      return null;
+    }
+    return parser;
+  }
+
+  /**
+   * Reads the value the given parser is positioned on; if that value is a container, the parser is
+   * left on its closing token.
+   */
+  @NonNull
+  JsonNode readValue(@NonNull JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        return nodeFactory.textNode(parser.getText());
+      case VALUE_TRUE:
+        return nodeFactory.booleanNode(true);
+      case VALUE_FALSE:
+        return nodeFactory.booleanNode(false);
+      case VALUE_NULL:
+        return nodeFactory.nullNode();
+      case VALUE_NUMBER_INT:
+        if (plainNumbers) {
+          switch (parser.getNumberType()) {
+            case INT:
+              return nodeFactory.numberNode(parser.getIntValue());
+            case LONG:
+              return nodeFactory.numberNode(parser.getLongValue());
+            default:
+              return nodeFactory.numberNode(parser.getBigIntegerValue());
+          }
+        }
+        break;
+      case VALUE_NUMBER_FLOAT:
+        if (plainNumbers && parser.getNumberTypeFP() == JsonParser.NumberTypeFP.UNKNOWN) {
+          return nodeFactory.numberNode(parser.getDoubleValue());
+        }
+        break;
+      default:
+        break;
+    }
+    return subtreeReader.readTree(parser);
+  }
+
+  /**
+   * Checks, once the root container has been consumed, that the document has no trailing tokens,
+   * unless the object mapper allows them.
+   */
+  void checkNoTrailingTokens(@NonNull JsonParser parser) throws IOException {
+    if (failOnTrailingTokens) {
+      JsonToken trailing = parser.nextToken();
+      if (trailing != null) {
+        throw MismatchedInputException.from(
+            parser,
+            JsonNode.class,
+            String.format(
+                "Trailing token (of type %s) found after value: not allowed as per "
+                    + "`DeserializationFeature.FAIL_ON_TRAILING_TOKENS`",
+                trailing));
+      }
+    }
+  }
+}
@@ -15,13 +15,24 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.SetType;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonNodeToCollectionCodec;
 import com.datastax.oss.dsbulk.codecs.text.utils.StringUtils;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 public abstract class StringToCollectionCodec<E, C extends Collection<E>>
@@ -29,12 +40,81 @@ public abstract class StringToCollectionCodec<E, C extends Collection<E>>
 
   private final ConvertingCodec<JsonNode, C> jsonCodec;
   private final ObjectMapper objectMapper;
+  private final ConvertingCodec<JsonNode, E> eltCodec;
+  private final JsonElementReader elementReader;
+  private final boolean distinct;
 
   StringToCollectionCodec(
       ConvertingCodec<JsonNode, C> jsonCodec, ObjectMapper objectMapper, List<String> nullStrings) {
     super(jsonCodec.getInternalCodec(), nullStrings);
     this.jsonCodec = jsonCodec;
     this.objectMapper = objectMapper;
+    eltCodec =
+        jsonCodec instanceof JsonNodeToCollectionCodec
+            ? ((JsonNodeToCollectionCodec<E, C>) jsonCodec).getElementCodec()
+            : null;
+    elementReader = new JsonElementReader(objectMapper);
+    distinct = jsonCodec.getCqlType() instanceof SetType;
+  }
+
+  /**
+   * Encodes the given string directly into the collection's binary form.
+   *
+   * <p>Elements are read one at a time from the Json array, converted and serialized, without
+   * materializing the Json tree or the intermediary Java collection. Sets are de-duplicated on the
+   * serialized form of their elements.
+   *
+   * <p>Invalid inputs are handed over to the regular conversion path, so that errors are reported
+   * in the same way, and with the same precedence.
+   */
+  @Override
+  public ByteBuffer encode(String external, @NonNull ProtocolVersion protocolVersion) {
+    if (eltCodec != null && !isNullOrEmpty(external)) {
+      try {
+        ByteBuffer bytes = encodeElements(external, protocolVersion);
+        if (bytes != null) {
+          return bytes;
+        }
+      } catch (IOException | RuntimeException ignored) {
+        // the regular conversion path will report the error
+      }
+    }
+    return super.encode(external, protocolVersion);
+  }
+
+  @Nullable
+  private ByteBuffer encodeElements(String external, ProtocolVersion protocolVersion)
+      throws IOException {
+    TypeCodec<E> eltInternalCodec = eltCodec.getInternalCodec();
+    Collection<ByteBuffer> elements = distinct ? new LinkedHashSet<>() : new ArrayList<>();
+    try (JsonParser parser =
+        elementReader.open(StringUtils.ensureBrackets(external), JsonToken.START_ARRAY)) {
+      if (parser == null) {
+        return null;
+      }
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        E element = eltCodec.externalToInternal(elementReader.readValue(parser));
+        ByteBuffer bytes =
+            element == null ? null : eltInternalCodec.encode(element, protocolVersion);
+        if (bytes == null) {
+          return null;
+        }
+        elements.add(bytes);
+      }
+      elementReader.checkNoTrailingTokens(parser);
+    }
+    int size = 4;
+    for (ByteBuffer bytes : elements) {
+      size += 4 + bytes.remaining();
+    }
+    ByteBuffer result = ByteBuffer.allocate(size);
+    result.putInt(elements.size());
+    for (ByteBuffer bytes : elements) {
+      result.putInt(bytes.remaining());
+      result.put(bytes.duplicate());
+    }
+    result.flip();
+    return result;
   }
 
   @Override
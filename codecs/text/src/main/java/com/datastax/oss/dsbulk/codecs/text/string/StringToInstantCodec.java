@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.dsbulk.codecs.api.format.temporal.CqlTemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.format.temporal.TemporalFormat;
 import com.datastax.oss.dsbulk.codecs.api.util.CodecUtils;
 import java.time.Instant;
@@ -41,6 +42,10 @@ public class StringToInstantCodec extends StringToTemporalCodec<Instant> {
 
   @Override
   public Instant externalToInternal(String s) {
+    if (temporalFormat instanceof CqlTemporalFormat) {
+      // avoid intermediary temporals
+      return isNullOrEmpty(s) ? null : ((CqlTemporalFormat) temporalFormat).parseInstant(s);
+    }
     TemporalAccessor temporal = parseTemporalAccessor(s);
     if (temporal == null) {
       return null;
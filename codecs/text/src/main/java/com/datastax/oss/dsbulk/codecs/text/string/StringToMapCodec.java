@@ -15,12 +15,21 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodec;
+import com.datastax.oss.dsbulk.codecs.text.json.JsonNodeToMapCodec;
 import com.datastax.oss.dsbulk.codecs.text.utils.StringUtils;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +37,9 @@ public class StringToMapCodec<K, V> extends StringConvertingCodec<Map<K, V>> {
 
   private final ConvertingCodec<JsonNode, Map<K, V>> jsonCodec;
   private final ObjectMapper objectMapper;
+  private final ConvertingCodec<String, K> keyCodec;
+  private final ConvertingCodec<JsonNode, V> valueCodec;
+  private final JsonElementReader elementReader;
 
   public StringToMapCodec(
       ConvertingCodec<JsonNode, Map<K, V>> jsonCodec,
@@ -36,6 +48,80 @@ public class StringToMapCodec<K, V> extends StringConvertingCodec<Map<K, V>> {
     super(jsonCodec.getInternalCodec(), nullStrings);
     this.jsonCodec = jsonCodec;
     this.objectMapper = objectMapper;
+    if (jsonCodec instanceof JsonNodeToMapCodec) {
+      keyCodec = ((JsonNodeToMapCodec<K, V>) jsonCodec).getKeyCodec();
+      valueCodec = ((JsonNodeToMapCodec<K, V>) jsonCodec).getValueCodec();
+    } else {
+      keyCodec = null;
+      valueCodec = null;
+    }
+    elementReader = new JsonElementReader(objectMapper);
+  }
+
+  /**
+   * Encodes the given string directly into the map's binary form.
+   *
+   * <p>Entries are read one at a time from the Json object, converted and serialized, without
+   * materializing the Json tree or the intermediary Java map. Duplicate keys are resolved on the
+   * serialized form of the keys, the last value winning.
+   *
+   * <p>Invalid inputs are handed over to the regular conversion path, so that errors are reported
+   * in the same way, and with the same precedence.
+   */
+  @Override
+  public ByteBuffer encode(String external, @NonNull ProtocolVersion protocolVersion) {
+    if (keyCodec != null && !isNullOrEmpty(external)) {
+      try {
+        ByteBuffer bytes = encodeEntries(external, protocolVersion);
+        if (bytes != null) {
+          return bytes;
+        }
+      } catch (IOException | RuntimeException ignored) {
+        // the regular conversion path will report the error
+      }
+    }
+    return super.encode(external, protocolVersion);
+  }
+
+  @Nullable
+  private ByteBuffer encodeEntries(String external, ProtocolVersion protocolVersion)
+      throws IOException {
+    TypeCodec<K> keyInternalCodec = keyCodec.getInternalCodec();
+    TypeCodec<V> valueInternalCodec = valueCodec.getInternalCodec();
+    Map<ByteBuffer, ByteBuffer> entries = new LinkedHashMap<>();
+    try (JsonParser parser =
+        elementReader.open(StringUtils.ensureBraces(external), JsonToken.START_OBJECT)) {
+      if (parser == null) {
+        return null;
+      }
+      while (parser.nextToken() != JsonToken.END_OBJECT) {
+        K key = keyCodec.externalToInternal(parser.currentName());
+        parser.nextToken();
+        V value = valueCodec.externalToInternal(elementReader.readValue(parser));
+        ByteBuffer keyBytes = key == null ? null : keyInternalCodec.encode(key, protocolVersion);
+        ByteBuffer valueBytes =
+            value == null ? null : valueInternalCodec.encode(value, protocolVersion);
+        if (keyBytes == null || valueBytes == null) {
+          return null;
+        }
+        entries.put(keyBytes, valueBytes);
+      }
+      elementReader.checkNoTrailingTokens(parser);
+    }
+    int size = 4;
+    for (Map.Entry<ByteBuffer, ByteBuffer> entry : entries.entrySet()) {
+      size += 8 + entry.getKey().remaining() + entry.getValue().remaining();
+    }
+    ByteBuffer result = ByteBuffer.allocate(size);
+    result.putInt(entries.size());
+    for (Map.Entry<ByteBuffer, ByteBuffer> entry : entries.entrySet()) {
+      result.putInt(entry.getKey().remaining());
+      result.put(entry.getKey().duplicate());
+      result.putInt(entry.getValue().remaining());
+      result.put(entry.getValue().duplicate());
+    }
+    result.flip();
+    return result;
   }
 
   @Override
@@ -15,15 +15,46 @@
  */
 package com.datastax.oss.dsbulk.codecs.text.string;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.data.CqlVector;
+import com.datastax.oss.driver.api.core.type.VectorType;
 import com.datastax.oss.driver.internal.core.type.codec.VectorCodec;
+import com.datastax.oss.dsbulk.codecs.text.utils.FloatVectorUtils;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class StringToVectorCodec<SubtypeT extends Number>
     extends StringConvertingCodec<CqlVector<SubtypeT>> {
 
+  private final boolean floatVector;
+  private final int dimensions;
+
   public StringToVectorCodec(VectorCodec<SubtypeT> targetCodec, List<String> nullStrings) {
     super(targetCodec, nullStrings);
+    floatVector = FloatVectorUtils.isFloatVector(targetCodec.getCqlType());
+    dimensions = ((VectorType) targetCodec.getCqlType()).getDimensions();
+  }
+
+  @Override
+  public ByteBuffer encode(String external, @NonNull ProtocolVersion protocolVersion) {
+    if (floatVector && external != null) {
+      // fast path: parse the literal straight into the vector's binary form
+      ByteBuffer bytes = FloatVectorUtils.parseFloatVector(external, dimensions);
+      if (bytes != null) {
+        return bytes;
+      }
+    }
+    return super.encode(external, protocolVersion);
+  }
+
+  @Override
+  public String decode(ByteBuffer bytes, @NonNull ProtocolVersion protocolVersion) {
+    if (floatVector && bytes != null && bytes.remaining() == dimensions * 4) {
+      // fast path: format the vector straight from its binary form
+      return FloatVectorUtils.formatFloatVector(bytes, dimensions);
+    }
+    return super.decode(bytes, protocolVersion);
   }
 
   @Override
@@ -0,0 +1,229 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.utils;
+
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.VectorType;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities to parse and format {@code vector<float, N>} values directly from and to their binary
+ * form, that is, N big-endian floats, without going through a {@code CqlVector} of boxed elements.
+ */
+public class FloatVectorUtils {
+
+  private static final double[] POWERS_OF_TEN = new double[23];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  /** The largest mantissa that can be exactly represented by a double. */
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  /** The bits of a double mantissa that are discarded when the double is rounded to a float. */
+  private static final long FLOAT_ROUNDING_MASK = (1L << 29) - 1;
+
+  /** The discarded bits of a double that lies exactly halfway between two floats. */
+  private static final long FLOAT_HALFWAY = 1L << 28;
+
+  /**
+   * @param cqlType The CQL type to inspect.
+   * @return true if the given type is a vector of floats.
+   */
+  public static boolean isFloatVector(@NonNull DataType cqlType) {
+    return cqlType instanceof VectorType
+        && ((VectorType) cqlType).getElementType().equals(DataTypes.FLOAT);
+  }
+
+  /**
+   * Parses a vector literal of the form {@code [1.0, 2.5, ...]} directly into its binary form.
+   *
+   * <p>Extra elements are validated but ignored, as done by the driver's vector codec. This method
+   * returns null if the literal is not a well-formed vector of at least {@code dimensions} numbers;
+   * callers should then resort to the driver's vector codec, which will report the appropriate
+   * error.
+   *
+   * @param s The literal to parse.
+   * @param dimensions The vector dimensions.
+   * @return The vector's binary form, or null if the literal could not be parsed.
+   */
+  @Nullable
+  public static ByteBuffer parseFloatVector(@NonNull String s, int dimensions) {
+    int start = 0;
+    int end = s.length();
+    while (start < end && s.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && s.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (end - start < 2 || s.charAt(start) != '[' || s.charAt(end - 1) != ']') {
+      return null;
+    }
+    start++;
+    end--;
+    ByteBuffer bytes = ByteBuffer.allocate(dimensions * 4);
+    int count = 0;
+    int i = start;
+    while (true) {
+      int comma = i;
+      while (comma < end && s.charAt(comma) != ',') {
+        comma++;
+      }
+      float value;
+      try {
+        value = parseFloat(s, i, comma);
+      } catch (NumberFormatException e) {
+        return null;
+      }
+      if (count < dimensions) {
+        bytes.putFloat(count * 4, value);
+      }
+      count++;
+      if (comma == end) {
+        break;
+      }
+      i = comma + 1;
+    }
+    return count < dimensions ? null : bytes;
+  }
+
+  /**
+   * Formats the binary form of a vector as a literal of the form {@code [1.0, 2.5, ...]}, using the
+   * same format as the driver's vector codec.
+   *
+   * @param bytes The vector's binary form; must contain exactly {@code dimensions} floats.
+   * @param dimensions The vector dimensions.
+   * @return The formatted vector.
+   */
+  @NonNull
+  public static String formatFloatVector(@NonNull ByteBuffer bytes, int dimensions) {
+    StringBuilder sb = new StringBuilder(dimensions * 12 + 2);
+    sb.append('[');
+    int position = bytes.position();
+    for (int i = 0; i < dimensions; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(bytes.getFloat(position + i * 4));
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Parses a float in the given portion of a string, with the same results as {@link
+   * Float#parseFloat(String)}, but without allocating a substring for common decimal literals.
+   *
+   * <p>Decimal literals with up to 15 significant digits and a small exponent are converted with a
+   * single, correctly-rounded floating-point operation; other literals are delegated to {@link
+   * Float#parseFloat(String)}.
+   *
+   * @throws NumberFormatException if the input is not a valid float.
+   */
+  public static float parseFloat(@NonNull CharSequence s, int start, int end) {
+    int i = start;
+    while (i < end && s.charAt(i) <= ' ') {
+      i++;
+    }
+    while (end > i && s.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    boolean negative = false;
+    if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+      negative = s.charAt(i) == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int significantDigits = 0;
+    int scale = 0;
+    boolean anyDigit = false;
+    boolean fraction = false;
+    for (; i < end; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        anyDigit = true;
+        if (mantissa != 0 || c != '0') {
+          if (++significantDigits > 15) {
+            return slowParseFloat(s, start, end);
+          }
+          mantissa = mantissa * 10 + (c - '0');
+        }
+        if (fraction) {
+          scale--;
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+    if (!anyDigit) {
+      return slowParseFloat(s, start, end);
+    }
+    if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+        negativeExponent = s.charAt(i) == '-';
+        i++;
+      }
+      int exponent = 0;
+      int exponentStart = i;
+      for (; i < end; i++) {
+        char c = s.charAt(i);
+        if (c < '0' || c > '9' || exponent > 1000) {
+          break;
+        }
+        exponent = exponent * 10 + (c - '0');
+      }
+      if (i == exponentStart) {
+        return slowParseFloat(s, start, end);
+      }
+      scale += negativeExponent ? -exponent : exponent;
+    }
+    if (i != end) {
+      // suffixes, NaN, Infinity, hexadecimal literals or invalid input
+      return slowParseFloat(s, start, end);
+    }
+    if (mantissa == 0) {
+      return negative ? -0f : 0f;
+    }
+    if (mantissa < MAX_EXACT_MANTISSA && scale >= -22 && scale <= 22) {
+      // both operands are exact, so the result is the correctly-rounded double
+      double d = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+      // rounding the double to a float gives the correctly-rounded float, unless the double is
+      // exactly halfway between two floats, or the float would be subnormal or infinite.
+      if (d >= Float.MIN_NORMAL
+          && d <= Float.MAX_VALUE
+          && (Double.doubleToRawLongBits(d) & FLOAT_ROUNDING_MASK) != FLOAT_HALFWAY) {
+        float f = (float) d;
+        return negative ? -f : f;
+      }
+    }
+    return slowParseFloat(s, start, end);
+  }
+
+  private static float slowParseFloat(CharSequence s, int start, int end) {
+    return Float.parseFloat(s.subSequence(start, end).toString());
+  }
+}
@@ -30,6 +30,7 @@ import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import org.junit.jupiter.api.Test;
 
@@ -104,4 +105,17 @@ public class JsonNodeToVectorCodecTest {
     assertThatThrownBy(() -> dsbulkCodec.encode(tooFewNode, ProtocolVersion.DEFAULT))
         .isInstanceOf(IllegalArgumentException.class);
   }
+
+  @Test
+  void should_encode_and_decode_float_vectors_in_binary_form() {
+    ByteBuffer bytes = vectorCodec.encode(vector, ProtocolVersion.DEFAULT);
+    assertThat(dsbulkCodec.encode(vectorDoc, ProtocolVersion.DEFAULT)).isEqualTo(bytes);
+    assertThat(dsbulkCodec.decode(bytes, ProtocolVersion.DEFAULT)).isEqualTo(vectorDoc);
+    assertThat(dsbulkCodec.encode(null, ProtocolVersion.DEFAULT)).isNull();
+    assertThat(dsbulkCodec.decode(null, ProtocolVersion.DEFAULT)).isNull();
+    ArrayNode withNull = vectorDoc.deepCopy();
+    withNull.set(2, JSON_NODE_FACTORY.nullNode());
+    assertThatThrownBy(() -> dsbulkCodec.encode(withNull, ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
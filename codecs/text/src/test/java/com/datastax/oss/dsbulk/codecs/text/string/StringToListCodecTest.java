@@ -16,7 +16,9 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
@@ -178,4 +180,60 @@ class StringToListCodecTest {
   void should_not_convert_from_invalid_external() {
     assertThat(codec1).cannotConvertFromExternal("[1,\"not a valid double\"]");
   }
+
+  @Test
+  void should_encode_like_intermediary_collection() {
+    for (String input :
+        new String[] {
+          "[1,2,3]",
+          "1,2,3",
+          " [  1 , 2 , 3 ] ",
+          "[1234.56,78900]",
+          "[\"1,234.56\",\"78,900\"]",
+          "[1,1,1]",
+          "[]",
+          "",
+          "NULL"
+        }) {
+      assertEncodesLikeIntermediaryCollection(codec1, input);
+    }
+    for (String input :
+        new String[] {
+          "[\"2016-07-24T20:34:12.999Z\",\"2018-05-25 20:34:12.999+02:00\"]",
+          "['2016-07-24T20:34:12.999Z','2018-05-25 20:34:12.999+02:00']"
+        }) {
+      assertEncodesLikeIntermediaryCollection(codec2, input);
+    }
+    for (String input :
+        new String[] {
+          "[\"foo\",\"bar\"]", "['foo','bar']", "['','']", "['NULL','NULL']", "[[1]]"
+        }) {
+      assertEncodesLikeIntermediaryCollection(codec3, input);
+    }
+  }
+
+  @Test
+  void should_not_encode_invalid_external() {
+    assertThatThrownBy(() -> codec1.encode("[1,\"not a valid double\"]", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> codec1.encode("[1,2", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Could not parse '[1,2' as Json");
+    assertThatThrownBy(() -> codec1.encode("[1] [2]", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Could not parse '[1] [2]' as Json");
+    assertThatThrownBy(() -> codec1.encode("[1,,2]", ProtocolVersion.DEFAULT))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("Collection elements cannot be null");
+  }
+
+  private static <E> void assertEncodesLikeIntermediaryCollection(
+      StringToListCodec<E> codec, String input) {
+    assertThat(codec.encode(input, ProtocolVersion.DEFAULT))
+        .as(input)
+        .isEqualTo(
+            codec
+                .getInternalCodec()
+                .encode(codec.externalToInternal(input), ProtocolVersion.DEFAULT));
+  }
 }
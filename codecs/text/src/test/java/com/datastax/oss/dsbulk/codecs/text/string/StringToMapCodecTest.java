@@ -16,7 +16,9 @@
 package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
@@ -102,6 +104,41 @@ class StringToMapCodecTest {
         .cannotConvertFromExternal("42");
   }
 
+  @Test
+  void should_encode_like_intermediary_map() {
+    for (String input :
+        new String[] {
+          "{1 : [\"foo\", \"bar\"], 2:[\"qix\"]}",
+          "1 : [\"foo\", \"bar\"], 2:[\"qix\"]",
+          "{ '1,234.56' : ['foo'] , '.12' : ['bar']}",
+          "{1: [], 2 :[]}",
+          "{1: ['a'], 2: ['b'], '1.0': ['c']}",
+          "{}",
+          "",
+          "NULL"
+        }) {
+      assertThat(codec.encode(input, ProtocolVersion.DEFAULT))
+          .as(input)
+          .isEqualTo(
+              codec
+                  .getInternalCodec()
+                  .encode(codec.externalToInternal(input), ProtocolVersion.DEFAULT));
+    }
+  }
+
+  @Test
+  void should_not_encode_invalid_external() {
+    assertThatThrownBy(
+            () -> codec.encode("{\"not a valid input\":\"foo\"}", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> codec.encode("42", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Could not parse '42' as Json");
+    assertThatThrownBy(() -> codec.encode("{1: null}", ProtocolVersion.DEFAULT))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("Map values cannot be null");
+  }
+
   private static Map<Double, List<String>> map(
       Double k1, List<String> v1, Double k2, List<String> v2) {
     Map<Double, List<String>> map = new LinkedHashMap<>();
@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.codecs.text.string;
 
 import static com.datastax.oss.dsbulk.tests.assertions.TestAssertions.assertThat;
 
+import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.DataTypes;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.codecs.api.ConversionContext;
@@ -150,4 +151,25 @@ class StringToSetCodecTest {
         .cannotConvertFromExternal("[ \"not a valid array\" : 42 ")
         .cannotConvertFromExternal("[42");
   }
+
+  @Test
+  void should_encode_like_intermediary_collection() {
+    for (String input :
+        new String[] {"[1,2,3]", "1,2,3", "[1,2,1,3,2]", "[1,\"1.0\",1e0]", "[]", "", "NULL"}) {
+      assertEncodesLikeIntermediaryCollection(codec1, input);
+    }
+    for (String input : new String[] {"['foo','bar','foo']", "['','']", "['NULL','NULL']"}) {
+      assertEncodesLikeIntermediaryCollection(codec2, input);
+    }
+  }
+
+  private static <E> void assertEncodesLikeIntermediaryCollection(
+      StringToSetCodec<E> codec, String input) {
+    assertThat(codec.encode(input, ProtocolVersion.DEFAULT))
+        .as(input)
+        .isEqualTo(
+            codec
+                .getInternalCodec()
+                .encode(codec.externalToInternal(input), ProtocolVersion.DEFAULT));
+  }
 }
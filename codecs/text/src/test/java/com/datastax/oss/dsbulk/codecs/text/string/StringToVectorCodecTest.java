@@ -25,6 +25,7 @@ import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
 import com.datastax.oss.driver.internal.core.type.DefaultVectorType;
 import com.datastax.oss.driver.internal.core.type.codec.VectorCodec;
 import com.datastax.oss.driver.shaded.guava.common.collect.Lists;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import org.junit.jupiter.api.Test;
 
@@ -88,4 +89,18 @@ public class StringToVectorCodecTest {
     assertThatThrownBy(() -> dsbulkCodec.encode(tooFewString, ProtocolVersion.DEFAULT))
         .isInstanceOf(IllegalArgumentException.class);
   }
+
+  @Test
+  void should_encode_and_decode_float_vectors_in_binary_form() {
+    ByteBuffer bytes = vectorCodec.encode(vector, ProtocolVersion.DEFAULT);
+    assertThat(dsbulkCodec.encode("[1.1, 2.2, 3.3, 4.4, 5.5]", ProtocolVersion.DEFAULT))
+        .isEqualTo(bytes);
+    assertThat(dsbulkCodec.decode(bytes, ProtocolVersion.DEFAULT))
+        .isEqualTo("[1.1, 2.2, 3.3, 4.4, 5.5]");
+    assertThat(dsbulkCodec.encode("NULL", ProtocolVersion.DEFAULT)).isNull();
+    assertThat(dsbulkCodec.encode("", ProtocolVersion.DEFAULT)).isNull();
+    assertThat(dsbulkCodec.decode(null, ProtocolVersion.DEFAULT)).isEqualTo("NULL");
+    assertThatThrownBy(() -> dsbulkCodec.encode("[1.1, 2.2, abc]", ProtocolVersion.DEFAULT))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
 }
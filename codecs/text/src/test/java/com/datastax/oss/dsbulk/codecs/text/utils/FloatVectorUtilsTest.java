@@ -0,0 +1,137 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.codecs.text.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.data.CqlVector;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.internal.core.type.DefaultVectorType;
+import com.datastax.oss.driver.internal.core.type.codec.VectorCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FloatVectorUtilsTest {
+
+  private final VectorCodec<Float> vectorCodec =
+      new VectorCodec<>(new DefaultVectorType(DataTypes.FLOAT, 3), TypeCodecs.FLOAT);
+
+  @Test
+  void should_detect_float_vectors() {
+    assertThat(FloatVectorUtils.isFloatVector(new DefaultVectorType(DataTypes.FLOAT, 3))).isTrue();
+    assertThat(FloatVectorUtils.isFloatVector(new DefaultVectorType(DataTypes.DOUBLE, 3)))
+        .isFalse();
+    assertThat(FloatVectorUtils.isFloatVector(DataTypes.FLOAT)).isFalse();
+  }
+
+  @Test
+  void should_parse_float_vector() {
+    assertThat(FloatVectorUtils.parseFloatVector("[1.1, -2.5e3, 0]", 3))
+        .isEqualTo(vectorCodec.encode(CqlVector.newInstance(1.1f, -2.5e3f, 0f), null));
+    assertThat(FloatVectorUtils.parseFloatVector(" [ 1.1 ,2.2,3.3 ] ", 3))
+        .isEqualTo(vectorCodec.encode(CqlVector.newInstance(1.1f, 2.2f, 3.3f), null));
+    // extra elements are ignored
+    assertThat(FloatVectorUtils.parseFloatVector("[1, 2, 3, 4]", 3))
+        .isEqualTo(vectorCodec.encode(CqlVector.newInstance(1f, 2f, 3f), null));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "NULL", "1, 2, 3", "[1, 2]", "[]", "[1, 2, abc]", "[1, , 3]"})
+  void should_not_parse_invalid_float_vector(String s) {
+    assertThat(FloatVectorUtils.parseFloatVector(s, 3)).isNull();
+  }
+
+  @Test
+  void should_format_float_vector() {
+    CqlVector<Float> vector = CqlVector.newInstance(1.1f, Float.NaN, -3.0E-10f);
+    ByteBuffer bytes = vectorCodec.encode(vector, ProtocolVersion.DEFAULT);
+    assertThat(FloatVectorUtils.formatFloatVector(bytes, 3)).isEqualTo(vectorCodec.format(vector));
+    assertThat(bytes.remaining()).isEqualTo(12);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "0",
+        "-0",
+        "+1",
+        "1.",
+        ".5",
+        "007.25",
+        "3.4028235E38",
+        "3.4028236E38",
+        "1.0E39",
+        "1.4E-45",
+        "1.17549435E-38",
+        "1.0E-50",
+        "0.1",
+        "16777217",
+        "123456789012345678901234567890",
+        "0.000000000000000000000000000001",
+        "1.00000000000000000001",
+        "NaN",
+        "-Infinity",
+        "1.5f",
+        "0x1.8p1",
+        " 42 "
+      })
+  void should_parse_float_like_jdk(String s) {
+    assertThat(Float.floatToRawIntBits(FloatVectorUtils.parseFloat(s, 0, s.length())))
+        .isEqualTo(Float.floatToRawIntBits(Float.parseFloat(s)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", " ", "-", ".", "e5", "1e", "1e+", "1.2.3", "abc", "1,5"})
+  void should_reject_invalid_float(String s) {
+    assertThatThrownBy(() -> FloatVectorUtils.parseFloat(s, 0, s.length()))
+        .isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  void should_parse_random_floats_like_jdk() {
+    Random random = new Random(42);
+    List<String> literals = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      literals.add(Float.toString(Float.intBitsToFloat(random.nextInt())));
+      literals.add(Float.toString((random.nextFloat() - 0.5f) * 2));
+      // random decimal literals with up to 17 digits and a random exponent
+      StringBuilder sb = new StringBuilder();
+      int digits = 1 + random.nextInt(17);
+      int point = random.nextInt(digits + 1);
+      for (int j = 0; j < digits; j++) {
+        if (j == point) {
+          sb.append('.');
+        }
+        sb.append((char) ('0' + random.nextInt(10)));
+      }
+      sb.append('e').append(random.nextInt(90) - 45);
+      literals.add(sb.toString());
+    }
+    for (String s : literals) {
+      assertThat(Float.floatToRawIntBits(FloatVectorUtils.parseFloat(s, 0, s.length())))
+          .as(s)
+          .isEqualTo(Float.floatToRawIntBits(Float.parseFloat(s)));
+    }
+  }
+}
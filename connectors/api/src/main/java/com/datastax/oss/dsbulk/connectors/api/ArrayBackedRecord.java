@@ -0,0 +1,204 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import com.datastax.oss.driver.shaded.guava.common.base.MoreObjects;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A compact {@link Record} implementation that stores its values in a plain array, and its fields
+ * in a {@link FieldTable} shared with other records of the same layout.
+ *
+ * <p>Compared to {@link DefaultRecord}, this implementation does not allocate any per-field object:
+ * creating a record only requires the values array. Values can be accessed by field position in the
+ * table with {@link #getValue(int)}, which allows consumers to iterate over all fields and values
+ * without any hash lookup.
+ *
+ * <p>Instances of this class are immutable, except for {@link #clear()}.
+ */
+public class ArrayBackedRecord implements Record {
+
+  private static final FieldTable EMPTY_TABLE = FieldTable.indexed(0);
+  private static final Object[] EMPTY_VALUES = new Object[0];
+
+  private final Object source;
+  private final URI resource;
+  private final long position;
+
+  private FieldTable table;
+  private Object[] values;
+
+  /**
+   * Creates a new record.
+   *
+   * @param source the record source (its original form); may be null if the source cannot be
+   *     determined or should not be retained.
+   * @param resource the record resource (where it comes from: file, database, etc).
+   * @param position the record position inside the resource (line number, etc.).
+   * @param table the record fields.
+   * @param values the record values; the array is not copied and should not be modified afterwards.
+   * @throws IllegalArgumentException if the number of values does not match the table.
+   */
+  public ArrayBackedRecord(
+      @Nullable Object source,
+      @NonNull URI resource,
+      long position,
+      @NonNull FieldTable table,
+      @NonNull Object[] values) {
+    if (table.getValueCount() != values.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Expecting record to contain %d fields but found %d.",
+              table.getValueCount(), values.length));
+    }
+    this.source = source;
+    this.resource = resource;
+    this.position = position;
+    this.table = table;
+    this.values = values;
+  }
+
+  @Nullable
+  @Override
+  public Object getSource() {
+    return source;
+  }
+
+  @NonNull
+  @Override
+  public URI getResource() {
+    return resource;
+  }
+
+  @Override
+  public long getPosition() {
+    return position;
+  }
+
+  /** @return the table of fields of this record. */
+  @NonNull
+  public FieldTable getFieldTable() {
+    return table;
+  }
+
+  /**
+   * Returns the value of the field at the given position in this record's {@linkplain
+   * #getFieldTable() field table}.
+   *
+   * @param i The field position, between 0 and {@code getFieldTable().size()} (exclusive).
+   * @return the field value.
+   */
+  @Nullable
+  public Object getValue(int i) {
+    return values[table.getSlot(i)];
+  }
+
+  @NonNull
+  @Override
+  public Set<Field> fields() {
+    return table.fields();
+  }
+
+  @NonNull
+  @Override
+  public Collection<Object> values() {
+    FieldTable table = this.table;
+    Object[] values = this.values;
+    return new AbstractList<Object>() {
+      @Override
+      public Object get(int index) {
+        return values[table.getSlot(index)];
+      }
+
+      @Override
+      public int size() {
+        return table.size();
+      }
+    };
+  }
+
+  @Nullable
+  @Override
+  public Object getFieldValue(@NonNull Field field) {
+    int slot = table.slotOf(field);
+    return slot == -1 ? null : values[slot];
+  }
+
+  @Override
+  public void clear() {
+    table = EMPTY_TABLE;
+    values = EMPTY_VALUES;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder entries = new StringBuilder("[");
+    for (int i = 0; i < table.size(); i++) {
+      if (i > 0) {
+        entries.append(", ");
+      }
+      entries.append(table.getField(i)).append('=').append(getValue(i));
+    }
+    return MoreObjects.toStringHelper(this)
+        .add("source", source)
+        .add("resource", resource)
+        .add("position", position)
+        .add("entries", entries.append(']'))
+        .toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    // only equal to other instances of this class, for symmetry with DefaultRecord, which is only
+    // equal to other maps
+    if (!(o instanceof ArrayBackedRecord)) {
+      return false;
+    }
+    ArrayBackedRecord that = (ArrayBackedRecord) o;
+    if (this.getPosition() != that.getPosition()
+        || !Objects.equals(this.getSource(), that.getSource())
+        || !Objects.equals(this.getResource(), that.getResource())
+        || !this.fields().equals(that.fields())) {
+      return false;
+    }
+    for (int i = 0; i < table.size(); i++) {
+      Field field = table.getField(i);
+      if (!Objects.equals(this.getFieldValue(field), that.getFieldValue(field))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < table.size(); i++) {
+      // same as Map.Entry.hashCode(), for consistency with DefaultRecord
+      hash += table.getField(i).hashCode() ^ Objects.hashCode(getValue(i));
+    }
+    return Objects.hash(hash, source, resource, position);
+  }
+}
@@ -36,5 +36,11 @@ public enum CommonConnectorFeature implements ConnectorFeature {
    * more than once, then data size sampling should be disallowed. This is notably the case when
    * reading live data streams such as {@linkplain System#in standard input}.
    */
-  DATA_SIZE_SAMPLING
+  DATA_SIZE_SAMPLING,
+
+  /**
+   * Indicates that the connector is able to skip the fields that the caller does not need when
+   * reading, see {@link Connector#project(java.util.Set)}.
+   */
+  FIELD_PROJECTION
 }
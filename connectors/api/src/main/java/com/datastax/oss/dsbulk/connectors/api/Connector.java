@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.connectors.api;
 
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Set;
 import java.util.function.Function;
 import org.reactivestreams.Publisher;
 
@@ -32,6 +33,7 @@ import org.reactivestreams.Publisher;
  * <ol>
  *   <li>{@link #configure(Config, boolean, boolean)}
  *   <li>{@link #init()}
+ *   <li>{@link #project(Set)}, optionally, and only when reading
  *   <li>{@link #read()} or {@link #write()}
  *   <li>{@link #close()}
  * </ol>
@@ -182,6 +184,24 @@ public interface Connector extends AutoCloseable {
     return false;
   }
 
+  /**
+   * Restricts the fields of the records emitted by {@link #read()} to the given fields, because the
+   * caller has no use for the other ones. Connectors are then free to skip the parsing, decoding or
+   * materialization of the values of all the other fields.
+   *
+   * <p>Emitted records may still contain other fields, and fields that are absent from the data
+   * source must not be reported as present; in other words, projections may reduce the fields of a
+   * record, but may never add fields to it.
+   *
+   * <p>This method should only be called if the connector {@linkplain #supports(ConnectorFeature)
+   * supports} {@link CommonConnectorFeature#FIELD_PROJECTION}, after the connector is properly
+   * {@link #configure(Config, boolean, boolean) configured} and {@link #init() initialized}, and
+   * before {@link #read()} is called. The default implementation does nothing.
+   *
+   * @param fields the fields that emitted records need to contain.
+   */
+  default void project(@NonNull Set<Field> fields) {}
+
   /**
    * Returns metadata about the records that this connector can read or write.
    *
@@ -0,0 +1,208 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable table of fields, shared by all the {@link ArrayBackedRecord}s that have the same
+ * layout, typically all the records of a given resource.
+ *
+ * <p>A table maps each of its fields to a slot in the records' value arrays. Several fields can
+ * share the same slot: this is the case for tables created with {@link #mappedAndIndexed}, where
+ * each value is accessible both by name and by index.
+ *
+ * <p>Lookups by {@linkplain IndexedField index} are resolved in constant time, without hashing;
+ * lookups by {@linkplain MappedField name} are resolved with a single hash lookup.
+ */
+public final class FieldTable {
+
+  private static final FieldTable EMPTY = new FieldTable(new Field[0], new int[0], 0, false);
+
+  /**
+   * Returns a table of {@code size} {@linkplain IndexedField indexed fields}, numbered from 0 to
+   * {@code size - 1}.
+   *
+   * @param size The number of fields.
+   * @return A table of indexed fields.
+   */
+  @NonNull
+  public static FieldTable indexed(int size) {
+    if (size == 0) {
+      return EMPTY;
+    }
+    Field[] fields = new Field[size];
+    int[] slots = new int[size];
+    for (int i = 0; i < size; i++) {
+      fields[i] = new DefaultIndexedField(i);
+      slots[i] = i;
+    }
+    return new FieldTable(fields, slots, size, true);
+  }
+
+  /**
+   * Returns a table of the given fields, in the given order; the n-th field is bound to the n-th
+   * value.
+   *
+   * @param fields The fields; must not contain duplicates.
+   * @return A table of the given fields.
+   */
+  @NonNull
+  public static FieldTable mapped(@NonNull Field... fields) {
+    int[] slots = new int[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      slots[i] = i;
+    }
+    return new FieldTable(fields.clone(), slots, fields.length, false);
+  }
+
+  /**
+   * Returns a table where each value is accessible both through the given mapped fields and through
+   * its index. The table first lists all the mapped fields, then all the indexed fields.
+   *
+   * @param fields The mapped fields; must not contain duplicates.
+   * @return A table of mapped and indexed fields.
+   */
+  @NonNull
+  public static FieldTable mappedAndIndexed(@NonNull MappedField... fields) {
+    int size = fields.length;
+    Field[] all = Arrays.copyOf(fields, size * 2, Field[].class);
+    int[] slots = new int[size * 2];
+    for (int i = 0; i < size; i++) {
+      all[size + i] = new DefaultIndexedField(i);
+      slots[i] = i;
+      slots[size + i] = i;
+    }
+    return new FieldTable(all, slots, size, true);
+  }
+
+  private final Field[] fields;
+  private final int[] slots;
+  private final int valueCount;
+  private final boolean indexed;
+  private final ImmutableMap<Field, Integer> mappedSlots;
+  private final ImmutableSet<Field> fieldSet;
+
+  private FieldTable(Field[] fields, int[] slots, int valueCount, boolean indexed) {
+    this.fields = fields;
+    this.slots = slots;
+    this.valueCount = valueCount;
+    this.indexed = indexed;
+    ImmutableMap.Builder<Field, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < fields.length; i++) {
+      if (!(indexed && fields[i] instanceof IndexedField)) {
+        builder.put(fields[i], slots[i]);
+      }
+    }
+    mappedSlots = builder.build();
+    fieldSet = ImmutableSet.copyOf(fields);
+  }
+
+  /** @return the number of fields in this table. */
+  public int size() {
+    return fields.length;
+  }
+
+  /** @return the number of values that records using this table must hold. */
+  public int getValueCount() {
+    return valueCount;
+  }
+
+  /**
+   * @param i The field position, between 0 and {@link #size()} (exclusive).
+   * @return the field at the given position.
+   */
+  @NonNull
+  public Field getField(int i) {
+    return fields[i];
+  }
+
+  /**
+   * @param i The field position, between 0 and {@link #size()} (exclusive).
+   * @return the value slot of the field at the given position.
+   */
+  public int getSlot(int i) {
+    return slots[i];
+  }
+
+  /**
+   * Returns the value slot of the given field, or -1 if this table does not contain the field.
+   *
+   * @param field The field to look up.
+   * @return the value slot of the field, or -1.
+   */
+  public int slotOf(@NonNull Field field) {
+    if (indexed && field instanceof IndexedField) {
+      int index = ((IndexedField) field).getFieldIndex();
+      return index < valueCount ? index : -1;
+    }
+    Integer slot = mappedSlots.get(field);
+    return slot == null ? -1 : slot;
+  }
+
+  /** @return an immutable set of all the fields in this table, in table order. */
+  @NonNull
+  public Set<Field> fields() {
+    return fieldSet;
+  }
+
+  /**
+   * Returns a table containing only the fields of this table whose value slot is also the slot of
+   * one of the given fields. For example, projecting a table created with {@link #mappedAndIndexed}
+   * on a field name retains both the name and the index of that field.
+   *
+   * <p>Value slots are preserved: records using the returned table must hold as many values as
+   * records using this table, but the values in the slots that were not retained are never read.
+   *
+   * @param retained The fields to retain; fields that do not belong to this table are ignored.
+   * @return A table of the retained fields.
+   */
+  @NonNull
+  public FieldTable project(@NonNull Set<? extends Field> retained) {
+    boolean[] retainedSlots = new boolean[valueCount];
+    for (Field field : retained) {
+      int slot = slotOf(field);
+      if (slot != -1) {
+        retainedSlots[slot] = true;
+      }
+    }
+    List<Field> projectedFields = new ArrayList<>();
+    List<Integer> projectedSlots = new ArrayList<>();
+    for (int i = 0; i < fields.length; i++) {
+      if (retainedSlots[slots[i]]) {
+        projectedFields.add(fields[i]);
+        projectedSlots.add(slots[i]);
+      }
+    }
+    // indexed fields are not necessarily contiguous anymore, so they are looked up by hash
+    return new FieldTable(
+        projectedFields.toArray(new Field[0]),
+        projectedSlots.stream().mapToInt(Integer::intValue).toArray(),
+        valueCount,
+        false);
+  }
+
+  @Override
+  public String toString() {
+    return fieldSet.toString();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+class ArrayBackedRecordTest {
+
+  private final URI resource = URI.create("file://file.csv");
+
+  private final MappedField a = new DefaultMappedField("a");
+  private final MappedField b = new DefaultMappedField("b");
+
+  @Test
+  void should_reject_values_not_matching_table() {
+    assertThatThrownBy(
+            () ->
+                new ArrayBackedRecord(
+                    "source", resource, 1, FieldTable.indexed(2), new Object[] {"foo"}))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Expecting record to contain 2 fields but found 1.");
+  }
+
+  @Test
+  void should_look_up_indexed_values() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.indexed(2), new Object[] {"foo", "bar"});
+    assertThat(record.getSource()).isEqualTo("source");
+    assertThat(record.getResource()).isEqualTo(resource);
+    assertThat(record.getPosition()).isEqualTo(1);
+    assertThat(record.fields())
+        .containsExactly(new DefaultIndexedField(0), new DefaultIndexedField(1));
+    assertThat(record.values()).containsExactly("foo", "bar");
+    assertThat(record.getValue(1)).isEqualTo("bar");
+    assertThat(record.getFieldValue(new DefaultIndexedField(0))).isEqualTo("foo");
+    assertThat(record.getFieldValue(new DefaultIndexedField(2))).isNull();
+    assertThat(record.getFieldValue(a)).isNull();
+  }
+
+  @Test
+  void should_look_up_mapped_values() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", null});
+    assertThat(record.fields()).containsExactly(a, b);
+    assertThat(record.values()).containsExactly("foo", null);
+    assertThat(record.getFieldValue(new DefaultMappedField("a"))).isEqualTo("foo");
+    assertThat(record.getFieldValue(b)).isNull();
+    assertThat(record.getFieldValue(new DefaultIndexedField(0))).isNull();
+  }
+
+  @Test
+  void should_look_up_mapped_and_indexed_values() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mappedAndIndexed(a, b), new Object[] {"foo", "bar"});
+    assertThat(record.fields())
+        .containsExactly(a, b, new DefaultIndexedField(0), new DefaultIndexedField(1));
+    assertThat(record.values()).containsExactly("foo", "bar", "foo", "bar");
+    assertThat(record.getFieldValue(b)).isEqualTo("bar");
+    assertThat(record.getFieldValue(new DefaultIndexedField(1))).isEqualTo("bar");
+  }
+
+  @Test
+  void should_look_up_projected_values() {
+    FieldTable table = FieldTable.mappedAndIndexed(a, b).project(ImmutableSet.of(b));
+    ArrayBackedRecord record =
+        new ArrayBackedRecord("source", resource, 1, table, new Object[] {"foo", "bar"});
+    assertThat(record.fields()).containsExactly(b, new DefaultIndexedField(1));
+    assertThat(record.values()).containsExactly("bar", "bar");
+    assertThat(record.getValue(0)).isEqualTo("bar");
+    assertThat(record.getFieldValue(b)).isEqualTo("bar");
+    assertThat(record.getFieldValue(a)).isNull();
+    assertThat(record.getFieldValue(new DefaultIndexedField(0))).isNull();
+  }
+
+  @Test
+  void should_clear_record() {
+    ArrayBackedRecord record =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", "bar"});
+    record.clear();
+    assertThat(record.fields()).isEmpty();
+    assertThat(record.values()).isEmpty();
+    assertThat(record.getFieldValue(a)).isNull();
+    assertThat(record.getSource()).isEqualTo("source");
+    assertThat(record.getResource()).isEqualTo(resource);
+    assertThat(record.getPosition()).isEqualTo(1);
+  }
+
+  @Test
+  void should_implement_equals_and_hash_code() {
+    ArrayBackedRecord record1 =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", "bar"});
+    // same fields in a different table instance
+    ArrayBackedRecord record2 =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", "bar"});
+    ArrayBackedRecord record3 =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", "qix"});
+    ArrayBackedRecord record4 =
+        new ArrayBackedRecord(
+            "source", resource, 2, FieldTable.mapped(a, b), new Object[] {"foo", "bar"});
+    ArrayBackedRecord record5 =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(b, a), new Object[] {"bar", "foo"});
+    assertThat(record1).isEqualTo(record2).hasSameHashCodeAs(record2);
+    assertThat(record2).isEqualTo(record1);
+    assertThat(record1).isNotEqualTo(record3);
+    assertThat(record1).isNotEqualTo(record4);
+    // field order does not matter
+    assertThat(record1).isEqualTo(record5).hasSameHashCodeAs(record5);
+  }
+
+  @Test
+  void should_not_be_equal_to_default_record() {
+    ArrayBackedRecord record1 =
+        new ArrayBackedRecord(
+            "source", resource, 1, FieldTable.mapped(a, b), new Object[] {"foo", "bar"});
+    DefaultRecord record2 =
+        DefaultRecord.mapped("source", resource, 1, new Field[] {a, b}, "foo", "bar");
+    // equality must be symmetric
+    assertThat(record1).isNotEqualTo(record2);
+    assertThat(record2).isNotEqualTo(record1);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+class FieldTableTest {
+
+  private final MappedField a = new DefaultMappedField("a");
+  private final MappedField b = new DefaultMappedField("b");
+  private final MappedField c = new DefaultMappedField("c");
+
+  @Test
+  void should_create_indexed_table() {
+    FieldTable table = FieldTable.indexed(3);
+    assertThat(table.size()).isEqualTo(3);
+    assertThat(table.getValueCount()).isEqualTo(3);
+    assertThat(table.fields())
+        .containsExactly(
+            new DefaultIndexedField(0), new DefaultIndexedField(1), new DefaultIndexedField(2));
+    assertThat(table.getField(1)).isEqualTo(new DefaultIndexedField(1));
+    assertThat(table.getSlot(1)).isEqualTo(1);
+    assertThat(table.slotOf(new DefaultIndexedField(2))).isEqualTo(2);
+    assertThat(table.slotOf(new DefaultIndexedField(3))).isEqualTo(-1);
+    assertThat(table.slotOf(a)).isEqualTo(-1);
+  }
+
+  @Test
+  void should_create_empty_indexed_table() {
+    FieldTable table = FieldTable.indexed(0);
+    assertThat(table.size()).isZero();
+    assertThat(table.getValueCount()).isZero();
+    assertThat(table.fields()).isEmpty();
+    assertThat(table.slotOf(new DefaultIndexedField(0))).isEqualTo(-1);
+  }
+
+  @Test
+  void should_create_mapped_table() {
+    FieldTable table = FieldTable.mapped(a, b, c);
+    assertThat(table.size()).isEqualTo(3);
+    assertThat(table.getValueCount()).isEqualTo(3);
+    assertThat(table.fields()).containsExactly(a, b, c);
+    assertThat(table.slotOf(a)).isEqualTo(0);
+    assertThat(table.slotOf(new DefaultMappedField("b"))).isEqualTo(1);
+    assertThat(table.slotOf(c)).isEqualTo(2);
+    assertThat(table.slotOf(new DefaultMappedField("d"))).isEqualTo(-1);
+    // mapped tables cannot be accessed by index
+    assertThat(table.slotOf(new DefaultIndexedField(0))).isEqualTo(-1);
+  }
+
+  @Test
+  void should_create_mapped_and_indexed_table() {
+    FieldTable table = FieldTable.mappedAndIndexed(a, b);
+    assertThat(table.size()).isEqualTo(4);
+    assertThat(table.getValueCount()).isEqualTo(2);
+    assertThat(table.fields())
+        .containsExactly(a, b, new DefaultIndexedField(0), new DefaultIndexedField(1));
+    assertThat(table.slotOf(a)).isEqualTo(0);
+    assertThat(table.slotOf(new DefaultIndexedField(0))).isEqualTo(0);
+    assertThat(table.slotOf(b)).isEqualTo(1);
+    assertThat(table.slotOf(new DefaultIndexedField(1))).isEqualTo(1);
+    assertThat(table.getSlot(3)).isEqualTo(1);
+    assertThat(table.slotOf(new DefaultIndexedField(2))).isEqualTo(-1);
+    assertThat(table.slotOf(c)).isEqualTo(-1);
+  }
+
+  @Test
+  void should_project_mapped_and_indexed_table() {
+    FieldTable table = FieldTable.mappedAndIndexed(a, b, c).project(ImmutableSet.of(b));
+    // both the name and the index of the retained field are retained
+    assertThat(table.fields()).containsExactly(b, new DefaultIndexedField(1));
+    assertThat(table.size()).isEqualTo(2);
+    // value slots are preserved
+    assertThat(table.getValueCount()).isEqualTo(3);
+    assertThat(table.slotOf(b)).isEqualTo(1);
+    assertThat(table.slotOf(new DefaultIndexedField(1))).isEqualTo(1);
+    assertThat(table.slotOf(a)).isEqualTo(-1);
+    assertThat(table.slotOf(new DefaultIndexedField(0))).isEqualTo(-1);
+    assertThat(table.slotOf(c)).isEqualTo(-1);
+    assertThat(table.slotOf(new DefaultIndexedField(2))).isEqualTo(-1);
+  }
+
+  @Test
+  void should_project_indexed_table() {
+    FieldTable table =
+        FieldTable.indexed(3)
+            .project(ImmutableSet.of(new DefaultIndexedField(2), new DefaultIndexedField(5)));
+    assertThat(table.fields()).containsExactly(new DefaultIndexedField(2));
+    assertThat(table.getValueCount()).isEqualTo(3);
+    assertThat(table.slotOf(new DefaultIndexedField(2))).isEqualTo(2);
+    assertThat(table.slotOf(new DefaultIndexedField(0))).isEqualTo(-1);
+  }
+
+  @Test
+  void should_ignore_unknown_fields_when_projecting() {
+    FieldTable table = FieldTable.mapped(a, b).project(ImmutableSet.of(c));
+    assertThat(table.fields()).isEmpty();
+    assertThat(table.getValueCount()).isEqualTo(2);
+  }
+}
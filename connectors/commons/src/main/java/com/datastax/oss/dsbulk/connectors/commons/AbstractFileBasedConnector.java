@@ -15,16 +15,24 @@
  */
 package com.datastax.oss.dsbulk.connectors.commons;
 
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.driver.shaded.guava.common.io.CountingOutputStream;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
 import com.datastax.oss.dsbulk.connectors.api.DefaultResource;
+import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.Resource;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.datastax.oss.dsbulk.io.IOUtils;
 import com.typesafe.config.Config;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -36,12 +44,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -67,19 +79,32 @@ public abstract class AbstractFileBasedConnector implements Connector {
   protected static final String MAX_CONCURRENT_FILES = "maxConcurrentFiles";
   protected static final String RECURSIVE = "recursive";
   protected static final String FILE_NAME_FORMAT = "fileNameFormat";
+  protected static final String MEMORY_MAPPED = "memoryMapped";
+  protected static final String MAX_BYTES_PER_FILE = "maxBytesPerFile";
+  protected static final String MAX_TIME_PER_FILE = "maxTimePerFile";
+  protected static final String COMPRESSION_THREADS = "compressionThreads";
 
   protected boolean read;
   protected boolean retainRecordSources;
   protected List<URL> urls;
   protected List<Path> roots = new ArrayList<>();
+  protected URL remoteRoot;
   protected List<URL> files = new ArrayList<>();
   protected Charset encoding;
   protected String compression;
+  protected boolean memoryMapped;
+  /** The fields that records need to contain, or null if records need to contain all fields. */
+  @Nullable protected Set<Field> projection;
+
   protected String fileNameFormat;
   protected boolean recursive;
   protected String pattern;
   protected long skipRecords;
   protected long maxRecords;
+  protected long maxBytesPerFile;
+  protected Duration maxTimePerFile;
+  protected int compressionThreads;
+  protected ExecutorService compressionExecutor;
   protected int resourceCount;
   protected int maxConcurrentFiles;
   protected Deque<RecordWriter> writers;
@@ -100,7 +125,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
   public int writeConcurrency() {
     assert !read;
     // When writing to an URL, force write concurrency to 1
-    if (roots.isEmpty()) {
+    if (!isWritingToDirectory()) {
       return 1;
     }
     return maxConcurrentFiles;
@@ -139,10 +164,27 @@ public abstract class AbstractFileBasedConnector implements Connector {
     }
     skipRecords = settings.getLong(SKIP_RECORDS);
     maxRecords = settings.getLong(MAX_RECORDS);
+    memoryMapped = read && settings.getBoolean(MEMORY_MAPPED);
+    maxBytesPerFile = ConfigUtils.getBytes(settings, MAX_BYTES_PER_FILE);
+    maxTimePerFile = settings.getDuration(MAX_TIME_PER_FILE);
+    // 0 disables parallel compression, other values use the usual thread count syntax
+    compressionThreads =
+        "0".equals(settings.getString(COMPRESSION_THREADS).trim())
+            ? 0
+            : ConfigUtils.getThreads(settings, COMPRESSION_THREADS);
   }
 
   @Override
   public void init() throws URISyntaxException, IOException {
+    if (compressionThreads > 0 && CompressedIOUtils.isBlockCompressionSupported(compression)) {
+      compressionExecutor =
+          Executors.newFixedThreadPool(
+              compressionThreads,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat(getConnectorName() + "-compression-%d")
+                  .build());
+    }
     if (read) {
       processURLsForRead();
     } else {
@@ -150,7 +192,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
       fileCounter = new AtomicInteger(0);
       nextWriterIndex = new AtomicInteger(0);
       writersToClose = new ArrayList<>();
-      if (!roots.isEmpty() && maxConcurrentFiles > 1) {
+      if (isWritingToDirectory() && maxConcurrentFiles > 1) {
         writers = new ConcurrentLinkedDeque<>();
         for (int i = 0; i < maxConcurrentFiles; i++) {
           RecordWriter writer = newSingleFileWriter();
@@ -164,25 +206,26 @@ public abstract class AbstractFileBasedConnector implements Connector {
     }
   }
 
+  @Override
+  public void project(@NonNull Set<Field> fields) {
+    assert read;
+    projection = ImmutableSet.copyOf(fields);
+  }
+
   @NonNull
   @Override
   public Publisher<Resource> read() {
     assert read;
     return Flux.concat(
             Flux.fromIterable(roots).flatMap(this::scanRootDirectory), Flux.fromIterable(files))
-        .map(
-            url -> {
-              URI resource = URI.create(url.toExternalForm());
-              Flux<Record> flux = readSingleFile(url, resource).transform(this::applyPerFileLimits);
-              return new DefaultResource(resource, flux);
-            });
+        .concatMap(this::createResources);
   }
 
   @NonNull
   @Override
   public Function<Publisher<Record>, Publisher<Record>> write() {
     assert !read;
-    if (!roots.isEmpty() && maxConcurrentFiles > 1) {
+    if (isWritingToDirectory() && maxConcurrentFiles > 1) {
       return records ->
           Flux.deferContextual(
                   ctx -> {
@@ -222,22 +265,28 @@ public abstract class AbstractFileBasedConnector implements Connector {
 
   @Override
   public void close() {
-    if (writersToClose != null) {
-      IOException e = null;
-      for (RecordWriter writer : writersToClose) {
-        try {
-          writer.flush();
-          writer.close();
-        } catch (IOException e1) {
-          if (e == null) {
-            e = e1;
-          } else {
-            e.addSuppressed(e1);
+    try {
+      if (writersToClose != null) {
+        IOException e = null;
+        for (RecordWriter writer : writersToClose) {
+          try {
+            writer.flush();
+            writer.close();
+          } catch (IOException e1) {
+            if (e == null) {
+              e = e1;
+            } else {
+              e.addSuppressed(e1);
+            }
           }
         }
+        if (e != null) {
+          throw new UncheckedIOException(e);
+        }
       }
-      if (e != null) {
-        throw new UncheckedIOException(e);
+    } finally {
+      if (compressionExecutor != null) {
+        compressionExecutor.shutdown();
       }
     }
   }
@@ -253,6 +302,38 @@ public abstract class AbstractFileBasedConnector implements Connector {
   @NonNull
   protected abstract String getConnectorName();
 
+  /**
+   * Creates the {@link Resource}s to read for the given URL. Used during the {@linkplain #read()
+   * data reading phase}.
+   *
+   * <p>This implementation creates exactly one resource per URL, reading the whole file with {@link
+   * #readSingleFile(URL, URI)}. Subclasses may override this method to split a file into several
+   * resources that can be read in parallel; in this case, they should also override {@link
+   * #countResources(URL)} accordingly. Each resource must have a distinct URI, since resource URIs
+   * are used to track progress and checkpoint operations.
+   *
+   * @param url The URL to read; must not be null.
+   * @return A stream of {@link Resource}s; never null, should not be empty.
+   */
+  @NonNull
+  protected Flux<Resource> createResources(@NonNull URL url) {
+    URI resource = URI.create(url.toExternalForm());
+    Flux<Record> flux = readSingleFile(url, resource).transform(this::applyPerFileLimits);
+    return Flux.just(new DefaultResource(resource, flux));
+  }
+
+  /**
+   * Returns the number of resources that {@link #createResources(URL)} will create for the given
+   * URL. This is used to compute the connector's {@linkplain #readConcurrency() read concurrency}
+   * and thus does not need to be exact. This implementation returns 1.
+   *
+   * @param url The URL to read; must not be null.
+   * @return The (estimated) number of resources for the given URL.
+   */
+  protected int countResources(@NonNull URL url) {
+    return 1;
+  }
+
   /**
    * Reads a single text file accessible through the given URL. Used during the {@linkplain #read()
    * data reading phase}.
@@ -279,6 +360,118 @@ public abstract class AbstractFileBasedConnector implements Connector {
         });
   }
 
+  /**
+   * Opens the given URL for reading, decompressing its contents if required. Uncompressed local
+   * files are memory-mapped if {@link #MEMORY_MAPPED} is enabled. Decompression happens on
+   * dedicated threads if {@link #COMPRESSION_THREADS} is positive and the stream supports it.
+   *
+   * @param url The URL to read; must not be null.
+   * @return A new {@link InputStream}; never null.
+   * @throws IOException If the URL cannot be opened.
+   */
+  @NonNull
+  protected InputStream newInputStream(@NonNull URL url) throws IOException {
+    Path file = getMappableFile(url);
+    if (file != null) {
+      return IOUtils.newMappedInputStream(file, 0, Long.MAX_VALUE);
+    }
+    return CompressedIOUtils.newInputStream(url, compression, compressionExecutor);
+  }
+
+  /**
+   * Opens the given URL for reading, decompressing its contents if required, and decoding them with
+   * the configured encoding. Uncompressed local files are memory-mapped if {@link #MEMORY_MAPPED}
+   * is enabled.
+   *
+   * @param url The URL to read; must not be null.
+   * @return A new {@link BufferedReader}; never null.
+   * @throws IOException If the URL cannot be opened.
+   */
+  @NonNull
+  protected BufferedReader newBufferedReader(@NonNull URL url) throws IOException {
+    Path file = getMappableFile(url);
+    if (file != null) {
+      return IOUtils.newBufferedReader(
+          IOUtils.newMappedInputStream(file, 0, Long.MAX_VALUE), encoding);
+    }
+    return CompressedIOUtils.newBufferedReader(url, encoding, compression, compressionExecutor);
+  }
+
+  /**
+   * Opens a range of bytes of the given local file for reading. The file is memory-mapped if {@link
+   * #MEMORY_MAPPED} is enabled.
+   *
+   * @param file The file to read; must not be null.
+   * @param start The offset of the first byte to read.
+   * @param length The maximum number of bytes to read.
+   * @return A new {@link InputStream}; never null.
+   * @throws IOException If the file cannot be opened.
+   */
+  @NonNull
+  protected InputStream newInputStream(@NonNull Path file, long start, long length)
+      throws IOException {
+    return memoryMapped
+        ? IOUtils.newMappedInputStream(file, start, length)
+        : IOUtils.newBufferedInputStream(file, start, length);
+  }
+
+  /**
+   * Opens the given URL for writing, compressing its contents if required. Compression happens on
+   * dedicated threads if {@link #COMPRESSION_THREADS} is positive and the compression method
+   * supports it.
+   *
+   * @param url The URL to write; must not be null.
+   * @return A new {@link OutputFile}; never null.
+   * @throws IOException If the URL cannot be opened.
+   */
+  @NonNull
+  protected OutputFile newOutputFile(@NonNull URL url) throws IOException {
+    CountingOutputStream out = new CountingOutputStream(IOUtils.newBufferedOutputStream(url));
+    try {
+      BufferedWriter writer =
+          CompressedIOUtils.newBufferedWriter(out, encoding, compression, compressionExecutor);
+      return new OutputFile(url, writer, out);
+    } catch (IOException | RuntimeException e) {
+      out.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Whether the given file should be closed, and the next records written to a new file. Files are
+   * rolled when they reach {@link #MAX_RECORDS} records, {@link #MAX_BYTES_PER_FILE} bytes, or when
+   * they were opened more than {@link #MAX_TIME_PER_FILE} ago; this only applies when writing to a
+   * directory.
+   *
+   * @param file The file being written.
+   * @param recordCount The number of records written to the file.
+   * @return {@code true} if a new file should be opened, {@code false} otherwise.
+   */
+  protected boolean shouldRoll(@NonNull OutputFile file, long recordCount) {
+    if (!isWritingToDirectory()) {
+      return false;
+    }
+    return recordCount == maxRecords
+        || (maxBytesPerFile > 0 && file.getBytesWritten() >= maxBytesPerFile)
+        || (!maxTimePerFile.isZero()
+            && !maxTimePerFile.isNegative()
+            && file.getAgeNanos() >= maxTimePerFile.toNanos());
+  }
+
+  @Nullable
+  private Path getMappableFile(@NonNull URL url) throws IOException {
+    if (memoryMapped
+        && CompressedIOUtils.isNoneCompression(compression)
+        && "file".equals(url.getProtocol())) {
+      try {
+        return Paths.get(url.toURI());
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+    }
+    return null;
+  }
+
   /**
    * Returns a new {@link RecordReader} instance; cannot be null. Only used when reading. Each
    * invocation of this method is expected to return a newly-allocated instance. The reader is
@@ -326,6 +519,46 @@ public abstract class AbstractFileBasedConnector implements Connector {
   @NonNull
   protected abstract RecordWriter newSingleFileWriter();
 
+  /** A file being written, along with the information required to decide when to roll it. */
+  protected static final class OutputFile {
+
+    private final URL url;
+    private final BufferedWriter writer;
+    private final CountingOutputStream out;
+    private final long openedAt = System.nanoTime();
+
+    private OutputFile(URL url, BufferedWriter writer, CountingOutputStream out) {
+      this.url = url;
+      this.writer = writer;
+      this.out = out;
+    }
+
+    /** @return the URL of the file. */
+    @NonNull
+    public URL getUrl() {
+      return url;
+    }
+
+    /** @return the writer to write characters to the file with. */
+    @NonNull
+    public BufferedWriter getWriter() {
+      return writer;
+    }
+
+    /**
+     * @return the number of bytes written so far to the file, after compression; bytes still held
+     *     in buffers, or being compressed, are not counted.
+     */
+    public long getBytesWritten() {
+      return out.getCount();
+    }
+
+    /** @return the time elapsed since the file was opened, in nanoseconds. */
+    public long getAgeNanos() {
+      return System.nanoTime() - openedAt;
+    }
+  }
+
   /**
    * A writer for {@link Record}s. Implementors are not expected to deal with thread-safety issues,
    * these are handled by this class.
@@ -428,7 +661,12 @@ public abstract class AbstractFileBasedConnector implements Connector {
           }
           roots.add(root);
           int inDirectoryResourceCount =
-              Objects.requireNonNull(scanRootDirectory(root).take(1000).count().block()).intValue();
+              Objects.requireNonNull(
+                  scanRootDirectory(root)
+                      .take(1000)
+                      .map(this::countResources)
+                      .reduce(0, Integer::sum)
+                      .block());
           if (inDirectoryResourceCount == 0) {
             if (IOUtils.countReadableFiles(root, recursive) == 0) {
               LOGGER.warn("Directory {} has no readable files.", root);
@@ -442,7 +680,7 @@ public abstract class AbstractFileBasedConnector implements Connector {
           }
           resourceCount += inDirectoryResourceCount;
         } else {
-          resourceCount += 1;
+          resourceCount += countResources(u);
           files.add(u);
         }
       } catch (FileSystemNotFoundException ignored) {
@@ -462,11 +700,17 @@ public abstract class AbstractFileBasedConnector implements Connector {
    *
    * <p>This method expects that {@link #loadURLs(Config)} has been previously called, and also
    * expects exactly one URL to be present, which can be either a directory or a file.
+   *
+   * <p>URLs that are not on a known filesystem, such as S3 URLs, are considered directories if
+   * their path ends with a slash; in this case, files will be created under that path, e.g. {@code
+   * s3://bucket/prefix/?region=us-west-1} will produce files like {@code
+   * s3://bucket/prefix/output-000001.csv?region=us-west-1}.
    */
   protected void processURLsForWrite() throws URISyntaxException, IOException {
+    resourceCount = -1;
+    URL url = urls.get(0); // for UNLOAD always one URL
     try {
-      resourceCount = -1;
-      Path root = Paths.get(urls.get(0).toURI()); // for UNLOAD always one URL
+      Path root = Paths.get(url.toURI());
       if (!Files.exists(root)) {
         root = Files.createDirectories(root);
       }
@@ -486,9 +730,21 @@ public abstract class AbstractFileBasedConnector implements Connector {
       }
     } catch (FileSystemNotFoundException ignored) {
       // not a path on a known filesystem, fall back to writing to URL directly
+      if (!IOUtils.isStandardStream(url) && url.getPath().endsWith("/")) {
+        remoteRoot = url;
+      }
     }
   }
 
+  /**
+   * Returns true if the connector writes to a directory of files, either on the local filesystem,
+   * or on a remote location such as S3; returns false if it writes to a single URL. Not used for
+   * reads.
+   */
+  protected boolean isWritingToDirectory() {
+    return !roots.isEmpty() || remoteRoot != null;
+  }
+
   /**
    * Scans a directory for readable files and returns the files found as a stream. Only used when
    * reading, never when writing. Normally used as part of the actual {@linkplain #read() data
@@ -542,9 +798,18 @@ public abstract class AbstractFileBasedConnector implements Connector {
    */
   @NonNull
   protected URL getOrCreateDestinationURL() {
-    if (!roots.isEmpty()) {
+    if (isWritingToDirectory()) {
       try {
         String next = String.format(fileNameFormat, fileCounter.incrementAndGet());
+        if (remoteRoot != null) {
+          // keep the query string, it usually contains connection parameters
+          String query = remoteRoot.getQuery();
+          return new URL(
+              remoteRoot.getProtocol(),
+              remoteRoot.getHost(),
+              remoteRoot.getPort(),
+              remoteRoot.getPath() + next + (query == null ? "" : "?" + query));
+        }
         return roots.get(0).resolve(next).toUri().toURL(); // for UNLOAD always one URL
       } catch (MalformedURLException e) {
         throw new UncheckedIOException(
@@ -0,0 +1,602 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import com.univocity.parsers.common.record.Record;
+import com.univocity.parsers.csv.CsvFormat;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A CSV tokenizer that operates on raw bytes, as an alternative to univocity's {@link CsvParser}
+ * for ASCII-compatible encodings.
+ *
+ * <p>Delimiters, quotes, escapes and line feeds are located eight bytes at a time, using SWAR (SIMD
+ * within a register) techniques; the input is never decoded as a whole, only field contents are.
+ * Records using the common subset of the CSV syntax are tokenized directly: unquoted fields, and
+ * quoted fields possibly containing escaped quotes and escaped escapes, all followed by a delimiter
+ * or a line separator. When a record falls outside of this subset, for example because of
+ * characters following a closing quote, an unterminated quoted field, or a field exceeding the
+ * configured limits, the remainder of the input, starting with that record, is handed to a
+ * univocity parser configured with the same settings, so that both engines always produce the same
+ * values and errors.
+ *
+ * <p>Records must be terminated by a line feed, optionally preceded by a carriage return; if
+ * another line separator is configured or detected, the whole input is handed to univocity.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class CSVByteTokenizer implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  // tokenization outcomes
+  private static final int RECORD = 0;
+  private static final int SKIPPED = 1;
+  private static final int UNDERFLOW = 2;
+  private static final int UNSUPPORTED = 3;
+
+  private final InputStream in;
+  private final Charset charset;
+  private final CsvParserSettings settings;
+  private final byte delimiter;
+  private final byte quote;
+  private final byte escape;
+  private final byte comment;
+  private final long delimiterPattern;
+  private final long quotePattern;
+  private final long escapePattern;
+  private final long lineFeedPattern;
+  private final String nullValue;
+  private final String emptyValue;
+  private final int maxColumns;
+  private final int maxCharsPerColumn;
+
+  private byte[] buffer = new byte[BUFFER_SIZE];
+  private ByteBuffer words = wrap(buffer);
+  private int position;
+  private int limit;
+  private boolean endOfInput;
+  private boolean started;
+
+  /** Whether records are terminated by CRLF; if false, they are terminated by LF only. */
+  private boolean crlf;
+
+  private String lineSeparator;
+
+  /** Parses the remainder of the input, once a record outside of the supported subset is found. */
+  private CsvParser delegate;
+
+  private String[] values = new String[16];
+  private int valueCount;
+  private int recordStart;
+  private int recordEnd;
+
+  /** Holds the contents of quoted fields containing escape sequences. */
+  private byte[] unescaped = new byte[256];
+
+  /** The columns whose values must be decoded, or null if all values must be decoded. */
+  private boolean[] selectedColumns;
+
+  /**
+   * Creates a new tokenizer.
+   *
+   * @param in The input to tokenize.
+   * @param charset The input charset; must be ASCII-compatible.
+   * @param settings The settings to honor; delimiter, quote, escape and comment must be single
+   *     ASCII chars, the escape must differ from the quote, and leading and trailing whitespaces
+   *     must be preserved.
+   */
+  CSVByteTokenizer(
+      @NonNull InputStream in, @NonNull Charset charset, @NonNull CsvParserSettings settings) {
+    this.in = in;
+    this.charset = charset;
+    this.settings = settings;
+    CsvFormat format = settings.getFormat();
+    delimiter = (byte) format.getDelimiter();
+    quote = (byte) format.getQuote();
+    escape = (byte) format.getQuoteEscape();
+    comment = (byte) format.getComment();
+    delimiterPattern = pattern(delimiter);
+    quotePattern = pattern(quote);
+    escapePattern = pattern(escape);
+    lineFeedPattern = pattern(LF);
+    nullValue = settings.getNullValue();
+    emptyValue = settings.getEmptyValue();
+    maxColumns = settings.getMaxColumns() < 0 ? Integer.MAX_VALUE : settings.getMaxColumns();
+    maxCharsPerColumn =
+        settings.getMaxCharsPerColumn() < 0 ? Integer.MAX_VALUE : settings.getMaxCharsPerColumn();
+  }
+
+  /**
+   * Restricts the columns whose values are decoded: the other columns are still tokenized, so that
+   * records have the same number of values, but their values are reported as null. Records handed
+   * to univocity are always fully decoded.
+   *
+   * @param selectedColumns The columns to decode, or null to decode all columns; columns beyond the
+   *     end of the array are not decoded.
+   */
+  void selectColumns(@Nullable boolean[] selectedColumns) {
+    this.selectedColumns = selectedColumns;
+  }
+
+  /**
+   * Parses the next record.
+   *
+   * @return The record values, or {@code null} if the end of the input was reached.
+   */
+  @Nullable
+  String[] parseNext() throws IOException {
+    if (!started) {
+      start();
+    }
+    while (delegate == null) {
+      if (position == limit && !fill()) {
+        return null;
+      }
+      int result = tokenize();
+      if (result == RECORD) {
+        return Arrays.copyOf(values, valueCount);
+      } else if (result == UNDERFLOW) {
+        fill();
+      } else if (result == UNSUPPORTED) {
+        delegate(lineSeparator);
+      }
+    }
+    Record record = delegate.parseNextRecord();
+    return record == null ? null : record.getValues();
+  }
+
+  /**
+   * @return The text of the last parsed record, including its line separator, if any, as univocity
+   *     would report it.
+   */
+  @Nullable
+  String currentParsedContent() {
+    if (delegate != null) {
+      return delegate.getContext().currentParsedContent();
+    }
+    return new String(buffer, recordStart, recordEnd - recordStart, charset);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (delegate != null) {
+      delegate.stopParsing();
+    }
+    in.close();
+  }
+
+  /**
+   * Detects the line separator, if required, and skips the BOM, if any; the whole input, including
+   * the BOM, is handed to univocity if the settings or the line separator are not supported.
+   */
+  private void start() throws IOException {
+    started = true;
+    // read up to the first line separator, and the byte after it, which are required for the
+    // detection
+    while (!endOfInput && limit < buffer.length) {
+      int separator = indexOfLineSeparator();
+      if (separator != -1 && separator + 1 < limit) {
+        break;
+      }
+      readMore();
+    }
+    if (quote == escape
+        || settings.getIgnoreLeadingWhitespaces()
+        || settings.getIgnoreTrailingWhitespaces()
+        || settings.getIgnoreLeadingWhitespacesInQuotes()
+        || settings.getIgnoreTrailingWhitespacesInQuotes()
+        || settings.isNormalizeLineEndingsWithinQuotes()
+        || settings.isEscapeUnquotedValues()
+        || settings.getKeepQuotes()
+        || settings.isKeepEscapeSequences()
+        || settings.isDelimiterDetectionEnabled()
+        || settings.isQuoteDetectionEnabled()) {
+      // unsupported settings
+      delegate(null);
+      return;
+    }
+    lineSeparator = settings.getFormat().getLineSeparatorString();
+    if (settings.isLineSeparatorDetectionEnabled()) {
+      int separator = indexOfLineSeparator();
+      if (separator == -1) {
+        // univocity inspects a larger portion of the input
+        delegate(null);
+        return;
+      }
+      if (buffer[separator] == LF) {
+        lineSeparator = "\n";
+      } else {
+        lineSeparator = separator + 1 < limit && buffer[separator + 1] == LF ? "\r\n" : "\r";
+      }
+    }
+    if (lineSeparator.equals("\r\n")) {
+      crlf = true;
+    } else if (!lineSeparator.equals("\n")) {
+      // let univocity detect the line separator by itself, since a detected separator is not
+      // handled like a configured one
+      delegate(null);
+      return;
+    }
+    if (charset.equals(StandardCharsets.UTF_8)
+        && limit >= 3
+        && buffer[0] == (byte) 0xEF
+        && buffer[1] == (byte) 0xBB
+        && buffer[2] == (byte) 0xBF) {
+      if (limit == 3) {
+        // univocity emits a record for an input made of a BOM only
+        delegate(null);
+        return;
+      }
+      position = 3;
+    }
+  }
+
+  /**
+   * Hands the remainder of the input, starting at the current position, to univocity.
+   *
+   * @param lineSeparator The line separator to use, or null to keep the configured settings.
+   */
+  private void delegate(@Nullable String lineSeparator) {
+    CsvParserSettings parserSettings = settings.clone();
+    parserSettings.setHeaderExtractionEnabled(false);
+    if (lineSeparator != null) {
+      parserSettings.setLineSeparatorDetectionEnabled(false);
+      parserSettings.getFormat().setLineSeparator(lineSeparator);
+    }
+    InputStream remaining =
+        new SequenceInputStream(new ByteArrayInputStream(buffer, position, limit - position), in);
+    delegate = new CsvParser(parserSettings);
+    delegate.beginParsing(new InputStreamReader(remaining, charset));
+  }
+
+  private int indexOfLineSeparator() {
+    for (int i = position; i < limit; i++) {
+      if (buffer[i] == LF || buffer[i] == CR) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Tokenizes the record starting at the current position, if it uses the common subset of the
+   * syntax.
+   *
+   * @return {@link #RECORD} if a record was tokenized, {@link #SKIPPED} if an empty line or a
+   *     comment was skipped, {@link #UNDERFLOW} if more input is required, or {@link #UNSUPPORTED}
+   *     if the record must be parsed by univocity.
+   */
+  private int tokenize() {
+    int start = position;
+    byte first = buffer[start];
+    if (first == LF) {
+      // empty line
+      if (crlf) {
+        return UNSUPPORTED;
+      }
+      position = start + 1;
+      return SKIPPED;
+    }
+    if (first == CR && crlf) {
+      if (start + 1 == limit) {
+        return endOfInput ? UNSUPPORTED : UNDERFLOW;
+      }
+      if (buffer[start + 1] == LF) {
+        position = start + 2;
+        return SKIPPED;
+      }
+    }
+    if (first == comment && comment != 0) {
+      return skipComment(start);
+    }
+    valueCount = 0;
+    int p = start;
+    while (true) {
+      if (valueCount == maxColumns) {
+        return UNSUPPORTED;
+      }
+      int end;
+      boolean quoted = p < limit && buffer[p] == quote;
+      if (quoted) {
+        end = tokenizeQuoted(p + 1);
+        if (end < 0) {
+          return -end;
+        }
+      } else {
+        // quotes inside unquoted values are regular characters
+        end = indexOfDelimiterOrLineFeed(p);
+        if (end == -1) {
+          if (!endOfInput) {
+            return UNDERFLOW;
+          }
+          end = limit;
+        }
+        int valueEnd = end;
+        if (crlf && end < limit) {
+          if (buffer[end] == LF) {
+            if (end == p || buffer[end - 1] != CR) {
+              // a lone line feed, which is part of the value
+              return UNSUPPORTED;
+            }
+            valueEnd--;
+          }
+        }
+        if (valueEnd - p > maxCharsPerColumn) {
+          return UNSUPPORTED;
+        }
+        addValue(p, valueEnd, nullValue);
+      }
+      if (end == limit) {
+        // the last record is not terminated
+        return endRecord(start, end);
+      }
+      byte b = buffer[end];
+      if (b == delimiter) {
+        p = end + 1;
+      } else if (b == LF && !(crlf && quoted)) {
+        return endRecord(start, end + 1);
+      } else if (b == CR && crlf && quoted) {
+        if (end + 1 == limit) {
+          return endOfInput ? UNSUPPORTED : UNDERFLOW;
+        }
+        if (buffer[end + 1] != LF) {
+          return UNSUPPORTED;
+        }
+        return endRecord(start, end + 2);
+      } else {
+        // characters after a closing quote
+        return UNSUPPORTED;
+      }
+    }
+  }
+
+  /**
+   * Tokenizes a quoted value.
+   *
+   * @param contentStart The position following the opening quote.
+   * @return The position following the closing quote, or the opposite of a tokenization outcome.
+   */
+  private int tokenizeQuoted(int contentStart) {
+    int q = indexOfQuoteOrEscape(contentStart);
+    if (q != -1 && buffer[q] == quote) {
+      // fast path: no escape sequences
+      if (q - contentStart > maxCharsPerColumn) {
+        return -UNSUPPORTED;
+      }
+      if (q + 1 == limit && !endOfInput) {
+        return -UNDERFLOW;
+      }
+      addValue(contentStart, q, emptyValue);
+      return q + 1;
+    }
+    boolean selected = isSelected(valueCount);
+    int length = 0;
+    int from = contentStart;
+    while (true) {
+      if (q == -1) {
+        // unterminated quoted value
+        return endOfInput ? -UNSUPPORTED : -UNDERFLOW;
+      }
+      if (q + 1 == limit && !endOfInput) {
+        // the byte following a closing quote or an escape char is required
+        return -UNDERFLOW;
+      }
+      if (buffer[q] == quote) {
+        if (q - contentStart > maxCharsPerColumn) {
+          return -UNSUPPORTED;
+        }
+        if (!selected) {
+          addValue(q, q, null);
+          return q + 1;
+        }
+        length = appendUnescaped(length, from, q - from);
+        if (valueCount == values.length) {
+          values = Arrays.copyOf(values, valueCount * 2);
+        }
+        values[valueCount++] = length == 0 ? emptyValue : new String(unescaped, 0, length, charset);
+        return q + 1;
+      }
+      if (q + 1 == limit) {
+        // an escape char at the end of the input
+        return -UNSUPPORTED;
+      }
+      byte next = buffer[q + 1];
+      if (next == quote || next == escape) {
+        // the escape char is dropped
+        if (selected) {
+          length = appendUnescaped(length, from, q - from);
+        }
+        from = q + 1;
+        q = indexOfQuoteOrEscape(q + 2);
+      } else {
+        // a lone escape char, which is kept
+        q = indexOfQuoteOrEscape(q + 1);
+      }
+    }
+  }
+
+  private int appendUnescaped(int length, int from, int count) {
+    if (length + count > unescaped.length) {
+      unescaped = Arrays.copyOf(unescaped, Math.max(unescaped.length * 2, length + count));
+    }
+    System.arraycopy(buffer, from, unescaped, length, count);
+    return length + count;
+  }
+
+  private int endRecord(int start, int end) {
+    recordStart = start;
+    recordEnd = end;
+    position = end;
+    return RECORD;
+  }
+
+  private int skipComment(int start) {
+    int i = start;
+    while (true) {
+      i = indexOfLineFeed(i);
+      if (i == -1) {
+        if (!endOfInput) {
+          return UNDERFLOW;
+        }
+        position = limit;
+        return SKIPPED;
+      }
+      i++;
+      if (!crlf || buffer[i - 2] == CR) {
+        position = i;
+        return SKIPPED;
+      }
+    }
+  }
+
+  private void addValue(int start, int end, String emptyOrNull) {
+    if (valueCount == values.length) {
+      values = Arrays.copyOf(values, valueCount * 2);
+    }
+    if (start == end) {
+      values[valueCount++] = emptyOrNull;
+    } else if (isSelected(valueCount)) {
+      values[valueCount++] = new String(buffer, start, end - start, charset);
+    } else {
+      values[valueCount++] = null;
+    }
+  }
+
+  private boolean isSelected(int column) {
+    return selectedColumns == null || (column < selectedColumns.length && selectedColumns[column]);
+  }
+
+  private int indexOfDelimiterOrLineFeed(int from) {
+    int i = from;
+    for (; i + 8 <= limit; i += 8) {
+      long word = words.getLong(i);
+      long found = matches(word, delimiterPattern) | matches(word, lineFeedPattern);
+      if (found != 0) {
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; i < limit; i++) {
+      byte b = buffer[i];
+      if (b == delimiter || b == LF) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int indexOfQuoteOrEscape(int from) {
+    int i = from;
+    for (; i + 8 <= limit; i += 8) {
+      long word = words.getLong(i);
+      long found = matches(word, quotePattern) | matches(word, escapePattern);
+      if (found != 0) {
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; i < limit; i++) {
+      byte b = buffer[i];
+      if (b == quote || b == escape) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int indexOfLineFeed(int from) {
+    int i = from;
+    for (; i + 8 <= limit; i += 8) {
+      long found = matches(words.getLong(i), lineFeedPattern);
+      if (found != 0) {
+        return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+    }
+    for (; i < limit; i++) {
+      if (buffer[i] == LF) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Moves the current record to the beginning of the buffer, growing it if it is already full, then
+   * reads more input.
+   *
+   * @return false if the end of the input was reached and there is nothing left to tokenize.
+   */
+  private boolean fill() throws IOException {
+    if (endOfInput) {
+      return position < limit;
+    }
+    if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, limit - position);
+      limit -= position;
+      position = 0;
+    } else if (limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      words = wrap(buffer);
+    }
+    readMore();
+    return position < limit || !endOfInput;
+  }
+
+  private void readMore() throws IOException {
+    int n = in.read(buffer, limit, buffer.length - limit);
+    if (n == -1) {
+      endOfInput = true;
+    } else {
+      limit += n;
+    }
+  }
+
+  private static ByteBuffer wrap(byte[] buffer) {
+    return ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static long pattern(byte b) {
+    return (b & 0xFFL) * ONES;
+  }
+
+  /**
+   * Returns a word where the high bit of each byte is set if the corresponding byte in the given
+   * word is equal to the byte repeated in the given pattern. Only the lowest match is exact: bytes
+   * above it may be false positives, so the result must only be used to locate the first match.
+   */
+  private static long matches(long word, long pattern) {
+    long x = word ^ pattern;
+    return (x - ONES) & ~x & HIGH_BITS;
+  }
+}
@@ -17,18 +17,22 @@ package com.datastax.oss.dsbulk.connectors.csv;
 
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.ConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultErrorRecord;
-import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
-import com.datastax.oss.dsbulk.connectors.api.DefaultRecord;
+import com.datastax.oss.dsbulk.connectors.api.DefaultResource;
 import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.FieldTable;
+import com.datastax.oss.dsbulk.connectors.api.IndexedField;
 import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
+import com.datastax.oss.dsbulk.connectors.api.Resource;
 import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
 import com.datastax.oss.dsbulk.io.CompressedIOUtils;
+import com.datastax.oss.dsbulk.io.IOUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import com.univocity.parsers.common.ParsingContext;
@@ -40,18 +44,28 @@ import com.univocity.parsers.csv.CsvParserSettings;
 import com.univocity.parsers.csv.CsvWriter;
 import com.univocity.parsers.csv.CsvWriterSettings;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLStreamHandler;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.SynchronousSink;
 
 /**
@@ -89,6 +103,10 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private static final String NULL_VALUE = "nullValue";
   private static final String EMPTY_VALUE = "emptyValue";
   private static final String AUTO = "AUTO";
+  private static final String SPLIT_SIZE = "splitSize";
+  private static final String ENGINE = "engine";
+  private static final String UNIVOCITY_ENGINE = "univocity";
+  private static final String BYTES_ENGINE = "bytes";
 
   private String delimiter;
   private char quote;
@@ -105,6 +123,9 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private boolean normalizeLineEndingsInQuotes;
   private String nullValue;
   private String emptyValue;
+  private long splitSize;
+  private boolean splitFiles;
+  private boolean tokenizeBytes;
   private CsvParserSettings parserSettings;
   private CsvWriterSettings writerSettings;
 
@@ -146,6 +167,16 @@ public class CSVConnector extends AbstractFileBasedConnector {
                 "Invalid value for dsbulk.connector.csv.%s: Expecting '%s' or a string containing 1 or 2 chars, got: '%s'",
                 NEWLINE, AUTO_NEWLINE, newline));
       }
+      splitSize = ConfigUtils.getBytes(settings, SPLIT_SIZE);
+      splitFiles = read && splitSize > 0 && canSplitFiles();
+      String engine = settings.getString(ENGINE);
+      if (!UNIVOCITY_ENGINE.equalsIgnoreCase(engine) && !BYTES_ENGINE.equalsIgnoreCase(engine)) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for dsbulk.connector.csv.%s: Expecting '%s' or '%s', got: '%s'",
+                ENGINE, UNIVOCITY_ENGINE, BYTES_ENGINE, engine));
+      }
+      tokenizeBytes = read && BYTES_ENGINE.equalsIgnoreCase(engine) && canTokenizeBytes();
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.connector.csv");
     }
@@ -221,6 +252,8 @@ public class CSVConnector extends AbstractFileBasedConnector {
           return true;
         case DATA_SIZE_SAMPLING:
           return isDataSizeSamplingAvailable();
+        case FIELD_PROJECTION:
+          return read;
       }
     }
     return false;
@@ -229,36 +262,286 @@ public class CSVConnector extends AbstractFileBasedConnector {
   @Override
   @NonNull
   protected RecordReader newSingleFileReader(@NonNull URL url, URI resource) throws IOException {
-    return new CSVRecordReader(url, resource);
+    if (tokenizeBytes) {
+      return new CSVByteRecordReader(url, resource, parserSettings, () -> newInputStream(url));
+    }
+    return new CSVRecordReader(url, resource, parserSettings, () -> newBufferedReader(url));
   }
 
-  private class CSVRecordReader implements RecordReader {
+  @Override
+  protected int countResources(@NonNull URL url) {
+    Path file = getSplittableFile(url);
+    if (file == null) {
+      return 1;
+    }
+    try {
+      return (int) Math.min(Integer.MAX_VALUE, (Files.size(file) + splitSize - 1) / splitSize);
+    } catch (IOException e) {
+      return 1;
+    }
+  }
 
-    private final URL url;
-    private final URI resource;
-    private final CsvParser parser;
-    private final ParsingContext context;
-    private final MappedField[] fieldNames;
+  /**
+   * Splits large files into byte ranges of approximately {@code splitSize} bytes, if enabled; each
+   * range becomes a separate resource that can be parsed concurrently with the others.
+   *
+   * <p>Range boundaries are aligned on record boundaries, as computed by {@link
+   * CSVRecordBoundaryScanner}. Each range resource URI is the file URI followed by a fragment
+   * indicating the (inclusive) byte range, e.g. {@code file:/data/big.csv#bytes=0-134217799};
+   * record positions are relative to the beginning of the range. Boundaries are deterministic for a
+   * given file and split size, which means that operations can be resumed from a checkpoint as long
+   * as the split size is not changed.
+   */
+  @NonNull
+  @Override
+  protected Flux<Resource> createResources(@NonNull URL url) {
+    Path file = getSplittableFile(url);
+    if (file == null) {
+      return super.createResources(url);
+    }
+    return Flux.using(
+        () ->
+            new CSVRecordBoundaryScanner(
+                file, delimiter.charAt(0), quote, escape, comment, ignoreLeadingWhitespaces),
+        scanner -> {
+          CsvParserSettings rangeSettings;
+          try {
+            rangeSettings = header ? newRangeParserSettings(file) : parserSettings;
+          } catch (IOException e) {
+            return Flux.error(asIOException(url, e, "Error reading header of " + url));
+          }
+          return Flux.generate(
+              () -> 0L,
+              (Long start, SynchronousSink<Resource> sink) -> {
+                try {
+                  long end = scanner.nextBoundary(start + splitSize);
+                  // the first range contains the header line, if any
+                  CsvParserSettings settings = start == 0 ? parserSettings : rangeSettings;
+                  sink.next(newRangeResource(url, file, start, end, settings));
+                  if (end >= scanner.size()) {
+                    sink.complete();
+                  }
+                  return end;
+                } catch (IOException e) {
+                  sink.error(e);
+                  return start;
+                }
+              });
+        },
+        scanner -> {
+          try {
+            scanner.close();
+          } catch (IOException e) {
+            LOGGER.error("Error closing " + url, e);
+          }
+        });
+  }
+
+  @NonNull
+  private Resource newRangeResource(
+      @NonNull URL url,
+      @NonNull Path file,
+      long start,
+      long end,
+      @NonNull CsvParserSettings settings) {
+    URI resource = URI.create(url.toExternalForm() + "#bytes=" + start + '-' + (end - 1));
+    LOGGER.debug("Splitting {}: bytes {} to {}", url, start, end - 1);
+    Flux<Record> records =
+        Flux.generate(
+            () ->
+                tokenizeBytes
+                    ? new CSVByteRecordReader(
+                        url, resource, settings, () -> newInputStream(file, start, end - start))
+                    : new CSVRecordReader(
+                        url,
+                        resource,
+                        settings,
+                        () ->
+                            IOUtils.newBufferedReader(
+                                newInputStream(file, start, end - start), encoding)),
+            RecordReader::readNext,
+            recordReader -> {
+              try {
+                recordReader.close();
+              } catch (IOException e) {
+                LOGGER.error("Error closing " + resource, e);
+              }
+            });
+    return new DefaultResource(resource, records);
+  }
+
+  /**
+   * Returns parser settings for ranges that do not start at the beginning of the file: these do not
+   * contain the header line, so the headers must be parsed beforehand, then explicitly set.
+   */
+  @NonNull
+  private CsvParserSettings newRangeParserSettings(@NonNull Path file) throws IOException {
+    CsvParser parser = new CsvParser(parserSettings);
+    try (Reader r = IOUtils.newBufferedReader(file, 0, Long.MAX_VALUE, encoding)) {
+      parser.beginParsing(r);
+      String[] headers = parser.getContext().headers();
+      CsvParserSettings settings = parserSettings.clone();
+      settings.setHeaderExtractionEnabled(false);
+      if (headers != null) {
+        settings.setHeaders(headers);
+      }
+      return settings;
+    } finally {
+      parser.stopParsing();
+    }
+  }
+
+  /**
+   * Returns the local file to split for the given URL, or null if the URL should not be split:
+   * either because splitting is disabled, or because the URL is not a local file, or because the
+   * file is not bigger than {@code splitSize}.
+   */
+  private Path getSplittableFile(@NonNull URL url) {
+    if (!splitFiles || !"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      Path file = Paths.get(url.toURI());
+      return Files.isRegularFile(file) && Files.size(file) > splitSize ? file : null;
+    } catch (URISyntaxException | IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Checks whether the current settings allow files to be split. Record boundaries are detected by
+   * scanning raw bytes, so encodings and special characters must be ASCII-compatible; per-file
+   * limits cannot be honored when a file is split into several resources.
+   */
+  private boolean canSplitFiles() {
+    String reason = null;
+    if (!CompressedIOUtils.isNoneCompression(compression)) {
+      reason = "compressed files cannot be split";
+    } else if (skipRecords > 0 || maxRecords != -1) {
+      reason =
+          String.format(
+              "files cannot be split when connector.csv.%s or connector.csv.%s are set",
+              SKIP_RECORDS, MAX_RECORDS);
+    } else if (!isAsciiCompatible(encoding)) {
+      reason = String.format("files encoded in %s cannot be split", encoding);
+    } else if (delimiter.length() != 1
+        || !isAscii(delimiter.charAt(0))
+        || !isAscii(quote)
+        || !isAscii(escape)
+        || !isAscii(comment)) {
+      reason = "files can only be split when delimiter, quote, escape and comment are ASCII chars";
+    } else if (!AUTO_NEWLINE.equalsIgnoreCase(newline)
+        && newline.charAt(newline.length() - 1) != '\n') {
+      reason = "files can only be split when records are terminated by a line feed";
+    }
+    if (reason != null) {
+      LOGGER.warn("Ignoring connector.csv.{}: {}.", SPLIT_SIZE, reason);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether the current settings allow records to be tokenized by {@link CSVByteTokenizer}.
+   * The tokenizer scans raw bytes, so encodings and special characters must be ASCII-compatible; it
+   * also does not trim values.
+   */
+  private boolean canTokenizeBytes() {
+    String reason = null;
+    if (!isAsciiCompatible(encoding)) {
+      reason = String.format("files encoded in %s cannot be tokenized as bytes", encoding);
+    } else if (delimiter.length() != 1
+        || !isAscii(delimiter.charAt(0))
+        || !isAscii(quote)
+        || !isAscii(escape)
+        || !isAscii(comment)) {
+      reason = "delimiter, quote, escape and comment must be ASCII chars";
+    } else if (quote == escape) {
+      reason = "quotes must not be escaped by doubling them";
+    } else if (!AUTO_NEWLINE.equalsIgnoreCase(newline)
+        && !newline.equals("\n")
+        && !newline.equals("\r\n")) {
+      reason =
+          "records must be terminated by a line feed, optionally preceded by a carriage return";
+    } else if (ignoreLeadingWhitespaces
+        || ignoreTrailingWhitespaces
+        || ignoreLeadingWhitespacesInQuotes
+        || ignoreTrailingWhitespacesInQuotes
+        || normalizeLineEndingsInQuotes) {
+      reason = "whitespaces and line endings in values must be preserved";
+    }
+    if (reason != null) {
+      LOGGER.warn(
+          "Ignoring connector.csv.{}: {}; using the {} engine.", ENGINE, reason, UNIVOCITY_ENGINE);
+      return false;
+    }
+    return true;
+  }
+
+  private static boolean isAsciiCompatible(Charset charset) {
+    return charset.equals(StandardCharsets.UTF_8)
+        || charset.equals(StandardCharsets.US_ASCII)
+        || charset.equals(StandardCharsets.ISO_8859_1);
+  }
 
-    private long recordNumber = 1;
+  private static boolean isAscii(char c) {
+    return c < 0x80;
+  }
+
+  /** Base class for record readers, regardless of the engine used to parse records. */
+  private abstract class AbstractCSVRecordReader implements RecordReader {
+
+    final URL url;
+    final URI resource;
+
+    private FieldTable mappedFields;
+    private FieldTable indexedFields = FieldTable.indexed(0);
+    long recordNumber = 1;
 
-    private CSVRecordReader(URL url, URI resource) throws IOException {
+    AbstractCSVRecordReader(URL url, URI resource) {
       this.url = url;
       this.resource = resource;
-      try {
-        parser = new CsvParser(parserSettings);
-        Reader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
-        parser.beginParsing(r);
-        context = parser.getContext();
-        fieldNames = header ? getFieldNames(url, context) : null;
-      } catch (Exception e) {
-        throw asIOException(url, e, "Error creating CSV parser for " + url);
+    }
+
+    void setHeaders(String[] parsedHeaders) throws IOException {
+      // each value is accessible both by name and by index
+      mappedFields = project(FieldTable.mappedAndIndexed(getFieldNames(url, parsedHeaders)));
+    }
+
+    @NonNull
+    private FieldTable project(@NonNull FieldTable fields) {
+      return projection == null ? fields : fields.project(projection);
+    }
+
+    /** @return the columns whose values are needed, or null if all values are needed. */
+    @Nullable
+    boolean[] getSelectedColumns() {
+      if (projection == null) {
+        return null;
       }
+      boolean[] selected;
+      if (header) {
+        selected = new boolean[mappedFields.getValueCount()];
+        for (int i = 0; i < mappedFields.size(); i++) {
+          selected[mappedFields.getSlot(i)] = true;
+        }
+      } else {
+        selected = new boolean[0];
+        for (Field field : projection) {
+          if (field instanceof IndexedField) {
+            int index = ((IndexedField) field).getFieldIndex();
+            if (index >= selected.length) {
+              selected = Arrays.copyOf(selected, index + 1);
+            }
+            selected[index] = true;
+          }
+        }
+      }
+      return selected;
     }
 
-    private MappedField[] getFieldNames(URL url, ParsingContext context) throws IOException {
+    private MappedField[] getFieldNames(URL url, String[] parsedHeaders) throws IOException {
       List<String> fieldNames = new ArrayList<>();
-      String[] parsedHeaders = context.headers();
       if (parsedHeaders == null) {
         throw new IOException(
             String.format("The parsed headers from provided url: %s are null", url));
@@ -282,13 +565,58 @@ public class CSVConnector extends AbstractFileBasedConnector {
       }
     }
 
+    @NonNull
+    Record newRecord(Object[] values, String source) {
+      Record record;
+      try {
+        FieldTable fields;
+        if (header) {
+          fields = mappedFields;
+        } else {
+          // records usually all have the same number of values, so the table can be reused
+          if (indexedFields.getValueCount() != values.length) {
+            indexedFields = project(FieldTable.indexed(values.length));
+          }
+          fields = indexedFields;
+        }
+        record = new ArrayBackedRecord(source, resource, recordNumber++, fields, values);
+      } catch (Exception e) {
+        record = new DefaultErrorRecord(source, resource, recordNumber, e);
+      }
+      return record;
+    }
+  }
+
+  private class CSVRecordReader extends AbstractCSVRecordReader {
+
+    private final CsvParser parser;
+    private final ParsingContext context;
+
+    private CSVRecordReader(
+        URL url, URI resource, CsvParserSettings settings, Callable<Reader> readerFactory)
+        throws IOException {
+      super(url, resource);
+      try {
+        parser = new CsvParser(settings);
+        Reader r = readerFactory.call();
+        parser.beginParsing(r);
+        context = parser.getContext();
+        if (header) {
+          setHeaders(context.headers());
+        }
+      } catch (Exception e) {
+        throw asIOException(url, e, "Error creating CSV parser for " + url);
+      }
+    }
+
     @NonNull
     @Override
-    public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+    public CSVRecordReader readNext(@NonNull SynchronousSink<Record> sink) {
       try {
         com.univocity.parsers.common.record.Record row = parser.parseNextRecord();
         if (row != null) {
-          Record record = parseNext(row);
+          String source = retainRecordSources ? context.currentParsedContent() : null;
+          Record record = newRecord(row.getValues(), source);
           LOGGER.trace("Emitting record {}", record);
           sink.next(record);
         } else {
@@ -304,34 +632,66 @@ public class CSVConnector extends AbstractFileBasedConnector {
       return this;
     }
 
-    @NonNull
-    private Record parseNext(com.univocity.parsers.common.record.Record row) {
-      String source = retainRecordSources ? context.currentParsedContent() : null;
-      Record record;
+    @Override
+    public void close() {
+      if (parser != null) {
+        parser.stopParsing();
+      }
+    }
+  }
+
+  /** A record reader that tokenizes raw bytes with {@link CSVByteTokenizer}. */
+  private class CSVByteRecordReader extends AbstractCSVRecordReader {
+
+    private final CSVByteTokenizer tokenizer;
+
+    private CSVByteRecordReader(
+        URL url, URI resource, CsvParserSettings settings, Callable<InputStream> inputFactory)
+        throws IOException {
+      super(url, resource);
       try {
-        Object[] values = row.getValues();
+        tokenizer = new CSVByteTokenizer(inputFactory.call(), encoding, settings);
         if (header) {
-          record = DefaultRecord.mapped(source, resource, recordNumber++, fieldNames, values);
-          // also emit indexed fields
-          for (int i = 0; i < values.length; i++) {
-            DefaultIndexedField field = new DefaultIndexedField(i);
-            Object value = values[i];
-            ((DefaultRecord) record).setFieldValue(field, value);
-          }
-        } else {
-          record = DefaultRecord.indexed(source, resource, recordNumber++, values);
+          // ranges other than the first one do not contain the header line
+          setHeaders(
+              settings.isHeaderExtractionEnabled() ? tokenizer.parseNext() : settings.getHeaders());
         }
+        tokenizer.selectColumns(getSelectedColumns());
       } catch (Exception e) {
-        record = new DefaultErrorRecord(source, resource, recordNumber, e);
+        throw asIOException(url, e, "Error creating CSV parser for " + url);
       }
-      return record;
     }
 
+    @NonNull
     @Override
-    public void close() {
-      if (parser != null) {
-        parser.stopParsing();
+    public CSVByteRecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+      try {
+        String[] values = tokenizer.parseNext();
+        if (values != null) {
+          String source = retainRecordSources ? tokenizer.currentParsedContent() : null;
+          Record record = newRecord(values, source);
+          LOGGER.trace("Emitting record {}", record);
+          sink.next(record);
+        } else {
+          LOGGER.debug("Done reading {}", url);
+          sink.complete();
+        }
+      } catch (TextParsingException e) {
+        // records that are not tokenized directly are parsed one by one, so the line index
+        // reported by the parser is meaningless
+        sink.error(launderTextParsingException(e, url, recordNumber));
+      } catch (Exception e) {
+        IOException error =
+            asIOException(
+                url, e, String.format("Error reading from %s at line %d", url, recordNumber));
+        sink.error(error);
       }
+      return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+      tokenizer.close();
     }
   }
 
@@ -344,6 +704,7 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private class CSVRecordWriter implements RecordWriter {
 
     private URL url;
+    private OutputFile file;
     private CsvWriter writer;
 
     @Override
@@ -372,15 +733,14 @@ public class CSVConnector extends AbstractFileBasedConnector {
     }
 
     private boolean shouldRoll() {
-      return !roots.isEmpty() && writer.getRecordCount() == maxRecords;
+      return CSVConnector.this.shouldRoll(file, writer.getRecordCount());
     }
 
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
-        writer =
-            new CsvWriter(
-                CompressedIOUtils.newBufferedWriter(url, encoding, compression), writerSettings);
+        file = newOutputFile(url);
+        writer = new CsvWriter(file.getWriter(), writerSettings);
         LOGGER.debug("Writing {}", url);
       } catch (ClosedChannelException e) {
         // OK, happens when the channel was closed due to interruption
@@ -421,16 +781,18 @@ public class CSVConnector extends AbstractFileBasedConnector {
   private IOException asIOException(@NonNull URL url, Exception e, String genericErrorMessage) {
     IOException error;
     if (e instanceof TextParsingException) {
-      error = launderTextParsingException(((TextParsingException) e), url);
+      TextParsingException tpe = (TextParsingException) e;
+      error = launderTextParsingException(tpe, url, tpe.getLineIndex());
     } else if (e.getCause() instanceof TextParsingException) {
-      error = launderTextParsingException(((TextParsingException) e.getCause()), url);
+      TextParsingException tpe = (TextParsingException) e.getCause();
+      error = launderTextParsingException(tpe, url, tpe.getLineIndex());
     } else {
       error = new IOException(genericErrorMessage, e);
     }
     return error;
   }
 
-  private IOException launderTextParsingException(TextParsingException e, URL url) {
+  private IOException launderTextParsingException(TextParsingException e, URL url, long line) {
     // TextParsingException messages are very verbose, so we wrap these exceptions
     // in an IOE that only keeps the first sentence.
     String message = e.getMessage();
@@ -454,6 +816,6 @@ public class CSVConnector extends AbstractFileBasedConnector {
       }
     }
     return new IOException(
-        String.format("Error reading from %s at line %d: %s", url, e.getLineIndex(), message), e);
+        String.format("Error reading from %s at line %d: %s", url, line, message), e);
   }
 }
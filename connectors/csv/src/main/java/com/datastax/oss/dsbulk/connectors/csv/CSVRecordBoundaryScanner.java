@@ -0,0 +1,188 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scans a CSV file sequentially to locate record boundaries, that is, byte offsets at which a new
+ * record begins.
+ *
+ * <p>Finding a record boundary in the middle of a CSV file is ambiguous, since line separators may
+ * appear inside quoted values; this is why this scanner always starts at the beginning of the file
+ * and tracks the quoting state of every byte it sees. This is still much cheaper than actually
+ * parsing the file, since no value is ever materialized.
+ *
+ * <p>The scanner operates on raw bytes and therefore only works with ASCII-compatible encodings,
+ * and with delimiter, quote, escape and comment characters that are encoded as single ASCII bytes.
+ * Records must be terminated by a line feed, optionally preceded by a carriage return.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class CSVRecordBoundaryScanner implements AutoCloseable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private enum State {
+    FIELD_START,
+    UNQUOTED,
+    QUOTED,
+    QUOTED_ESCAPE,
+    AFTER_QUOTE,
+    COMMENT
+  }
+
+  private final FileChannel channel;
+  private final long size;
+  private final byte delimiter;
+  private final byte quote;
+  private final byte escape;
+  private final byte comment;
+  private final boolean ignoreLeadingWhitespaces;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+  private State state = State.FIELD_START;
+  private boolean lineStart = true;
+  private long position = 0;
+
+  CSVRecordBoundaryScanner(
+      @NonNull Path file,
+      char delimiter,
+      char quote,
+      char escape,
+      char comment,
+      boolean ignoreLeadingWhitespaces)
+      throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.delimiter = (byte) delimiter;
+    this.quote = (byte) quote;
+    this.escape = (byte) escape;
+    this.comment = (byte) comment;
+    this.ignoreLeadingWhitespaces = ignoreLeadingWhitespaces;
+    buffer.flip();
+  }
+
+  /** @return the size of the scanned file, in bytes. */
+  long size() {
+    return size;
+  }
+
+  /**
+   * Returns the offset of the first record boundary located at or after the given offset, or the
+   * file size, if there is no such boundary.
+   *
+   * <p>Successive invocations of this method must be made with increasing offsets; boundaries
+   * located before the current scanning position cannot be found anymore.
+   *
+   * @param offset The offset to start searching from.
+   * @return The offset of the next record boundary, or the file size.
+   */
+  long nextBoundary(long offset) throws IOException {
+    if (lineStart && position >= offset) {
+      return position;
+    }
+    while (position < size) {
+      if (!buffer.hasRemaining()) {
+        buffer.clear();
+        if (channel.read(buffer, position) == -1) {
+          break;
+        }
+        buffer.flip();
+      }
+      byte b = buffer.get();
+      position++;
+      if (advance(b) && position >= offset) {
+        return position;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Advances the state machine by one byte.
+   *
+   * @return true if the byte terminated a record, false otherwise.
+   */
+  private boolean advance(byte b) {
+    switch (state) {
+      case FIELD_START:
+        if (lineStart && comment != 0 && b == comment) {
+          state = State.COMMENT;
+        } else if (b == quote) {
+          state = State.QUOTED;
+        } else if (b == '\n') {
+          return endRecord();
+        } else if (b != delimiter
+            && b != '\r'
+            && !(ignoreLeadingWhitespaces && (b == ' ' || b == '\t'))) {
+          state = State.UNQUOTED;
+        }
+        break;
+      case UNQUOTED:
+        if (b == delimiter) {
+          state = State.FIELD_START;
+        } else if (b == '\n') {
+          return endRecord();
+        }
+        break;
+      case QUOTED:
+        if (b == escape && escape != quote) {
+          state = State.QUOTED_ESCAPE;
+        } else if (b == quote) {
+          state = State.AFTER_QUOTE;
+        }
+        break;
+      case QUOTED_ESCAPE:
+        state = State.QUOTED;
+        break;
+      case AFTER_QUOTE:
+        if (b == delimiter) {
+          state = State.FIELD_START;
+        } else if (b == '\n') {
+          return endRecord();
+        } else if (b != '\r' && b != ' ' && b != '\t') {
+          // either an escaped quote (when the escape char is the quote char itself), or an
+          // unescaped quote inside a quoted value: in both cases the value goes on
+          state = State.QUOTED;
+        }
+        break;
+      case COMMENT:
+        if (b == '\n') {
+          return endRecord();
+        }
+        break;
+    }
+    lineStart = false;
+    return false;
+  }
+
+  private boolean endRecord() {
+    state = State.FIELD_START;
+    lineStart = true;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
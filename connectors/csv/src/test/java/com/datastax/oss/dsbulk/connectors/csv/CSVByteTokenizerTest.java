@@ -0,0 +1,178 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.connectors.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.univocity.parsers.common.record.Record;
+import com.univocity.parsers.csv.CsvParser;
+import com.univocity.parsers.csv.CsvParserSettings;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CSVByteTokenizerTest {
+
+  private static final String[] TOKENS = {
+    "a",
+    "bc",
+    "\u00e9\u20ac",
+    " ",
+    ",",
+    "\"",
+    "\"\"",
+    "\\",
+    "\\\"",
+    "#",
+    "\n",
+    "\r",
+    "\r\n",
+    "\r\n",
+    "\n",
+    ",,",
+    "\"x\"",
+    "\"y,z\"",
+    "\"\n\"",
+    "plain"
+  };
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3})
+  void should_tokenize_like_univocity(int variant) throws Exception {
+    Random random = new Random(variant);
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder sb = new StringBuilder();
+      if (random.nextInt(10) == 0) {
+        sb.append('\uFEFF');
+      }
+      int length = random.nextInt(40);
+      for (int j = 0; j < length; j++) {
+        sb.append(TOKENS[random.nextInt(TOKENS.length)]);
+      }
+      CsvParserSettings settings = newSettings(variant);
+      assertSameRecords(sb.toString().getBytes(UTF_8), settings);
+    }
+  }
+
+  @Test
+  void should_tokenize_records_spanning_buffer_boundaries() throws Exception {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < 1_000_000) {
+      switch (random.nextInt(5)) {
+        case 0:
+          sb.append("\"quoted,\r\nvalue\"");
+          break;
+        case 1:
+          sb.append("\"escaped \\\" quote\"");
+          break;
+        case 2:
+          char[] chars = new char[random.nextInt(200)];
+          Arrays.fill(chars, 'x');
+          sb.append(chars);
+          break;
+        default:
+          sb.append(random.nextInt());
+      }
+      sb.append(random.nextInt(4) == 0 ? "\r\n" : ",");
+    }
+    assertSameRecords(sb.toString().getBytes(UTF_8), newSettings(0));
+  }
+
+  @Test
+  void should_not_decode_unselected_columns() throws Exception {
+    byte[] input = "a,\"b\\\"\",c,\"\",d\n\"e\",f\n".getBytes(UTF_8);
+    try (CSVByteTokenizer tokenizer =
+        new CSVByteTokenizer(new ByteArrayInputStream(input), UTF_8, newSettings(0))) {
+      tokenizer.selectColumns(new boolean[] {false, true, false, true});
+      assertThat(tokenizer.parseNext()).containsExactly(null, "b\"", null, "", null);
+      assertThat(tokenizer.parseNext()).containsExactly(null, "f");
+      assertThat(tokenizer.parseNext()).isNull();
+    }
+  }
+
+  private static CsvParserSettings newSettings(int variant) {
+    CsvParserSettings settings = new CsvParserSettings();
+    settings.getFormat().setDelimiter(',');
+    settings.getFormat().setQuote('"');
+    settings.getFormat().setQuoteEscape('\\');
+    settings.setNullValue(null);
+    settings.setEmptyValue("");
+    settings.setLineSeparatorDetectionEnabled(true);
+    settings.setIgnoreLeadingWhitespaces(false);
+    settings.setIgnoreTrailingWhitespaces(false);
+    settings.setIgnoreLeadingWhitespacesInQuotes(false);
+    settings.setIgnoreTrailingWhitespacesInQuotes(false);
+    settings.setNormalizeLineEndingsWithinQuotes(false);
+    settings.setMaxCharsPerColumn(-1);
+    settings.setMaxColumns(512);
+    switch (variant) {
+      case 1:
+        settings.getFormat().setComment('#');
+        settings.setNullValue("NULL");
+        settings.setEmptyValue("EMPTY");
+        break;
+      case 2:
+        settings.setLineSeparatorDetectionEnabled(false);
+        settings.getFormat().setLineSeparator("\r\n");
+        break;
+      case 3:
+        settings.setMaxCharsPerColumn(8);
+        settings.setMaxColumns(4);
+        break;
+      default:
+    }
+    return settings;
+  }
+
+  private static void assertSameRecords(byte[] input, CsvParserSettings settings) throws Exception {
+    List<Object> expected = new ArrayList<>();
+    CsvParser parser = new CsvParser(settings.clone());
+    try {
+      parser.beginParsing(new InputStreamReader(new ByteArrayInputStream(input), UTF_8));
+      Record record;
+      while ((record = parser.parseNextRecord()) != null) {
+        expected.add(Arrays.asList(record.getValues()));
+        expected.add(parser.getContext().currentParsedContent());
+      }
+    } catch (Exception e) {
+      expected.add(e.getClass());
+    } finally {
+      parser.stopParsing();
+    }
+    List<Object> actual = new ArrayList<>();
+    try (CSVByteTokenizer tokenizer =
+        new CSVByteTokenizer(new ByteArrayInputStream(input), UTF_8, settings.clone())) {
+      String[] values;
+      while ((values = tokenizer.parseNext()) != null) {
+        actual.add(Arrays.asList(values));
+        actual.add(tokenizer.currentParsedContent());
+      }
+    } catch (Exception e) {
+      actual.add(e.getClass());
+    }
+    assertThat(actual)
+        .as("input: %s", new String(input, UTF_8).replace("\r", "\\r").replace("\n", "\\n"))
+        .isEqualTo(expected);
+  }
+}
@@ -17,7 +17,11 @@ package com.datastax.oss.dsbulk.connectors.csv;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +33,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
 import com.datastax.oss.driver.shaded.guava.common.base.Strings;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultIndexedField;
@@ -49,6 +54,7 @@ import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
 import com.univocity.parsers.common.TextParsingException;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
@@ -83,6 +89,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.reactivestreams.Publisher;
@@ -689,6 +696,49 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_write_single_file_compressed_gzip_in_parallel() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(out),
+              "escape",
+              "\"\\\"\"",
+              "maxConcurrentFiles",
+              1,
+              "compression",
+              "\"gzip\"",
+              "compressionThreads",
+              2);
+      connector.configure(settings, false, true);
+      connector.init();
+      Flux.fromIterable(createRecords()).transform(connector.write()).blockLast();
+      connector.close();
+      Path outPath = out.resolve("output-000001.csv.gz");
+      BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(
+                  new GZIPInputStream(Files.newInputStream(outPath)), Charsets.UTF_8));
+      List<String> actual = reader.lines().collect(Collectors.toList());
+      reader.close();
+      assertThat(actual)
+          .containsExactly(
+              "Year,Make,Model,Description,Price",
+              "1997,Ford,E350,\"  ac, abs, moon  \",3000.00",
+              "1999,Chevy,\"Venture \"\"Extended Edition\"\"\",,4900.00",
+              "1996,Jeep,Grand Cherokee,\"MUST SELL!",
+              "air, moon roof, loaded\",4799.00",
+              "1999,Chevy,\"Venture \"\"Extended Edition, Very Large\"\"\",,5000.00",
+              ",,\"Venture \"\"Extended Edition\"\"\",,4900.00");
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
   @Test
   void should_write_single_file_compressed_gzip_custom_file_format() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -849,6 +899,49 @@ class CSVConnectorTest {
     }
   }
 
+  @Test
+  void should_roll_file_when_max_bytes_reached() throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Path out = Files.createTempDirectory("test");
+    try {
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(out),
+              "escape",
+              "\"\\\"\"",
+              "maxConcurrentFiles",
+              1,
+              "maxBytesPerFile",
+              1);
+      connector.configure(settings, false, true);
+      connector.init();
+      List<Record> records = createRecords();
+      // bytes are only accounted for once flushed, which happens at the end of each write flux
+      Flux.fromIterable(records.subList(0, 2)).transform(connector.write()).blockLast();
+      Flux.fromIterable(records.subList(2, 5)).transform(connector.write()).blockLast();
+      connector.close();
+      List<String> csv1 = Files.readAllLines(out.resolve("output-000001.csv"));
+      List<String> csv2 = Files.readAllLines(out.resolve("output-000002.csv"));
+      assertThat(csv1)
+          .containsExactly(
+              "Year,Make,Model,Description,Price",
+              "1997,Ford,E350,\"  ac, abs, moon  \",3000.00",
+              "1999,Chevy,\"Venture \"\"Extended Edition\"\"\",,4900.00");
+      assertThat(csv2)
+          .containsExactly(
+              "Year,Make,Model,Description,Price",
+              "1996,Jeep,Grand Cherokee,\"MUST SELL!",
+              "air, moon roof, loaded\",4799.00",
+              "1999,Chevy,\"Venture \"\"Extended Edition, Very Large\"\"\",,5000.00",
+              ",,\"Venture \"\"Extended Edition\"\"\",,4900.00");
+      assertThat(out.resolve("output-000003.csv")).doesNotExist();
+    } finally {
+      FileUtils.deleteDirectory(out);
+    }
+  }
+
   @Test
   void should_return_unmappable_record_when_line_malformed() throws Exception {
     InputStream stdin = System.in;
@@ -1482,6 +1575,39 @@ class CSVConnectorTest {
     connector.close();
   }
 
+  @Test
+  void should_write_to_s3_prefix_and_roll_files(@Wiremock WireMockServer server) throws Exception {
+    // WireMock acts as a local S3-compatible stand-in, reached with path-style requests
+    server.givenThat(
+        put(urlPathMatching("/test-bucket/prefix/.*")).willReturn(aResponse().withStatus(200)));
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv",
+            "url",
+            String.format(
+                "\"s3://test-bucket/prefix/?region=us-west-2&endpoint=%s"
+                    + "&accessKeyId=key&secretAccessKey=secret\"",
+                server.baseUrl()),
+            "escape",
+            "\"\\\"\"",
+            "maxConcurrentFiles",
+            1,
+            "maxRecords",
+            4);
+    connector.configure(settings, false, true);
+    connector.init();
+    assertThat(connector.writeConcurrency()).isOne();
+    Flux.fromIterable(createRecords()).transform(connector.write()).blockLast();
+    connector.close();
+    server.verify(
+        putRequestedFor(urlPathEqualTo("/test-bucket/prefix/output-000001.csv"))
+            .withRequestBody(containing("1997,Ford,E350")));
+    server.verify(
+        putRequestedFor(urlPathEqualTo("/test-bucket/prefix/output-000002.csv"))
+            .withRequestBody(containing("Extended Edition, Very Large")));
+  }
+
   @Test
   void should_throw_IOE_when_max_chars_per_column_exceeded() throws Exception {
     CSVConnector connector = new CSVConnector();
@@ -1945,6 +2071,306 @@ class CSVConnectorTest {
     connector.close();
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"\\n", "\\r\\n"})
+  void should_split_large_file_into_ranges(String newline) throws Exception {
+    String separator = newline.replace("\\r", "\r").replace("\\n", "\n");
+    Path file = Files.createTempFile("split", ".csv");
+    try {
+      StringBuilder sb = new StringBuilder("id,text,comment").append(separator);
+      for (int i = 0; i < 500; i++) {
+        sb.append(i).append(',');
+        switch (i % 4) {
+          case 0:
+            // embedded newlines and delimiters
+            sb.append("\"multi").append(separator).append("line, value\"");
+            break;
+          case 1:
+            // escaped quotes
+            sb.append("\"quoted \\\"value\\\"\"");
+            break;
+          case 2:
+            // quote in unquoted value
+            sb.append("unquoted\"value");
+            break;
+          default:
+            sb.append("plain");
+        }
+        sb.append(',').append(i % 3 == 0 ? "\"\"" : "c" + i).append(separator);
+      }
+      Files.write(file, sb.toString().getBytes(UTF_8));
+      List<Record> expected = readFile(file, -1);
+      List<Resource> ranges = new ArrayList<>();
+      List<Record> actual = new ArrayList<>();
+      CSVConnector connector = new CSVConnector();
+      connector.configure(splitSettings(file, 1000), true, true);
+      connector.init();
+      assertThat(connector.readConcurrency()).isGreaterThan(1);
+      Flux.from(connector.read())
+          .doOnNext(ranges::add)
+          .concatMap(Resource::read)
+          .doOnNext(actual::add)
+          .blockLast();
+      connector.close();
+      assertThat(ranges).hasSizeGreaterThan(1);
+      long nextStart = 0;
+      for (Resource range : ranges) {
+        String fragment = range.getURI().getFragment();
+        assertThat(fragment).startsWith("bytes=" + nextStart + "-");
+        nextStart = Long.parseLong(fragment.substring(fragment.indexOf('-') + 1)) + 1;
+      }
+      assertThat(nextStart).isEqualTo(Files.size(file));
+      assertThat(actual).hasSameSizeAs(expected).hasSize(500);
+      for (int i = 0; i < expected.size(); i++) {
+        assertThat(actual.get(i).fields()).containsExactlyElementsOf(expected.get(i).fields());
+        assertThat(actual.get(i).values()).containsExactlyElementsOf(expected.get(i).values());
+        assertThat(actual.get(i).getSource()).isEqualTo(expected.get(i).getSource());
+      }
+      // positions are relative to each range
+      assertThat(actual).filteredOn(r -> r.getPosition() == 1).hasSameSizeAs(ranges);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_not_split_file_when_skipRecords_set(@LogCapture LogInterceptor logs)
+      throws Exception {
+    Path file = Files.createTempFile("split", ".csv");
+    try {
+      StringBuilder sb = new StringBuilder("a,b\n");
+      for (int i = 0; i < 100; i++) {
+        sb.append(i).append(",foo\n");
+      }
+      Files.write(file, sb.toString().getBytes(UTF_8));
+      CSVConnector connector = new CSVConnector();
+      Config settings =
+          TestConfigUtils.createTestConfig(
+              "dsbulk.connector.csv",
+              "url",
+              StringUtils.quoteJson(file),
+              "splitSize",
+              100,
+              "skipRecords",
+              10);
+      connector.configure(settings, true, true);
+      connector.init();
+      assertThat(logs.getLoggedMessages())
+          .contains(
+              "Ignoring connector.csv.splitSize: files cannot be split "
+                  + "when connector.csv.skipRecords or connector.csv.maxRecords are set.");
+      List<Resource> resources = Flux.from(connector.read()).collectList().block();
+      assertThat(resources).hasSize(1);
+      assertThat(Flux.from(resources.get(0).read()).count().block()).isEqualTo(90);
+      connector.close();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({"\\n,-1", "\\r\\n,-1", "\\n,1000", "\\r\\n,1000"})
+  void should_read_same_records_with_bytes_engine(String newline, long splitSize) throws Exception {
+    String separator = newline.replace("\\r", "\r").replace("\\n", "\n");
+    Path file = Files.createTempFile("bytes", ".csv");
+    try {
+      StringBuilder sb = new StringBuilder("id,text,comment").append(separator);
+      for (int i = 0; i < 500; i++) {
+        sb.append(i).append(',');
+        switch (i % 6) {
+          case 0:
+            sb.append("\"multi").append(separator).append("line, value\"");
+            break;
+          case 1:
+            sb.append("\"quoted \\\"value\\\"\"");
+            break;
+          case 2:
+            sb.append("unquoted\"value");
+            break;
+          case 3:
+            sb.append("\"doubled \"\"quotes\"\"\"");
+            break;
+          case 4:
+            sb.append("non-ascii \u00e9\u20ac");
+            break;
+          default:
+            sb.append("plain");
+        }
+        sb.append(',').append(i % 3 == 0 ? "\"\"" : i % 3 == 1 ? "" : "c" + i).append(separator);
+        if (i % 50 == 0) {
+          sb.append(separator);
+        }
+      }
+      Files.write(file, sb.toString().getBytes(UTF_8));
+      List<Record> expected = readFile(file, splitSize, "univocity");
+      List<Record> actual = readFile(file, splitSize, "bytes");
+      assertThat(actual).hasSameSizeAs(expected).hasSize(500);
+      for (int i = 0; i < expected.size(); i++) {
+        assertThat(actual.get(i).getResource()).isEqualTo(expected.get(i).getResource());
+        assertThat(actual.get(i).getPosition()).isEqualTo(expected.get(i).getPosition());
+        assertThat(actual.get(i).fields()).containsExactlyElementsOf(expected.get(i).fields());
+        assertThat(actual.get(i).values()).containsExactlyElementsOf(expected.get(i).values());
+        assertThat(actual.get(i).getSource()).isEqualTo(expected.get(i).getSource());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({"univocity,-1", "bytes,-1", "univocity,1000", "bytes,1000"})
+  void should_read_same_records_when_memory_mapped(String engine, long splitSize) throws Exception {
+    Path file = Files.createTempFile("mmap", ".csv");
+    try {
+      StringBuilder sb = new StringBuilder("id,text").append('\n');
+      for (int i = 0; i < 500; i++) {
+        sb.append(i).append(',').append(i % 2 == 0 ? "\"quoted,\nvalue\"" : "plain").append('\n');
+      }
+      Files.write(file, sb.toString().getBytes(UTF_8));
+      List<Record> expected = readFile(file, splitSize, engine);
+      CSVConnector connector = new CSVConnector();
+      connector.configure(
+          splitSettings(file, splitSize, engine)
+              .withValue("memoryMapped", ConfigValueFactory.fromAnyRef(true)),
+          true,
+          true);
+      connector.init();
+      List<Record> actual =
+          Flux.from(connector.read()).concatMap(Resource::read).collectList().block();
+      connector.close();
+      assertThat(actual).hasSize(500);
+      for (int i = 0; i < expected.size(); i++) {
+        assertThat(actual.get(i).getResource()).isEqualTo(expected.get(i).getResource());
+        assertThat(actual.get(i).values()).containsExactlyElementsOf(expected.get(i).values());
+        assertThat(actual.get(i).getSource()).isEqualTo(expected.get(i).getSource());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({"univocity,true", "bytes,true", "univocity,false", "bytes,false"})
+  void should_read_projected_records(String engine, boolean header) throws Exception {
+    Path file = Files.createTempFile("projection", ".csv");
+    try {
+      StringBuilder sb = new StringBuilder();
+      if (header) {
+        sb.append("a,b,c\n");
+      }
+      for (int i = 0; i < 100; i++) {
+        sb.append(i).append(",\"quoted \\\"").append(i).append("\\\"\",c").append(i).append('\n');
+      }
+      // a record with a missing value must still be reported as an error
+      sb.append("100,b100\n");
+      Files.write(file, sb.toString().getBytes(UTF_8));
+      Field a = new DefaultMappedField("a");
+      Field b = new DefaultMappedField("b");
+      Field c = new DefaultIndexedField(2);
+      CSVConnector connector = new CSVConnector();
+      connector.configure(
+          splitSettings(file, -1, engine)
+              .withValue("header", ConfigValueFactory.fromAnyRef(header)),
+          true,
+          false);
+      connector.init();
+      assertThat(connector.supports(CommonConnectorFeature.FIELD_PROJECTION)).isTrue();
+      connector.project(ImmutableSet.of(a, new DefaultIndexedField(0), c));
+      List<Record> records =
+          Flux.from(connector.read()).concatMap(Resource::read).collectList().block();
+      connector.close();
+      assertThat(records).hasSize(101);
+      for (int i = 0; i < 100; i++) {
+        Record record = records.get(i);
+        if (header) {
+          assertThat(record.fields())
+              .containsExactly(a, new DefaultMappedField("c"), new DefaultIndexedField(0), c);
+          assertThat(record.getFieldValue(a)).isEqualTo(String.valueOf(i));
+          assertThat(record.getFieldValue(b)).isNull();
+        } else {
+          assertThat(record.fields()).containsExactly(new DefaultIndexedField(0), c);
+        }
+        assertThat(record.getFieldValue(new DefaultIndexedField(0))).isEqualTo(String.valueOf(i));
+        assertThat(record.getFieldValue(new DefaultIndexedField(1))).isNull();
+        assertThat(record.getFieldValue(c)).isEqualTo("c" + i);
+      }
+      if (header) {
+        assertThat(records.get(100)).isInstanceOf(ErrorRecord.class);
+      } else {
+        assertThat(records.get(100).fields()).containsExactly(new DefaultIndexedField(0));
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_use_univocity_engine_when_bytes_engine_not_applicable(@LogCapture LogInterceptor logs)
+      throws Exception {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.csv",
+            "url",
+            url("/sample.csv"),
+            "engine",
+            "bytes",
+            "escape",
+            "\"\\\"\"",
+            "comment",
+            "\"#\"");
+    connector.configure(settings, true, true);
+    assertThat(logs.getLoggedMessages())
+        .contains(
+            "Ignoring connector.csv.engine: quotes must not be escaped by doubling them; "
+                + "using the univocity engine.");
+    connector.init();
+    assertThat(Flux.from(connector.read()).concatMap(Resource::read).count().block()).isEqualTo(5);
+    connector.close();
+  }
+
+  @Test
+  void should_throw_exception_when_engine_invalid() {
+    CSVConnector connector = new CSVConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig("dsbulk.connector.csv", "engine", "\"simd\"");
+    assertThatThrownBy(() -> connector.configure(settings, true, true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage(
+            "Invalid value for dsbulk.connector.csv.engine: Expecting 'univocity' or 'bytes', got: 'simd'");
+  }
+
+  private static Config splitSettings(Path file, long splitSize) {
+    return splitSettings(file, splitSize, "univocity");
+  }
+
+  private static Config splitSettings(Path file, long splitSize, String engine) {
+    return TestConfigUtils.createTestConfig(
+        "dsbulk.connector.csv",
+        "url",
+        StringUtils.quoteJson(file),
+        "splitSize",
+        splitSize,
+        "maxConcurrentFiles",
+        4,
+        "engine",
+        engine);
+  }
+
+  private static List<Record> readFile(Path file, long splitSize) throws Exception {
+    return readFile(file, splitSize, "univocity");
+  }
+
+  private static List<Record> readFile(Path file, long splitSize, String engine) throws Exception {
+    CSVConnector connector = new CSVConnector();
+    connector.configure(splitSettings(file, splitSize, engine), true, true);
+    connector.init();
+    List<Record> records =
+        Flux.from(connector.read()).concatMap(Resource::read).collectList().block();
+    connector.close();
+    return records;
+  }
+
   private static String url(String resource) {
     return StringUtils.quoteJson(rawURL(resource));
   }
@@ -25,7 +25,6 @@ import com.datastax.oss.dsbulk.connectors.api.MappedField;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.connectors.commons.AbstractFileBasedConnector;
-import com.datastax.oss.dsbulk.io.CompressedIOUtils;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -166,6 +165,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
           return false;
         case DATA_SIZE_SAMPLING:
           return isDataSizeSamplingAvailable();
+        case FIELD_PROJECTION:
+          // sources must contain whole documents
+          return read && !retainRecordSources;
       }
     }
     return false;
@@ -184,6 +186,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
     private final JsonParser parser;
     private final MappingIterator<JsonNode> nodesIterator;
 
+    /** Whether the parser is positioned on the next document; only used with projections. */
+    private boolean positioned;
+
     private long recordNumber = 1;
 
     private JsonRecordReader(URL url, URI resource) throws IOException {
@@ -191,15 +196,16 @@ public class JsonConnector extends AbstractFileBasedConnector {
       this.resource = resource;
       try {
         JsonFactory factory = objectMapper.getFactory();
-        BufferedReader r = CompressedIOUtils.newBufferedReader(url, encoding, compression);
+        BufferedReader r = newBufferedReader(url);
         parser = factory.createParser(r);
         if (mode == DocumentMode.SINGLE_DOCUMENT) {
           do {
             parser.nextToken();
           } while (parser.currentToken() != JsonToken.START_ARRAY && parser.currentToken() != null);
           parser.nextToken();
+          positioned = true;
         }
-        nodesIterator = objectMapper.readValues(parser, JsonNode.class);
+        nodesIterator = projection == null ? objectMapper.readValues(parser, JsonNode.class) : null;
       } catch (Exception e) {
         throw new IOException(String.format("Error reading from %s", url), e);
       }
@@ -208,15 +214,12 @@ public class JsonConnector extends AbstractFileBasedConnector {
     @NonNull
     @Override
     public RecordReader readNext(@NonNull SynchronousSink<Record> sink) {
+      if (nodesIterator == null) {
+        return readNextProjected(sink);
+      }
       try {
         if (nodesIterator.hasNext()) {
-          if (parser.currentToken() != JsonToken.START_OBJECT) {
-            throw new JsonParseException(
-                parser,
-                String.format(
-                    "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
-                    parser.currentToken()));
-          }
+          checkStartObject();
           JsonNode source = nodesIterator.next();
           Map<MappedField, JsonNode> fields = new HashMap<>();
           Iterator<Entry<String, JsonNode>> children = source.fields();
@@ -239,6 +242,50 @@ public class JsonConnector extends AbstractFileBasedConnector {
       return this;
     }
 
+    /**
+     * Reads the next document field by field, without building trees for the fields that are not
+     * part of the projection.
+     */
+    @NonNull
+    private RecordReader readNextProjected(@NonNull SynchronousSink<Record> sink) {
+      try {
+        JsonToken token = positioned ? parser.currentToken() : parser.nextToken();
+        positioned = false;
+        if (token != null && token != JsonToken.END_ARRAY) {
+          checkStartObject();
+          Map<MappedField, JsonNode> fields = new HashMap<>();
+          while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            MappedField field = new DefaultMappedField(parser.getCurrentName());
+            parser.nextToken();
+            if (projection.contains(field)) {
+              fields.put(field, objectMapper.readTree(parser));
+            } else {
+              parser.skipChildren();
+            }
+          }
+          Record record = DefaultRecord.mapped(null, resource, recordNumber++, fields);
+          LOGGER.trace("Emitting record {}", record);
+          sink.next(record);
+        } else {
+          LOGGER.debug("Done reading {}", url);
+          sink.complete();
+        }
+      } catch (Exception e) {
+        sink.error(new IOException(String.format("Error reading from %s", url), e));
+      }
+      return this;
+    }
+
+    private void checkStartObject() throws JsonParseException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(
+            parser,
+            String.format(
+                "Expecting START_OBJECT, got %s. Did you forget to set connector.json.mode to SINGLE_DOCUMENT?",
+                parser.currentToken()));
+      }
+    }
+
     @Override
     public void close() throws IOException {
       if (parser != null) {
@@ -256,6 +303,7 @@ public class JsonConnector extends AbstractFileBasedConnector {
   private class JsonRecordWriter implements RecordWriter {
 
     private URL url;
+    private OutputFile file;
     private JsonGenerator writer;
     private long currentLine;
 
@@ -283,13 +331,14 @@ public class JsonConnector extends AbstractFileBasedConnector {
     }
 
     private boolean shouldRoll() {
-      return !roots.isEmpty() && currentLine == maxRecords;
+      return JsonConnector.this.shouldRoll(file, currentLine);
     }
 
     private void open() throws IOException {
       url = getOrCreateDestinationURL();
       try {
-        writer = newJsonGenerator(url);
+        file = newOutputFile(url);
+        writer = newJsonGenerator(file);
         if (mode == DocumentMode.SINGLE_DOCUMENT) {
           // do not use writer.writeStartArray(): we need to fool the parser into thinking it's on
           // multi doc mode,
@@ -335,10 +384,9 @@ public class JsonConnector extends AbstractFileBasedConnector {
     }
   }
 
-  private JsonGenerator newJsonGenerator(URL url) throws IOException {
+  private JsonGenerator newJsonGenerator(OutputFile file) throws IOException {
     JsonFactory factory = objectMapper.getFactory();
-    JsonGenerator generator =
-        factory.createGenerator(CompressedIOUtils.newBufferedWriter(url, encoding, compression));
+    JsonGenerator generator = factory.createGenerator(file.getWriter());
     generator.setRootValueSeparator(new SerializedString(System.lineSeparator()));
     return generator;
   }
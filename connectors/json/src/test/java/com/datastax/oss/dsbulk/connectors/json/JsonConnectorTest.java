@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
@@ -157,6 +158,84 @@ class JsonConnectorTest {
     connector.close();
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = {"multi_doc.json", "multi_doc.json.gz"})
+  void should_read_single_file_memory_mapped(String fileName) throws Exception {
+    JsonConnector connector = new JsonConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.json",
+            "url",
+            url("/" + fileName),
+            "parserFeatures",
+            "{ALLOW_COMMENTS:true}",
+            "deserializationFeatures",
+            "{USE_BIG_DECIMAL_FOR_FLOATS : false}",
+            "compression",
+            quoteJson(
+                fileName.endsWith(".gz")
+                    ? CompressedIOUtils.GZIP_COMPRESSION
+                    : CompressedIOUtils.NONE_COMPRESSION),
+            "memoryMapped",
+            true);
+    connector.configure(settings, true, true);
+    connector.init();
+    List<Record> actual = Flux.from(connector.read()).flatMap(Resource::read).collectList().block();
+    verifyRecords(actual, true, rawURL("/" + fileName).toURI());
+    connector.close();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"multi_doc.json", "single_doc.json"})
+  void should_read_projected_records(String fileName) throws Exception {
+    Config settings =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.connector.json",
+            "url",
+            url("/" + fileName),
+            "parserFeatures",
+            "{ALLOW_COMMENTS:true}",
+            "deserializationFeatures",
+            "{USE_BIG_DECIMAL_FOR_FLOATS : false}",
+            "mode",
+            fileName.startsWith("single") ? "SINGLE_DOCUMENT" : "MULTI_DOCUMENT");
+    JsonConnector connector = new JsonConnector();
+    connector.configure(settings, true, false);
+    connector.init();
+    List<Record> expected =
+        Flux.from(connector.read()).concatMap(Resource::read).collectList().block();
+    connector.close();
+    Field year = new DefaultMappedField("Year");
+    Field description = new DefaultMappedField("Description");
+    connector = new JsonConnector();
+    connector.configure(settings, true, false);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.FIELD_PROJECTION)).isTrue();
+    connector.project(ImmutableSet.of(year, description, new DefaultMappedField("Missing")));
+    List<Record> actual =
+        Flux.from(connector.read()).concatMap(Resource::read).collectList().block();
+    connector.close();
+    assertThat(actual).hasSameSizeAs(expected).hasSize(5);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(actual.get(i).fields()).containsOnly(year, description);
+      assertThat(actual.get(i).getFieldValue(year)).isEqualTo(expected.get(i).getFieldValue(year));
+      assertThat(actual.get(i).getFieldValue(description))
+          .isEqualTo(expected.get(i).getFieldValue(description));
+      assertThat(actual.get(i).getPosition()).isEqualTo(expected.get(i).getPosition());
+    }
+  }
+
+  @Test
+  void should_not_support_projection_when_retaining_sources() throws Exception {
+    JsonConnector connector = new JsonConnector();
+    Config settings =
+        TestConfigUtils.createTestConfig("dsbulk.connector.json", "url", url("/multi_doc.json"));
+    connector.configure(settings, true, true);
+    connector.init();
+    assertThat(connector.supports(CommonConnectorFeature.FIELD_PROJECTION)).isFalse();
+    connector.close();
+  }
+
   @SuppressWarnings("unused")
   private static Stream<Arguments> should_read_single_file_multi_doc() {
     return Stream.of(
@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.executor.api;
 
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.datastax.oss.dsbulk.executor.api.limiter.NodeInFlightLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -29,6 +30,9 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
   /** The default number of maximum in-flight requests. */
   static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 1_000;
 
+  /** The default number of maximum in-flight requests per node. */
+  static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_NODE = -1;
+
   /** The default maximum number of concurrent requests per second. */
   static final int DEFAULT_MAX_REQUESTS_PER_SECOND = 100_000;
 
@@ -41,6 +45,8 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
 
   protected final @Nullable Semaphore maxConcurrentRequests;
 
+  protected final @Nullable NodeInFlightLimiter nodeInFlightLimiter;
+
   protected final @Nullable RateLimiter rateLimiter;
 
   protected final @Nullable RateLimiter bytesRateLimiter;
@@ -52,6 +58,7 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
         session,
         true,
         DEFAULT_MAX_IN_FLIGHT_REQUESTS,
+        DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_NODE,
         DEFAULT_MAX_REQUESTS_PER_SECOND,
         DEFAULT_MAX_BYTES_PER_SECOND,
         null);
@@ -62,6 +69,7 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
         builder.session,
         builder.failFast,
         builder.maxInFlightRequests,
+        builder.maxInFlightRequestsPerNode,
         builder.maxRequestsPerSecond,
         builder.maxBytesPerSecond,
         builder.listener);
@@ -71,6 +79,7 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
       @NonNull CqlSession session,
       boolean failFast,
       int maxInFlightRequests,
+      int maxInFlightRequestsPerNode,
       int maxRequestsPerSecond,
       long maxBytesPerSecond,
       @Nullable ExecutionListener listener) {
@@ -79,6 +88,10 @@ public abstract class AbstractBulkExecutor implements BulkExecutor, AutoCloseabl
     this.failFast = failFast;
     this.maxConcurrentRequests =
         maxInFlightRequests <= 0 ? null : new Semaphore(maxInFlightRequests);
+    this.nodeInFlightLimiter =
+        maxInFlightRequestsPerNode <= 0
+            ? null
+            : new NodeInFlightLimiter(session, maxInFlightRequestsPerNode);
     this.rateLimiter = maxRequestsPerSecond <= 0 ? null : RateLimiter.create(maxRequestsPerSecond);
     this.bytesRateLimiter = maxBytesPerSecond <= 0 ? null : RateLimiter.create(maxBytesPerSecond);
     this.listener = listener;
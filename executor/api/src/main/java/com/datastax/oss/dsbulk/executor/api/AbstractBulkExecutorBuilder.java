@@ -28,6 +28,9 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
 
   protected int maxInFlightRequests = AbstractBulkExecutor.DEFAULT_MAX_IN_FLIGHT_REQUESTS;
 
+  protected int maxInFlightRequestsPerNode =
+      AbstractBulkExecutor.DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_NODE;
+
   protected int maxRequestsPerSecond = AbstractBulkExecutor.DEFAULT_MAX_REQUESTS_PER_SECOND;
 
   protected long maxBytesPerSecond = AbstractBulkExecutor.DEFAULT_MAX_BYTES_PER_SECOND;
@@ -52,6 +55,14 @@ public abstract class AbstractBulkExecutorBuilder<T extends BulkExecutor>
     return this;
   }
 
+  @Override
+  @SuppressWarnings("UnusedReturnValue")
+  public AbstractBulkExecutorBuilder<T> withMaxInFlightRequestsPerNode(
+      int maxInFlightRequestsPerNode) {
+    this.maxInFlightRequestsPerNode = maxInFlightRequestsPerNode;
+    return this;
+  }
+
   @Override
   @SuppressWarnings("UnusedReturnValue")
   public AbstractBulkExecutorBuilder<T> withMaxRequestsPerSecond(int maxRequestsPerSecond) {
@@ -67,6 +67,25 @@ public interface BulkExecutorBuilder<T extends BulkExecutor> {
   @SuppressWarnings("UnusedReturnValue")
   BulkExecutorBuilder<T> withMaxInFlightRequests(int maxInFlightRequests);
 
+  /**
+   * Sets the maximum number of in-flight write requests per node. When this limit is set, the
+   * executor determines the replicas of each write request from its routing information, and routes
+   * the request to the replica that has the most headroom. If all replicas have reached the limit,
+   * the request is deferred, without blocking, and is sent when a request to one of its replicas
+   * completes; meanwhile, requests to other nodes proceed. Requests whose replicas cannot be
+   * determined are not limited.
+   *
+   * <p>This prevents a slow node from holding all the permits of the global {@linkplain
+   * #withMaxInFlightRequests(int) in-flight limit}, and slowing down requests to other nodes. The
+   * default is {@link AbstractBulkExecutor#DEFAULT_MAX_IN_FLIGHT_REQUESTS_PER_NODE}. Setting this
+   * option to any negative value will disable it.
+   *
+   * @param maxInFlightRequestsPerNode the maximum number of in-flight write requests per node.
+   * @return this builder (for method chaining).
+   */
+  @SuppressWarnings("UnusedReturnValue")
+  BulkExecutorBuilder<T> withMaxInFlightRequestsPerNode(int maxInFlightRequestsPerNode);
+
   /**
    * Sets the maximum number of concurrent requests per second. If that limit is reached, the
    * executor will block until the number of requests per second drops below the threshold. <em>This
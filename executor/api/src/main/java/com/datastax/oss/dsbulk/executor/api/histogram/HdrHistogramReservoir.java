@@ -69,6 +69,16 @@ public class HdrHistogramReservoir implements Reservoir {
     recorder.recordValue(value);
   }
 
+  /**
+   * Records the given value several times at once.
+   *
+   * @param value the value to record.
+   * @param count the number of times to record the value.
+   */
+  public void update(long value, long count) {
+    recorder.recordValueWithCount(value, count);
+  }
+
   /** @return the data accumulated since the reservoir was created */
   @Override
   public Snapshot getSnapshot() {
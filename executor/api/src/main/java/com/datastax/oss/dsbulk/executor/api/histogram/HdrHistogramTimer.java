@@ -0,0 +1,92 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.histogram;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Timer} backed by a {@link HdrHistogramReservoir}, that can record the same duration
+ * several times at once.
+ *
+ * <p>Recording a duration {@code n} times with {@link #update(long, TimeUnit, long)} costs about
+ * the same as recording it once, whereas {@link #update(long, TimeUnit)} must be called {@code n}
+ * times otherwise, each call contending on the timer's meter and reservoir.
+ */
+public class HdrHistogramTimer extends Timer {
+
+  private final Meter meter;
+  private final CountingHistogram histogram;
+
+  public HdrHistogramTimer() {
+    this(new Meter(), new CountingHistogram(new HdrHistogramReservoir()));
+  }
+
+  private HdrHistogramTimer(Meter meter, CountingHistogram histogram) {
+    super(meter, histogram, Clock.defaultClock());
+    this.meter = meter;
+    this.histogram = histogram;
+  }
+
+  /**
+   * Adds a recorded duration several times.
+   *
+   * @param duration the length of the duration.
+   * @param unit the scale unit of {@code duration}.
+   * @param count the number of times to record the duration.
+   */
+  public void update(long duration, TimeUnit unit, long count) {
+    if (duration >= 0 && count > 0) {
+      histogram.update(unit.toNanos(duration), count);
+      meter.mark(count);
+    }
+  }
+
+  private static class CountingHistogram extends Histogram {
+
+    private final HdrHistogramReservoir reservoir;
+    private final LongAdder count = new LongAdder();
+
+    private CountingHistogram(HdrHistogramReservoir reservoir) {
+      super(reservoir);
+      this.reservoir = reservoir;
+    }
+
+    @Override
+    public void update(int value) {
+      update((long) value);
+    }
+
+    @Override
+    public void update(long value) {
+      update(value, 1);
+    }
+
+    private void update(long value, long count) {
+      this.count.add(count);
+      reservoir.update(value, count);
+    }
+
+    @Override
+    public long getCount() {
+      return count.sum();
+    }
+  }
+}
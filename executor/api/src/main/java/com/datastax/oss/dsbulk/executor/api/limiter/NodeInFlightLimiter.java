@@ -0,0 +1,225 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Limits the number of in-flight requests per node.
+ *
+ * <p>The replicas of each statement are determined from its routing information and the session's
+ * {@link TokenMap}; a permit is then acquired on the replica that has the most headroom, and the
+ * statement should be routed to that replica. This way, a slow replica only throttles the requests
+ * it owns, instead of holding all the permits of a global limit.
+ *
+ * <p>This limiter never blocks: when all the replicas of a statement have reached their limit, the
+ * statement is deferred, and its callback is invoked later by the thread that releases a permit on
+ * one of its replicas, see {@link #release(Node)}. Meanwhile, statements owned by other replicas
+ * can proceed.
+ *
+ * <p>Statements whose replicas cannot be determined, for example because token metadata is
+ * disabled, or because the statement carries no routing information, are not limited.
+ */
+public class NodeInFlightLimiter {
+
+  /** A callback invoked when a permit is acquired. */
+  @FunctionalInterface
+  public interface PermitCallback {
+
+    /**
+     * Invoked when a permit is acquired.
+     *
+     * @param node The replica on which a permit was acquired, or {@code null} if the statement
+     *     replicas could not be determined, in which case no permit was acquired.
+     * @param deferred Whether the permit was handed over by another request upon its completion; in
+     *     this case the callback runs on the thread that invoked {@link #release(Node)}.
+     */
+    void onPermitAcquired(@Nullable Node node, boolean deferred);
+  }
+
+  private final CqlSession session;
+  private final int maxInFlightPerNode;
+
+  // guarded by this
+  private final Map<Node, NodePermits> permits = new HashMap<>();
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param session The session to use to retrieve token metadata.
+   * @param maxInFlightPerNode The maximum number of in-flight requests per node; must be strictly
+   *     positive.
+   */
+  public NodeInFlightLimiter(@NonNull CqlSession session, int maxInFlightPerNode) {
+    Objects.requireNonNull(session, "session cannot be null");
+    if (maxInFlightPerNode <= 0) {
+      throw new IllegalArgumentException("maxInFlightPerNode must be strictly positive");
+    }
+    this.session = session;
+    this.maxInFlightPerNode = maxInFlightPerNode;
+  }
+
+  /**
+   * Acquires a permit on the replica of the given statement that has the most headroom, without
+   * blocking.
+   *
+   * <p>If a permit is available, or if the statement is not limited, the callback is invoked
+   * immediately by the calling thread. Otherwise, the statement is deferred until a permit is
+   * released on one of its replicas.
+   *
+   * @param statement The statement about to be executed.
+   * @param callback The callback to invoke once a permit is acquired.
+   */
+  public void acquire(@NonNull Statement<?> statement, @NonNull PermitCallback callback) {
+    Set<Node> replicas = getReplicas(statement);
+    Node target = null;
+    synchronized (this) {
+      NodePermits targetPermits = null;
+      List<NodePermits> candidates = new ArrayList<>(replicas.size());
+      for (Node replica : replicas) {
+        if (replica.getState() != NodeState.UP) {
+          continue;
+        }
+        NodePermits replicaPermits = permits(replica);
+        candidates.add(replicaPermits);
+        if (targetPermits == null || replicaPermits.inFlight < targetPermits.inFlight) {
+          target = replica;
+          targetPermits = replicaPermits;
+        }
+      }
+      if (targetPermits != null) {
+        if (targetPermits.inFlight < maxInFlightPerNode) {
+          targetPermits.inFlight++;
+        } else {
+          // all UP replicas are saturated: wait for the first one to release a permit
+          Waiter waiter = new Waiter(callback);
+          for (NodePermits replicaPermits : candidates) {
+            replicaPermits.waiters.offer(waiter);
+          }
+          return;
+        }
+      }
+    }
+    callback.onPermitAcquired(target, false);
+  }
+
+  /**
+   * Releases a permit previously acquired with {@link #acquire(Statement, PermitCallback)}.
+   *
+   * <p>If a statement was deferred on the given node, the permit is handed over to it instead, and
+   * its callback is invoked by the calling thread before this method returns.
+   *
+   * @param node The node on which the permit was acquired.
+   * @return {@code true} if the permit was handed over to a deferred statement, {@code false} if it
+   *     was released.
+   */
+  public boolean release(@NonNull Node node) {
+    Waiter waiter;
+    synchronized (this) {
+      NodePermits nodePermits = permits(node);
+      do {
+        // waiters registered on several replicas may have been handed a permit by another one
+        waiter = nodePermits.waiters.poll();
+      } while (waiter != null && waiter.done);
+      if (waiter == null) {
+        nodePermits.inFlight--;
+        return false;
+      }
+      waiter.done = true;
+    }
+    waiter.callback.onPermitAcquired(node, true);
+    return true;
+  }
+
+  /**
+   * @param node The node to inspect.
+   * @return the current number of in-flight requests for the given node.
+   */
+  public synchronized int getInFlight(@NonNull Node node) {
+    NodePermits nodePermits = permits.get(node);
+    return nodePermits == null ? 0 : nodePermits.inFlight;
+  }
+
+  @NonNull
+  private NodePermits permits(@NonNull Node node) {
+    return permits.computeIfAbsent(node, n -> new NodePermits());
+  }
+
+  @NonNull
+  private Set<Node> getReplicas(@NonNull Statement<?> statement) {
+    Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+    if (!tokenMap.isPresent()) {
+      return Collections.emptySet();
+    }
+    // same keyspace resolution as the driver's load balancing policies
+    CqlIdentifier keyspace = statement.getKeyspace();
+    if (keyspace == null) {
+      keyspace = statement.getRoutingKeyspace();
+      if (keyspace == null) {
+        keyspace = session.getKeyspace().orElse(null);
+        if (keyspace == null) {
+          return Collections.emptySet();
+        }
+      }
+    }
+    Token token = statement.getRoutingToken();
+    if (token != null) {
+      return tokenMap.get().getReplicas(keyspace, token);
+    }
+    ByteBuffer key = statement.getRoutingKey();
+    if (key != null) {
+      return tokenMap.get().getReplicas(keyspace, key);
+    }
+    return Collections.emptySet();
+  }
+
+  private static class NodePermits {
+
+    private int inFlight;
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+  }
+
+  private static class Waiter {
+
+    private final PermitCallback callback;
+
+    private boolean done;
+
+    private Waiter(PermitCallback callback) {
+      this.callback = callback;
+    }
+  }
+}
@@ -93,6 +93,11 @@ public abstract class AbstractMetricsReportingExecutionListener extends Schedule
     delegate.onRowReceived(row, context);
   }
 
+  @Override
+  public void onPageReceived(Statement<?> statement, int rows, ExecutionContext context) {
+    delegate.onPageReceived(statement, rows, context);
+  }
+
   @Override
   public void onReadRequestFailed(
       Statement<?> statement, Throwable error, ExecutionContext context) {
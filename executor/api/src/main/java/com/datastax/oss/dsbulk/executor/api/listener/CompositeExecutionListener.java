@@ -88,4 +88,9 @@ public class CompositeExecutionListener implements ExecutionListener {
   public void onRowReceived(Row row, ExecutionContext context) {
     listeners.forEach(l -> l.onRowReceived(row, context));
   }
+
+  @Override
+  public void onPageReceived(Statement<?> statement, int rows, ExecutionContext context) {
+    listeners.forEach(l -> l.onPageReceived(statement, rows, context));
+  }
 }
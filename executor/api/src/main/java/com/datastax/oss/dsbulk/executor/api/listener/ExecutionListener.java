@@ -88,6 +88,20 @@ public interface ExecutionListener {
    */
   default void onRowReceived(Row row, ExecutionContext context) {}
 
+  /**
+   * Called when all the rows of a page have been received. Applicable only for reads.
+   *
+   * <p>Note: this method is called after {@link #onRowReceived(Row, ExecutionContext)} has been
+   * called for the last row of the page. If the execution terminates before the page is entirely
+   * consumed, for example because it was cancelled, this method is called with the number of rows
+   * received so far, provided that at least one row was received.
+   *
+   * @param statement the statement being executed.
+   * @param rows the number of rows received in the page.
+   * @param context the local request execution context.
+   */
+  default void onPageReceived(Statement<?> statement, int rows, ExecutionContext context) {}
+
   /**
    * Called when a read request has failed.
    *
@@ -19,6 +19,7 @@ import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.AbstractBulkExecutor;
+import com.datastax.oss.dsbulk.executor.api.limiter.NodeInFlightLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
 import com.datastax.oss.dsbulk.executor.api.subscription.WriteResultSubscription;
@@ -41,6 +42,7 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
   private final CqlSession session;
   private final @Nullable ExecutionListener listener;
   private final @Nullable Semaphore maxConcurrentRequests;
+  private final @Nullable NodeInFlightLimiter nodeInFlightLimiter;
   private final @Nullable RateLimiter rateLimiter;
   private final @Nullable RateLimiter bytesRateLimiter;
   private final boolean failFast;
@@ -79,11 +81,47 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
       @Nullable Semaphore maxConcurrentRequests,
       @Nullable RateLimiter rateLimiter,
       @Nullable RateLimiter bytesRateLimiter) {
+    this(
+        statement,
+        session,
+        failFast,
+        listener,
+        maxConcurrentRequests,
+        null,
+        rateLimiter,
+        bytesRateLimiter);
+  }
+
+  /**
+   * Creates a new {@link WriteResultPublisher}.
+   *
+   * @param statement The {@link Statement} to execute.
+   * @param session The {@link CqlSession} to use.
+   * @param failFast whether to fail-fast in case of error.
+   * @param listener The {@link ExecutionListener} to use.
+   * @param maxConcurrentRequests The {@link Semaphore} to use to regulate the amount of in-flight
+   *     requests.
+   * @param nodeInFlightLimiter The {@link NodeInFlightLimiter} to use to regulate the amount of
+   *     in-flight requests per node.
+   * @param rateLimiter The {@link RateLimiter} to use to regulate throughput in writes per second.
+   * @param bytesRateLimiter The {@link RateLimiter} to use to regulate throughput in bytes per
+   *     second.
+   */
+  public WriteResultPublisher(
+      @NonNull Statement<?> statement,
+      @NonNull CqlSession session,
+      boolean failFast,
+      @Nullable ExecutionListener listener,
+      @Nullable Semaphore maxConcurrentRequests,
+      @Nullable NodeInFlightLimiter nodeInFlightLimiter,
+      @Nullable RateLimiter rateLimiter,
+      @Nullable RateLimiter bytesRateLimiter) {
     this.statement = statement;
     this.session = session;
     this.failFast = failFast;
     this.listener = listener;
     this.maxConcurrentRequests = maxConcurrentRequests;
+    this.nodeInFlightLimiter = nodeInFlightLimiter;
     this.rateLimiter = rateLimiter;
     this.bytesRateLimiter = bytesRateLimiter;
   }
@@ -102,13 +140,14 @@ public class WriteResultPublisher implements Publisher<WriteResult> {
             session.getContext(),
             listener,
             maxConcurrentRequests,
+            nodeInFlightLimiter,
             rateLimiter,
             bytesRateLimiter,
             failFast);
     try {
       subscriber.onSubscribe(subscription);
       // must be called after onSubscribe
-      subscription.start(() -> session.executeAsync(statement));
+      subscription.start(() -> session.executeAsync(subscription.getStatementToExecute()));
     } catch (Throwable t) {
       // As per rule 2.13: In the case that this rule is violated,
       // any associated Subscription to the Subscriber MUST be considered as
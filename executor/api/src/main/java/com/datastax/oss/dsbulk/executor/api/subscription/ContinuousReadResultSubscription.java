@@ -19,7 +19,6 @@ import com.datastax.dse.driver.api.core.cql.continuous.ContinuousAsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
-import com.datastax.oss.driver.shaded.guava.common.collect.AbstractIterator;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
@@ -64,10 +63,10 @@ public class ContinuousReadResultSubscription
   Page toPage(ContinuousAsyncResultSet rs, ExecutionContext local) {
     Iterator<Row> rows = rs.currentPage().iterator();
     Iterator<ReadResult> results =
-        new AbstractIterator<ReadResult>() {
+        new PageIterator(local) {
 
           @Override
-          protected ReadResult computeNext() {
+          ReadResult nextResult() {
             if (rows.hasNext()) {
               Row row = new SizeableRow(rows.next());
               if (listener != null) {
@@ -76,7 +75,7 @@ public class ContinuousReadResultSubscription
               return new DefaultReadResult(
                   statement, rs.getExecutionInfo(), row, position.incrementAndGet());
             }
-            return endOfData();
+            return null;
           }
         };
     return new ContinuousPage(rs, results);
@@ -19,7 +19,6 @@ import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
-import com.datastax.oss.driver.shaded.guava.common.collect.AbstractIterator;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
@@ -63,10 +62,10 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Async
   Page toPage(AsyncResultSet rs, ExecutionContext local) {
     Iterator<Row> rows = rs.currentPage().iterator();
     Iterator<ReadResult> results =
-        new AbstractIterator<ReadResult>() {
+        new PageIterator(local) {
 
           @Override
-          protected ReadResult computeNext() {
+          ReadResult nextResult() {
             if (rows.hasNext()) {
               Row row = new SizeableRow(rows.next());
               if (listener != null) {
@@ -75,7 +74,7 @@ public class ReadResultSubscription extends ResultSubscription<ReadResult, Async
               return new DefaultReadResult(
                   statement, rs.getExecutionInfo(), row, position.incrementAndGet());
             }
-            return endOfData();
+            return null;
           }
         };
     return new Page(results, rs.hasMorePages() ? rs::fetchNextPage : null);
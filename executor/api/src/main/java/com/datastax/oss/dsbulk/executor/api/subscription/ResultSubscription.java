@@ -21,6 +21,7 @@ import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.shaded.guava.common.collect.AbstractIterator;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
 import com.datastax.oss.dsbulk.executor.api.listener.DefaultExecutionContext;
@@ -344,9 +345,21 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
    * the fact that one can only fetch the next page when the current one is arrived and enqueued.
    */
   private void fetchNextPage(Page current) {
+    scheduleRequest(() -> sendRequest(current));
+  }
+
+  /**
+   * Runs the given request once it is allowed to start. By default, acquires the required permits
+   * and runs the request immediately; subclasses may defer the request instead of blocking.
+   */
+  void scheduleRequest(Runnable request) {
+    onBeforeRequestStarted();
+    request.run();
+  }
+
+  private void sendRequest(Page current) {
     // A local execution context to record metrics for this specific request-response cycle.
     DefaultExecutionContext local = new DefaultExecutionContext();
-    onBeforeRequestStarted();
     local.start();
     onRequestStarted(local);
     current
@@ -355,9 +368,7 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
         // update maxConcurrentRequests.
         .whenComplete(
             (rs, t) -> {
-              if (maxConcurrentRequests != null) {
-                maxConcurrentRequests.release();
-              }
+              onRequestCompleted();
               local.stop();
               if (t == null) {
                 onRequestSuccessful(rs, local);
@@ -401,6 +412,12 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
     }
   }
 
+  void onRequestCompleted() {
+    if (maxConcurrentRequests != null) {
+      maxConcurrentRequests.release();
+    }
+  }
+
   /*
   The 3 methods below should trigger notifications to our listener,
   using the "local" execution context that records metrics for a single
@@ -515,6 +532,12 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
   }
 
   private void clear() {
+    // The current page may have been partially consumed, e.g. if the subscription was cancelled:
+    // report the rows received so far.
+    Page current = pages.peek();
+    if (current != null) {
+      current.terminate();
+    }
     // We don't need these pages anymore and should not hold references
     // to them.
     pages.clear();
@@ -599,5 +622,59 @@ public abstract class ResultSubscription<R extends Result, P extends AsyncPaging
     R nextRow() {
       return rows.next();
     }
+
+    void terminate() {
+      if (rows instanceof ResultSubscription.PageIterator) {
+        ((PageIterator) rows).flush(false);
+      }
+    }
+  }
+
+  /**
+   * An iterator over the results of a page, that notifies the listener once all the rows of the
+   * page have been received, or when the subscription terminates before that, with the number of
+   * rows received so far.
+   *
+   * <p>Cannot be consumed concurrently due to the {@link #draining} field.
+   */
+  abstract class PageIterator extends AbstractIterator<R> {
+
+    private final ExecutionContext local;
+    private int received;
+    private boolean flushed;
+
+    PageIterator(ExecutionContext local) {
+      this.local = local;
+    }
+
+    @Override
+    protected final R computeNext() {
+      R next = nextResult();
+      if (next != null) {
+        received++;
+        return next;
+      }
+      flush(true);
+      return endOfData();
+    }
+
+    /** Returns the next result of the page, or {@code null} if all its rows have been received. */
+    @Nullable
+    abstract R nextResult();
+
+    /**
+     * Notifies the listener of the rows received so far, unless already done.
+     *
+     * @param consumed whether the page has been entirely consumed; if not, the listener is only
+     *     notified if at least one row was received.
+     */
+    void flush(boolean consumed) {
+      if (!flushed && (consumed || received > 0)) {
+        flushed = true;
+        if (listener != null) {
+          listener.onPageReceived(statement, received, local);
+        }
+      }
+    }
   }
 }
@@ -18,8 +18,11 @@ package com.datastax.oss.dsbulk.executor.api.subscription;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
 import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.limiter.NodeInFlightLimiter;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
 import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.DefaultWriteResult;
@@ -29,17 +32,45 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.concurrent.Semaphore;
 import org.reactivestreams.Subscriber;
 
 public class WriteResultSubscription extends ResultSubscription<WriteResult, AsyncResultSet> {
 
+  private final @Nullable NodeInFlightLimiter nodeInFlightLimiter;
+
+  /** The node chosen by the per-node limiter, or null if none. */
+  private volatile Node node;
+
+  public WriteResultSubscription(
+      @NonNull Subscriber<? super WriteResult> subscriber,
+      @NonNull Statement<?> statement,
+      @NonNull AttachmentPoint attachmentPoint,
+      @Nullable ExecutionListener listener,
+      @Nullable Semaphore maxConcurrentRequests,
+      @Nullable RateLimiter rateLimiter,
+      @Nullable RateLimiter bytesRateLimiter,
+      boolean failFast) {
+    this(
+        subscriber,
+        statement,
+        attachmentPoint,
+        listener,
+        maxConcurrentRequests,
+        null,
+        rateLimiter,
+        bytesRateLimiter,
+        failFast);
+  }
+
   public WriteResultSubscription(
       @NonNull Subscriber<? super WriteResult> subscriber,
       @NonNull Statement<?> statement,
       @NonNull AttachmentPoint attachmentPoint,
       @Nullable ExecutionListener listener,
       @Nullable Semaphore maxConcurrentRequests,
+      @Nullable NodeInFlightLimiter nodeInFlightLimiter,
       @Nullable RateLimiter rateLimiter,
       @Nullable RateLimiter bytesRateLimiter,
       boolean failFast) {
@@ -52,6 +83,18 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
         rateLimiter,
         bytesRateLimiter,
         failFast);
+    this.nodeInFlightLimiter = nodeInFlightLimiter;
+  }
+
+  /**
+   * Returns the statement to execute: this is the original statement, routed to the node chosen by
+   * the per-node limiter, if any, and if that node is still up; otherwise, the statement is routed
+   * by the driver's load balancing policy. Must be called after {@link #start}.
+   */
+  @NonNull
+  public Statement<?> getStatementToExecute() {
+    Node node = this.node;
+    return node == null || node.getState() != NodeState.UP ? statement : statement.setNode(node);
   }
 
   @Override
@@ -67,7 +110,7 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
   }
 
   @Override
-  void onBeforeRequestStarted() {
+  void scheduleRequest(Runnable request) {
     if (rateLimiter != null) {
       rateLimiter.acquire(batchSize);
     }
@@ -77,7 +120,33 @@ public class WriteResultSubscription extends ResultSubscription<WriteResult, Asy
               statement, attachmentPoint.getProtocolVersion(), attachmentPoint.getCodecRegistry());
       bytesRateLimiter.acquire((int) dataSize);
     }
-    super.onBeforeRequestStarted();
+    if (nodeInFlightLimiter == null) {
+      super.scheduleRequest(request);
+    } else {
+      // Acquire the node permit first, and without blocking: requests waiting for a saturated node
+      // are deferred, and do not hold global permits.
+      nodeInFlightLimiter.acquire(
+          statement,
+          (node, deferred) -> {
+            this.node = node;
+            if (deferred) {
+              // the global permit was handed over as well, see onRequestCompleted()
+              request.run();
+            } else {
+              super.scheduleRequest(request);
+            }
+          });
+    }
+  }
+
+  @Override
+  void onRequestCompleted() {
+    Node node = this.node;
+    // the limiter cannot be null if a node was chosen; if the node permit is handed over to a
+    // deferred request, the global permit is handed over too.
+    if (node == null || !Objects.requireNonNull(nodeInFlightLimiter).release(node)) {
+      super.onRequestCompleted();
+    }
   }
 
   @Override
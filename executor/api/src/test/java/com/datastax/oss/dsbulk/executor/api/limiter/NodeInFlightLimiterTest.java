@@ -0,0 +1,173 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.executor.api.limiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NodeInFlightLimiterTest {
+
+  private static final CqlIdentifier KS = CqlIdentifier.fromInternal("ks");
+
+  private final Token token1 = mock(Token.class);
+  private final Token token2 = mock(Token.class);
+  private final Node node1 = mockNode(NodeState.UP);
+  private final Node node2 = mockNode(NodeState.UP);
+  private final Node node3 = mockNode(NodeState.UP);
+
+  private CqlSession session;
+  private TokenMap tokenMap;
+
+  @BeforeEach
+  void setUp() {
+    session = mock(CqlSession.class);
+    Metadata metadata = mock(Metadata.class);
+    tokenMap = mock(TokenMap.class);
+    when(session.getMetadata()).thenReturn(metadata);
+    when(metadata.getTokenMap()).thenReturn(Optional.of(tokenMap));
+    when(tokenMap.getReplicas(KS, token1)).thenReturn(ImmutableSet.of(node1, node2));
+    when(tokenMap.getReplicas(KS, token2)).thenReturn(ImmutableSet.of(node3));
+  }
+
+  @Test
+  void should_acquire_permit_on_replica_with_most_headroom() {
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 2);
+    SimpleStatement statement = statement(token1);
+    Node first = acquire(limiter, statement);
+    Node second = acquire(limiter, statement);
+    assertThat(first).isIn(node1, node2);
+    assertThat(second).isIn(node1, node2).isNotEqualTo(first);
+    assertThat(limiter.getInFlight(node1)).isEqualTo(1);
+    assertThat(limiter.getInFlight(node2)).isEqualTo(1);
+    assertThat(limiter.release(first)).isFalse();
+    assertThat(limiter.getInFlight(first)).isZero();
+    assertThat(acquire(limiter, statement)).isEqualTo(first);
+  }
+
+  @Test
+  void should_not_limit_other_nodes_when_one_node_is_saturated() {
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 1);
+    assertThat(acquire(limiter, statement(token2))).isEqualTo(node3);
+    // node3 is saturated: the next request to node3 is deferred, without blocking
+    List<Node> deferred = new ArrayList<>();
+    limiter.acquire(
+        statement(token2),
+        (node, isDeferred) -> {
+          assertThat(isDeferred).isTrue();
+          deferred.add(node);
+        });
+    assertThat(deferred).isEmpty();
+    // requests to node1 and node2 go through
+    assertThat(acquire(limiter, statement(token1))).isIn(node1, node2);
+    assertThat(acquire(limiter, statement(token1))).isIn(node1, node2);
+    // the permit of node3 is handed over to the deferred request
+    assertThat(limiter.release(node3)).isTrue();
+    assertThat(deferred).containsExactly(node3);
+    assertThat(limiter.getInFlight(node3)).isEqualTo(1);
+    assertThat(limiter.release(node3)).isFalse();
+    assertThat(limiter.getInFlight(node3)).isZero();
+  }
+
+  @Test
+  void should_hand_over_permit_to_deferred_request_only_once() {
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 1);
+    assertThat(acquire(limiter, statement(token1))).isIn(node1, node2);
+    assertThat(acquire(limiter, statement(token1))).isIn(node1, node2);
+    List<Node> deferred = new ArrayList<>();
+    limiter.acquire(statement(token1), (node, isDeferred) -> deferred.add(node));
+    assertThat(deferred).isEmpty();
+    // the deferred request waits on both replicas, but only gets one permit
+    assertThat(limiter.release(node2)).isTrue();
+    assertThat(limiter.release(node1)).isFalse();
+    assertThat(deferred).containsExactly(node2);
+    assertThat(limiter.getInFlight(node1)).isZero();
+    assertThat(limiter.getInFlight(node2)).isEqualTo(1);
+  }
+
+  @Test
+  void should_skip_replicas_that_are_down() {
+    when(node1.getState()).thenReturn(NodeState.DOWN);
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 10);
+    for (int i = 0; i < 5; i++) {
+      assertThat(acquire(limiter, statement(token1))).isEqualTo(node2);
+    }
+  }
+
+  @Test
+  void should_not_limit_statements_without_routing_information() {
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 1);
+    assertThat(acquire(limiter, SimpleStatement.newInstance("INSERT INTO ks.t ..."))).isNull();
+  }
+
+  @Test
+  void should_not_limit_statements_when_token_map_not_available() {
+    when(session.getMetadata().getTokenMap()).thenReturn(Optional.empty());
+    NodeInFlightLimiter limiter = new NodeInFlightLimiter(session, 1);
+    assertThat(acquire(limiter, statement(token1))).isNull();
+  }
+
+  @Test
+  void should_reject_invalid_limit() {
+    assertThatThrownBy(() -> new NodeInFlightLimiter(session, 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxInFlightPerNode must be strictly positive");
+  }
+
+  private static Node acquire(NodeInFlightLimiter limiter, SimpleStatement statement) {
+    AtomicReference<Node> acquired = new AtomicReference<>();
+    AtomicBoolean invoked = new AtomicBoolean();
+    limiter.acquire(
+        statement,
+        (node, deferred) -> {
+          assertThat(deferred).isFalse();
+          acquired.set(node);
+          invoked.set(true);
+        });
+    assertThat(invoked).isTrue();
+    return acquired.get();
+  }
+
+  private static SimpleStatement statement(Token token) {
+    return SimpleStatement.newInstance("INSERT INTO ks.t ...")
+        .setRoutingKeyspace(KS)
+        .setRoutingToken(token);
+  }
+
+  private static Node mockNode(NodeState state) {
+    Node node = mock(Node.class);
+    when(node.getState()).thenReturn(state);
+    return node;
+  }
+}
@@ -16,22 +16,30 @@
 package com.datastax.oss.dsbulk.executor.api.listener;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.codahale.metrics.MetricRegistry;
+import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.publisher.ReadResultPublisher;
 import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 
 class MetricsCollectingExecutionListenerTest {
 
@@ -187,6 +195,74 @@ class MetricsCollectingExecutionListenerTest {
     assertThat(listener.getBytesReceivedMeter()).isNotPresent();
   }
 
+  @Test
+  void should_record_reads_per_page() {
+
+    MetricsCollectingExecutionListener listener =
+        new MetricsCollectingExecutionListener(
+            new MetricRegistry(), ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT, true, true);
+
+    ExecutionContext local1 = new TestExecutionContext();
+    ExecutionContext local2 = new TestExecutionContext();
+
+    listener.onReadRequestStarted(successfulRead, local1);
+    listener.onReadRequestSuccessful(successfulRead, local1);
+    listener.onRowReceived(row, local1);
+    listener.onRowReceived(row, local1);
+    listener.onRowReceived(row, local1);
+
+    // rows are not recorded until the page has been entirely received
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(0);
+    assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(0);
+    assertThat(listener.getBytesReceivedMeter().get().getCount()).isEqualTo(0);
+
+    listener.onPageReceived(successfulRead, 3, local1);
+
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(3);
+    assertThat(listener.getTotalReadsTimer().getSnapshot().getMax()).isEqualTo(42);
+    assertThat(listener.getTotalReadsWritesTimer().getCount()).isEqualTo(3);
+    assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(3);
+    assertThat(listener.getSuccessfulReadsWritesCounter().getCount()).isEqualTo(3);
+    assertThat(listener.getBytesReceivedMeter().get().getCount()).isEqualTo(12);
+
+    listener.onReadRequestStarted(successfulRead, local2);
+    listener.onReadRequestSuccessful(successfulRead, local2);
+    listener.onRowReceived(row, local2);
+    listener.onPageReceived(successfulRead, 1, local2);
+
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(4);
+    assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(4);
+    assertThat(listener.getBytesReceivedMeter().get().getCount()).isEqualTo(16);
+    assertThat(listener.getInFlightRequestsCounter().getCount()).isEqualTo(0);
+  }
+
+  @Test
+  void should_record_partially_consumed_page_when_cancelled() {
+
+    MetricsCollectingExecutionListener listener =
+        new MetricsCollectingExecutionListener(
+            new MetricRegistry(), ProtocolVersion.DEFAULT, CodecRegistry.DEFAULT, true, true);
+
+    AsyncResultSet rs = mock(AsyncResultSet.class);
+    when(rs.currentPage()).thenReturn(Collections.nCopies(5, row));
+    when(rs.getExecutionInfo()).thenReturn(mock(ExecutionInfo.class));
+    CqlSession session = mock(CqlSession.class);
+    when(session.executeAsync(any(Statement.class)))
+        .thenReturn(CompletableFuture.completedFuture(rs));
+
+    Flux.from(new ReadResultPublisher(successfulRead, session, true, listener, null, null, null))
+        .take(2)
+        .blockLast();
+
+    // the rows received before the cancellation are recorded, even if the page was not entirely
+    // consumed
+    assertThat(listener.getTotalReadsTimer().getCount()).isEqualTo(2);
+    assertThat(listener.getTotalReadsWritesTimer().getCount()).isEqualTo(2);
+    assertThat(listener.getSuccessfulReadsCounter().getCount()).isEqualTo(2);
+    assertThat(listener.getSuccessfulReadsWritesCounter().getCount()).isEqualTo(2);
+    assertThat(listener.getBytesReceivedMeter().get().getCount()).isEqualTo(8);
+  }
+
   private static class TestExecutionContext extends DefaultExecutionContext {
     @Override
     public long elapsedTimeNanos() {
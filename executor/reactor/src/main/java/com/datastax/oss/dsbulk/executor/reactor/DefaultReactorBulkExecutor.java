@@ -122,6 +122,7 @@ public class DefaultReactorBulkExecutor extends AbstractBulkExecutor
             failFast,
             listener,
             maxConcurrentRequests,
+            nodeInFlightLimiter,
             rateLimiter,
             bytesRateLimiter));
   }
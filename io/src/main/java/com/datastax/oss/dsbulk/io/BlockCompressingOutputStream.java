@@ -0,0 +1,186 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * An output stream that splits its input into fixed-size blocks and compresses each block
+ * independently, on the threads of an executor, while the next block is being filled.
+ *
+ * <p>Each block is compressed into a self-contained unit, such as a gzip member or a zstd frame;
+ * compressed blocks are written to the underlying stream in order, by the thread writing to this
+ * stream. The resulting stream is a concatenation of units, which is a valid stream for formats
+ * that allow it.
+ *
+ * <p>At most {@link #MAX_PENDING_BLOCKS} blocks are compressed at the same time for a given stream;
+ * when this limit is reached, writers wait for the oldest block to be compressed. Like most
+ * compressing streams, {@link #flush()} does not compress the block being filled, but writes all
+ * the blocks whose compression is done.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class BlockCompressingOutputStream extends OutputStream {
+
+  /** The size of uncompressed blocks. */
+  static final int BLOCK_SIZE = 1024 * 1024;
+
+  /** The maximum number of blocks being compressed at the same time, per stream. */
+  static final int MAX_PENDING_BLOCKS = 2;
+
+  /** Compresses a block into a self-contained unit. */
+  @FunctionalInterface
+  interface BlockCompressor {
+
+    @NonNull
+    byte[] compress(@NonNull byte[] block, int length) throws IOException;
+  }
+
+  private final OutputStream out;
+  private final BlockCompressor compressor;
+  private final Executor executor;
+  private final Deque<PendingBlock> pending = new ArrayDeque<>(MAX_PENDING_BLOCKS);
+  private final Deque<byte[]> freeBlocks = new ArrayDeque<>(MAX_PENDING_BLOCKS);
+
+  private byte[] block;
+  private int count;
+  private boolean closed;
+
+  BlockCompressingOutputStream(
+      @NonNull OutputStream out, @NonNull BlockCompressor compressor, @NonNull Executor executor) {
+    this.out = out;
+    this.compressor = compressor;
+    this.executor = executor;
+    block = new byte[BLOCK_SIZE];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureOpen();
+    block[count++] = (byte) b;
+    if (count == BLOCK_SIZE) {
+      submit();
+    }
+  }
+
+  @Override
+  public void write(@NonNull byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      int n = Math.min(len, BLOCK_SIZE - count);
+      System.arraycopy(b, off, block, count, n);
+      count += n;
+      off += n;
+      len -= n;
+      if (count == BLOCK_SIZE) {
+        submit();
+      }
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    while (!pending.isEmpty() && pending.peekFirst().compressed.isDone()) {
+      writeOldest();
+    }
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      if (count > 0) {
+        submit();
+      }
+      while (!pending.isEmpty()) {
+        writeOldest();
+      }
+    } finally {
+      closed = true;
+      out.close();
+    }
+  }
+
+  private void submit() throws IOException {
+    byte[] full = block;
+    int length = count;
+    CompletableFuture<byte[]> compressed =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return compressor.compress(full, length);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            },
+            executor);
+    pending.addLast(new PendingBlock(full, compressed));
+    block = freeBlocks.isEmpty() ? new byte[BLOCK_SIZE] : freeBlocks.removeFirst();
+    count = 0;
+    while (pending.size() > MAX_PENDING_BLOCKS) {
+      writeOldest();
+    }
+  }
+
+  private void writeOldest() throws IOException {
+    PendingBlock oldest = pending.removeFirst();
+    byte[] compressed;
+    try {
+      compressed = oldest.compressed.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw new IOException("Error while compressing", cause);
+    }
+    freeBlocks.addLast(oldest.block);
+    out.write(compressed);
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private static final class PendingBlock {
+
+    private final byte[] block;
+    private final CompletableFuture<byte[]> compressed;
+
+    private PendingBlock(byte[] block, CompletableFuture<byte[]> compressed) {
+      this.block = block;
+      this.compressed = compressed;
+    }
+  }
+}
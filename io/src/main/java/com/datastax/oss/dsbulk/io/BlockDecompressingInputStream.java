@@ -0,0 +1,300 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.io;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * An input stream that splits a compressed stream into independently compressed blocks, such as
+ * gzip members or zstd frames, and decompresses each block on the threads of an executor, ahead of
+ * the thread reading from this stream.
+ *
+ * <p>Blocks are delimited by a {@link BlockSplitter}, which only reads block headers, and are
+ * returned in order. At most {@link #MAX_PENDING_BLOCKS} blocks are decompressed ahead of the
+ * reader, compressed blocks larger than {@link #MAX_BLOCK_SIZE} bytes are not buffered, and blocks
+ * whose decompressed size is unknown or larger than {@link #MAX_DECOMPRESSED_BLOCK_SIZE} bytes are
+ * not decompressed ahead of the reader, but as they are read, which bounds memory usage.
+ *
+ * <p>When the boundaries of a block cannot be determined, for example because a gzip member does
+ * not record its size, or because a block is too large, the rest of the stream is decompressed
+ * sequentially, by the thread reading from this stream, with a fallback decompressor.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class BlockDecompressingInputStream extends InputStream {
+
+  /** The maximum number of blocks decompressed ahead of the reader. */
+  static final int MAX_PENDING_BLOCKS = 4;
+
+  /** The maximum size of a compressed block. */
+  static final int MAX_BLOCK_SIZE = 8 * 1024 * 1024;
+
+  /** The maximum size of a block decompressed ahead of the reader. */
+  static final int MAX_DECOMPRESSED_BLOCK_SIZE = 64 * 1024 * 1024;
+
+  /** Reads the next independently compressed block of a stream. */
+  @FunctionalInterface
+  interface BlockSplitter {
+
+    /**
+     * Reads the next block of the given stream, and appends its bytes to the given buffer.
+     *
+     * @param in The compressed stream.
+     * @param buffer The buffer to append the block to; it is empty when this method is called.
+     * @return {@code true} if a complete block was read, or if the end of the stream was reached,
+     *     in which case the buffer is left empty; {@code false} if the boundaries of the block
+     *     cannot be determined, in which case the buffer contains all the bytes read so far.
+     */
+    boolean readBlock(@NonNull InputStream in, @NonNull BlockBuffer buffer) throws IOException;
+  }
+
+  /** Decompresses a block. */
+  @FunctionalInterface
+  interface BlockDecompressor {
+
+    /**
+     * Decompresses the given block.
+     *
+     * @param block The compressed block.
+     * @return A stream of the decompressed bytes: these are decompressed by this method if the
+     *     decompressed size of the block is known and at most {@link #MAX_DECOMPRESSED_BLOCK_SIZE}
+     *     bytes, otherwise they are decompressed as they are read from the returned stream.
+     */
+    @NonNull
+    InputStream decompress(@NonNull byte[] block) throws IOException;
+  }
+
+  /** Creates a sequential decompressor for the given compressed stream. */
+  @FunctionalInterface
+  interface FallbackDecompressor {
+
+    @NonNull
+    InputStream open(@NonNull InputStream in) throws IOException;
+  }
+
+  private final InputStream in;
+  private final BlockSplitter splitter;
+  private final BlockDecompressor decompressor;
+  private final FallbackDecompressor fallbackDecompressor;
+  private final Executor executor;
+  private final Deque<CompletableFuture<InputStream>> pending =
+      new ArrayDeque<>(MAX_PENDING_BLOCKS);
+  private final BlockBuffer buffer = new BlockBuffer();
+
+  private boolean splitting = true;
+  @Nullable private InputStream fallback;
+  @Nullable private InputStream current;
+  private boolean closed;
+
+  BlockDecompressingInputStream(
+      @NonNull InputStream in,
+      @NonNull BlockSplitter splitter,
+      @NonNull BlockDecompressor decompressor,
+      @NonNull FallbackDecompressor fallbackDecompressor,
+      @NonNull Executor executor) {
+    this.in = in;
+    this.splitter = splitter;
+    this.decompressor = decompressor;
+    this.fallbackDecompressor = fallbackDecompressor;
+    this.executor = executor;
+  }
+
+  @Override
+  public int read() throws IOException {
+    ensureOpen();
+    while (true) {
+      if (current != null) {
+        int b = current.read();
+        if (b != -1) {
+          return b;
+        }
+      }
+      if (!nextBlock()) {
+        return fallback == null ? -1 : fallback.read();
+      }
+    }
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      if (current != null) {
+        int n = current.read(b, off, len);
+        if (n != -1) {
+          return n;
+        }
+      }
+      if (!nextBlock()) {
+        return fallback == null ? -1 : fallback.read(b, off, len);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (CompletableFuture<InputStream> block : pending) {
+      block.cancel(false);
+    }
+    pending.clear();
+    try {
+      if (current != null) {
+        current.close();
+      }
+      if (fallback != null) {
+        fallback.close();
+      }
+    } finally {
+      current = null;
+      in.close();
+    }
+  }
+
+  /**
+   * Makes the next decompressed block current.
+   *
+   * @return {@code true} if a block was made current, {@code false} if there are no more blocks.
+   */
+  private boolean nextBlock() throws IOException {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+    submitBlocks();
+    if (pending.isEmpty()) {
+      return false;
+    }
+    CompletableFuture<InputStream> next = pending.removeFirst();
+    // keep the pipeline full while waiting for the next block
+    submitBlocks();
+    current = await(next);
+    return true;
+  }
+
+  private void submitBlocks() throws IOException {
+    while (splitting && pending.size() < MAX_PENDING_BLOCKS) {
+      buffer.reset();
+      if (!splitter.readBlock(in, buffer)) {
+        splitting = false;
+        InputStream remaining =
+            new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), in);
+        fallback = fallbackDecompressor.open(remaining);
+      } else if (buffer.size() == 0) {
+        splitting = false;
+      } else {
+        byte[] block = buffer.toByteArray();
+        pending.addLast(
+            CompletableFuture.supplyAsync(
+                () -> {
+                  try {
+                    return decompressor.decompress(block);
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                },
+                executor));
+      }
+    }
+  }
+
+  @NonNull
+  private static InputStream await(@NonNull CompletableFuture<InputStream> block)
+      throws IOException {
+    try {
+      return block.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while decompressing");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) cause).getCause();
+      }
+      throw new IOException("Error while decompressing", cause);
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  /** A growable buffer holding the compressed bytes of a block. */
+  static final class BlockBuffer extends ByteArrayOutputStream {
+
+    BlockBuffer() {
+      super(64 * 1024);
+    }
+
+    /**
+     * Appends exactly {@code length} bytes of the given stream to this buffer.
+     *
+     * @return {@code true} if all the bytes were read, {@code false} if the end of the stream was
+     *     reached before, in which case the bytes read so far are kept.
+     */
+    boolean readFully(@NonNull InputStream in, int length) throws IOException {
+      if (buf.length - count < length) {
+        byte[] grown = new byte[Math.max(buf.length * 2, count + length)];
+        System.arraycopy(buf, 0, grown, 0, count);
+        buf = grown;
+      }
+      while (length > 0) {
+        int n = in.read(buf, count, length);
+        if (n == -1) {
+          return false;
+        }
+        count += n;
+        length -= n;
+      }
+      return true;
+    }
+
+    /**
+     * Reads an unsigned little-endian integer from this buffer.
+     *
+     * @param index The index of the first byte of the integer.
+     * @param width The width of the integer, in bytes, up to 7.
+     */
+    long getLittleEndian(int index, int width) {
+      long value = 0;
+      for (int i = width - 1; i >= 0; i--) {
+        value = (value << 8) | (buf[index + i] & 0xFF);
+      }
+      return value;
+    }
+  }
+}
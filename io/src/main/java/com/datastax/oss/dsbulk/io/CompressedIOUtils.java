@@ -15,9 +15,19 @@
  */
 package com.datastax.oss.dsbulk.io;
 
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.driver.shaded.guava.common.io.ByteStreams;
+import com.datastax.oss.dsbulk.io.BlockCompressingOutputStream.BlockCompressor;
+import com.datastax.oss.dsbulk.io.BlockDecompressingInputStream.BlockBuffer;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -26,10 +36,13 @@ import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
 import org.apache.commons.compress.compressors.CompressorException;
-import org.apache.commons.compress.compressors.CompressorInputStream;
-import org.apache.commons.compress.compressors.CompressorOutputStream;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
 
 public final class CompressedIOUtils {
@@ -89,48 +102,182 @@ public final class CompressedIOUtils {
           .put(DEFLATE_COMPRESSION, ".deflate")
           .build();
 
+  // compressions whose streams can be made of independently compressed blocks
+  private static final ImmutableMap<String, BlockCompressor> BLOCK_COMPRESSORS =
+      ImmutableMap.<String, BlockCompressor>builder()
+          .put(GZIP_COMPRESSION, CompressedIOUtils::compressGzipMember)
+          .put(ZSTD_COMPRESSION, CompressedIOUtils::compressZstdFrame)
+          .build();
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+  private static final int GZIP_FEXTRA = 0x04;
+
+  // gzip members compressed in blocks record their total size in an extra subfield, so that
+  // readers can delimit them without decompressing them, like BGZF files do with their own
+  // subfield; BGZF sizes are limited to 64 KiB though, hence a dsbulk-specific subfield.
+  private static final int GZIP_DSBULK_SUBFIELD = 'D' | 'B' << 8;
+  private static final int GZIP_BGZF_SUBFIELD = 'B' | 'C' << 8;
+  private static final int GZIP_MEMBER_SIZE_OFFSET = 16;
+  private static final byte[] GZIP_MEMBER_HEADER = {
+    0x1f, (byte) 0x8b, 8, GZIP_FEXTRA, 0, 0, 0, 0, 0, (byte) 0xff, 8, 0, 'D', 'B', 4, 0, 0, 0, 0, 0
+  };
+
+  private static final long ZSTD_MAGIC = 0xFD2FB528L;
+  private static final long ZSTD_SKIPPABLE_MAGIC = 0x184D2A50L;
+  private static final int ZSTD_RLE_BLOCK = 1;
+  private static final int ZSTD_RESERVED_BLOCK = 3;
+  private static final int[] ZSTD_DICTIONARY_ID_SIZES = {0, 1, 2, 4};
+
   public static BufferedReader newBufferedReader(
       final URL url, final Charset charset, final String compression) throws IOException {
+    return newBufferedReader(url, charset, compression, null);
+  }
+
+  /**
+   * Opens a reader of decompressed characters for the given URL.
+   *
+   * @param url The URL to read.
+   * @param charset The charset to decode bytes with.
+   * @param compression The compression method; may be {@code null} or {@link #NONE_COMPRESSION}.
+   * @param executor The executor to decompress blocks with, if the compression method {@linkplain
+   *     #isBlockCompressionSupported(String) supports it}, or {@code null} to decompress on the
+   *     reading thread.
+   * @return A new {@link BufferedReader}.
+   */
+  public static BufferedReader newBufferedReader(
+      @NonNull URL url,
+      @NonNull Charset charset,
+      @Nullable String compression,
+      @Nullable Executor executor)
+      throws IOException {
     final BufferedReader reader;
     if (compression == null || isNoneCompression(compression)) {
       reader = IOUtils.newBufferedReader(url, charset);
     } else {
-      String compressor = INPUT_COMPRESSORS.get(compression.toLowerCase());
-      if (compressor == null) {
-        throw new IOException("Unsupported compression format: " + compression);
-      }
-      InputStream in = IOUtils.newBufferedInputStream(url);
-      try {
-        CompressorInputStream cin =
-            new CompressorStreamFactory().createCompressorInputStream(compressor, in);
-        reader = new BufferedReader(new InputStreamReader(cin, charset), BUFFER_SIZE);
-      } catch (CompressorException ex) {
-        throw new IOException("Can't instantiate class for compression: " + compression, ex);
-      }
+      InputStream in = newInputStream(url, compression, executor);
+      reader = new BufferedReader(new InputStreamReader(in, charset), BUFFER_SIZE);
     }
     return reader;
   }
 
+  /**
+   * Opens a stream of decompressed bytes for the given URL.
+   *
+   * @param url The URL to read.
+   * @param compression The compression method; may be {@code null} or {@link #NONE_COMPRESSION}.
+   * @return A new {@link InputStream}.
+   */
+  public static InputStream newInputStream(final URL url, final String compression)
+      throws IOException {
+    return newInputStream(url, compression, null);
+  }
+
+  /**
+   * Opens a stream of decompressed bytes for the given URL.
+   *
+   * <p>If an executor is provided, gzip members and zstd frames are decompressed on its threads,
+   * ahead of the reading thread; this requires gzip members to record their size, which is the case
+   * of files written by this class with an executor, and of BGZF files. Other streams are
+   * decompressed on the reading thread.
+   *
+   * @param url The URL to read.
+   * @param compression The compression method; may be {@code null} or {@link #NONE_COMPRESSION}.
+   * @param executor The executor to decompress blocks with, if the compression method {@linkplain
+   *     #isBlockCompressionSupported(String) supports it}, or {@code null} to decompress on the
+   *     reading thread.
+   * @return A new {@link InputStream}.
+   */
+  public static InputStream newInputStream(
+      @NonNull URL url, @Nullable String compression, @Nullable Executor executor)
+      throws IOException {
+    if (compression == null || isNoneCompression(compression)) {
+      return IOUtils.newBufferedInputStream(url);
+    }
+    String compressor = INPUT_COMPRESSORS.get(compression.toLowerCase());
+    if (compressor == null) {
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    InputStream in = IOUtils.newBufferedInputStream(url);
+    if (executor != null) {
+      switch (compression.toLowerCase()) {
+        case GZIP_COMPRESSION:
+          return new BlockDecompressingInputStream(
+              in,
+              CompressedIOUtils::readGzipMember,
+              CompressedIOUtils::decompressGzipMember,
+              raw -> newCompressorInputStream(raw, compressor, compression),
+              executor);
+        case ZSTD_COMPRESSION:
+          return new BlockDecompressingInputStream(
+              in,
+              CompressedIOUtils::readZstdFrame,
+              CompressedIOUtils::decompressZstdFrame,
+              raw -> newCompressorInputStream(raw, compressor, compression),
+              executor);
+        default:
+          // not splittable, decompress sequentially
+      }
+    }
+    return newCompressorInputStream(in, compressor, compression);
+  }
+
   public static BufferedWriter newBufferedWriter(
       final URL url, final Charset charset, final String compression) throws IOException {
-    final BufferedWriter writer;
-    if (compression == null || compression.equalsIgnoreCase(NONE_COMPRESSION))
-      writer = IOUtils.newBufferedWriter(url, charset);
-    else {
-      String compressor = OUTPUT_COMPRESSORS.get(compression.toLowerCase());
-      if (compressor == null) {
-        throw new IOException("Unsupported compression format: " + compression);
-      }
-      OutputStream os = IOUtils.newBufferedOutputStream(url);
-      try {
-        CompressorOutputStream cos =
-            new CompressorStreamFactory().createCompressorOutputStream(compressor, os);
-        writer = new BufferedWriter(new OutputStreamWriter(cos, charset), BUFFER_SIZE);
-      } catch (CompressorException ex) {
-        throw new IOException("Can't instantiate class for compression: " + compression, ex);
+    if (compression != null
+        && !isNoneCompression(compression)
+        && !OUTPUT_COMPRESSORS.containsKey(compression.toLowerCase())) {
+      throw new IOException("Unsupported compression format: " + compression);
+    }
+    return newBufferedWriter(IOUtils.newBufferedOutputStream(url), charset, compression, null);
+  }
+
+  /**
+   * Creates a writer that encodes and compresses its output, then writes it to the given stream.
+   *
+   * @param out The stream to write compressed bytes to.
+   * @param charset The charset to encode characters with.
+   * @param compression The compression method; may be {@code null} or {@link #NONE_COMPRESSION}.
+   * @param executor The executor to compress blocks with, if the compression method {@linkplain
+   *     #isBlockCompressionSupported(String) supports it}, or {@code null} to compress on the
+   *     writing thread.
+   * @return A new {@link BufferedWriter}.
+   */
+  public static BufferedWriter newBufferedWriter(
+      @NonNull OutputStream out,
+      @NonNull Charset charset,
+      @Nullable String compression,
+      @Nullable Executor executor)
+      throws IOException {
+    OutputStream os = out;
+    if (compression != null && !isNoneCompression(compression)) {
+      BlockCompressor blockCompressor = BLOCK_COMPRESSORS.get(compression.toLowerCase());
+      if (executor != null && blockCompressor != null) {
+        os = new BlockCompressingOutputStream(out, blockCompressor, executor);
+      } else {
+        String compressor = OUTPUT_COMPRESSORS.get(compression.toLowerCase());
+        if (compressor == null) {
+          throw new IOException("Unsupported compression format: " + compression);
+        }
+        try {
+          os = new CompressorStreamFactory().createCompressorOutputStream(compressor, out);
+        } catch (CompressorException ex) {
+          throw new IOException("Can't instantiate class for compression: " + compression, ex);
+        }
       }
     }
-    return writer;
+    return new BufferedWriter(new OutputStreamWriter(os, charset), BUFFER_SIZE);
+  }
+
+  /**
+   * Whether the given compression method produces streams that can be made of independently
+   * compressed blocks, which can then be compressed and decompressed in parallel; this is the case
+   * of gzip (one member per block) and zstd (one frame per block).
+   *
+   * @param compression The compression method.
+   * @return {@code true} if blocks can be processed in parallel, {@code false} otherwise.
+   */
+  public static boolean isBlockCompressionSupported(@Nullable String compression) {
+    return compression != null && BLOCK_COMPRESSORS.containsKey(compression.toLowerCase());
   }
 
   public static String getCompressionSuffix(final String compression) {
@@ -155,4 +302,188 @@ public final class CompressedIOUtils {
   public static boolean isNoneCompression(final String compression) {
     return NONE_COMPRESSION.equalsIgnoreCase(compression);
   }
+
+  @NonNull
+  private static InputStream newCompressorInputStream(
+      @NonNull InputStream in, @NonNull String compressor, @NonNull String compression)
+      throws IOException {
+    try {
+      // decompress all the members or frames of the stream, not only the first one: streams
+      // compressed in blocks are made of many of them
+      return new CompressorStreamFactory(true).createCompressorInputStream(compressor, in);
+    } catch (CompressorException ex) {
+      throw new IOException("Can't instantiate class for compression: " + compression, ex);
+    }
+  }
+
+  @NonNull
+  private static byte[] compressGzipMember(@NonNull byte[] block, int length) {
+    ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2);
+    member.write(GZIP_MEMBER_HEADER, 0, GZIP_MEMBER_HEADER.length);
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      deflater.setInput(block, 0, length);
+      deflater.finish();
+      byte[] chunk = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        member.write(chunk, 0, deflater.deflate(chunk));
+      }
+    } finally {
+      deflater.end();
+    }
+    CRC32 crc = new CRC32();
+    crc.update(block, 0, length);
+    byte[] trailer = new byte[8];
+    putIntLE(trailer, 0, crc.getValue());
+    putIntLE(trailer, 4, length);
+    member.write(trailer, 0, trailer.length);
+    byte[] bytes = member.toByteArray();
+    putIntLE(bytes, GZIP_MEMBER_SIZE_OFFSET, bytes.length);
+    return bytes;
+  }
+
+  private static boolean readGzipMember(@NonNull InputStream in, @NonNull BlockBuffer buffer)
+      throws IOException {
+    if (!buffer.readFully(in, 10)) {
+      return buffer.size() == 0;
+    }
+    if (buffer.getLittleEndian(0, 2) != GZIP_MAGIC
+        || (buffer.getLittleEndian(3, 1) & GZIP_FEXTRA) == 0
+        || !buffer.readFully(in, 2)) {
+      return false;
+    }
+    int extraLength = (int) buffer.getLittleEndian(10, 2);
+    if (!buffer.readFully(in, extraLength)) {
+      return false;
+    }
+    long size = -1;
+    int end = 12 + extraLength;
+    for (int i = 12; i + 4 <= end; ) {
+      long id = buffer.getLittleEndian(i, 2);
+      int fieldLength = (int) buffer.getLittleEndian(i + 2, 2);
+      if (i + 4 + fieldLength > end) {
+        break;
+      }
+      if (id == GZIP_DSBULK_SUBFIELD && fieldLength == 4) {
+        size = buffer.getLittleEndian(i + 4, 4);
+      } else if (id == GZIP_BGZF_SUBFIELD && fieldLength == 2) {
+        size = buffer.getLittleEndian(i + 4, 2) + 1;
+      }
+      i += 4 + fieldLength;
+    }
+    if (size < buffer.size() || size > BlockDecompressingInputStream.MAX_BLOCK_SIZE) {
+      return false;
+    }
+    return buffer.readFully(in, (int) size - buffer.size());
+  }
+
+  @NonNull
+  @VisibleForTesting
+  static InputStream decompressGzipMember(@NonNull byte[] member) throws IOException {
+    // the trailer records the decompressed size modulo 2^32, so a member that is larger than
+    // announced is detected when it is not fully read after its announced size
+    long size = getIntLE(member, member.length - 4);
+    if (size <= BlockDecompressingInputStream.MAX_DECOMPRESSED_BLOCK_SIZE) {
+      try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(member), BUFFER_SIZE)) {
+        byte[] content = new byte[(int) size];
+        int read = ByteStreams.read(gzip, content, 0, content.length);
+        if (read == content.length && gzip.read() == -1) {
+          return new ByteArrayInputStream(content);
+        }
+      }
+    }
+    // too large to be decompressed ahead of the reader
+    return new GZIPInputStream(new ByteArrayInputStream(member), BUFFER_SIZE);
+  }
+
+  @NonNull
+  private static byte[] compressZstdFrame(@NonNull byte[] block, int length) throws IOException {
+    byte[] frame = new byte[(int) Zstd.compressBound(length)];
+    long size =
+        Zstd.compressByteArray(
+            frame, 0, frame.length, block, 0, length, Zstd.defaultCompressionLevel());
+    if (Zstd.isError(size)) {
+      throw new IOException("Error compressing zstd frame: " + Zstd.getErrorName(size));
+    }
+    return Arrays.copyOf(frame, (int) size);
+  }
+
+  private static boolean readZstdFrame(@NonNull InputStream in, @NonNull BlockBuffer buffer)
+      throws IOException {
+    if (!buffer.readFully(in, 4)) {
+      return buffer.size() == 0;
+    }
+    long magic = buffer.getLittleEndian(0, 4);
+    if ((magic & 0xFFFFFFF0L) == ZSTD_SKIPPABLE_MAGIC) {
+      if (!buffer.readFully(in, 4)) {
+        return false;
+      }
+      long size = buffer.getLittleEndian(4, 4);
+      return size <= BlockDecompressingInputStream.MAX_BLOCK_SIZE
+          && buffer.readFully(in, (int) size);
+    }
+    if (magic != ZSTD_MAGIC || !buffer.readFully(in, 1)) {
+      return false;
+    }
+    int descriptor = (int) buffer.getLittleEndian(4, 1);
+    int contentSizeFlag = descriptor >>> 6;
+    boolean singleSegment = (descriptor & 0x20) != 0;
+    boolean checksum = (descriptor & 0x04) != 0;
+    int headerSize =
+        (singleSegment ? 0 : 1)
+            + ZSTD_DICTIONARY_ID_SIZES[descriptor & 0x03]
+            + (contentSizeFlag == 0 ? (singleSegment ? 1 : 0) : 1 << contentSizeFlag);
+    if (!buffer.readFully(in, headerSize)) {
+      return false;
+    }
+    boolean last;
+    do {
+      if (!buffer.readFully(in, 3)) {
+        return false;
+      }
+      int blockHeader = (int) buffer.getLittleEndian(buffer.size() - 3, 3);
+      last = (blockHeader & 1) != 0;
+      int type = (blockHeader >>> 1) & 0x03;
+      if (type == ZSTD_RESERVED_BLOCK) {
+        return false;
+      }
+      // RLE blocks hold a single byte, repeated as many times as the block size
+      int contentSize = type == ZSTD_RLE_BLOCK ? 1 : blockHeader >>> 3;
+      if (buffer.size() + contentSize > BlockDecompressingInputStream.MAX_BLOCK_SIZE
+          || !buffer.readFully(in, contentSize)) {
+        return false;
+      }
+    } while (!last);
+    return !checksum || buffer.readFully(in, 4);
+  }
+
+  @NonNull
+  @VisibleForTesting
+  static InputStream decompressZstdFrame(@NonNull byte[] frame) throws IOException {
+    long size = Zstd.decompressedSize(frame);
+    if (size > 0 && size <= BlockDecompressingInputStream.MAX_DECOMPRESSED_BLOCK_SIZE) {
+      byte[] content = new byte[(int) size];
+      long read = Zstd.decompressByteArray(content, 0, content.length, frame, 0, frame.length);
+      if (Zstd.isError(read)) {
+        throw new IOException("Error decompressing zstd frame: " + Zstd.getErrorName(read));
+      }
+      return new ByteArrayInputStream(content, 0, (int) read);
+    }
+    // unknown content size, too large to be decompressed ahead of the reader, or skippable frame
+    return new ZstdInputStream(new ByteArrayInputStream(frame));
+  }
+
+  private static long getIntLE(@NonNull byte[] bytes, int index) {
+    long value = 0;
+    for (int i = 3; i >= 0; i--) {
+      value = (value << 8) | (bytes[index + i] & 0xFF);
+    }
+    return value;
+  }
+
+  private static void putIntLE(@NonNull byte[] bytes, int index, long value) {
+    for (int i = 0; i < 4; i++) {
+      bytes[index + i] = (byte) (value >>> (8 * i));
+    }
+  }
 }
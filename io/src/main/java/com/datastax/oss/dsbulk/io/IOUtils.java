@@ -22,6 +22,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -30,17 +31,24 @@ import java.io.OutputStreamWriter;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 public final class IOUtils {
 
   private static final int BUFFER_SIZE = 8192 * 2;
 
+  /** The size of the windows mapped by {@link #newMappedInputStream(Path, long, long)}. */
+  private static final int MAPPED_WINDOW_SIZE = 8 * 1024 * 1024;
+
   /**
    * The protocol for standard input and standard output URLs. The only supported URL with such
    * scheme is {@code std:/}.
@@ -86,6 +94,91 @@ public final class IOUtils {
         new InputStreamReader(newBufferedInputStream(url), charset), BUFFER_SIZE);
   }
 
+  /**
+   * Creates a new {@link BufferedReader} for a range of bytes of the given file.
+   *
+   * <p>The reader starts at byte offset {@code start} and reaches end-of-input after {@code length}
+   * bytes have been read, or when the end of the file is reached, whichever comes first. It is the
+   * caller's responsibility to make sure that both ends of the range fall on character boundaries.
+   *
+   * @param file The file to read.
+   * @param start The offset of the first byte to read.
+   * @param length The maximum number of bytes to read.
+   * @param charset The charset to use.
+   * @return A new {@link BufferedReader} for the given range.
+   */
+  public static BufferedReader newBufferedReader(
+      @NonNull Path file, long start, long length, @NonNull Charset charset) throws IOException {
+    return new BufferedReader(
+        new InputStreamReader(newBufferedInputStream(file, start, length), charset), BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new {@link BufferedInputStream} for a range of bytes of the given file.
+   *
+   * <p>The stream starts at byte offset {@code start} and reaches end-of-input after {@code length}
+   * bytes have been read, or when the end of the file is reached, whichever comes first.
+   *
+   * @param file The file to read.
+   * @param start The offset of the first byte to read.
+   * @param length The maximum number of bytes to read.
+   * @return A new {@link BufferedInputStream} for the given range.
+   */
+  public static BufferedInputStream newBufferedInputStream(
+      @NonNull Path file, long start, long length) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      channel.position(start);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    InputStream in = new BoundedInputStream(Channels.newInputStream(channel), length);
+    return new BufferedInputStream(in, BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new {@link InputStream} for a range of bytes of the given file, by mapping the file
+   * into memory.
+   *
+   * <p>The range is mapped in consecutive windows of a few megabytes, each of which is loaded into
+   * physical memory in one go when it is first accessed; this gives the operating system a hint
+   * that the file is read sequentially, and avoids one system call per buffer refill. This method
+   * should only be used for local files that are not modified while being read.
+   *
+   * <p>The stream starts at byte offset {@code start} and reaches end-of-input after {@code length}
+   * bytes have been read, or when the end of the file is reached, whichever comes first.
+   *
+   * @param file The file to read.
+   * @param start The offset of the first byte to read.
+   * @param length The maximum number of bytes to read.
+   * @return A new {@link InputStream} for the given range.
+   */
+  public static InputStream newMappedInputStream(@NonNull Path file, long start, long length)
+      throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      long end = start >= size ? start : start + Math.min(length, size - start);
+      return new MappedInputStream(channel, start, end);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates a new {@link BufferedReader} for the given stream.
+   *
+   * @param in The stream to read.
+   * @param charset The charset to use.
+   * @return A new {@link BufferedReader} for the given stream.
+   */
+  public static BufferedReader newBufferedReader(
+      @NonNull InputStream in, @NonNull Charset charset) {
+    return new BufferedReader(new InputStreamReader(in, charset), BUFFER_SIZE);
+  }
+
   public static BufferedWriter newBufferedWriter(URL url, Charset charset) throws IOException {
     return new BufferedWriter(
         new OutputStreamWriter(newBufferedOutputStream(url), charset), BUFFER_SIZE);
@@ -131,4 +224,138 @@ public final class IOUtils {
   public static boolean isStandardStream(@NonNull URL url) {
     return url.getProtocol().equalsIgnoreCase(STANDARD_STREAM_PROTOCOL);
   }
+
+  /** An {@link InputStream} that reaches end-of-input after a given number of bytes. */
+  private static class BoundedInputStream extends FilterInputStream {
+
+    private long remaining;
+
+    private BoundedInputStream(InputStream in, long length) {
+      super(in);
+      remaining = length;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int b = in.read();
+      if (b != -1) {
+        remaining--;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+      if (remaining <= 0) {
+        return len == 0 ? 0 : -1;
+      }
+      int n = in.read(b, off, (int) Math.min(len, remaining));
+      if (n > 0) {
+        remaining -= n;
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = in.skip(Math.min(n, remaining));
+      remaining -= skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
+  /**
+   * An {@link InputStream} that reads a range of a file through consecutive memory-mapped windows.
+   */
+  private static class MappedInputStream extends InputStream {
+
+    private final FileChannel channel;
+    private final long end;
+    private long position;
+    private MappedByteBuffer window;
+
+    private MappedInputStream(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.position = start;
+      this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!nextWindow()) {
+        return -1;
+      }
+      return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextWindow()) {
+        return -1;
+      }
+      int n = Math.min(len, window.remaining());
+      window.get(b, off, n);
+      return n;
+    }
+
+    @Override
+    public long skip(long n) {
+      if (n <= 0) {
+        return 0;
+      }
+      long remaining = window == null ? 0 : window.remaining();
+      if (n < remaining) {
+        window.position(window.position() + (int) n);
+        return n;
+      }
+      // drop the current window, and skip over the following ones
+      long skipped = remaining + Math.min(n - remaining, end - position);
+      position += skipped - remaining;
+      window = null;
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return window == null ? 0 : window.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+      // mapped windows cannot be unmapped explicitly, they are released when garbage collected
+      window = null;
+      channel.close();
+    }
+
+    private boolean nextWindow() throws IOException {
+      if (window != null && window.hasRemaining()) {
+        return true;
+      }
+      if (position >= end) {
+        return false;
+      }
+      long size = Math.min(MAPPED_WINDOW_SIZE, end - position);
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+      // loads the whole window at once; this is the closest thing to a sequential readahead hint
+      window.load();
+      position += size;
+      return true;
+    }
+  }
 }
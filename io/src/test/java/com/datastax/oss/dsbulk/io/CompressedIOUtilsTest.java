@@ -20,15 +20,28 @@ import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.shaded.guava.common.base.Charsets;
+import com.datastax.oss.driver.shaded.guava.common.io.ByteStreams;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.LineNumberReader;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -197,6 +210,173 @@ class CompressedIOUtilsTest {
         arguments("z", "Unsupported compression format: z"));
   }
 
+  @ParameterizedTest(name = "[{index}] Should write file with compression {0} in parallel blocks")
+  @MethodSource
+  @DisplayName("Should be able to write compressed file in parallel blocks")
+  void should_write_compressed_file_in_parallel_blocks(String compression) throws IOException {
+    assertThat(CompressedIOUtils.isBlockCompressionSupported(compression)).isTrue();
+    Path path =
+        Files.createTempFile(
+            "dsbulk-", "-compress" + CompressedIOUtils.getCompressionSuffix(compression));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    // enough lines to span several blocks
+    int lineCount = 500_000;
+    try (BufferedWriter writer =
+        CompressedIOUtils.newBufferedWriter(
+            Files.newOutputStream(path), Charsets.UTF_8, compression, executor)) {
+      for (int i = 0; i < lineCount; i++) {
+        writer.write("line " + i);
+        writer.newLine();
+        if (i % 1000 == 0) {
+          writer.flush();
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(Files.size(path)).isGreaterThan(0);
+    URL url = path.toUri().toURL();
+    // sequentially
+    assertLines(readCompressed(url, compression), lineCount);
+    // in parallel
+    executor = Executors.newFixedThreadPool(2);
+    try {
+      assertLines(readCompressed(url, compression, executor), lineCount);
+    } finally {
+      executor.shutdown();
+    }
+    Files.delete(path);
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_write_compressed_file_in_parallel_blocks() {
+    return Stream.of(arguments("gzip"), arguments("zstd"));
+  }
+
+  @ParameterizedTest(
+      name = "[{index}] Should read file {0} with compression {1} in parallel blocks")
+  @MethodSource
+  @DisplayName("Should read compressed file in parallel blocks")
+  void should_read_compressed_file_in_parallel_blocks(String filename, String compression)
+      throws IOException {
+    // these files are made of a single member or frame that does not record its size, and are
+    // decompressed sequentially
+    URL url = getClass().getResource("/compression/" + filename);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(readCompressed(url, compression, executor))
+          .containsExactly("this is", "a", "test file");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static Stream<Arguments> should_read_compressed_file_in_parallel_blocks() {
+    return Stream.of(
+        arguments("test.gz", CompressedIOUtils.GZIP_COMPRESSION),
+        arguments("test.zstd", CompressedIOUtils.ZSTD_COMPRESSION),
+        arguments("test.bz2", CompressedIOUtils.BZIP2_COMPRESSION));
+  }
+
+  @Test
+  void should_read_concatenated_gzip_members_in_parallel_blocks() throws IOException {
+    // the first member does not record its size, the second one does
+    Path path = Files.createTempFile("dsbulk-", "-compress.gz");
+    try (OutputStream out = Files.newOutputStream(path)) {
+      try (GZIPOutputStream gzip = new GZIPOutputStream(new NonClosingOutputStream(out))) {
+        gzip.write("line 0\nline 1\n".getBytes(Charsets.UTF_8));
+      }
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try (BufferedWriter writer =
+          CompressedIOUtils.newBufferedWriter(
+              out, Charsets.UTF_8, CompressedIOUtils.GZIP_COMPRESSION, executor)) {
+        writer.write("line 2\nline 3\n");
+      } finally {
+        executor.shutdown();
+      }
+    }
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertLines(
+          readCompressed(path.toUri().toURL(), CompressedIOUtils.GZIP_COMPRESSION, executor), 4);
+    } finally {
+      executor.shutdown();
+    }
+    Files.delete(path);
+  }
+
+  @Test
+  void should_read_concatenated_zstd_frames_in_parallel_blocks() throws IOException {
+    // the first frame does not record its content size, the second one does
+    Path path = Files.createTempFile("dsbulk-", "-compress.zstd");
+    try (OutputStream out = Files.newOutputStream(path)) {
+      try (ZstdOutputStream zstd = new ZstdOutputStream(new NonClosingOutputStream(out))) {
+        zstd.write("line 0\nline 1\n".getBytes(Charsets.UTF_8));
+      }
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try (BufferedWriter writer =
+          CompressedIOUtils.newBufferedWriter(
+              out, Charsets.UTF_8, CompressedIOUtils.ZSTD_COMPRESSION, executor)) {
+        writer.write("line 2\nline 3\n");
+      } finally {
+        executor.shutdown();
+      }
+    }
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertLines(
+          readCompressed(path.toUri().toURL(), CompressedIOUtils.ZSTD_COMPRESSION, executor), 4);
+    } finally {
+      executor.shutdown();
+    }
+    Files.delete(path);
+  }
+
+  @Test
+  void should_decompress_gzip_member_ahead_of_reader_only_if_small_enough() throws IOException {
+    byte[] small = gzip(1024);
+    try (InputStream in = CompressedIOUtils.decompressGzipMember(small)) {
+      assertThat(in).isInstanceOf(ByteArrayInputStream.class);
+      assertThat(ByteStreams.exhaust(in)).isEqualTo(1024);
+    }
+    int size = BlockDecompressingInputStream.MAX_DECOMPRESSED_BLOCK_SIZE + 1;
+    byte[] large = gzip(size);
+    try (InputStream in = CompressedIOUtils.decompressGzipMember(large)) {
+      assertThat(in).isNotInstanceOf(ByteArrayInputStream.class);
+      assertThat(ByteStreams.exhaust(in)).isEqualTo(size);
+    }
+  }
+
+  @Test
+  void should_decompress_zstd_frame_ahead_of_reader_only_if_size_is_known() throws IOException {
+    byte[] known = Zstd.compress(new byte[1024]);
+    try (InputStream in = CompressedIOUtils.decompressZstdFrame(known)) {
+      assertThat(in).isInstanceOf(ByteArrayInputStream.class);
+      assertThat(ByteStreams.exhaust(in)).isEqualTo(1024);
+    }
+    ByteArrayOutputStream unknown = new ByteArrayOutputStream();
+    try (ZstdOutputStream zstd = new ZstdOutputStream(unknown)) {
+      zstd.write(new byte[1024]);
+    }
+    try (InputStream in = CompressedIOUtils.decompressZstdFrame(unknown.toByteArray())) {
+      assertThat(in).isNotInstanceOf(ByteArrayInputStream.class);
+      assertThat(ByteStreams.exhaust(in)).isEqualTo(1024);
+    }
+  }
+
+  /** Compresses the given number of zeros into a gzip member. */
+  private static byte[] gzip(int size) throws IOException {
+    ByteArrayOutputStream member = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(member)) {
+      byte[] chunk = new byte[64 * 1024];
+      for (int written = 0; written < size; written += chunk.length) {
+        gzip.write(chunk, 0, Math.min(chunk.length, size - written));
+      }
+    }
+    return member.toByteArray();
+  }
+
   private static void assertCanReadCompressed(URL url, String compression) throws IOException {
     List<String> lines = readCompressed(url, compression);
     assertThat(lines)
@@ -212,6 +392,33 @@ class CompressedIOUtilsTest {
     return reader.lines().collect(Collectors.toList());
   }
 
+  private static List<String> readCompressed(URL url, String compression, Executor executor)
+      throws IOException {
+    try (BufferedReader reader =
+        CompressedIOUtils.newBufferedReader(url, Charsets.UTF_8, compression, executor)) {
+      return reader.lines().collect(Collectors.toList());
+    }
+  }
+
+  private static void assertLines(List<String> lines, int lineCount) {
+    assertThat(lines).hasSize(lineCount);
+    for (int i = 0; i < lineCount; i++) {
+      assertThat(lines.get(i)).isEqualTo("line " + i);
+    }
+  }
+
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    private NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+
   private static URL writeCompressed(String compression) throws IOException {
     Path path =
         Files.createTempFile(
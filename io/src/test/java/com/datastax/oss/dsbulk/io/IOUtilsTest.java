@@ -18,8 +18,17 @@ package com.datastax.oss.dsbulk.io;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.datastax.oss.dsbulk.url.BulkLoaderURLStreamHandlerFactory;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class IOUtilsTest {
@@ -33,4 +42,80 @@ class IOUtilsTest {
     assertThat(IOUtils.isStandardStream(new URL("http://acme.com"))).isFalse();
     assertThat(IOUtils.isStandardStream(new URL("std:/"))).isTrue();
   }
+
+  @Test
+  void should_read_range_of_file() throws IOException {
+    Path file = Files.createTempFile("range", ".txt");
+    try {
+      Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+      assertThat(readAll(file, 0, 10)).isEqualTo("0123456789");
+      assertThat(readAll(file, 2, 3)).isEqualTo("234");
+      assertThat(readAll(file, 8, 100)).isEqualTo("89");
+      assertThat(readAll(file, 10, 5)).isEmpty();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_read_range_of_file_through_memory_mapping() throws IOException {
+    Path file = Files.createTempFile("range", ".txt");
+    try {
+      Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+      assertThat(readAllMapped(file, 0, 10)).isEqualTo("0123456789");
+      assertThat(readAllMapped(file, 2, 3)).isEqualTo("234");
+      assertThat(readAllMapped(file, 8, 100)).isEqualTo("89");
+      assertThat(readAllMapped(file, 0, Long.MAX_VALUE)).isEqualTo("0123456789");
+      assertThat(readAllMapped(file, 10, 5)).isEmpty();
+      assertThat(readAllMapped(file, 20, 5)).isEmpty();
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void should_read_file_larger_than_mapped_window() throws IOException {
+    Path file = Files.createTempFile("large", ".bin");
+    try {
+      byte[] data = new byte[20 * 1024 * 1024 + 17];
+      new Random(42).nextBytes(data);
+      Files.write(file, data);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (InputStream in = IOUtils.newMappedInputStream(file, 1, Long.MAX_VALUE)) {
+        assertThat(in.read()).isEqualTo(data[1] & 0xFF);
+        assertThat(in.skip(10)).isEqualTo(10);
+        byte[] buffer = new byte[12345];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+          out.write(buffer, 0, n);
+        }
+      }
+      assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(data, 12, data.length));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static String readAllMapped(Path file, long start, long length) throws IOException {
+    try (InputStream in = IOUtils.newMappedInputStream(file, start, length)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      int b;
+      while ((b = in.read()) != -1) {
+        out.write(b);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String readAll(Path file, long start, long length) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    try (BufferedReader reader =
+        IOUtils.newBufferedReader(file, start, length, StandardCharsets.UTF_8)) {
+      int c;
+      while ((c = reader.read()) != -1) {
+        sb.append((char) c);
+      }
+    }
+    return sb.toString();
+  }
 }
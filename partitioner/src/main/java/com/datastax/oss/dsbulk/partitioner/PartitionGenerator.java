@@ -24,6 +24,7 @@ import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 public class PartitionGenerator {
@@ -46,14 +47,39 @@ public class PartitionGenerator {
    */
   @NonNull
   public List<BulkTokenRange> partition(int splitCount) {
+    return partition(splitCount, BulkTokenRange::fraction);
+  }
+
+  /**
+   * Partitions the entire ring into approximately {@code splitCount} splits holding roughly the
+   * same amount of data, according to the given size estimates: ranges holding more data than
+   * others are split into more, smaller splits, and ranges holding less data are grouped into
+   * larger splits.
+   *
+   * @param splitCount The desired number of splits.
+   * @param estimates The size estimates to use; if they are {@linkplain
+   *     TokenRangeSizeEstimates#isEmpty() empty}, this method behaves like {@link #partition(int)}.
+   */
+  @NonNull
+  public List<BulkTokenRange> partition(
+      int splitCount, @NonNull TokenRangeSizeEstimates estimates) {
+    if (estimates.isEmpty()) {
+      return partition(splitCount);
+    }
+    return partition(splitCount, estimates::fraction);
+  }
+
+  @NonNull
+  private List<BulkTokenRange> partition(
+      int splitCount, @NonNull ToDoubleFunction<? super BulkTokenRange> weight) {
     List<BulkTokenRange> tokenRanges = describeRing(splitCount);
     int endpointCount = (int) tokenRanges.stream().map(BulkTokenRange::replicas).distinct().count();
     int maxGroupSize = tokenRanges.size() / endpointCount;
     TokenRangeSplitter splitter = tokenFactory.splitter();
-    List<BulkTokenRange> splits = splitter.split(tokenRanges, splitCount);
+    List<BulkTokenRange> splits = splitter.split(tokenRanges, splitCount, weight);
     checkRing(splits);
     TokenRangeClusterer clusterer = tokenFactory.clusterer();
-    List<BulkTokenRange> groups = clusterer.group(splits, splitCount, maxGroupSize);
+    List<BulkTokenRange> groups = clusterer.group(splits, splitCount, maxGroupSize, weight);
     checkRing(groups);
     return groups;
   }
@@ -17,6 +17,7 @@ package com.datastax.oss.dsbulk.partitioner;
 
 import static com.datastax.oss.dsbulk.partitioner.utils.TokenUtils.getTokenValue;
 
+import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
@@ -26,6 +27,7 @@ import com.datastax.oss.driver.api.core.metadata.schema.RelationMetadata;
 import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.internal.core.metadata.token.DefaultTokenMap;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -96,12 +98,34 @@ public class TokenRangeReadStatementGenerator {
   @NonNull
   public <StatementT extends Statement<StatementT>> Map<TokenRange, StatementT> generate(
       int splitCount, @NonNull Function<TokenRange, StatementT> statementFactory) {
-    BulkTokenFactory tokenFactory =
-        BulkTokenFactory.forPartitioner(
-            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+    return generate(splitCount, null, statementFactory);
+  }
+
+  /**
+   * Generates SELECT statements to read the entire table, with a minimum of {@code splitCount}
+   * statements and using the given factory to generate statements, like {@link #generate(int,
+   * Function)}, except that if size estimates are provided, token ranges are split so that each
+   * statement reads roughly the same amount of data.
+   *
+   * @param splitCount The minimum desired number of statements to generate (on a best-effort
+   *     basis).
+   * @param estimates The size estimates to split token ranges with, or {@code null} to split them
+   *     by ring fraction.
+   * @param statementFactory The factory to use to generate statements for each split.
+   * @return A list of SELECT statements to read the entire table.
+   * @see #fetchSizeEstimates(CqlSession)
+   */
+  @NonNull
+  public <StatementT extends Statement<StatementT>> Map<TokenRange, StatementT> generate(
+      int splitCount,
+      @Nullable TokenRangeSizeEstimates estimates,
+      @NonNull Function<TokenRange, StatementT> statementFactory) {
     PartitionGenerator generator =
-        new PartitionGenerator(table.getKeyspace(), tokenMap, tokenFactory);
-    List<BulkTokenRange> partitions = generator.partition(splitCount);
+        new PartitionGenerator(table.getKeyspace(), tokenMap, getTokenFactory());
+    List<BulkTokenRange> partitions =
+        estimates == null
+            ? generator.partition(splitCount)
+            : generator.partition(splitCount, estimates);
     Map<TokenRange, StatementT> statements = new TreeMap<>();
     for (BulkTokenRange range : partitions) {
       StatementT stmt = statementFactory.apply(range);
@@ -121,6 +145,24 @@ public class TokenRangeReadStatementGenerator {
     return statements;
   }
 
+  /**
+   * Reads the size estimates of the table to scan from each node.
+   *
+   * @param session The session to use.
+   * @return The size estimates of the table.
+   */
+  @NonNull
+  public TokenRangeSizeEstimates fetchSizeEstimates(@NonNull CqlSession session) {
+    return TokenRangeSizeEstimates.fetch(
+        session, table.getKeyspace(), table.getName(), getTokenFactory());
+  }
+
+  @NonNull
+  private BulkTokenFactory getTokenFactory() {
+    return BulkTokenFactory.forPartitioner(
+        ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+  }
+
   private SimpleStatement generateSimpleStatement(TokenRange range) {
     String all =
         table.getColumns().keySet().stream()
@@ -0,0 +1,256 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.partitioner;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates of the amount of data stored in the token ranges of a table.
+ *
+ * <p>Estimates are usually read from the {@code system.size_estimates} table of each node, see
+ * {@link #fetch(CqlSession, CqlIdentifier, CqlIdentifier, BulkTokenFactory)}, but can also be
+ * created from known range sizes, see {@link #of(BulkTokenFactory, Map)}.
+ *
+ * <p>Data is assumed to be evenly distributed within each estimated range. Parts of the ring that
+ * are not covered by any estimate, for example because a node could not be queried, are assumed to
+ * hold data with the average density of the covered parts.
+ */
+public class TokenRangeSizeEstimates {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TokenRangeSizeEstimates.class);
+
+  private static final String SIZE_ESTIMATES_QUERY =
+      "SELECT range_start, range_end, mean_partition_size, partitions_count "
+          + "FROM system.size_estimates WHERE keyspace_name = ? AND table_name = ?";
+
+  private final BulkTokenFactory tokenFactory;
+
+  // non-overlapping segments of the ring, sorted by position; positions are ring fractions
+  // between 0 (the minimum token) and 1 (the maximum token); densities are in bytes per ring
+  // fraction.
+  private final double[] starts;
+  private final double[] ends;
+  private final double[] densities;
+
+  private final double defaultDensity;
+  private final double totalBytes;
+
+  private TokenRangeSizeEstimates(
+      BulkTokenFactory tokenFactory, Map<? extends TokenRange, Long> bytesPerRange) {
+    this.tokenFactory = tokenFactory;
+    List<double[]> segments = new ArrayList<>();
+    for (Map.Entry<? extends TokenRange, Long> entry : bytesPerRange.entrySet()) {
+      List<double[]> pieces = segments(entry.getKey());
+      double length = pieces.stream().mapToDouble(p -> p[1] - p[0]).sum();
+      if (length > 0) {
+        for (double[] piece : pieces) {
+          segments.add(new double[] {piece[0], piece[1], entry.getValue() / length});
+        }
+      }
+    }
+    segments.sort(Comparator.comparingDouble(s -> s[0]));
+    List<double[]> disjoint = new ArrayList<>(segments.size());
+    double previousEnd = 0;
+    for (double[] segment : segments) {
+      // estimates reported by different nodes may overlap; the first one wins
+      double start = Math.max(segment[0], previousEnd);
+      if (start < segment[1]) {
+        disjoint.add(new double[] {start, segment[1], segment[2]});
+        previousEnd = segment[1];
+      }
+    }
+    int size = disjoint.size();
+    starts = new double[size];
+    ends = new double[size];
+    densities = new double[size];
+    double coveredLength = 0;
+    double coveredBytes = 0;
+    for (int i = 0; i < size; i++) {
+      double[] segment = disjoint.get(i);
+      starts[i] = segment[0];
+      ends[i] = segment[1];
+      densities[i] = segment[2];
+      coveredLength += ends[i] - starts[i];
+      coveredBytes += (ends[i] - starts[i]) * densities[i];
+    }
+    defaultDensity = coveredLength > 0 ? coveredBytes / coveredLength : 0;
+    totalBytes = estimate(0, 1);
+  }
+
+  /**
+   * Creates estimates from known range sizes.
+   *
+   * @param tokenFactory The token factory to use.
+   * @param bytesPerRange The estimated size of each range, in bytes.
+   * @return The estimates.
+   */
+  @NonNull
+  public static TokenRangeSizeEstimates of(
+      @NonNull BulkTokenFactory tokenFactory,
+      @NonNull Map<? extends TokenRange, Long> bytesPerRange) {
+    return new TokenRangeSizeEstimates(tokenFactory, bytesPerRange);
+  }
+
+  /**
+   * Reads the size estimates of the given table from the {@code system.size_estimates} table of
+   * each node; nodes that are down, or that fail to respond, are ignored.
+   *
+   * @param session The session to use.
+   * @param keyspace The keyspace of the table.
+   * @param table The table.
+   * @param tokenFactory The token factory to use.
+   * @return The estimates; they may be {@linkplain #isEmpty() empty}, for example if the table was
+   *     created recently.
+   */
+  @NonNull
+  public static TokenRangeSizeEstimates fetch(
+      @NonNull CqlSession session,
+      @NonNull CqlIdentifier keyspace,
+      @NonNull CqlIdentifier table,
+      @NonNull BulkTokenFactory tokenFactory) {
+    SimpleStatement query =
+        SimpleStatement.newInstance(
+            SIZE_ESTIMATES_QUERY, keyspace.asInternal(), table.asInternal());
+    Map<TokenRange, Long> bytesPerRange = new HashMap<>();
+    for (Node node : session.getMetadata().getNodes().values()) {
+      if (node.getState() == NodeState.DOWN || node.getState() == NodeState.FORCED_DOWN) {
+        continue;
+      }
+      try {
+        for (Row row : session.execute(query.setNode(node))) {
+          Token start = tokenFactory.parse(row.getString(0));
+          Token end = tokenFactory.parse(row.getString(1));
+          long bytes = Math.max(0, row.getLong(2)) * Math.max(0, row.getLong(3));
+          // replicas may report the same range: keep the highest estimate
+          bytesPerRange.merge(
+              tokenFactory.range(start, end, Collections.emptySet()), bytes, Math::max);
+        }
+      } catch (RuntimeException e) {
+        LOGGER.warn("Could not read size estimates from {}: {}", node, e.getMessage());
+        LOGGER.debug("Error reading size estimates", e);
+      }
+    }
+    return new TokenRangeSizeEstimates(tokenFactory, bytesPerRange);
+  }
+
+  /** @return {@code true} if no data is estimated to be stored in the ring. */
+  public boolean isEmpty() {
+    return totalBytes <= 0;
+  }
+
+  /** @return the estimated number of bytes stored in the whole ring. */
+  public double totalBytes() {
+    return totalBytes;
+  }
+
+  /**
+   * @param range The range to estimate.
+   * @return the estimated number of bytes stored in the given range.
+   */
+  public double estimateBytes(@NonNull TokenRange range) {
+    double bytes = 0;
+    for (double[] segment : segments(range)) {
+      bytes += estimate(segment[0], segment[1]);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the fraction of the data estimated to be stored in the given range. This is the
+   * data-based counterpart of {@link BulkTokenRange#fraction()}, to which it falls back if the
+   * estimates are {@linkplain #isEmpty() empty}.
+   *
+   * @param range The range to estimate.
+   * @return the fraction of the data stored in the given range, between 0 and 1.
+   */
+  public double fraction(@NonNull TokenRange range) {
+    if (isEmpty()) {
+      return segments(range).stream().mapToDouble(s -> s[1] - s[0]).sum();
+    }
+    return estimateBytes(range) / totalBytes;
+  }
+
+  private double estimate(double start, double end) {
+    double bytes = 0;
+    double covered = 0;
+    int i = firstSegmentEndingAfter(start);
+    for (; i < starts.length && starts[i] < end; i++) {
+      double overlap = Math.min(ends[i], end) - Math.max(starts[i], start);
+      if (overlap > 0) {
+        bytes += overlap * densities[i];
+        covered += overlap;
+      }
+    }
+    return bytes + (end - start - covered) * defaultDensity;
+  }
+
+  private int firstSegmentEndingAfter(double position) {
+    int low = 0;
+    int high = ends.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ends[mid] <= position) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Converts the given range into one or two non-wrapping segments of ring positions. */
+  private List<double[]> segments(TokenRange range) {
+    Token start = range.getStart();
+    Token end = range.getEnd();
+    if (start.equals(end)) {
+      return Collections.singletonList(new double[] {0, 1});
+    }
+    double startPosition = position(start);
+    double endPosition = end.equals(tokenFactory.minToken()) ? 1 : position(end);
+    if (startPosition < endPosition) {
+      return Collections.singletonList(new double[] {startPosition, endPosition});
+    }
+    List<double[]> segments = new ArrayList<>(2);
+    segments.add(new double[] {startPosition, 1});
+    if (endPosition > 0) {
+      segments.add(new double[] {0, endPosition});
+    }
+    return segments;
+  }
+
+  private double position(Token token) {
+    Token min = tokenFactory.minToken();
+    return token.equals(min)
+        ? 0
+        : tokenFactory.range(min, token, Collections.emptySet()).fraction();
+  }
+}
@@ -18,6 +18,7 @@ package com.datastax.oss.dsbulk.partitioner;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -36,11 +37,31 @@ public interface TokenRangeSplitter {
   @NonNull
   default List<BulkTokenRange> split(
       @NonNull Iterable<BulkTokenRange> tokenRanges, int splitCount) {
-    double ringFractionPerSplit = 1.0 / (double) splitCount;
+    return split(tokenRanges, splitCount, BulkTokenRange::fraction);
+  }
+
+  /**
+   * Splits the given ranges into (smaller) {@code splitCount} chunks of roughly the same weight,
+   * assuming that the weight of each range is evenly distributed across its tokens.
+   *
+   * <p>Note that the algorithm is size-based and doesn't guarantee exact split count.
+   *
+   * @param tokenRanges The ranges to split.
+   * @param splitCount The desired number of resulting chunks.
+   * @param weight The weight of each range, as a fraction of the total weight of the ring.
+   * @return A list of ranges of approximately {@code splitCount} chunks.
+   */
+  @NonNull
+  default List<BulkTokenRange> split(
+      @NonNull Iterable<BulkTokenRange> tokenRanges,
+      int splitCount,
+      @NonNull ToDoubleFunction<? super BulkTokenRange> weight) {
+    double weightPerSplit = 1.0 / (double) splitCount;
     return StreamSupport.stream(tokenRanges.spliterator(), false)
         .flatMap(
             range -> {
-              int splits = (int) Math.max(1, Math.rint(range.fraction() / ringFractionPerSplit));
+              int splits =
+                  (int) Math.max(1, Math.rint(weight.applyAsDouble(range) / weightPerSplit));
               List<BulkTokenRange> split =
                   splits == 1 ? Collections.singletonList(range) : split(range, splits);
               return split.stream();
@@ -31,6 +31,7 @@ import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
 import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
 import com.datastax.oss.driver.internal.core.metadata.DefaultEndPoint;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
 import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
 import java.util.List;
 import java.util.Set;
@@ -281,6 +282,58 @@ class PartitionGeneratorTest {
         .isEqualTo(1d, offset(.000000001));
   }
 
+  @Test
+  void should_split_by_size_estimates() {
+
+    given(tokenMap.getTokenRanges()).willReturn(singleDCRanges);
+
+    // range S1 holds 80% of the data, ranges S2 and S3 10% each
+    TokenRangeSizeEstimates estimates =
+        TokenRangeSizeEstimates.of(
+            tokenFactory, ImmutableMap.of(rangeS1, 8000L, rangeS2, 1000L, rangeS3, 1000L));
+    PartitionGenerator generator =
+        new PartitionGenerator(keyspace.getName(), tokenMap, tokenFactory);
+    List<BulkTokenRange> splits = generator.partition(10, estimates);
+
+    assertThat(splits.size()).isEqualTo(10);
+
+    // range S1 -> 8 splits
+    for (int i = 0; i < 8; i++) {
+      assertThat(splits.get(i))
+          .hasReplicas(host1)
+          .hasFraction(0.3333333333333333d / 8, offset(.000000001d));
+      assertThat(estimates.estimateBytes(splits.get(i))).isEqualTo(1000d, offset(.001d));
+    }
+    assertThat(splits.get(0)).startsWith(-9223372036854775808L);
+    assertThat(splits.get(7)).endsWith(-3074457345618258603L);
+
+    // ranges S2 and S3 -> 1 split each
+    assertThat(splits.get(8))
+        .startsWith(-3074457345618258603L)
+        .endsWith(3074457345618258602L)
+        .hasReplicas(host2);
+    assertThat(splits.get(9))
+        .startsWith(3074457345618258602L)
+        .endsWith(-9223372036854775808L)
+        .hasReplicas(host3);
+
+    assertThat(splits.stream().map(BulkTokenRange::fraction).reduce(0d, Double::sum))
+        .isEqualTo(1d, offset(.000000001));
+  }
+
+  @Test
+  void should_split_by_ring_fraction_when_size_estimates_empty() {
+
+    given(tokenMap.getTokenRanges()).willReturn(singleDCRanges);
+
+    PartitionGenerator generator =
+        new PartitionGenerator(keyspace.getName(), tokenMap, tokenFactory);
+    List<BulkTokenRange> splits =
+        generator.partition(9, TokenRangeSizeEstimates.of(tokenFactory, ImmutableMap.of()));
+
+    assertThat(splits).isEqualTo(generator.partition(9));
+  }
+
   private TokenRange range(long start, long end) {
     return newTokenRange(newToken(start), newToken(end));
   }
@@ -0,0 +1,153 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.partitioner;
+
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newToken;
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newTokenRange;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import java.util.Arrays;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TokenRangeSizeEstimatesTest {
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  // 4 ranges covering a quarter of the ring each, the last one wrapping around
+  private final TokenRange range1 = range(-6917529027641081856L, -2305843009213693952L);
+  private final TokenRange range2 = range(-2305843009213693952L, 2305843009213693952L);
+  private final TokenRange range3 = range(2305843009213693952L, 6917529027641081856L);
+  private final TokenRange range4 = range(6917529027641081856L, -6917529027641081856L);
+
+  @Test
+  void should_estimate_range_sizes() {
+    TokenRangeSizeEstimates estimates =
+        TokenRangeSizeEstimates.of(
+            tokenFactory, ImmutableMap.of(range1, 100L, range2, 200L, range3, 300L, range4, 400L));
+    assertThat(estimates.isEmpty()).isFalse();
+    assertThat(estimates.totalBytes()).isEqualTo(1000d, offset(.001d));
+    assertThat(estimates.estimateBytes(range1)).isEqualTo(100d, offset(.001d));
+    assertThat(estimates.estimateBytes(range4)).isEqualTo(400d, offset(.001d));
+    assertThat(estimates.fraction(range3)).isEqualTo(0.3d, offset(.000001d));
+    // half of range1 and half of range2
+    assertThat(estimates.estimateBytes(range(-4611686018427387904L, 0L)))
+        .isEqualTo(150d, offset(.001d));
+    // three quarters of range4 and half of range1, wrapping around the ring
+    assertThat(estimates.estimateBytes(range(8070450532247928832L, -4611686018427387904L)))
+        .isEqualTo(350d, offset(.001d));
+    // the whole ring
+    assertThat(estimates.estimateBytes(range(Long.MIN_VALUE, Long.MIN_VALUE)))
+        .isEqualTo(1000d, offset(.001d));
+  }
+
+  @Test
+  void should_assume_average_density_for_ranges_without_estimates() {
+    TokenRangeSizeEstimates estimates =
+        TokenRangeSizeEstimates.of(tokenFactory, ImmutableMap.of(range1, 100L, range2, 300L));
+    // ranges 3 and 4 are assumed to hold 200 bytes each
+    assertThat(estimates.totalBytes()).isEqualTo(800d, offset(.001d));
+    assertThat(estimates.estimateBytes(range3)).isEqualTo(200d, offset(.001d));
+    assertThat(estimates.fraction(range1)).isEqualTo(0.125d, offset(.000001d));
+  }
+
+  @Test
+  void should_fall_back_to_ring_fraction_when_empty() {
+    TokenRangeSizeEstimates estimates =
+        TokenRangeSizeEstimates.of(tokenFactory, ImmutableMap.of(range1, 0L));
+    assertThat(estimates.isEmpty()).isTrue();
+    assertThat(estimates.fraction(range2)).isEqualTo(0.25d, offset(.000001d));
+    assertThat(estimates.fraction(range4)).isEqualTo(0.25d, offset(.000001d));
+  }
+
+  @Test
+  void should_fetch_size_estimates_from_each_node() {
+    Node node1 = mockNode(NodeState.UP);
+    Node node2 = mockNode(NodeState.UP);
+    Node node3 = mockNode(NodeState.DOWN);
+    CqlSession session = mock(CqlSession.class);
+    Metadata metadata = mock(Metadata.class);
+    when(session.getMetadata()).thenReturn(metadata);
+    when(metadata.getNodes())
+        .thenReturn(
+            ImmutableMap.of(
+                UUID.randomUUID(), node1, UUID.randomUUID(), node2, UUID.randomUUID(), node3));
+    ResultSet rs1 = mockResultSet(row(range1, 10, 10), row(range2, 10, 20));
+    ResultSet rs2 = mockResultSet(row(range3, 10, 30), row(range4, 10, 40));
+    when(session.execute(any(SimpleStatement.class)))
+        .thenAnswer(
+            invocation -> {
+              SimpleStatement statement = invocation.getArgument(0);
+              assertThat(statement.getPositionalValues()).containsExactly("ks", "t1");
+              if (statement.getNode() == node1) {
+                return rs1;
+              } else if (statement.getNode() == node2) {
+                return rs2;
+              }
+              throw new IllegalStateException("unexpected node " + statement.getNode());
+            });
+    TokenRangeSizeEstimates estimates =
+        TokenRangeSizeEstimates.fetch(
+            session,
+            CqlIdentifier.fromInternal("ks"),
+            CqlIdentifier.fromInternal("t1"),
+            tokenFactory);
+    assertThat(estimates.totalBytes()).isEqualTo(1000d, offset(.001d));
+    assertThat(estimates.estimateBytes(range2)).isEqualTo(200d, offset(.001d));
+  }
+
+  private TokenRange range(long start, long end) {
+    return newTokenRange(newToken(start), newToken(end));
+  }
+
+  private static Node mockNode(NodeState state) {
+    Node node = mock(Node.class);
+    when(node.getState()).thenReturn(state);
+    return node;
+  }
+
+  private Row row(TokenRange range, long meanPartitionSize, long partitionsCount) {
+    Row row = mock(Row.class);
+    when(row.getString(0)).thenReturn(tokenFactory.format(range.getStart()));
+    when(row.getString(1)).thenReturn(tokenFactory.format(range.getEnd()));
+    when(row.getLong(2)).thenReturn(meanPartitionSize);
+    when(row.getLong(3)).thenReturn(partitionsCount);
+    return row;
+  }
+
+  private static ResultSet mockResultSet(Row... rows) {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.iterator())
+        .thenAnswer(invocation -> ImmutableList.copyOf(Arrays.asList(rows)).iterator());
+    return rs;
+  }
+}
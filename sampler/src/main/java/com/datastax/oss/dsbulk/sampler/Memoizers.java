@@ -58,6 +58,10 @@ class StatementSizeMemoizer implements LongSupplier {
     }
     return value;
   }
+
+  boolean isInitialized() {
+    return initialized;
+  }
 }
 
 class RowSizeMemoizer implements LongSupplier {
@@ -87,4 +91,8 @@ class RowSizeMemoizer implements LongSupplier {
     }
     return value;
   }
+
+  boolean isInitialized() {
+    return initialized;
+  }
 }
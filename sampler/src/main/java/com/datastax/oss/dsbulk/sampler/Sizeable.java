@@ -31,4 +31,12 @@ public interface Sizeable {
 
   /** @return the size of the container data in bytes. */
   long getDataSize();
+
+  /**
+   * @return whether the size of the container data is already known, in which case {@link
+   *     #getDataSize()} returns it without computing it.
+   */
+  default boolean isDataSizeKnown() {
+    return false;
+  }
 }
@@ -46,11 +46,29 @@ public class SizeableBatchStatement implements BatchStatement, Sizeable {
     this.dataSize = new StatementSizeMemoizer(delegate, version, registry);
   }
 
+  /**
+   * Creates a new instance whose data size is already known, typically because it was computed from
+   * the sizes of its children when creating the batch.
+   *
+   * @param delegate The statement to wrap.
+   * @param dataSize The data size of the statement, as {@link DataSizes} would compute it.
+   */
+  public SizeableBatchStatement(@NonNull BatchStatement delegate, long dataSize) {
+    this.delegate = delegate;
+    this.dataSize = () -> dataSize;
+  }
+
   @Override
   public long getDataSize() {
     return dataSize.getAsLong();
   }
 
+  @Override
+  public boolean isDataSizeKnown() {
+    return !(dataSize instanceof StatementSizeMemoizer)
+        || ((StatementSizeMemoizer) dataSize).isInitialized();
+  }
+
   @Override
   public String getExecutionProfileName() {
     return delegate.getExecutionProfileName();
@@ -44,11 +44,29 @@ public class SizeableBoundStatement implements BoundStatement, Sizeable {
         new StatementSizeMemoizer(delegate, delegate.protocolVersion(), delegate.codecRegistry());
   }
 
+  /**
+   * Creates a new instance whose data size is already known, typically because it was computed
+   * while binding the statement values.
+   *
+   * @param delegate The statement to wrap.
+   * @param dataSize The data size of the statement, as {@link DataSizes} would compute it.
+   */
+  public SizeableBoundStatement(@NonNull BoundStatement delegate, long dataSize) {
+    this.delegate = delegate;
+    this.dataSize = () -> dataSize;
+  }
+
   @Override
   public long getDataSize() {
     return dataSize.getAsLong();
   }
 
+  @Override
+  public boolean isDataSizeKnown() {
+    return !(dataSize instanceof StatementSizeMemoizer)
+        || ((StatementSizeMemoizer) dataSize).isInitialized();
+  }
+
   @NonNull
   @Override
   public PreparedStatement getPreparedStatement() {
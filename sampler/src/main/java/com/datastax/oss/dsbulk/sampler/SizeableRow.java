@@ -42,6 +42,11 @@ public class SizeableRow implements Row, Sizeable {
     return dataSize.getAsLong();
   }
 
+  @Override
+  public boolean isDataSizeKnown() {
+    return ((RowSizeMemoizer) dataSize).isInitialized();
+  }
+
   @Override
   @NonNull
   public ColumnDefinitions getColumnDefinitions() {
@@ -0,0 +1,365 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.url;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * An {@link OutputStream} that writes an S3 object through a multipart upload.
+ *
+ * <p>Bytes are accumulated in buffers of {@code partSize} bytes; each time a buffer is full, it is
+ * uploaded as a new part on the given executor, while writing continues in another buffer. Buffers
+ * are recycled once their part is uploaded, and at most {@code maxConcurrentParts} parts can be in
+ * flight at any given time: when this limit is reached, writers block until a buffer becomes
+ * available. Memory usage is therefore bounded by {@code (maxConcurrentParts + 1) * partSize}
+ * bytes.
+ *
+ * <p>The upload is completed when the stream is closed. Objects smaller than one part are uploaded
+ * with a single PUT request, without starting a multipart upload. If anything goes wrong, the
+ * multipart upload is aborted, so that no incomplete parts are left behind in the bucket.
+ *
+ * <p>Note that S3 requires all parts but the last one to be at least 5 MiB long, and that a
+ * multipart upload can have at most {@value #MAX_PART_COUNT} parts, which limits the size of an
+ * object to {@value #MAX_PART_COUNT} times {@code partSize} bytes. Writing more fails, and aborts
+ * the upload.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+  /** The maximum number of parts of a multipart upload allowed by S3. */
+  static final int MAX_PART_COUNT = 10_000;
+
+  private final S3Client s3Client;
+  private final String bucket;
+  private final String key;
+  private final int partSize;
+  private final int maxConcurrentParts;
+  private final Executor executor;
+
+  private final BlockingQueue<byte[]> freeBuffers = new LinkedBlockingQueue<>();
+  private final Semaphore uploadPermits;
+  private final List<CompletableFuture<CompletedPart>> pendingParts = new ArrayList<>();
+
+  private int allocatedBuffers;
+  private byte[] currentBuffer;
+  private int currentPosition;
+  private String uploadId;
+  private int nextPartNumber = 1;
+  private boolean closed;
+
+  /**
+   * Creates a new {@link S3MultipartOutputStream}.
+   *
+   * @param s3Client The client to use.
+   * @param bucket The destination bucket.
+   * @param key The destination key.
+   * @param partSize The size in bytes of each part; must be strictly positive.
+   * @param maxConcurrentParts The maximum number of parts being uploaded concurrently; must be
+   *     strictly positive.
+   * @param executor The executor to use to upload parts.
+   */
+  public S3MultipartOutputStream(
+      @NonNull S3Client s3Client,
+      @NonNull String bucket,
+      @NonNull String key,
+      int partSize,
+      int maxConcurrentParts,
+      @NonNull Executor executor) {
+    if (partSize <= 0) {
+      throw new IllegalArgumentException("Part size must be strictly positive, got: " + partSize);
+    }
+    if (maxConcurrentParts <= 0) {
+      throw new IllegalArgumentException(
+          "Number of concurrent parts must be strictly positive, got: " + maxConcurrentParts);
+    }
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+    this.key = key;
+    this.partSize = partSize;
+    this.maxConcurrentParts = maxConcurrentParts;
+    this.executor = executor;
+    uploadPermits = new Semaphore(maxConcurrentParts);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    ensureBufferAvailable();
+    currentBuffer[currentPosition++] = (byte) b;
+  }
+
+  @Override
+  public void write(@NonNull byte[] b, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    while (len > 0) {
+      ensureBufferAvailable();
+      int n = Math.min(len, partSize - currentPosition);
+      System.arraycopy(b, off, currentBuffer, currentPosition, n);
+      currentPosition += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * Does nothing: parts can only be uploaded once they are full, and the last part is uploaded when
+   * the stream is closed.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (uploadId == null) {
+        putObject();
+      } else {
+        if (currentPosition > 0) {
+          uploadCurrentBuffer();
+        }
+        completeMultipartUpload();
+      }
+    } catch (IOException | RuntimeException e) {
+      abortMultipartUpload(e);
+      throw e;
+    } finally {
+      currentBuffer = null;
+      freeBuffers.clear();
+    }
+  }
+
+  private void ensureBufferAvailable() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (currentBuffer != null && currentPosition == partSize) {
+      try {
+        // the current part is full and more bytes are coming: it can't be the last part
+        if (nextPartNumber >= MAX_PART_COUNT) {
+          throw new IOException(
+              String.format(
+                  "Object '%s' in bucket '%s' is too large: S3 uploads are limited to %d parts, "
+                      + "and parts are %d bytes long; consider increasing the part size",
+                  key, bucket, MAX_PART_COUNT, partSize));
+        }
+        if (uploadId == null) {
+          createMultipartUpload();
+        }
+        uploadCurrentBuffer();
+      } catch (IOException | RuntimeException e) {
+        closed = true;
+        abortMultipartUpload(e);
+        throw e;
+      }
+    }
+    if (currentBuffer == null) {
+      currentBuffer = acquireBuffer();
+      currentPosition = 0;
+    }
+  }
+
+  private byte[] acquireBuffer() throws IOException {
+    byte[] buffer = freeBuffers.poll();
+    if (buffer == null) {
+      // one buffer per in-flight part, plus the one being filled
+      if (allocatedBuffers < maxConcurrentParts + 1) {
+        allocatedBuffers++;
+        buffer = new byte[partSize];
+      } else {
+        try {
+          buffer = freeBuffers.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for S3 upload buffer");
+        }
+      }
+    }
+    return buffer;
+  }
+
+  private void createMultipartUpload() throws IOException {
+    try {
+      uploadId =
+          s3Client
+              .createMultipartUpload(
+                  CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build())
+              .uploadId();
+      LOGGER.debug(
+          "Started multipart upload {} for object '{}' in bucket '{}'", uploadId, key, bucket);
+    } catch (RuntimeException e) {
+      throw new IOException(
+          String.format("Could not start upload of object '%s' in bucket '%s'", key, bucket), e);
+    }
+  }
+
+  private void uploadCurrentBuffer() throws IOException {
+    checkPendingParts();
+    try {
+      uploadPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for S3 part upload");
+    }
+    byte[] buffer = currentBuffer;
+    int length = currentPosition;
+    int partNumber = nextPartNumber++;
+    currentBuffer = null;
+    currentPosition = 0;
+    pendingParts.add(
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return uploadPart(buffer, length, partNumber);
+              } finally {
+                freeBuffers.offer(buffer);
+                uploadPermits.release();
+              }
+            },
+            executor));
+  }
+
+  private CompletedPart uploadPart(byte[] buffer, int length, int partNumber) {
+    UploadPartRequest request =
+        UploadPartRequest.builder()
+            .bucket(bucket)
+            .key(key)
+            .uploadId(uploadId)
+            .partNumber(partNumber)
+            .contentLength((long) length)
+            .build();
+    UploadPartResponse response =
+        s3Client.uploadPart(
+            request,
+            RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+    return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+  }
+
+  /** Fails fast if a part upload already failed, instead of waiting for the stream to be closed. */
+  private void checkPendingParts() throws IOException {
+    for (CompletableFuture<CompletedPart> part : pendingParts) {
+      if (part.isCompletedExceptionally()) {
+        awaitPart(part);
+      }
+    }
+  }
+
+  private void completeMultipartUpload() throws IOException {
+    List<CompletedPart> parts = new ArrayList<>(pendingParts.size());
+    for (CompletableFuture<CompletedPart> part : pendingParts) {
+      parts.add(awaitPart(part));
+    }
+    parts.sort(Comparator.comparing(CompletedPart::partNumber));
+    try {
+      s3Client.completeMultipartUpload(
+          CompleteMultipartUploadRequest.builder()
+              .bucket(bucket)
+              .key(key)
+              .uploadId(uploadId)
+              .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+              .build());
+      LOGGER.debug(
+          "Completed multipart upload {} for object '{}' in bucket '{}' ({} parts)",
+          uploadId,
+          key,
+          bucket,
+          parts.size());
+    } catch (RuntimeException e) {
+      throw new IOException(
+          String.format("Could not complete upload of object '%s' in bucket '%s'", key, bucket), e);
+    }
+  }
+
+  private void putObject() throws IOException {
+    byte[] bytes =
+        currentBuffer == null ? new byte[0] : Arrays.copyOf(currentBuffer, currentPosition);
+    try {
+      s3Client.putObject(
+          PutObjectRequest.builder().bucket(bucket).key(key).build(), RequestBody.fromBytes(bytes));
+    } catch (RuntimeException e) {
+      throw new IOException(
+          String.format("Could not upload object '%s' in bucket '%s'", key, bucket), e);
+    }
+  }
+
+  private CompletedPart awaitPart(CompletableFuture<CompletedPart> part) throws IOException {
+    try {
+      return part.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for S3 part upload");
+    } catch (ExecutionException e) {
+      throw new IOException(
+          String.format("Could not upload part of object '%s' in bucket '%s'", key, bucket),
+          e.getCause());
+    }
+  }
+
+  private void abortMultipartUpload(Exception cause) {
+    if (uploadId != null) {
+      for (CompletableFuture<CompletedPart> part : pendingParts) {
+        part.cancel(true);
+      }
+      try {
+        s3Client.abortMultipartUpload(
+            AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+      } catch (RuntimeException e) {
+        cause.addSuppressed(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.url;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+/**
+ * An {@link InputStream} that reads an S3 object through successive ranged GET requests.
+ *
+ * <p>The object is split into chunks of a fixed size; while the consumer reads the current chunk,
+ * up to {@code readAheadChunks} subsequent chunks are fetched in parallel on the given executor. At
+ * any given time, at most {@code (readAheadChunks + 1) * chunkSize} bytes are held in memory, no
+ * matter how big the object is.
+ *
+ * <p>All ranged requests are conditioned on the ETag returned by the initial HEAD request, so that
+ * the read fails instead of mixing bytes from different versions of the object, should the object
+ * be modified while it is being read.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class S3RangedInputStream extends InputStream {
+
+  private final S3Client s3Client;
+  private final GetObjectRequest getObjectRequest;
+  private final int chunkSize;
+  private final int readAheadChunks;
+  private final Executor executor;
+  private final Deque<CompletableFuture<byte[]>> pendingChunks = new ArrayDeque<>();
+
+  private long objectSize = -1;
+  private String eTag;
+  private long nextChunkOffset = 0;
+  private byte[] currentChunk;
+  private int currentPosition;
+  private boolean closed;
+
+  /**
+   * Creates a new {@link S3RangedInputStream}.
+   *
+   * @param s3Client The client to use.
+   * @param getObjectRequest The request for the whole object; it will be used as a template for
+   *     each ranged request.
+   * @param chunkSize The size in bytes of each ranged request; must be strictly positive.
+   * @param readAheadChunks How many chunks to fetch in advance; zero disables read-ahead, in which
+   *     case chunks are fetched synchronously when needed.
+   * @param executor The executor to use to fetch chunks in advance.
+   */
+  public S3RangedInputStream(
+      @NonNull S3Client s3Client,
+      @NonNull GetObjectRequest getObjectRequest,
+      int chunkSize,
+      int readAheadChunks,
+      @NonNull Executor executor) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be strictly positive, got: " + chunkSize);
+    }
+    if (readAheadChunks < 0) {
+      throw new IllegalArgumentException(
+          "Number of read-ahead chunks must be positive or zero, got: " + readAheadChunks);
+    }
+    this.s3Client = s3Client;
+    this.getObjectRequest = getObjectRequest;
+    this.chunkSize = chunkSize;
+    this.readAheadChunks = readAheadChunks;
+    this.executor = executor;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureChunkAvailable()) {
+      return -1;
+    }
+    return currentChunk[currentPosition++] & 0xFF;
+  }
+
+  @Override
+  public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (!ensureChunkAvailable()) {
+      return -1;
+    }
+    int n = Math.min(len, currentChunk.length - currentPosition);
+    System.arraycopy(currentChunk, currentPosition, b, off, n);
+    currentPosition += n;
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && ensureChunkAvailable()) {
+      int step = (int) Math.min(n - skipped, currentChunk.length - currentPosition);
+      currentPosition += step;
+      skipped += step;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return currentChunk == null ? 0 : currentChunk.length - currentPosition;
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      for (CompletableFuture<byte[]> pending : pendingChunks) {
+        pending.cancel(true);
+      }
+      pendingChunks.clear();
+      currentChunk = null;
+    }
+  }
+
+  private boolean ensureChunkAvailable() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    while (currentChunk == null || currentPosition == currentChunk.length) {
+      if (objectSize == -1) {
+        fetchObjectMetadata();
+      }
+      scheduleChunks();
+      CompletableFuture<byte[]> next = pendingChunks.poll();
+      if (next == null) {
+        currentChunk = null;
+        return false;
+      }
+      currentChunk = awaitChunk(next);
+      currentPosition = 0;
+      if (readAheadChunks > 0) {
+        // schedule one more chunk to replace the one that was just consumed
+        scheduleChunks();
+      }
+    }
+    return true;
+  }
+
+  private void fetchObjectMetadata() throws IOException {
+    HeadObjectRequest headObjectRequest =
+        HeadObjectRequest.builder()
+            .bucket(getObjectRequest.bucket())
+            .key(getObjectRequest.key())
+            .versionId(getObjectRequest.versionId())
+            .build();
+    try {
+      HeadObjectResponse response = s3Client.headObject(headObjectRequest);
+      objectSize = response.contentLength();
+      eTag = response.eTag();
+    } catch (RuntimeException e) {
+      throw new IOException(
+          String.format(
+              "Could not read metadata of object '%s' in bucket '%s'",
+              getObjectRequest.key(), getObjectRequest.bucket()),
+          e);
+    }
+  }
+
+  private void scheduleChunks() {
+    // When read-ahead is disabled, we still need one pending chunk, fetched synchronously.
+    int maxPending = Math.max(1, readAheadChunks);
+    while (pendingChunks.size() < maxPending && nextChunkOffset < objectSize) {
+      long start = nextChunkOffset;
+      long end = Math.min(start + chunkSize, objectSize) - 1;
+      nextChunkOffset = end + 1;
+      Executor chunkExecutor = readAheadChunks == 0 ? Runnable::run : executor;
+      pendingChunks.add(CompletableFuture.supplyAsync(() -> fetchChunk(start, end), chunkExecutor));
+    }
+  }
+
+  private byte[] fetchChunk(long start, long end) {
+    GetObjectRequest.Builder builder =
+        getObjectRequest.toBuilder().range("bytes=" + start + '-' + end);
+    if (eTag != null) {
+      builder.ifMatch(eTag);
+    }
+    return s3Client.getObjectAsBytes(builder.build()).asByteArrayUnsafe();
+  }
+
+  private byte[] awaitChunk(CompletableFuture<byte[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new InterruptedIOException("Interrupted while waiting for S3 chunk");
+    } catch (ExecutionException e) {
+      close();
+      Throwable cause = e.getCause();
+      throw new IOException(
+          String.format(
+              "Could not read object '%s' in bucket '%s'",
+              getObjectRequest.key(), getObjectRequest.bucket()),
+          cause);
+    }
+  }
+}
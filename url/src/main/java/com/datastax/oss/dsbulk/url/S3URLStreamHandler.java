@@ -16,11 +16,13 @@
 package com.datastax.oss.dsbulk.url;
 
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLDecoder;
@@ -30,6 +32,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -39,43 +44,94 @@ import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.utils.StringUtils;
 
-/** A {@link URLStreamHandler} for reading from AWS S3 URls. */
+/**
+ * A {@link URLStreamHandler} for reading from and writing to AWS S3 URls.
+ *
+ * <p>Objects are read with ranged GET requests, see {@link S3RangedInputStream}, and written with
+ * multipart uploads, see {@link S3MultipartOutputStream}.
+ */
 public class S3URLStreamHandler extends URLStreamHandler {
 
   private static final String REGION = "region";
   private static final String PROFILE = "profile";
   private static final String ACCESS_KEY_ID = "accessKeyId";
   private static final String SECRET_ACCESS_KEY = "secretAccessKey";
+  private static final String ENDPOINT = "endpoint";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(S3URLStreamHandler.class);
 
   private final Cache<S3ClientInfo, S3Client> s3ClientCache;
+  private final int chunkSize;
+  private final int readAheadChunks;
+  private final int uploadPartSize;
+  private final int uploadConcurrency;
+  private final ExecutorService transferExecutor;
 
-  S3URLStreamHandler(int s3ClientCacheSize) {
+  S3URLStreamHandler(
+      int s3ClientCacheSize,
+      int chunkSize,
+      int readAheadChunks,
+      int uploadPartSize,
+      int uploadConcurrency) {
     this.s3ClientCache = Caffeine.newBuilder().maximumSize(s3ClientCacheSize).build();
+    this.chunkSize = chunkSize;
+    this.readAheadChunks = readAheadChunks;
+    this.uploadPartSize = uploadPartSize;
+    this.uploadConcurrency = uploadConcurrency;
+    // Threads are created on demand and die when idle; since each open stream has at most
+    // readAheadChunks or uploadConcurrency pending requests, the number of live threads is
+    // naturally bounded.
+    this.transferExecutor =
+        Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("s3-transfer-%d").build());
   }
 
   @Override
   protected URLConnection openConnection(URL url) {
-    return new S3Connection(url, s3ClientCache);
+    return new S3Connection(
+        url,
+        s3ClientCache,
+        chunkSize,
+        readAheadChunks,
+        uploadPartSize,
+        uploadConcurrency,
+        transferExecutor);
   }
 
   @VisibleForTesting
   static class S3Connection extends URLConnection {
 
     private final Cache<S3ClientInfo, S3Client> s3ClientCache;
+    private final int chunkSize;
+    private final int readAheadChunks;
+    private final int uploadPartSize;
+    private final int uploadConcurrency;
+    private final Executor transferExecutor;
 
     @Override
     public void connect() {
       // Nothing to see here...
     }
 
-    S3Connection(URL url, Cache<S3ClientInfo, S3Client> s3ClientCache) {
+    S3Connection(
+        URL url,
+        Cache<S3ClientInfo, S3Client> s3ClientCache,
+        int chunkSize,
+        int readAheadChunks,
+        int uploadPartSize,
+        int uploadConcurrency,
+        Executor transferExecutor) {
       super(url);
       this.s3ClientCache = s3ClientCache;
+      this.chunkSize = chunkSize;
+      this.readAheadChunks = readAheadChunks;
+      this.uploadPartSize = uploadPartSize;
+      this.uploadConcurrency = uploadConcurrency;
+      this.transferExecutor = transferExecutor;
     }
 
     @Override
@@ -85,19 +141,37 @@ public class S3URLStreamHandler extends URLStreamHandler {
       LOGGER.debug("Getting S3 input stream for object '{}' in bucket '{}'...", key, bucket);
       GetObjectRequest getObjectRequest =
           GetObjectRequest.builder().bucket(bucket).key(key).build();
+      return getInputStream(getOrCreateS3Client(), getObjectRequest);
+    }
+
+    @VisibleForTesting
+    InputStream getInputStream(S3Client s3Client, GetObjectRequest getObjectRequest) {
+      return new S3RangedInputStream(
+          s3Client, getObjectRequest, chunkSize, readAheadChunks, transferExecutor);
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      String bucket = url.getHost();
+      String key = url.getPath().substring(1); // Strip leading '/'.
+      LOGGER.debug("Getting S3 output stream for object '{}' in bucket '{}'...", key, bucket);
+      return getOutputStream(getOrCreateS3Client(), bucket, key);
+    }
+
+    @VisibleForTesting
+    OutputStream getOutputStream(S3Client s3Client, String bucket, String key) {
+      return new S3MultipartOutputStream(
+          s3Client, bucket, key, uploadPartSize, uploadConcurrency, transferExecutor);
+    }
+
+    private S3Client getOrCreateS3Client() {
       String query = url.getQuery();
       if (StringUtils.isBlank(query)) {
         throw new IllegalArgumentException(
             "You must provide S3 client credentials in the URL query parameters.");
       }
       S3ClientInfo s3ClientInfo = new S3ClientInfo(query);
-      S3Client s3Client = s3ClientCache.get(s3ClientInfo, this::getS3Client);
-      return getInputStream(s3Client, getObjectRequest);
-    }
-
-    @VisibleForTesting
-    InputStream getInputStream(S3Client s3Client, GetObjectRequest getObjectRequest) {
-      return s3Client.getObjectAsBytes(getObjectRequest).asInputStream();
+      return s3ClientCache.get(s3ClientInfo, this::getS3Client);
     }
 
     @VisibleForTesting
@@ -106,6 +180,16 @@ public class S3URLStreamHandler extends URLStreamHandler {
       S3ClientBuilder builder =
           S3Client.builder().httpClient(httpClient).region(Region.of(s3ClientInfo.getRegion()));
 
+      String endpoint = s3ClientInfo.getEndpoint();
+      if (!StringUtils.isBlank(endpoint)) {
+        // Typically used to target S3-compatible services, which often don't support
+        // virtual-hosted-style requests.
+        LOGGER.info("Using custom S3 endpoint {}.", endpoint);
+        builder
+            .endpointOverride(URI.create(endpoint))
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build());
+      }
+
       String profile = s3ClientInfo.getProfile();
       String accessKeyId = s3ClientInfo.getAccessKeyId();
       String secretAccessKey = s3ClientInfo.getSecretAccessKey();
@@ -127,11 +211,6 @@ public class S3URLStreamHandler extends URLStreamHandler {
 
       return builder.build();
     }
-
-    @Override
-    public OutputStream getOutputStream() {
-      throw new UnsupportedOperationException("Writing to S3 has not yet been implemented.");
-    }
   }
 
   @VisibleForTesting
@@ -141,6 +220,7 @@ public class S3URLStreamHandler extends URLStreamHandler {
     private final String profile;
     private final String accessKeyId;
     private final String secretAccessKey;
+    private final String endpoint;
 
     S3ClientInfo(String query) {
       Map<String, List<String>> parameters;
@@ -157,6 +237,7 @@ public class S3URLStreamHandler extends URLStreamHandler {
       profile = getQueryParam(parameters, PROFILE);
       accessKeyId = getQueryParam(parameters, ACCESS_KEY_ID);
       secretAccessKey = getQueryParam(parameters, SECRET_ACCESS_KEY);
+      endpoint = getQueryParam(parameters, ENDPOINT);
     }
 
     // Borrowed from
@@ -204,6 +285,10 @@ public class S3URLStreamHandler extends URLStreamHandler {
       return secretAccessKey;
     }
 
+    public String getEndpoint() {
+      return endpoint;
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
@@ -216,12 +301,13 @@ public class S3URLStreamHandler extends URLStreamHandler {
       return region.equals(that.region)
           && Objects.equals(profile, that.profile)
           && Objects.equals(accessKeyId, that.accessKeyId)
-          && Objects.equals(secretAccessKey, that.secretAccessKey);
+          && Objects.equals(secretAccessKey, that.secretAccessKey)
+          && Objects.equals(endpoint, that.endpoint);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(region, profile, accessKeyId, secretAccessKey);
+      return Objects.hash(region, profile, accessKeyId, secretAccessKey, endpoint);
     }
   }
 }
@@ -16,6 +16,7 @@
 package com.datastax.oss.dsbulk.url;
 
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.URLStreamHandler;
 import java.util.Optional;
@@ -23,7 +24,17 @@ import java.util.Optional;
 public class S3URLStreamHandlerProvider implements URLStreamHandlerProvider {
 
   private static final String S3CLIENT_CACHE_SIZE_PATH = "dsbulk.s3.clientCacheSize";
+  private static final String CHUNK_SIZE_PATH = "dsbulk.s3.chunkSize";
+  private static final String READ_AHEAD_CHUNKS_PATH = "dsbulk.s3.readAheadChunks";
+  private static final String UPLOAD_PART_SIZE_PATH = "dsbulk.s3.uploadPartSize";
+  private static final String UPLOAD_CONCURRENCY_PATH = "dsbulk.s3.uploadConcurrency";
   private static final int DEFAULT_S3CLIENT_CACHE_SIZE = 20; // Totally arbitrary default.
+  private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int DEFAULT_READ_AHEAD_CHUNKS = 4;
+  private static final int DEFAULT_UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+  private static final int DEFAULT_UPLOAD_CONCURRENCY = 4;
+  // S3 rejects multipart uploads having parts smaller than this, except for the last one.
+  private static final int MIN_UPLOAD_PART_SIZE = 5 * 1024 * 1024;
 
   /** The protocol for AWS S3 URLs. I.e., URLs beginning with {@code s3://} */
   public static final String S3_STREAM_PROTOCOL = "s3";
@@ -33,11 +44,39 @@ public class S3URLStreamHandlerProvider implements URLStreamHandlerProvider {
   public Optional<URLStreamHandler> maybeCreateURLStreamHandler(
       @NonNull String protocol, Config config) {
     if (S3_STREAM_PROTOCOL.equalsIgnoreCase(protocol)) {
+      if (config == null) {
+        // the factory was installed but never configured: use defaults
+        config = ConfigFactory.empty();
+      }
       int s3ClientCacheSize =
           config.hasPath(S3CLIENT_CACHE_SIZE_PATH)
               ? config.getInt(S3CLIENT_CACHE_SIZE_PATH)
               : DEFAULT_S3CLIENT_CACHE_SIZE;
-      return Optional.of(new S3URLStreamHandler(s3ClientCacheSize));
+      int chunkSize =
+          config.hasPath(CHUNK_SIZE_PATH)
+              ? Math.toIntExact(config.getBytes(CHUNK_SIZE_PATH))
+              : DEFAULT_CHUNK_SIZE;
+      int readAheadChunks =
+          config.hasPath(READ_AHEAD_CHUNKS_PATH)
+              ? config.getInt(READ_AHEAD_CHUNKS_PATH)
+              : DEFAULT_READ_AHEAD_CHUNKS;
+      int uploadPartSize =
+          config.hasPath(UPLOAD_PART_SIZE_PATH)
+              ? Math.toIntExact(config.getBytes(UPLOAD_PART_SIZE_PATH))
+              : DEFAULT_UPLOAD_PART_SIZE;
+      if (uploadPartSize < MIN_UPLOAD_PART_SIZE) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid value for %s: expecting at least 5 MiB, got: %d bytes.",
+                UPLOAD_PART_SIZE_PATH, uploadPartSize));
+      }
+      int uploadConcurrency =
+          config.hasPath(UPLOAD_CONCURRENCY_PATH)
+              ? config.getInt(UPLOAD_CONCURRENCY_PATH)
+              : DEFAULT_UPLOAD_CONCURRENCY;
+      return Optional.of(
+          new S3URLStreamHandler(
+              s3ClientCacheSize, chunkSize, readAheadChunks, uploadPartSize, uploadConcurrency));
     }
     return Optional.empty();
   }
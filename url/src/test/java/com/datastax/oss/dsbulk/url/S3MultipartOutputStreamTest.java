@@ -0,0 +1,204 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3MultipartOutputStreamTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private S3Client s3Client;
+
+  @BeforeEach
+  void setUp() {
+    s3Client = mock(S3Client.class);
+    when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+        .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload1").build());
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenAnswer(
+            invocation -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              try {
+                UploadPartRequest request = invocation.getArgument(0);
+                RequestBody body = invocation.getArgument(1);
+                assertThat(request.uploadId()).isEqualTo("upload1");
+                uploadedParts.put(request.partNumber(), readFully(body));
+                Thread.sleep(5);
+                return UploadPartResponse.builder().eTag("etag" + request.partNumber()).build();
+              } finally {
+                inFlight.decrementAndGet();
+              }
+            });
+  }
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @ParameterizedTest
+  @CsvSource({"100,10,1", "100,10,3", "101,10,3", "1000,7,4"})
+  void should_upload_object_in_parts(int objectSize, int partSize, int maxConcurrentParts)
+      throws IOException {
+    byte[] object = randomBytes(objectSize);
+    try (OutputStream out =
+        new S3MultipartOutputStream(
+            s3Client, "test-bucket", "test-key", partSize, maxConcurrentParts, executor)) {
+      // alternate between single-byte and bulk writes
+      out.write(object[0]);
+      out.write(object, 1, objectSize - 1);
+    }
+    ArgumentCaptor<CompleteMultipartUploadRequest> captor =
+        ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    verify(s3Client).completeMultipartUpload(captor.capture());
+    List<CompletedPart> parts = captor.getValue().multipartUpload().parts();
+    int expectedParts = (objectSize + partSize - 1) / partSize;
+    assertThat(parts).hasSize(expectedParts);
+    ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+    for (int i = 0; i < expectedParts; i++) {
+      assertThat(parts.get(i).partNumber()).isEqualTo(i + 1);
+      assertThat(parts.get(i).eTag()).isEqualTo("etag" + (i + 1));
+      reassembled.write(uploadedParts.get(i + 1));
+    }
+    assertThat(reassembled.toByteArray()).isEqualTo(object);
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(maxConcurrentParts);
+    verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+  }
+
+  @Test
+  void should_upload_small_object_with_single_request() throws IOException {
+    byte[] object = randomBytes(9);
+    try (OutputStream out =
+        new S3MultipartOutputStream(s3Client, "test-bucket", "test-key", 10, 2, executor)) {
+      out.write(object);
+      out.flush();
+    }
+    ArgumentCaptor<PutObjectRequest> requestCaptor =
+        ArgumentCaptor.forClass(PutObjectRequest.class);
+    ArgumentCaptor<RequestBody> bodyCaptor = ArgumentCaptor.forClass(RequestBody.class);
+    verify(s3Client).putObject(requestCaptor.capture(), bodyCaptor.capture());
+    assertThat(requestCaptor.getValue().bucket()).isEqualTo("test-bucket");
+    assertThat(requestCaptor.getValue().key()).isEqualTo("test-key");
+    assertThat(readFully(bodyCaptor.getValue())).isEqualTo(object);
+    verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+  }
+
+  @Test
+  void should_abort_upload_when_part_fails() {
+    S3Exception error = (S3Exception) S3Exception.builder().message("Internal Error").build();
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenThrow(error);
+    OutputStream out =
+        new S3MultipartOutputStream(s3Client, "test-bucket", "test-key", 10, 2, executor);
+    Throwable t =
+        catchThrowable(
+            () -> {
+              out.write(randomBytes(25));
+              out.close();
+            });
+    assertThat(t)
+        .isInstanceOf(IOException.class)
+        .hasMessage("Could not upload part of object 'test-key' in bucket 'test-bucket'")
+        .hasCause(error);
+    verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+  }
+
+  @Test
+  void should_fail_when_object_exceeds_maximum_part_count() throws IOException {
+    when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+        .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+    OutputStream out =
+        new S3MultipartOutputStream(s3Client, "test-bucket", "test-key", 1, 16, executor);
+    // the last part can be filled, but not exceeded
+    out.write(new byte[S3MultipartOutputStream.MAX_PART_COUNT]);
+    assertThat(catchThrowable(() -> out.write(1)))
+        .isInstanceOf(IOException.class)
+        .hasMessage(
+            "Object 'test-key' in bucket 'test-bucket' is too large: S3 uploads are limited to "
+                + "10000 parts, and parts are 1 bytes long; consider increasing the part size");
+    verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+  }
+
+  @Test
+  void should_reject_writes_after_close() throws IOException {
+    OutputStream out =
+        new S3MultipartOutputStream(s3Client, "test-bucket", "test-key", 10, 2, executor);
+    out.close();
+    assertThat(catchThrowable(() -> out.write(1)))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Stream closed");
+  }
+
+  private static byte[] readFully(RequestBody body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = body.contentStreamProvider().newStream()) {
+      byte[] buffer = new byte[64];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}
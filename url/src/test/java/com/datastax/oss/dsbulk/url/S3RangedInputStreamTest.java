@@ -0,0 +1,193 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.url;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.stubbing.Answer;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+class S3RangedInputStreamTest {
+
+  private static final GetObjectRequest REQUEST =
+      GetObjectRequest.builder().bucket("test-bucket").key("test-key").build();
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final List<GetObjectRequest> requests = new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "0,10,0",
+    "1,10,0",
+    "10,10,0",
+    "11,10,0",
+    "1000,7,0",
+    "1000,7,1",
+    "1000,7,4",
+    "1000,2000,4",
+  })
+  void should_read_object_in_chunks(int objectSize, int chunkSize, int readAheadChunks)
+      throws IOException {
+    byte[] object = randomBytes(objectSize);
+    S3Client s3Client = mockClient(object);
+    try (InputStream in =
+        new S3RangedInputStream(s3Client, REQUEST, chunkSize, readAheadChunks, executor)) {
+      assertThat(readFully(in)).isEqualTo(object);
+      assertThat(in.read()).isEqualTo(-1);
+    }
+    int expectedChunks = (objectSize + chunkSize - 1) / chunkSize;
+    assertThat(requests).hasSize(expectedChunks).allMatch(r -> "etag".equals(r.ifMatch()));
+    // read-ahead requests may be issued out of order
+    List<String> expectedRanges = new ArrayList<>();
+    for (int i = 0; i < expectedChunks; i++) {
+      long start = (long) i * chunkSize;
+      long end = Math.min(start + chunkSize, objectSize) - 1;
+      expectedRanges.add("bytes=" + start + "-" + end);
+    }
+    assertThat(requests)
+        .extracting(GetObjectRequest::range)
+        .containsExactlyInAnyOrderElementsOf(expectedRanges);
+  }
+
+  @Test
+  void should_skip_bytes_across_chunks() throws IOException {
+    byte[] object = randomBytes(100);
+    S3Client s3Client = mockClient(object);
+    try (InputStream in = new S3RangedInputStream(s3Client, REQUEST, 7, 2, executor)) {
+      assertThat(in.skip(50)).isEqualTo(50);
+      assertThat(in.read()).isEqualTo(object[50] & 0xFF);
+      assertThat(in.skip(100)).isEqualTo(49);
+      assertThat(in.read()).isEqualTo(-1);
+    }
+  }
+
+  @Test
+  void should_not_fetch_anything_until_first_read() throws IOException {
+    S3Client s3Client = mockClient(randomBytes(100));
+    InputStream in = new S3RangedInputStream(s3Client, REQUEST, 10, 4, executor);
+    in.close();
+    verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    verify(s3Client, never()).getObjectAsBytes(any(GetObjectRequest.class));
+  }
+
+  @Test
+  void should_bound_read_ahead() throws IOException {
+    S3Client s3Client = mockClient(randomBytes(100));
+    try (InputStream in = new S3RangedInputStream(s3Client, REQUEST, 10, 3, executor)) {
+      assertThat(in.read()).isNotEqualTo(-1);
+      // current chunk + 3 read-ahead chunks
+      verify(s3Client, times(1)).headObject(any(HeadObjectRequest.class));
+      assertThat(in.available()).isEqualTo(9);
+    }
+    assertThat(requests.size()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void should_report_chunk_failure() {
+    S3Client s3Client = mock(S3Client.class);
+    when(s3Client.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(HeadObjectResponse.builder().contentLength(100L).eTag("etag").build());
+    S3Exception error = (S3Exception) S3Exception.builder().message("Precondition Failed").build();
+    when(s3Client.getObjectAsBytes(any(GetObjectRequest.class))).thenThrow(error);
+    InputStream in = new S3RangedInputStream(s3Client, REQUEST, 10, 2, executor);
+    Throwable t = catchThrowable(in::read);
+    assertThat(t)
+        .isInstanceOf(IOException.class)
+        .hasMessage("Could not read object 'test-key' in bucket 'test-bucket'")
+        .hasCause(error);
+  }
+
+  @Test
+  void should_reject_invalid_arguments() {
+    S3Client s3Client = mock(S3Client.class);
+    assertThat(catchThrowable(() -> new S3RangedInputStream(s3Client, REQUEST, 0, 1, executor)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Chunk size must be strictly positive, got: 0");
+    assertThat(catchThrowable(() -> new S3RangedInputStream(s3Client, REQUEST, 10, -1, executor)))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Number of read-ahead chunks must be positive or zero, got: -1");
+  }
+
+  private S3Client mockClient(byte[] object) {
+    S3Client s3Client = mock(S3Client.class);
+    when(s3Client.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(
+            HeadObjectResponse.builder().contentLength((long) object.length).eTag("etag").build());
+    when(s3Client.getObjectAsBytes(any(GetObjectRequest.class)))
+        .thenAnswer(
+            (Answer<ResponseBytes<GetObjectResponse>>)
+                invocation -> {
+                  GetObjectRequest request = invocation.getArgument(0);
+                  requests.add(request);
+                  String[] range = request.range().substring("bytes=".length()).split("-");
+                  int start = Integer.parseInt(range[0]);
+                  int end = Integer.parseInt(range[1]);
+                  return ResponseBytes.fromByteArray(
+                      GetObjectResponse.builder().build(),
+                      Arrays.copyOfRange(object, start, end + 1));
+                });
+    return s3Client;
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[13];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+}
@@ -32,6 +32,7 @@ import com.typesafe.config.Config;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,9 +44,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.stubbing.Answer;
 import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 class S3URLStreamHandlerTest {
 
@@ -116,12 +121,14 @@ class S3URLStreamHandlerTest {
     S3Connection connection2 = spy((S3Connection) url2.openConnection());
 
     S3Client mockClient = mock(S3Client.class);
+    when(mockClient.headObject(any(HeadObjectRequest.class)))
+        .thenReturn(HeadObjectResponse.builder().contentLength(1L).build());
     when(mockClient.getObjectAsBytes(any(GetObjectRequest.class)))
         .thenAnswer(
             (Answer<ResponseBytes<GetObjectResponse>>)
                 invocation -> {
                   GetObjectResponse response = GetObjectResponse.builder().build();
-                  byte[] bytes = new byte[] {};
+                  byte[] bytes = new byte[] {42};
                   InputStream is = new ByteArrayInputStream(bytes);
                   return ResponseBytes.fromInputStream(response, is);
                 });
@@ -131,6 +138,8 @@ class S3URLStreamHandlerTest {
     InputStream stream2 = connection2.getInputStream();
 
     assertThat(stream1).isNotSameAs(stream2); // Two different URls produce different streams.
+    assertThat(stream1.read()).isEqualTo(42);
+    assertThat(stream2.read()).isEqualTo(42);
     verify(mockClient, times(2)).getObjectAsBytes(any(GetObjectRequest.class));
     verify(connection1)
         .getS3Client(
@@ -140,15 +149,27 @@ class S3URLStreamHandlerTest {
   }
 
   @Test
-  void should_not_support_writing_to_s3() throws IOException {
-    URL url = new URL("s3://test-bucket/test-key");
+  void should_provide_output_stream() throws IOException {
+    // Use a region that no other test uses, since clients are cached by region and credentials.
+    URL url = new URL("s3://test-bucket/test-key?region=us-east-2&test=should_write");
     S3Connection connection = spy((S3Connection) url.openConnection());
+    S3Client mockClient = mock(S3Client.class);
+    doReturn(mockClient).when(connection).getS3Client(any());
+
+    try (OutputStream out = connection.getOutputStream()) {
+      assertThat(out).isInstanceOf(S3MultipartOutputStream.class);
+      out.write(42);
+    }
 
-    Throwable t = catchThrowable(connection::getOutputStream);
+    verify(connection).getOutputStream(mockClient, "test-bucket", "test-key");
+    verify(mockClient).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+  }
 
-    assertThat(t)
-        .isNotNull()
-        .isInstanceOf(UnsupportedOperationException.class)
-        .hasMessage("Writing to S3 has not yet been implemented.");
+  @Test
+  void should_include_endpoint_in_client_info() {
+    S3ClientInfo info1 = new S3ClientInfo("region=us-west-1");
+    S3ClientInfo info2 = new S3ClientInfo("region=us-west-1&endpoint=http://localhost:9000");
+    assertThat(info2.getEndpoint()).isEqualTo("http://localhost:9000");
+    assertThat(info1).isNotEqualTo(info2);
   }
 }
@@ -0,0 +1,314 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.executor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.OverloadedException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionContext;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * A concurrency limiter for writes whose limit is continuously adjusted according to observed
+ * latencies, following an additive-increase, multiplicative-decrease (AIMD) scheme.
+ *
+ * <p>This limiter acts as an {@link ExecutionListener} and must be registered with the executor
+ * performing the writes, in order to collect the latency of each write request, and detect timeouts
+ * and overloaded coordinators. Samples are evaluated in rounds of roughly one limit's worth of
+ * requests:
+ *
+ * <ol>
+ *   <li>If a round contains a timeout or an overloaded error, the limit is decreased by {@link
+ *       #BACKOFF_RATIO};
+ *   <li>If the round's average latency exceeds the long-term average latency by more than {@link
+ *       #LATENCY_TOLERANCE}, the cluster is considered saturated and the limit is decreased by
+ *       {@link #QUEUEING_RATIO};
+ *   <li>Otherwise, the limit is increased by one.
+ * </ol>
+ *
+ * <p>The current limit is exposed as the {@code executor/concurrency-limit} gauge.
+ */
+public class AdaptiveConcurrencyLimiter implements ExecutionListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+  /** The ratio applied to the limit when timeouts or overloaded errors are observed. */
+  @VisibleForTesting static final double BACKOFF_RATIO = 0.75;
+
+  /** The ratio applied to the limit when latencies increase. */
+  @VisibleForTesting static final double QUEUEING_RATIO = 0.9;
+
+  /** The latency increase, relative to the long-term average, tolerated before backing off. */
+  @VisibleForTesting static final double LATENCY_TOLERANCE = 1.5;
+
+  /** The smoothing factor of the long-term latency average. */
+  private static final double LONG_TERM_SMOOTHING = 0.05;
+
+  private final int minLimit;
+  private final int maxLimit;
+
+  private volatile int limit;
+
+  // round state, guarded by this
+  private int roundSamples;
+  private long roundLatencySum;
+  private boolean roundOverloaded;
+  private double longTermLatency = -1;
+
+  /**
+   * Creates a new limiter.
+   *
+   * @param initialLimit The initial limit.
+   * @param minLimit The minimum limit; must be strictly positive.
+   * @param maxLimit The maximum limit; must be greater than or equal to {@code minLimit}.
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    Preconditions.checkArgument(minLimit > 0, "minLimit must be strictly positive");
+    Preconditions.checkArgument(maxLimit >= minLimit, "maxLimit must be >= minLimit");
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+  }
+
+  /**
+   * Registers the {@code executor/concurrency-limit} gauge in the given registry.
+   *
+   * @param registry The registry to use.
+   */
+  public void registerMetrics(@NonNull MetricRegistry registry) {
+    registry.register("executor/concurrency-limit", (Gauge<Integer>) this::getLimit);
+  }
+
+  /** @return the current concurrency limit. */
+  public int getLimit() {
+    return limit;
+  }
+
+  /** @return the maximum concurrency limit. */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Applies the given operation to each upstream element, with a concurrency capped by the current
+   * limit; this is similar to {@link Flux#flatMap(Function, int)}, except that the maximum
+   * concurrency can change while the flux is being consumed.
+   *
+   * @param upstream The upstream flux.
+   * @param operation The operation to apply.
+   * @return A flux of the operation results.
+   */
+  @NonNull
+  public <T, R> Flux<R> execute(
+      @NonNull Flux<T> upstream, @NonNull Function<? super T, ? extends Publisher<R>> operation) {
+    return Flux.create(
+        sink -> {
+          LimitingSubscriber<T, R> subscriber = new LimitingSubscriber<>(sink, operation);
+          sink.onRequest(n -> subscriber.drain());
+          sink.onDispose(subscriber::dispose);
+          upstream.subscribe(subscriber);
+        });
+  }
+
+  @Override
+  public void onWriteRequestSuccessful(
+      @NonNull Statement<?> statement, @NonNull ExecutionContext context) {
+    sample(context.elapsedTimeNanos(), false);
+  }
+
+  @Override
+  public void onWriteRequestFailed(
+      @NonNull Statement<?> statement,
+      @NonNull Throwable error,
+      @NonNull ExecutionContext context) {
+    sample(context.elapsedTimeNanos(), isOverloaded(error));
+  }
+
+  @VisibleForTesting
+  synchronized void sample(long latencyNanos, boolean overloaded) {
+    if (latencyNanos < 0) {
+      return;
+    }
+    roundSamples++;
+    roundLatencySum += latencyNanos;
+    roundOverloaded |= overloaded;
+    if (roundSamples >= limit) {
+      double roundLatency = (double) roundLatencySum / roundSamples;
+      int newLimit;
+      if (roundOverloaded) {
+        newLimit = (int) (limit * BACKOFF_RATIO);
+      } else if (longTermLatency > 0 && roundLatency > longTermLatency * LATENCY_TOLERANCE) {
+        newLimit = (int) (limit * QUEUEING_RATIO);
+      } else {
+        newLimit = limit + 1;
+      }
+      if (!roundOverloaded) {
+        if (longTermLatency < 0) {
+          longTermLatency = roundLatency;
+        } else {
+          longTermLatency =
+              longTermLatency * (1 - LONG_TERM_SMOOTHING) + roundLatency * LONG_TERM_SMOOTHING;
+        }
+      }
+      newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+      if (newLimit != limit) {
+        LOGGER.trace(
+            "Adjusting write concurrency limit from {} to {} (round latency: {} ns, overloaded: {})",
+            limit,
+            newLimit,
+            (long) roundLatency,
+            roundOverloaded);
+        limit = newLimit;
+      }
+      roundSamples = 0;
+      roundLatencySum = 0;
+      roundOverloaded = false;
+    }
+  }
+
+  private static boolean isOverloaded(Throwable error) {
+    return error instanceof DriverTimeoutException
+        || error instanceof WriteTimeoutException
+        || error instanceof OverloadedException;
+  }
+
+  private class LimitingSubscriber<T, R> extends BaseSubscriber<T> {
+
+    private final FluxSink<R> sink;
+    private final Function<? super T, ? extends Publisher<R>> operation;
+
+    // guarded by this
+    private int inFlight;
+    private int requested;
+    private boolean upstreamDone;
+    private boolean terminated;
+
+    private LimitingSubscriber(
+        FluxSink<R> sink, Function<? super T, ? extends Publisher<R>> operation) {
+      this.sink = sink;
+      this.operation = operation;
+    }
+
+    @Override
+    protected void hookOnSubscribe(@NonNull Subscription subscription) {
+      drain();
+    }
+
+    @Override
+    protected void hookOnNext(@NonNull T value) {
+      synchronized (this) {
+        requested--;
+        inFlight++;
+      }
+      Publisher<R> publisher;
+      try {
+        publisher = operation.apply(value);
+      } catch (Throwable t) {
+        onInnerError(t);
+        return;
+      }
+      Flux.from(publisher)
+          .subscribe(
+              sink::next,
+              this::onInnerError,
+              this::onInnerComplete,
+              s -> s.request(Long.MAX_VALUE));
+    }
+
+    @Override
+    protected void hookOnComplete() {
+      synchronized (this) {
+        upstreamDone = true;
+      }
+      maybeComplete();
+    }
+
+    @Override
+    protected void hookOnError(@NonNull Throwable throwable) {
+      terminate(throwable);
+    }
+
+    private void onInnerComplete() {
+      synchronized (this) {
+        inFlight--;
+      }
+      if (!maybeComplete()) {
+        drain();
+      }
+    }
+
+    private void onInnerError(Throwable error) {
+      cancel();
+      terminate(error);
+    }
+
+    private boolean maybeComplete() {
+      synchronized (this) {
+        if (terminated || !upstreamDone || inFlight > 0) {
+          return false;
+        }
+        terminated = true;
+      }
+      sink.complete();
+      return true;
+    }
+
+    private void terminate(Throwable error) {
+      synchronized (this) {
+        if (terminated) {
+          return;
+        }
+        terminated = true;
+      }
+      sink.error(error);
+    }
+
+    /**
+     * Requests as many elements as allowed by the current limit, and by the downstream demand: each
+     * operation is expected to emit one result, so requesting more would only buffer results.
+     */
+    private void drain() {
+      int n;
+      synchronized (this) {
+        if (terminated || upstreamDone || upstream() == null) {
+          return;
+        }
+        long outstanding = inFlight + requested;
+        long demand = Math.min(limit, sink.requestedFromDownstream()) - outstanding;
+        if (demand <= 0) {
+          return;
+        }
+        n = (int) demand;
+        requested += n;
+      }
+      request(n);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.workflow.commons.schema.RangeCountResult;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link RangeReadResource} that counts the rows in its token range server-side, and emits one
+ * single {@link RangeCountResult}.
+ *
+ * <p>The statement to execute is expected to be of the form {@code SELECT count(*) FROM ks.t WHERE
+ * token(...) > :start AND token(...) <= :end}. If a count times out, the range is split into {@link
+ * #SPLIT_FACTOR} smaller sub-ranges that are counted separately, up to {@link #MAX_SPLIT_DEPTH}
+ * times.
+ *
+ * <p>When a non-empty ring is provided, the range is first split at the ring's token boundaries, so
+ * that each piece of the result belongs to one single range of the ring; this is required when
+ * counting rows per range or per host.
+ *
+ * <p>Counting a range is an all-or-nothing operation: if any piece of the range cannot be counted,
+ * one single failed result is emitted for the whole range.
+ */
+public class CountRangeReadResource implements RangeReadResource {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CountRangeReadResource.class);
+
+  @VisibleForTesting static final int SPLIT_FACTOR = 4;
+
+  @VisibleForTesting static final int MAX_SPLIT_DEPTH = 4;
+
+  private final RangeReadBoundStatement statement;
+  private final BulkReader executor;
+  private final BulkTokenFactory tokenFactory;
+  private final List<Token> ring;
+
+  /**
+   * @param statement The count statement to execute.
+   * @param executor The executor to use.
+   * @param tokenFactory The token factory to use to split ranges.
+   * @param ring The sorted end tokens of all the ranges in the ring, or an empty list if the
+   *     counted range does not need to be split at ring boundaries.
+   */
+  public CountRangeReadResource(
+      @NonNull RangeReadBoundStatement statement,
+      @NonNull BulkReader executor,
+      @NonNull BulkTokenFactory tokenFactory,
+      @NonNull List<Token> ring) {
+    this.statement = statement;
+    this.executor = executor;
+    this.tokenFactory = tokenFactory;
+    this.ring = ring;
+  }
+
+  @NonNull
+  @Override
+  public URI getURI() {
+    return statement.getResource();
+  }
+
+  @NonNull
+  @Override
+  public Publisher<ReadResult> read() {
+    List<TokenRange> pieces = pieces(statement.getTokenRange());
+    return Flux.fromIterable(pieces)
+        .concatMap(piece -> count(piece.getStart(), piece.getEnd(), 0))
+        .collectList()
+        .<ReadResult>map(
+            counts ->
+                new RangeCountResult(
+                    statement, pieces, counts.stream().mapToLong(Long::longValue).toArray()))
+        .onErrorResume(
+            error ->
+                Mono.just(
+                    new DefaultReadResult(
+                        error instanceof BulkExecutionException
+                            ? (BulkExecutionException) error
+                            : new BulkExecutionException(error, statement))));
+  }
+
+  /** Splits the given range at the ring boundaries, if required. */
+  @VisibleForTesting
+  List<TokenRange> pieces(TokenRange range) {
+    if (ring.isEmpty()) {
+      return Collections.singletonList(range);
+    }
+    Token minToken = tokenFactory.minToken();
+    List<TokenRange> pieces = new ArrayList<>();
+    for (TokenRange unwrapped : range.unwrap()) {
+      Token start = unwrapped.getStart();
+      Token end = unwrapped.getEnd();
+      for (Token boundary : ring) {
+        if (boundary.compareTo(start) > 0
+            && (end.equals(minToken) || boundary.compareTo(end) < 0)) {
+          pieces.add(tokenFactory.range(start, boundary, Collections.emptySet()));
+          start = boundary;
+        }
+      }
+      pieces.add(tokenFactory.range(start, end, Collections.emptySet()));
+    }
+    return pieces;
+  }
+
+  private Mono<Long> count(Token start, Token end, int depth) {
+    return Flux.from(executor.readReactive(bind(start, end)))
+        .single()
+        .flatMap(
+            result -> {
+              if (result.isSuccess()) {
+                return Mono.just(result.getRow().map(row -> row.getLong(0)).orElse(0L));
+              }
+              BulkExecutionException error = result.getError().orElseThrow(AssertionError::new);
+              if (depth < MAX_SPLIT_DEPTH && isTimeout(error.getCause())) {
+                BulkTokenRange range = tokenFactory.range(start, end, Collections.emptySet());
+                List<BulkTokenRange> splits = tokenFactory.splitter().split(range, SPLIT_FACTOR);
+                if (splits.size() > 1) {
+                  LOGGER.debug(
+                      "Count of range {} timed out, retrying with {} sub-ranges",
+                      range,
+                      splits.size());
+                  return Flux.fromIterable(splits)
+                      .concatMap(split -> count(split.getStart(), split.getEnd(), depth + 1))
+                      .reduce(0L, Long::sum);
+                }
+              }
+              return Mono.error(error);
+            });
+  }
+
+  private BoundStatement bind(Token start, Token end) {
+    return statement
+        .getPreparedStatement()
+        .bind()
+        .setToken("start", start)
+        .setToken("end", end)
+        .setRoutingKeyspace(statement.getRoutingKeyspace())
+        .setRoutingToken(end);
+  }
+
+  private static boolean isTimeout(Throwable error) {
+    return error instanceof ReadTimeoutException || error instanceof DriverTimeoutException;
+  }
+}
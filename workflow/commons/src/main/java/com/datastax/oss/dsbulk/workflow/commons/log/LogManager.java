@@ -16,7 +16,11 @@
 package com.datastax.oss.dsbulk.workflow.commons.log;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.stream.Collectors.toList;
 
@@ -40,6 +44,8 @@ import com.datastax.oss.driver.api.core.servererrors.ServerError;
 import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.base.Joiner;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.MoreExecutors;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.ThreadFactoryBuilder;
 import com.datastax.oss.dsbulk.connectors.api.ErrorRecord;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.Resource;
@@ -55,6 +61,7 @@ import com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.Checkpoint;
 import com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.CheckpointManager;
 import com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.ReplayStrategy;
 import com.datastax.oss.dsbulk.workflow.commons.schema.InvalidMappingException;
+import com.datastax.oss.dsbulk.workflow.commons.schema.RangeCountResult;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.LogSettings;
@@ -68,18 +75,27 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -109,6 +125,7 @@ public class LogManager implements AutoCloseable {
   private static final String CAS_BAD_FILE = "paxos.bad";
 
   private static final String CHECKPOINT_CSV = "checkpoint.csv";
+  private static final String CHECKPOINT_CSV_TMP = "checkpoint.csv.tmp";
 
   private final CqlSession session;
   private final Path operationDirectory;
@@ -118,6 +135,7 @@ public class LogManager implements AutoCloseable {
   private final StatementFormatVerbosity statementFormatVerbosity;
   private final RowFormatter rowFormatter;
   private final boolean checkpointEnabled;
+  private final Duration checkpointFlushInterval;
 
   private final AtomicInteger errors = new AtomicInteger(0);
   private final LongAdder totalItems = new LongAdder();
@@ -136,8 +154,17 @@ public class LogManager implements AutoCloseable {
 
   private final CheckpointManager initialCheckpointManager;
   private final ReplayStrategy replayStrategy;
+  /** Checkpoint managers of flows still running; each manager is guarded by its own monitor. */
   private final Queue<CheckpointManager> checkpointManagers = new ConcurrentLinkedQueue<>();
 
+  /**
+   * Checkpoints of flows that are terminated, merged together as soon as each flow terminates, to
+   * keep the cost of periodic flushes bounded; guarded by itself.
+   */
+  private final CheckpointManager terminatedCheckpoints = new CheckpointManager(new TreeMap<>());
+
+  private ScheduledExecutorService checkpointScheduler;
+
   private FluxSink<ErrorRecord> failedRecordSink;
   private FluxSink<ErrorRecord> unmappableRecordSink;
   private FluxSink<UnmappableStatement> unmappableStatementSink;
@@ -160,6 +187,32 @@ public class LogManager implements AutoCloseable {
       boolean checkpointEnabled,
       @NonNull CheckpointManager initialCheckpointManager,
       ReplayStrategy replayStrategy) {
+    this(
+        session,
+        operationDirectory,
+        errorThreshold,
+        queryWarningsThreshold,
+        statementFormatter,
+        statementFormatVerbosity,
+        rowFormatter,
+        checkpointEnabled,
+        initialCheckpointManager,
+        replayStrategy,
+        Duration.ZERO);
+  }
+
+  public LogManager(
+      CqlSession session,
+      Path operationDirectory,
+      ErrorThreshold errorThreshold,
+      ErrorThreshold queryWarningsThreshold,
+      StatementFormatter statementFormatter,
+      StatementFormatVerbosity statementFormatVerbosity,
+      RowFormatter rowFormatter,
+      boolean checkpointEnabled,
+      @NonNull CheckpointManager initialCheckpointManager,
+      ReplayStrategy replayStrategy,
+      @NonNull Duration checkpointFlushInterval) {
     this.session = session;
     this.operationDirectory = operationDirectory;
     this.errorThreshold = errorThreshold;
@@ -170,6 +223,7 @@ public class LogManager implements AutoCloseable {
     this.checkpointEnabled = checkpointEnabled;
     this.initialCheckpointManager = initialCheckpointManager;
     this.replayStrategy = replayStrategy;
+    this.checkpointFlushInterval = checkpointFlushInterval;
   }
 
   public void init() {
@@ -196,6 +250,20 @@ public class LogManager implements AutoCloseable {
     Thread.setDefaultUncaughtExceptionHandler((thread, t) -> uncaughtExceptionSink.error(t));
     totalItems.add(initialCheckpointManager.getTotalItems(replayStrategy));
     errors.set((int) initialCheckpointManager.getRejectedItems(replayStrategy));
+    if (checkpointEnabled
+        && !checkpointFlushInterval.isZero()
+        && !checkpointFlushInterval.isNegative()) {
+      checkpointScheduler =
+          new ScheduledThreadPoolExecutor(
+              1,
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("checkpoint-writer-%d")
+                  .build());
+      long interval = checkpointFlushInterval.toMillis();
+      checkpointScheduler.scheduleWithFixedDelay(
+          this::flushCheckpoints, interval, interval, TimeUnit.MILLISECONDS);
+    }
   }
 
   public Path getOperationDirectory() {
@@ -206,12 +274,26 @@ public class LogManager implements AutoCloseable {
     return totalItems.sum();
   }
 
+  /**
+   * @return the URIs of the resources recorded in the checkpoint of the operation being resumed, or
+   *     an empty set if checkpointing is disabled.
+   */
+  @NonNull
+  public Set<URI> getCheckpointedResources() {
+    return checkpointEnabled ? initialCheckpointManager.getResources() : Collections.emptySet();
+  }
+
   public int getTotalErrors() {
     return errors.get();
   }
 
   @Override
   public void close() throws IOException {
+    if (checkpointScheduler != null) {
+      // wait for any ongoing flush to finish; the final checkpoint file will be written by
+      // reportAvailableFiles()
+      MoreExecutors.shutdownAndAwaitTermination(checkpointScheduler, 1, TimeUnit.MINUTES);
+    }
     failedRecordSink.complete();
     unmappableRecordSink.complete();
     unmappableStatementSink.complete();
@@ -539,17 +621,29 @@ public class LogManager implements AutoCloseable {
     return upstream ->
         upstream.map(
             resource -> {
-              Checkpoint initial = initialCheckpointManager.getCheckpoint(resource.getURI());
-              if (replayStrategy.isComplete(initial)) {
-                return Flux.empty();
+              Checkpoint initial = getInitialCheckpoint(resource.getURI());
+              synchronized (initial) {
+                if (replayStrategy.isComplete(initial)) {
+                  return Flux.empty();
+                }
+                replayStrategy.reset(initial);
               }
-              replayStrategy.reset(initial);
               return Flux.from(resource.read())
-                  .doOnComplete(() -> initial.setComplete(true))
+                  .doOnComplete(
+                      () -> {
+                        synchronized (initial) {
+                          initial.setComplete(true);
+                        }
+                      })
                   .filter(record -> replayStrategy.shouldReplay(initial, record.getPosition()))
                   // increment even for failed records since they will be considered
                   // processed and will increment the position manager.
-                  .doOnNext(r -> initial.incrementProduced());
+                  .doOnNext(
+                      r -> {
+                        synchronized (initial) {
+                          initial.incrementProduced();
+                        }
+                      });
             });
   }
 
@@ -560,19 +654,33 @@ public class LogManager implements AutoCloseable {
     return upstream ->
         upstream.map(
             resource -> {
-              Checkpoint initial = initialCheckpointManager.getCheckpoint(resource.getURI());
-              if (replayStrategy.isComplete(initial)) {
-                return Flux.empty();
+              Checkpoint initial = getInitialCheckpoint(resource.getURI());
+              synchronized (initial) {
+                if (replayStrategy.isComplete(initial)) {
+                  return Flux.empty();
+                }
+                replayStrategy.reset(initial);
               }
-              replayStrategy.reset(initial);
               AtomicBoolean failed = new AtomicBoolean();
               return Flux.from(resource.read())
-                  .doOnComplete(() -> initial.setComplete(!failed.get()))
+                  .doOnComplete(
+                      () -> {
+                        synchronized (initial) {
+                          initial.setComplete(!failed.get());
+                        }
+                      })
                   .filter(record -> replayStrategy.shouldReplay(initial, record.getPosition()))
                   .doOnNext(
                       r -> {
-                        if (r.isSuccess()) {
-                          initial.incrementProduced();
+                        if (r instanceof RangeCountResult) {
+                          // rows counted server-side: the result stands for the entire range
+                          synchronized (initial) {
+                            initial.incrementProduced(((RangeCountResult) r).getTotal());
+                          }
+                        } else if (r.isSuccess()) {
+                          synchronized (initial) {
+                            initial.incrementProduced();
+                          }
                         } else {
                           // read failures are global to the entire token range and don't
                           // increment the checkpoint, so don't increment counter of produced rows,
@@ -583,6 +691,19 @@ public class LogManager implements AutoCloseable {
             });
   }
 
+  /**
+   * Returns a handler that records the sub-ranges split off slow ranges in the checkpoint, so that
+   * they get resumed if the operation is interrupted before they are read. The handler must be
+   * invoked for each sub-range before any of them is read.
+   */
+  @NonNull
+  public Consumer<URI> newRangeSplitHandler() {
+    if (!checkpointEnabled) {
+      return resource -> {};
+    }
+    return this::getInitialCheckpoint;
+  }
+
   /**
    * Maps statements into records.
    *
@@ -762,8 +883,14 @@ public class LogManager implements AutoCloseable {
         .transformDeferredContextual(
             (original, ctx) -> {
               CheckpointManager manager = ctx.get(CheckpointManager.class);
-              return original.doOnNext(
-                  record -> manager.update(record.getResource(), record.getPosition(), success));
+              return original
+                  .doOnNext(
+                      record -> {
+                        synchronized (manager) {
+                          manager.update(record.getResource(), record.getPosition(), success);
+                        }
+                      })
+                  .doFinally(signal -> terminateCheckpointManager(manager));
             })
         .contextWrite(
             ctx -> {
@@ -779,12 +906,20 @@ public class LogManager implements AutoCloseable {
         .transformDeferredContextual(
             (original, ctx) -> {
               CheckpointManager manager = ctx.get(CheckpointManager.class);
-              return original.doOnNext(
-                  result -> {
-                    URI resource = ((RangeReadStatement) result.getStatement()).getResource();
-                    long position = result.getPosition();
-                    manager.update(resource, position, result.isSuccess());
-                  });
+              return original
+                  .doOnNext(
+                      result -> {
+                        URI resource = ((RangeReadStatement) result.getStatement()).getResource();
+                        long position = result.getPosition();
+                        synchronized (manager) {
+                          if (result instanceof RangeCountResult) {
+                            manager.update(resource, 1, position, true);
+                          } else {
+                            manager.update(resource, position, result.isSuccess());
+                          }
+                        }
+                      })
+                  .doFinally(signal -> terminateCheckpointManager(manager));
             })
         .contextWrite(
             ctx -> {
@@ -1001,27 +1136,104 @@ public class LogManager implements AutoCloseable {
 
   // Checkpoint methods
 
+  /**
+   * Writes the given checkpoints to the checkpoint file. The file is first written to a temporary
+   * file, then atomically moved to its final location, so that the checkpoint file is never left
+   * incomplete, even if the process dies while writing it.
+   */
   @VisibleForTesting
   void writeCheckpointFile(CheckpointManager manager) throws IOException {
+    Path tmp = operationDirectory.resolve(CHECKPOINT_CSV_TMP);
     try (PrintWriter writer =
-        new PrintWriter(
-            Files.newBufferedWriter(
-                operationDirectory.resolve(CHECKPOINT_CSV), UTF_8, CREATE_NEW, WRITE))) {
+        new PrintWriter(Files.newBufferedWriter(tmp, UTF_8, CREATE, TRUNCATE_EXISTING, WRITE))) {
       manager.printCsv(writer);
       writer.flush();
     }
+    Path target = operationDirectory.resolve(CHECKPOINT_CSV);
+    try {
+      Files.move(tmp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tmp, target, REPLACE_EXISTING);
+    }
   }
 
+  /**
+   * Returns a snapshot of all the checkpoints collected so far, including the initial ones. The
+   * returned manager is a copy and can be safely used while the operation is still running.
+   */
   @VisibleForTesting
   CheckpointManager mergeCheckpointManagers() {
     CheckpointManager merged = new CheckpointManager(new TreeMap<>());
-    merged.merge(initialCheckpointManager);
-    for (CheckpointManager manager : checkpointManagers) {
-      merged.merge(manager);
+    merged.merge(copyInitialCheckpoints());
+    // hold the lock while iterating over running flows, to prevent a flow from being moved to
+    // terminatedCheckpoints in the meantime, and thus from being counted twice or not at all
+    synchronized (terminatedCheckpoints) {
+      merged.merge(terminatedCheckpoints.copy());
+      for (CheckpointManager manager : checkpointManagers) {
+        CheckpointManager copy;
+        synchronized (manager) {
+          copy = manager.copy();
+        }
+        merged.merge(copy);
+      }
     }
     return merged;
   }
 
+  /**
+   * Returns the initial checkpoint of the given resource, creating it if necessary.
+   *
+   * <p>Initial checkpoints are updated by pipeline threads while the operation is running, and
+   * copied by the flush thread: the initial checkpoint manager must be locked when accessing its
+   * checkpoints, and each initial checkpoint must be locked when reading or updating it.
+   */
+  @NonNull
+  private Checkpoint getInitialCheckpoint(@NonNull URI resource) {
+    synchronized (initialCheckpointManager) {
+      return initialCheckpointManager.getCheckpoint(resource);
+    }
+  }
+
+  /** Returns a consistent copy of the initial checkpoints. */
+  @NonNull
+  private CheckpointManager copyInitialCheckpoints() {
+    Map<URI, Checkpoint> copy = new HashMap<>();
+    synchronized (initialCheckpointManager) {
+      for (URI resource : initialCheckpointManager.getResources()) {
+        Checkpoint checkpoint = initialCheckpointManager.getCheckpoint(resource);
+        synchronized (checkpoint) {
+          copy.put(resource, checkpoint.copy());
+        }
+      }
+    }
+    return new CheckpointManager(copy);
+  }
+
+  /**
+   * Merges the checkpoints of a terminated flow into {@link #terminatedCheckpoints}, so that
+   * periodic flushes don't need to copy them over and over again.
+   */
+  private void terminateCheckpointManager(CheckpointManager manager) {
+    synchronized (terminatedCheckpoints) {
+      synchronized (manager) {
+        terminatedCheckpoints.merge(manager.copy());
+      }
+      checkpointManagers.remove(manager);
+    }
+  }
+
+  private void flushCheckpoints() {
+    try {
+      CheckpointManager manager = mergeCheckpointManagers();
+      if (!manager.isEmpty()) {
+        writeCheckpointFile(manager);
+        LOGGER.debug("Checkpoints for the current operation were flushed to {}.", CHECKPOINT_CSV);
+      }
+    } catch (Throwable t) {
+      LOGGER.warn("Could not flush checkpoints to " + CHECKPOINT_CSV, t);
+    }
+  }
+
   // Utility methods
 
   private <T> Flux<T> maybeTriggerOnError(@Nullable Throwable error, int currentErrorCount) {
@@ -18,6 +18,8 @@ package com.datastax.oss.dsbulk.workflow.commons.log;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import java.net.URI;
+import java.util.Collections;
+import java.util.List;
 import org.reactivestreams.Publisher;
 
 /**
@@ -31,4 +33,13 @@ public interface RangeReadResource {
 
   @NonNull
   Publisher<ReadResult> read();
+
+  /**
+   * Returns the resources that were split off this resource while it was being read, if any. Each
+   * of them reads a sub-range of this resource's token range, and has its own URI.
+   */
+  @NonNull
+  default List<RangeReadResource> getSplits() {
+    return Collections.emptyList();
+  }
 }
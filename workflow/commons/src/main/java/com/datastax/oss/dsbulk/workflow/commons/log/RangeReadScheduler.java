@@ -0,0 +1,467 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
+import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Schedules the range read resources of an unload or count operation, balancing concurrent range
+ * scans across replicas, and optionally re-splits slow ranges at the end of the operation.
+ *
+ * <p>Resources are emitted as the downstream requests them. Each running scan is assumed to be
+ * spread evenly across the replicas of its range, as the driver's load balancing policy would do;
+ * the next resource to emit is taken from the replica set that currently serves the fewest scans.
+ * This way, each node serves roughly the same number of concurrent scans, instead of some nodes
+ * serving several scans while others are idle. Resources whose replicas are unknown are emitted
+ * first.
+ *
+ * <p>When splitting slow ranges is enabled, and all resources have been emitted, each further
+ * request (which means that a reader became idle) causes the running resource with the largest
+ * unread ring fraction to be split: its remainder is divided into sub-ranges, one for each idle
+ * reader, plus one for the reader of the split resource itself, since that reader will become idle
+ * shortly. A resource is only split once, and sub-ranges can be split again up to {@link
+ * #MAX_SPLIT_DEPTH} times.
+ *
+ * <p>Sub-ranges have their own resource URIs, which are reported to a split listener before the
+ * sub-ranges are scheduled, so that they can be recorded in the checkpoint right away. When
+ * resuming an operation from a checkpoint, the sub-ranges recorded in the checkpoint are rebuilt:
+ * each range or sub-range then reads only the part of its range that precedes its own sub-ranges,
+ * and the parts of the range that are not covered by any of them, if any, are read as additional
+ * sub-ranges. This happens regardless of whether splitting slow ranges is enabled for the resumed
+ * operation.
+ *
+ * <p>The flux returned by {@link #resources()} can be subscribed only once.
+ */
+public class RangeReadScheduler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RangeReadScheduler.class);
+
+  @VisibleForTesting static final int MAX_SPLIT_DEPTH = 4;
+
+  /** The maximum number of sub-ranges a remainder is split into. */
+  private static final int MAX_SPLIT_COUNT = 64;
+
+  private final boolean splitSlowRanges;
+  private final Consumer<URI> splitListener;
+  private final AtomicInteger wip = new AtomicInteger();
+
+  // guarded by this
+  private final Map<Set<EndPoint>, Deque<ScheduledResource>> pending = new LinkedHashMap<>();
+  private final Set<ScheduledResource> running = new HashSet<>();
+  private final Map<EndPoint, Double> scans = new HashMap<>();
+
+  private volatile FluxSink<RangeReadResource> sink;
+  private volatile boolean done;
+
+  /**
+   * Creates a scheduler that does not split ranges.
+   *
+   * @param statements The statements to execute.
+   * @param resourceFactory The factory to use to create a resource for each statement.
+   */
+  public RangeReadScheduler(
+      @NonNull List<RangeReadBoundStatement> statements,
+      @NonNull Function<RangeReadBoundStatement, RangeReadResource> resourceFactory) {
+    this.splitSlowRanges = false;
+    this.splitListener = resource -> {};
+    for (RangeReadBoundStatement statement : statements) {
+      enqueue(new ScheduledResource(resourceFactory.apply(statement), replicas(statement)));
+    }
+  }
+
+  /**
+   * Creates a scheduler whose ranges can be split.
+   *
+   * @param statements The statements to execute.
+   * @param executor The executor to use.
+   * @param splitter The splitter to use to create statements for sub-ranges.
+   * @param splitSlowRanges Whether to split slow ranges.
+   * @param checkpointedResources The resources recorded in the checkpoint of the operation being
+   *     resumed, if any.
+   * @param splitListener The listener to notify of the URI of each sub-range split off a slow
+   *     range, before the sub-range is scheduled.
+   */
+  public RangeReadScheduler(
+      @NonNull List<RangeReadBoundStatement> statements,
+      @NonNull BulkReader executor,
+      @NonNull RangeReadStatementSplitter splitter,
+      boolean splitSlowRanges,
+      @NonNull Collection<URI> checkpointedResources,
+      @NonNull Consumer<URI> splitListener) {
+    this.splitSlowRanges = splitSlowRanges;
+    this.splitListener = splitListener;
+    Map<URI, TokenRange> subRanges = findSubRanges(statements, splitter, checkpointedResources);
+    for (RangeReadBoundStatement statement : statements) {
+      Set<EndPoint> replicas = replicas(statement);
+      TokenRange range = statement.getTokenRange();
+      List<TokenRange> inner = new ArrayList<>();
+      for (TokenRange subRange : subRanges.values()) {
+        if (isInside(subRange, range)) {
+          inner.add(subRange);
+        }
+      }
+      if (inner.isEmpty()) {
+        enqueue(
+            new ScheduledResource(
+                new SplittableRangeReadResource(statement, executor, splitter, this, 0), replicas));
+      } else {
+        List<TokenRange> gaps = findGaps(range, inner, splitter);
+        LOGGER.debug(
+            "Resuming range {} as {} sub-ranges",
+            statement.getResource(),
+            inner.size() + gaps.size() + 1);
+        // sub-ranges are read by the replicas of their range
+        enqueue(
+            new ScheduledResource(
+                resume(range, statement.getResource(), inner, executor, splitter), replicas));
+        for (TokenRange subRange : inner) {
+          enqueue(
+              new ScheduledResource(
+                  resume(subRange, splitter.getResource(subRange), inner, executor, splitter),
+                  replicas));
+        }
+        for (TokenRange gap : gaps) {
+          RangeReadBoundStatement stmt = splitter.newStatement(gap, splitter.getResource(gap));
+          enqueue(
+              new ScheduledResource(
+                  new SplittableRangeReadResource(stmt, executor, splitter, this, 0), replicas));
+        }
+      }
+    }
+  }
+
+  /** @return The resources to read. */
+  @NonNull
+  public Flux<RangeReadResource> resources() {
+    return Flux.create(
+        sink -> {
+          this.sink = sink;
+          sink.onRequest(n -> drain());
+          sink.onCancel(
+              () -> {
+                synchronized (this) {
+                  pending.clear();
+                }
+              });
+        });
+  }
+
+  boolean isSplittingSlowRanges() {
+    return splitSlowRanges;
+  }
+
+  private synchronized void onStart(@NonNull ScheduledResource resource) {
+    running.add(resource);
+    for (EndPoint replica : resource.replicas) {
+      scans.merge(replica, resource.weight, Double::sum);
+    }
+  }
+
+  private void onTerminate(@NonNull ScheduledResource resource) {
+    synchronized (this) {
+      if (!running.remove(resource)) {
+        return;
+      }
+      for (EndPoint replica : resource.replicas) {
+        scans.merge(replica, -resource.weight, Double::sum);
+      }
+    }
+    drain();
+  }
+
+  void onProgress() {
+    if (sink != null && sink.requestedFromDownstream() > 0) {
+      drain();
+    }
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      FluxSink<RangeReadResource> sink = this.sink;
+      if (sink != null && !done) {
+        while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+          ScheduledResource next = poll(sink.requestedFromDownstream());
+          if (next == null) {
+            break;
+          }
+          sink.next(next);
+        }
+        // resources skipped by the checkpoint are never started, so completion only needs to
+        // wait for started resources; they may still need to be split.
+        boolean complete;
+        synchronized (this) {
+          complete = pending.isEmpty() && running.isEmpty();
+        }
+        if (complete) {
+          done = true;
+          sink.complete();
+        }
+      }
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private synchronized ScheduledResource poll(long idle) {
+    if (pending.isEmpty() && splitSlowRanges) {
+      ScheduledResource slowest = null;
+      double slowestRemaining = 0;
+      for (ScheduledResource scheduled : running) {
+        SplittableRangeReadResource resource = (SplittableRangeReadResource) scheduled.resource;
+        if (resource.getDepth() < MAX_SPLIT_DEPTH) {
+          double remaining = resource.getRemainingFraction();
+          if (remaining > slowestRemaining) {
+            slowest = scheduled;
+            slowestRemaining = remaining;
+          }
+        }
+      }
+      if (slowest != null) {
+        List<SplittableRangeReadResource> splits =
+            ((SplittableRangeReadResource) slowest.resource)
+                .split((int) Math.min(idle + 1, MAX_SPLIT_COUNT));
+        LOGGER.debug(
+            "Splitting remainder of range {} into {} sub-ranges", slowest.getURI(), splits.size());
+        // report all the sub-ranges before scheduling any of them: the checkpoint must not
+        // record some of them without the others, otherwise a resumed operation would not know
+        // that the remainder of the split range is to be read by the missing ones.
+        for (SplittableRangeReadResource split : splits) {
+          splitListener.accept(split.getURI());
+        }
+        for (SplittableRangeReadResource split : splits) {
+          enqueue(new ScheduledResource(split, slowest.replicas));
+        }
+      }
+    }
+    // pick the replica set with the fewest scans per replica; ties are broken by insertion order
+    Deque<ScheduledResource> next = null;
+    double nextScans = Double.MAX_VALUE;
+    for (Map.Entry<Set<EndPoint>, Deque<ScheduledResource>> entry : pending.entrySet()) {
+      double replicaScans = scansPerReplica(entry.getKey());
+      if (replicaScans < nextScans) {
+        next = entry.getValue();
+        nextScans = replicaScans;
+      }
+    }
+    if (next == null) {
+      return null;
+    }
+    ScheduledResource resource = next.poll();
+    if (next.isEmpty()) {
+      pending.remove(resource.replicas);
+    }
+    return resource;
+  }
+
+  private void enqueue(ScheduledResource resource) {
+    pending.computeIfAbsent(resource.replicas, replicas -> new ArrayDeque<>()).add(resource);
+  }
+
+  private double scansPerReplica(Set<EndPoint> replicas) {
+    if (replicas.isEmpty()) {
+      return 0;
+    }
+    double total = 0;
+    for (EndPoint replica : replicas) {
+      total += scans.getOrDefault(replica, 0d);
+    }
+    return total / replicas.size();
+  }
+
+  @NonNull
+  private static Set<EndPoint> replicas(@NonNull RangeReadBoundStatement statement) {
+    TokenRange range = statement.getTokenRange();
+    if (range instanceof BulkTokenRange) {
+      return ((BulkTokenRange) range).replicas();
+    }
+    return Collections.emptySet();
+  }
+
+  /**
+   * Finds the sub-ranges recorded in the checkpoint: these are the checkpointed resources of the
+   * table being read that are not one of the statement ranges.
+   */
+  private static Map<URI, TokenRange> findSubRanges(
+      List<RangeReadBoundStatement> statements,
+      RangeReadStatementSplitter splitter,
+      Collection<URI> checkpointedResources) {
+    Set<URI> resources = new HashSet<>();
+    for (RangeReadBoundStatement statement : statements) {
+      resources.add(statement.getResource());
+    }
+    Map<URI, TokenRange> subRanges = new LinkedHashMap<>();
+    for (URI resource : checkpointedResources) {
+      if (!resources.contains(resource)) {
+        TokenRange range = splitter.parseResource(resource);
+        if (range != null && splitter.isSplittable(range)) {
+          subRanges.put(resource, range);
+        }
+      }
+    }
+    return subRanges;
+  }
+
+  /**
+   * Creates a resource for a range that was split in the operation being resumed: it reads only the
+   * part of the range that precedes its first sub-range, but keeps the URI of the entire range so
+   * that its checkpoint applies.
+   */
+  private SplittableRangeReadResource resume(
+      TokenRange range,
+      URI resource,
+      List<TokenRange> subRanges,
+      BulkReader executor,
+      RangeReadStatementSplitter splitter) {
+    Token end = findEnd(range, subRanges, splitter);
+    TokenRange own = end.equals(range.getEnd()) ? range : splitter.range(range.getStart(), end);
+    return new SplittableRangeReadResource(
+        splitter.newStatement(own, resource), executor, splitter, this, 0);
+  }
+
+  /**
+   * Returns the token up to which a resumed range reads: the start of its first sub-range, or the
+   * end of the range if it has no sub-ranges.
+   */
+  private static Token findEnd(
+      TokenRange range, List<TokenRange> subRanges, RangeReadStatementSplitter splitter) {
+    Token end = range.getEnd();
+    double endFraction = 1;
+    for (TokenRange subRange : subRanges) {
+      if (isInside(subRange, range)) {
+        double fraction = splitter.fraction(range.getStart(), subRange.getStart());
+        if (fraction < endFraction) {
+          end = subRange.getStart();
+          endFraction = fraction;
+        }
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Finds the parts of a resumed range that none of the resumed range and sub-ranges reads. This
+   * happens when the checkpoint does not record all the sub-ranges the range was split into, for
+   * example if it was written by an operation that was interrupted while registering them.
+   */
+  private static List<TokenRange> findGaps(
+      TokenRange range, List<TokenRange> subRanges, RangeReadStatementSplitter splitter) {
+    Token start = range.getStart();
+    // the parts read by the range and its sub-ranges, sorted by start
+    List<TokenRange> parts = new ArrayList<>();
+    parts.add(splitter.range(start, findEnd(range, subRanges, splitter)));
+    for (TokenRange subRange : subRanges) {
+      parts.add(splitter.range(subRange.getStart(), findEnd(subRange, subRanges, splitter)));
+    }
+    parts.sort(Comparator.comparingDouble(part -> splitter.fraction(start, part.getStart())));
+    List<TokenRange> gaps = new ArrayList<>();
+    Token position = start;
+    for (TokenRange part : parts) {
+      if (splitter.fraction(start, part.getStart()) > splitter.fraction(start, position)) {
+        gaps.add(splitter.range(position, part.getStart()));
+      }
+      if (splitter.fraction(start, part.getEnd()) > splitter.fraction(start, position)) {
+        position = part.getEnd();
+      }
+    }
+    if (splitter.fraction(start, range.getEnd()) > splitter.fraction(start, position)) {
+      gaps.add(splitter.range(position, range.getEnd()));
+    }
+    return gaps;
+  }
+
+  /** Returns true if {@code inner} is a strict sub-range of {@code outer}. */
+  private static boolean isInside(TokenRange inner, TokenRange outer) {
+    boolean same =
+        inner.getStart().equals(outer.getStart()) && inner.getEnd().equals(outer.getEnd());
+    return !same && outer.contains(inner.getStart()) && outer.contains(inner.getEnd());
+  }
+
+  /** A resource emitted by this scheduler, that tracks the scans of its replicas. */
+  @VisibleForTesting
+  class ScheduledResource implements RangeReadResource {
+
+    private final RangeReadResource resource;
+    private final Set<EndPoint> replicas;
+    private final double weight;
+
+    private ScheduledResource(
+        @NonNull RangeReadResource resource, @NonNull Set<EndPoint> replicas) {
+      this.resource = resource;
+      this.replicas = replicas;
+      this.weight = replicas.isEmpty() ? 0 : 1d / replicas.size();
+    }
+
+    @NonNull
+    @Override
+    public URI getURI() {
+      return resource.getURI();
+    }
+
+    @NonNull
+    @Override
+    public Publisher<ReadResult> read() {
+      // scans must be released before the downstream is notified, and requests the next resource
+      return Flux.from(resource.read())
+          .doOnSubscribe(subscription -> onStart(this))
+          .doOnTerminate(() -> onTerminate(this))
+          .doOnCancel(() -> onTerminate(this));
+    }
+
+    @NonNull
+    @Override
+    public List<RangeReadResource> getSplits() {
+      return resource.getSplits();
+    }
+
+    @NonNull
+    RangeReadResource getResource() {
+      return resource;
+    }
+  }
+}
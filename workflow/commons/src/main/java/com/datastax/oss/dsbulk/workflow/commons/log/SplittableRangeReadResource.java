@@ -0,0 +1,156 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+/**
+ * A {@link RangeReadResource} whose unread remainder can be split off while it is being read.
+ *
+ * <p>Rows of a range read are returned in token order. When this resource is split, the token of
+ * the last row read so far becomes its new upper bound: the resource keeps reading the current
+ * partition, and stops at the first row beyond that token. The remainder of its range is divided
+ * into sub-ranges, read by new resources with their own URIs. This way, no partition is ever read
+ * by two resources.
+ */
+class SplittableRangeReadResource implements RangeReadResource {
+
+  private final RangeReadBoundStatement statement;
+  private final BulkReader executor;
+  private final RangeReadStatementSplitter splitter;
+  private final RangeReadScheduler scheduler;
+  private final int depth;
+  private final List<RangeReadResource> splits = new CopyOnWriteArrayList<>();
+
+  // guarded by this
+  private Token lastToken;
+  private Token cutoff;
+
+  SplittableRangeReadResource(
+      @NonNull RangeReadBoundStatement statement,
+      @NonNull BulkReader executor,
+      @NonNull RangeReadStatementSplitter splitter,
+      @NonNull RangeReadScheduler scheduler,
+      int depth) {
+    this.statement = statement;
+    this.executor = executor;
+    this.splitter = splitter;
+    this.scheduler = scheduler;
+    this.depth = depth;
+  }
+
+  @NonNull
+  @Override
+  public URI getURI() {
+    return statement.getResource();
+  }
+
+  @NonNull
+  @Override
+  public Publisher<ReadResult> read() {
+    Flux<ReadResult> results = Flux.from(executor.readReactive(statement));
+    if (scheduler.isSplittingSlowRanges() && splitter.isSplittable(statement.getTokenRange())) {
+      results = results.takeWhile(this::accept);
+    }
+    return results;
+  }
+
+  @NonNull
+  @Override
+  public List<RangeReadResource> getSplits() {
+    return Collections.unmodifiableList(splits);
+  }
+
+  @NonNull
+  RangeReadBoundStatement getStatement() {
+    return statement;
+  }
+
+  int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the ring fraction that remains to be read, or zero if this resource cannot be split
+   * (yet): that is, if it has already been split, or if it hasn't returned any row so far.
+   */
+  synchronized double getRemainingFraction() {
+    if (cutoff != null || lastToken == null) {
+      return 0;
+    }
+    return splitter.fraction(lastToken, statement.getTokenRange().getEnd());
+  }
+
+  /**
+   * Splits the unread remainder of this resource into sub-ranges.
+   *
+   * @param splitCount The desired number of sub-ranges.
+   * @return The resources reading the sub-ranges, or an empty list if this resource cannot be
+   *     split.
+   */
+  @NonNull
+  synchronized List<SplittableRangeReadResource> split(int splitCount) {
+    if (getRemainingFraction() == 0) {
+      return Collections.emptyList();
+    }
+    cutoff = lastToken;
+    List<SplittableRangeReadResource> resources = new ArrayList<>();
+    for (TokenRange range :
+        splitter.split(cutoff, statement.getTokenRange().getEnd(), splitCount)) {
+      RangeReadBoundStatement stmt = splitter.newStatement(range, splitter.getResource(range));
+      resources.add(
+          new SplittableRangeReadResource(stmt, executor, splitter, scheduler, depth + 1));
+    }
+    splits.addAll(resources);
+    return resources;
+  }
+
+  private boolean accept(ReadResult result) {
+    Row row = result.getRow().orElse(null);
+    if (row == null) {
+      // failed reads are global to the entire range
+      return true;
+    }
+    Token token = splitter.getToken(row);
+    boolean first;
+    synchronized (this) {
+      if (cutoff != null && token.compareTo(cutoff) > 0) {
+        return false;
+      }
+      first = lastToken == null;
+      lastToken = token;
+    }
+    if (first) {
+      // this resource just became splittable
+      scheduler.onProgress();
+    }
+    return true;
+  }
+}
@@ -77,6 +77,10 @@ public class Checkpoint {
     produced++;
   }
 
+  public void incrementProduced(long count) {
+    produced += count;
+  }
+
   public void setProduced(long produced) {
     this.produced = produced;
   }
@@ -89,10 +93,24 @@ public class Checkpoint {
     }
   }
 
+  public void updateConsumed(long lower, long upper, boolean success) {
+    if (success) {
+      consumedSuccessful.update(lower, upper);
+    } else {
+      consumedFailed.update(lower, upper);
+    }
+  }
+
   public void setComplete(boolean complete) {
     this.complete = complete;
   }
 
+  /** @return a deep copy of this checkpoint. */
+  @NonNull
+  public Checkpoint copy() {
+    return new Checkpoint(produced, consumedSuccessful.copy(), consumedFailed.copy(), complete);
+  }
+
   public void merge(Checkpoint other) {
     produced += other.produced;
     // Note: we don't need to care about duplicate positions appearing both in consumedSuccessful
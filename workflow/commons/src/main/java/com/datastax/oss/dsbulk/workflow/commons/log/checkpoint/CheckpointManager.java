@@ -22,10 +22,12 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URI;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -89,6 +91,12 @@ public class CheckpointManager {
     return checkpoints.computeIfAbsent(resource, uri -> new Checkpoint());
   }
 
+  /** @return the URIs of all the resources having a checkpoint. */
+  @NonNull
+  public Set<URI> getResources() {
+    return Collections.unmodifiableSet(checkpoints.keySet());
+  }
+
   public boolean isEmpty() {
     return checkpoints.isEmpty();
   }
@@ -111,6 +119,24 @@ public class CheckpointManager {
     }
   }
 
+  /**
+   * Updates the given resource with all the positions between {@code lower} and {@code upper},
+   * inclusive.
+   */
+  public void update(@NonNull URI resource, long lower, long upper, boolean success) {
+    if (lower > 0 && lower <= upper) {
+      checkpoints.compute(
+          resource,
+          (res, checkpoint) -> {
+            if (checkpoint == null) {
+              checkpoint = new Checkpoint();
+            }
+            checkpoint.updateConsumed(lower, upper, success);
+            return checkpoint;
+          });
+    }
+  }
+
   /**
    * Returns the number of items already processed and that won't be processed again. This total may
    * include successful, but also rejected records, if they won't be replayed according to the
@@ -128,6 +154,19 @@ public class CheckpointManager {
     return checkpoints.values().stream().mapToLong(replayStrategy::getRejectedItems).sum();
   }
 
+  /**
+   * Returns a deep copy of this checkpoint manager. The copy is not thread-safe, and can be mutated
+   * without affecting this instance.
+   */
+  @NonNull
+  public CheckpointManager copy() {
+    Map<URI, Checkpoint> copy = new HashMap<>();
+    for (Entry<URI, Checkpoint> entry : checkpoints.entrySet()) {
+      copy.put(entry.getKey(), entry.getValue().copy());
+    }
+    return new CheckpointManager(copy);
+  }
+
   public void merge(@NonNull CheckpointManager other) {
     for (URI resource : other.checkpoints.keySet()) {
       Checkpoint otherCheckpoint = other.checkpoints.get(resource);
@@ -16,23 +16,38 @@
 package com.datastax.oss.dsbulk.workflow.commons.log.checkpoint;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * A set of non-contiguous ranges sorted by ascending order of their boundaries.
  *
- * <p>The set is modeled internally with a List to facilitate update and merge operations, but it is
- * guaranteed to be sorted and not to contain contiguous ranges. The mutating methods in {@link
- * RangeUtils} also enforce this invariant.
+ * <p>The set is modeled internally as a run-length encoding of the positions it contains: the
+ * bounds of each range are stored in a single array of primitive longs, and no {@link Range}
+ * instance is retained.
+ *
+ * <p>Positions recorded in ascending order, even with gaps, extend or append the last range in
+ * constant time. Positions recorded out of order, typically because concurrent writes complete in
+ * random order, are buffered instead, and periodically sorted and merged with the existing ranges
+ * in a single pass; the buffer grows with the number of ranges, so that the amortized cost of an
+ * update remains logarithmic regardless of how fragmented the set is. The buffer is flushed before
+ * the set is read.
+ *
+ * <p>This class is not thread-safe.
  */
 public class RangeSet {
 
+  private static final int INITIAL_CAPACITY = 8;
+
+  private static final int MIN_PENDING_CAPACITY = 64;
+
+  private static final long[] EMPTY = new long[0];
+
   @NonNull
   public static RangeSet parse(@NonNull String text) {
     if (text.isEmpty()) {
@@ -50,66 +65,253 @@ public class RangeSet {
 
   @NonNull
   public static RangeSet of(@NonNull Iterable<Range> ranges) {
-    List<Range> sorted = new ArrayList<>();
+    RangeSet set = new RangeSet();
     for (Range range : ranges) {
-      RangeUtils.addRange(sorted, range);
+      set.update(range.getLower(), range.getUpper());
     }
-    return new RangeSet(sorted);
+    return set;
   }
 
-  private final List<Range> ranges;
+  // The lower bound of range i is stored at index 2*i, its upper bound at index 2*i+1.
+  private long[] bounds;
+  private int size;
+
+  // Positions recorded out of order and not yet merged into bounds.
+  private long[] pending = EMPTY;
+  private int pendingSize;
+
+  // The array to merge into on the next flush, recycled from the previous one.
+  private long[] spare = EMPTY;
 
   public RangeSet() {
-    this(new ArrayList<>());
+    this(EMPTY, 0);
   }
 
-  private RangeSet(List<Range> ranges) {
-    this.ranges = ranges;
+  private RangeSet(long[] bounds, int size) {
+    this.bounds = bounds;
+    this.size = size;
   }
 
   public boolean contains(long position) {
-    return RangeUtils.contains(ranges, position);
+    flush();
+    int i = floor(position);
+    return i >= 0 && upper(i) >= position;
   }
 
   public void update(long position) {
-    RangeUtils.addPosition(ranges, position);
+    if (size == 0 || position > upper(size - 1) + 1) {
+      insert(size, position, position);
+    } else if (position == upper(size - 1) + 1) {
+      bounds[2 * size - 1] = position;
+    } else if (position < lower(size - 1)) {
+      if (pendingSize == pending.length) {
+        flush();
+      }
+      pending[pendingSize++] = position;
+    } // else the last range contains position
+  }
+
+  /**
+   * Adds all the positions between {@code lower} and {@code upper}, inclusive, to this set.
+   *
+   * @param lower The lower bound, inclusive.
+   * @param upper The upper bound, inclusive.
+   */
+  public void update(long lower, long upper) {
+    flush();
+    int first = floor(lower);
+    if (first >= 0 && upper(first) + 1L >= lower) {
+      if (upper(first) >= upper) {
+        return; // range first contains the range to add
+      }
+    } else {
+      first++;
+      insert(first, lower, upper);
+    }
+    int last = first;
+    while (last + 1 < size && lower(last + 1) - 1L <= upper) {
+      last++;
+    }
+    bounds[2 * first + 1] = Math.max(upper, upper(last));
+    remove(first + 1, last + 1);
   }
 
   public void merge(@NonNull RangeSet other) {
-    for (Range range : other.ranges) {
-      RangeUtils.addRange(ranges, range);
+    other.flush();
+    if (other.size == 0) {
+      return;
+    }
+    flush();
+    // merge both sorted sequences of ranges in a single pass
+    long[] merged = spare(2 * (size + other.size));
+    int n = 0;
+    int i = 0;
+    int j = 0;
+    while (i < size || j < other.size) {
+      if (j == other.size || (i < size && lower(i) <= other.lower(j))) {
+        n = append(merged, n, lower(i), upper(i));
+        i++;
+      } else {
+        n = append(merged, n, other.lower(j), other.upper(j));
+        j++;
+      }
     }
+    swap(merged, n);
   }
 
   public boolean isEmpty() {
-    return ranges.isEmpty();
+    return size == 0 && pendingSize == 0;
   }
 
   public int size() {
-    return ranges.size();
+    flush();
+    return size;
   }
 
   public long sum() {
-    return ranges.stream().mapToLong(range -> range.getUpper() - range.getLower() + 1).sum();
+    flush();
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += upper(i) - lower(i) + 1;
+    }
+    return sum;
   }
 
   public void clear() {
-    ranges.clear();
+    size = 0;
+    pendingSize = 0;
+  }
+
+  /** @return a deep copy of this range set. */
+  @NonNull
+  public RangeSet copy() {
+    flush();
+    return new RangeSet(Arrays.copyOf(bounds, Math.max(2 * size, INITIAL_CAPACITY)), size);
   }
 
+  /**
+   * @return an iterator over the ranges in this set; the returned ranges are copies, modifying them
+   *     has no effect on this set.
+   */
   @NonNull
   public Iterator<Range> iterator() {
-    return ranges.iterator();
+    return stream().iterator();
   }
 
+  /**
+   * @return a stream of the ranges in this set; the returned ranges are copies, modifying them has
+   *     no effect on this set.
+   */
   @NonNull
   public Stream<Range> stream() {
-    return ranges.stream();
+    flush();
+    return IntStream.range(0, size).mapToObj(i -> new Range(lower(i), upper(i)));
   }
 
   @NonNull
   public String asText() {
-    return ranges.stream().map(Range::asText).collect(Collectors.joining(","));
+    flush();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(lower(i));
+      if (lower(i) != upper(i)) {
+        sb.append(':').append(upper(i));
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Sorts the pending positions, and merges them with the existing ranges. */
+  private void flush() {
+    if (pendingSize > 0) {
+      Arrays.sort(pending, 0, pendingSize);
+      long[] merged = spare(2 * (size + pendingSize));
+      int n = 0;
+      int i = 0;
+      int j = 0;
+      while (i < size || j < pendingSize) {
+        if (j == pendingSize || (i < size && lower(i) <= pending[j])) {
+          n = append(merged, n, lower(i), upper(i));
+          i++;
+        } else {
+          n = append(merged, n, pending[j], pending[j]);
+          j++;
+        }
+      }
+      swap(merged, n);
+      pendingSize = 0;
+    }
+    if (pending.length < size) {
+      // keep the buffer proportional to the number of ranges, to amortize the cost of merging
+      pending = new long[Math.max(MIN_PENDING_CAPACITY, 2 * size)];
+    }
+  }
+
+  private long[] spare(int capacity) {
+    if (spare.length < capacity) {
+      spare = new long[Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1))];
+    }
+    return spare;
+  }
+
+  private void swap(long[] merged, int n) {
+    spare = bounds;
+    bounds = merged;
+    size = n;
+  }
+
+  private static int append(long[] ranges, int n, long lower, long upper) {
+    if (n > 0 && ranges[2 * n - 1] + 1L >= lower) {
+      ranges[2 * n - 1] = Math.max(ranges[2 * n - 1], upper);
+      return n;
+    }
+    ranges[2 * n] = lower;
+    ranges[2 * n + 1] = upper;
+    return n + 1;
+  }
+
+  /** @return the index of the last range whose lower bound is <= position, or -1 if none. */
+  private int floor(long position) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (lower(mid) <= position) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  private long lower(int i) {
+    return bounds[2 * i];
+  }
+
+  private long upper(int i) {
+    return bounds[2 * i + 1];
+  }
+
+  private void insert(int i, long lower, long upper) {
+    if (2 * size == bounds.length) {
+      bounds = Arrays.copyOf(bounds, Math.max(INITIAL_CAPACITY, bounds.length * 2));
+    }
+    System.arraycopy(bounds, 2 * i, bounds, 2 * i + 2, 2 * (size - i));
+    bounds[2 * i] = lower;
+    bounds[2 * i + 1] = upper;
+    size++;
+  }
+
+  /** Removes ranges from index {@code from}, inclusive, to index {@code to}, exclusive. */
+  private void remove(int from, int to) {
+    if (from < to) {
+      System.arraycopy(bounds, 2 * to, bounds, 2 * from, 2 * (size - to));
+      size -= to - from;
+    }
   }
 
   @Override
@@ -121,12 +323,27 @@ public class RangeSet {
       return false;
     }
     RangeSet rangeSet = (RangeSet) o;
-    return ranges.equals(rangeSet.ranges);
+    flush();
+    rangeSet.flush();
+    if (size != rangeSet.size) {
+      return false;
+    }
+    for (int i = 0; i < 2 * size; i++) {
+      if (bounds[i] != rangeSet.bounds[i]) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public int hashCode() {
-    return ranges.hashCode();
+    flush();
+    int result = 1;
+    for (int i = 0; i < 2 * size; i++) {
+      result = 31 * result + Long.hashCode(bounds[i]);
+    }
+    return result;
   }
 
   @Override
@@ -111,6 +111,7 @@ public class MetricsManager implements AutoCloseable {
       long expectedWrites,
       long expectedReads,
       boolean trackBytes,
+      boolean recordReadsPerPage,
       boolean jmx,
       boolean csv,
       boolean console,
@@ -126,7 +127,7 @@ public class MetricsManager implements AutoCloseable {
     this.monitorWrites = monitorWrites;
     this.listener =
         new MetricsCollectingExecutionListener(
-            registry, protocolVersion, codecRegistry, trackBytes);
+            registry, protocolVersion, codecRegistry, trackBytes, recordReadsPerPage);
     this.executionId = executionId;
     this.scheduler = scheduler;
     this.rateUnit = rateUnit;
@@ -244,6 +244,10 @@ public class DefaultReadResultCounter implements ReadResultCounter {
 
     @Override
     public void update(ReadResult result) {
+      if (result instanceof RangeCountResult) {
+        update((RangeCountResult) result);
+        return;
+      }
       Row row = result.getRow().orElseThrow(IllegalStateException::new);
       // First compute the partition key and the token for this row.
       Token token = null;
@@ -300,6 +304,34 @@ public class DefaultReadResultCounter implements ReadResultCounter {
       }
     }
 
+    /**
+     * Increments the counters with rows counted server-side. When counting ranges or nodes, each
+     * piece of the result is expected to belong to one single range of the ring, which can
+     * therefore be located by the piece's end token.
+     */
+    private void update(RangeCountResult result) {
+      assert !countPartitions;
+      total += result.getTotal();
+      if (countRanges || countNodes) {
+        List<TokenRange> ranges = result.getRanges();
+        for (int i = 0; i < ranges.size(); i++) {
+          long count = result.getCount(i);
+          if (count == 0) {
+            continue;
+          }
+          ReplicaSet replicaSet = getReplicaSet(ranges.get(i).getEnd());
+          if (countRanges) {
+            totalsByRange.merge(replicaSet.range, count, SUM);
+          }
+          if (countNodes) {
+            for (EndPoint address : replicaSet.addresses) {
+              totalsByNode.merge(address, count, SUM);
+            }
+          }
+        }
+      }
+    }
+
     @Override
     public void close() {
       rotatePk();
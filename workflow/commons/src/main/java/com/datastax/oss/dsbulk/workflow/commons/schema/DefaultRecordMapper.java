@@ -33,17 +33,23 @@ import com.datastax.oss.driver.api.core.type.reflect.GenericType;
 import com.datastax.oss.driver.shaded.guava.common.annotations.VisibleForTesting;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableSet;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.FieldTable;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
 import com.datastax.oss.dsbulk.mapping.Mapping;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import reactor.core.publisher.Flux;
@@ -61,6 +67,14 @@ public class DefaultRecordMapper implements RecordMapper {
   private final Function<PreparedStatement, BoundStatementBuilder> boundStatementBuilderFactory;
   private final int size;
 
+  /**
+   * Binding plans for array-backed records, one per insert statement, keyed by field table. Keys
+   * are weakly referenced, and thus compared by identity: a plan lives as long as records using its
+   * field table, typically for the duration of a resource.
+   */
+  private final Cache<FieldTable, BindingPlan[]> bindingPlans =
+      Caffeine.newBuilder().weakKeys().build();
+
   public DefaultRecordMapper(
       List<PreparedStatement> insertStatements,
       Set<CQLWord> partitionKeyVariables,
@@ -116,19 +130,26 @@ public class DefaultRecordMapper implements RecordMapper {
   @Override
   public Flux<BatchableStatement<?>> map(@NonNull Record record) {
     try {
-      Set<Field> recordFields = record.fields();
-      if (!allowMissingFields) {
-        ensureAllFieldsPresent(recordFields);
-      }
-      if (!allowExtraFields) {
-        ensureNoExtraFields(recordFields);
+      BindingPlan[] plans = null;
+      if (record instanceof ArrayBackedRecord) {
+        // field checks are performed once, when the plans are compiled
+        FieldTable fields = ((ArrayBackedRecord) record).getFieldTable();
+        plans = bindingPlans.get(fields, this::compileBindingPlans);
+      } else {
+        Set<Field> recordFields = record.fields();
+        if (!allowMissingFields) {
+          ensureAllFieldsPresent(recordFields);
+        }
+        if (!allowExtraFields) {
+          ensureNoExtraFields(recordFields);
+        }
       }
       if (size == 1) {
-        return Flux.just(bindStatement(record, insertStatements.get(0)));
+        return Flux.just(bindStatement(record, 0, plans));
       } else {
         BatchableStatement<?>[] statements = new BatchableStatement<?>[size];
         for (int i = 0; i < size; i++) {
-          statements[i] = bindStatement(record, insertStatements.get(i));
+          statements[i] = bindStatement(record, i, plans);
         }
         // Note: we only emit the generated bound statements if all of them were successfully
         // created; if any fails, we return one single UnmappableStatement instead.
@@ -144,20 +165,23 @@ public class DefaultRecordMapper implements RecordMapper {
     }
   }
 
-  private MappedBoundStatement bindStatement(Record record, PreparedStatement insertStatement) {
+  @NonNull
+  @Override
+  public Optional<Set<Field>> getProjection() {
+    // extraneous fields can only be detected if records contain all their fields
+    return allowExtraFields ? Optional.of(mapping.fields()) : Optional.empty();
+  }
+
+  private MappedBoundStatement bindStatement(
+      Record record, int statementIndex, @Nullable BindingPlan[] plans) {
+    PreparedStatement insertStatement = insertStatements.get(statementIndex);
     BoundStatementBuilder builder = boundStatementBuilderFactory.apply(insertStatement);
+    if (plans != null) {
+      return plans[statementIndex].bind((ArrayBackedRecord) record, builder);
+    }
     ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
     for (Field field : record.fields()) {
-      Set<CQLWord> variables = mapping.fieldToVariables(field);
-      for (CQLWord variable : variables) {
-        CqlIdentifier name = variable.asIdentifier();
-        if (size == 1 || variableDefinitions.contains(name)) {
-          DataType cqlType = variableDefinitions.get(name).getType();
-          GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
-          Object raw = record.getFieldValue(field);
-          builder = bindColumn(builder, field, variable, raw, cqlType, fieldType);
-        }
-      }
+      builder = bindField(builder, variableDefinitions, field, record.getFieldValue(field));
     }
     ensurePrimaryKeySet(builder);
     if (protocolVersion.getCode() < DefaultProtocolVersion.V4.getCode()) {
@@ -167,6 +191,23 @@ public class DefaultRecordMapper implements RecordMapper {
     return new MappedBoundStatement(record, bs);
   }
 
+  private BoundStatementBuilder bindField(
+      BoundStatementBuilder builder,
+      ColumnDefinitions variableDefinitions,
+      Field field,
+      @Nullable Object raw) {
+    Set<CQLWord> variables = mapping.fieldToVariables(field);
+    for (CQLWord variable : variables) {
+      CqlIdentifier name = variable.asIdentifier();
+      if (size == 1 || variableDefinitions.contains(name)) {
+        DataType cqlType = variableDefinitions.get(name).getType();
+        GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
+        builder = bindColumn(builder, field, variable, raw, cqlType, fieldType);
+      }
+    }
+    return builder;
+  }
+
   private <T> BoundStatementBuilder bindColumn(
       BoundStatementBuilder builder,
       Field field,
@@ -192,10 +233,11 @@ public class DefaultRecordMapper implements RecordMapper {
     return builder.setBytesUnsafe(variable.asIdentifier(), bb);
   }
 
-  private boolean isNull(ByteBuffer bb, DataType cqlType) {
-    if (bb == null) {
-      return true;
-    }
+  private static boolean isNull(ByteBuffer bb, DataType cqlType) {
+    return bb == null || (isEmptyNull(cqlType) && !bb.hasRemaining());
+  }
+
+  private static boolean isEmptyNull(DataType cqlType) {
     switch (cqlType.getProtocolCode()) {
       case VARCHAR:
       case ASCII:
@@ -204,8 +246,23 @@ public class DefaultRecordMapper implements RecordMapper {
         // these CQL types.
         return false;
       default:
-        return !bb.hasRemaining();
+        return true;
+    }
+  }
+
+  @NonNull
+  private BindingPlan[] compileBindingPlans(@NonNull FieldTable fields) {
+    if (!allowMissingFields) {
+      ensureAllFieldsPresent(fields.fields());
+    }
+    if (!allowExtraFields) {
+      ensureNoExtraFields(fields.fields());
     }
+    BindingPlan[] plans = new BindingPlan[size];
+    for (int i = 0; i < size; i++) {
+      plans[i] = new BindingPlan(fields, insertStatements.get(i));
+    }
+    return plans;
   }
 
   private void ensureAllFieldsPresent(Set<Field> recordFields) {
@@ -243,4 +300,138 @@ public class DefaultRecordMapper implements RecordMapper {
       }
     }
   }
+
+  /**
+   * A precompiled list of bindings between the fields of a {@link FieldTable} and the variables of
+   * an insert statement.
+   *
+   * <p>All lookups that only depend on the record layout (variables of each field, variable types
+   * and indices, field types and codecs) are resolved once when the plan is created, so that
+   * binding a record only requires encoding its values and setting them by index.
+   */
+  private final class BindingPlan {
+
+    private final PreparedStatement insertStatement;
+    private final Binding[] bindings;
+    private final CQLWord[] primaryKeyVariables;
+    private final int[][] primaryKeyIndices;
+
+    private BindingPlan(FieldTable fields, PreparedStatement insertStatement) {
+      this.insertStatement = insertStatement;
+      ColumnDefinitions variableDefinitions = insertStatement.getVariableDefinitions();
+      List<Binding> bindings = new ArrayList<>();
+      for (int i = 0; i < fields.size(); i++) {
+        Field field = fields.getField(i);
+        for (CQLWord variable : mapping.fieldToVariables(field)) {
+          CqlIdentifier name = variable.asIdentifier();
+          if (size == 1 || variableDefinitions.contains(name)) {
+            DataType cqlType = variableDefinitions.get(name).getType();
+            GenericType<?> fieldType = recordMetadata.getFieldType(field, cqlType);
+            TypeCodec<Object> codec = mapping.codec(variable, cqlType, fieldType);
+            bindings.add(
+                new Binding(
+                    i,
+                    field,
+                    variable,
+                    cqlType,
+                    fieldType,
+                    codec,
+                    toArray(variableDefinitions.allIndicesOf(name)),
+                    DefaultRecordMapper.this.primaryKeyVariables.contains(variable)));
+          }
+        }
+      }
+      this.bindings = bindings.toArray(new Binding[0]);
+      int pkSize = DefaultRecordMapper.this.primaryKeyVariables.size();
+      primaryKeyVariables = new CQLWord[pkSize];
+      primaryKeyIndices = new int[pkSize][];
+      int i = 0;
+      for (CQLWord variable : DefaultRecordMapper.this.primaryKeyVariables) {
+        primaryKeyVariables[i] = variable;
+        primaryKeyIndices[i] = toArray(variableDefinitions.allIndicesOf(variable.asIdentifier()));
+        i++;
+      }
+    }
+
+    private MappedBoundStatement bind(ArrayBackedRecord record, BoundStatementBuilder builder) {
+      ProtocolVersion protocolVersion = builder.protocolVersion();
+      // the encoded values are at hand, so the statement's data size is computed here, instead of
+      // walking its values again when the statement is throttled or measured
+      long dataSize = 0;
+      for (Binding binding : bindings) {
+        Object raw = record.getValue(binding.fieldPosition);
+        ByteBuffer bb;
+        try {
+          bb = binding.codec.encode(raw, protocolVersion);
+        } catch (Exception e) {
+          throw InvalidMappingException.encodeFailed(
+              binding.field, binding.variable, binding.fieldType, binding.cqlType, raw, e);
+        }
+        if (bb == null || (binding.emptyIsNull && !bb.hasRemaining())) {
+          if (binding.primaryKey) {
+            throw InvalidMappingException.nullPrimaryKey(binding.variable);
+          }
+          if (nullToUnset) {
+            continue;
+          }
+        }
+        for (int index : binding.variableIndices) {
+          builder = builder.setBytesUnsafe(index, bb);
+        }
+        if (bb != null) {
+          dataSize += (long) bb.remaining() * binding.variableIndices.length;
+        }
+      }
+      for (int i = 0; i < primaryKeyVariables.length; i++) {
+        for (int index : primaryKeyIndices[i]) {
+          if (!builder.isSet(index)) {
+            throw InvalidMappingException.unsetPrimaryKey(primaryKeyVariables[i]);
+          }
+        }
+      }
+      if (DefaultRecordMapper.this.protocolVersion.getCode()
+          < DefaultProtocolVersion.V4.getCode()) {
+        // variables bound to null do not change the data size
+        ensureAllVariablesSet(builder, insertStatement);
+      }
+      return new MappedBoundStatement(record, builder.build(), dataSize);
+    }
+  }
+
+  private static final class Binding {
+
+    private final int fieldPosition;
+    private final Field field;
+    private final CQLWord variable;
+    private final DataType cqlType;
+    private final GenericType<?> fieldType;
+    private final TypeCodec<Object> codec;
+    private final int[] variableIndices;
+    private final boolean primaryKey;
+    private final boolean emptyIsNull;
+
+    private Binding(
+        int fieldPosition,
+        Field field,
+        CQLWord variable,
+        DataType cqlType,
+        GenericType<?> fieldType,
+        TypeCodec<Object> codec,
+        int[] variableIndices,
+        boolean primaryKey) {
+      this.fieldPosition = fieldPosition;
+      this.field = field;
+      this.variable = variable;
+      this.cqlType = cqlType;
+      this.fieldType = fieldType;
+      this.codec = codec;
+      this.variableIndices = variableIndices;
+      this.primaryKey = primaryKey;
+      this.emptyIsNull = isEmptyNull(cqlType);
+    }
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    return list.stream().mapToInt(Integer::intValue).toArray();
+  }
 }
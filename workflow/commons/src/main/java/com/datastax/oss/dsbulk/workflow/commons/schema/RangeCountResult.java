@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.schema;
+
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link ReadResult} holding the number of rows in a token range, as counted server-side.
+ *
+ * <p>The statement's token range may have been counted in several pieces; when counting ranges or
+ * hosts, each piece is guaranteed to belong to one single range of the ring.
+ *
+ * <p>A range count result stands for all the rows in the range: its {@linkplain #getPosition()
+ * position} is the position of the last row, that is, the total number of rows.
+ */
+public class RangeCountResult implements ReadResult {
+
+  private final RangeReadBoundStatement statement;
+  private final List<TokenRange> ranges;
+  private final long[] counts;
+  private final long total;
+
+  /**
+   * @param statement The statement whose range was counted.
+   * @param ranges The pieces the range was counted in.
+   * @param counts The number of rows in each piece.
+   */
+  public RangeCountResult(
+      @NonNull RangeReadBoundStatement statement,
+      @NonNull List<TokenRange> ranges,
+      @NonNull long[] counts) {
+    if (ranges.size() != counts.length) {
+      throw new IllegalArgumentException("ranges and counts must have the same size");
+    }
+    this.statement = statement;
+    this.ranges = ranges;
+    this.counts = counts;
+    long total = 0;
+    for (long count : counts) {
+      total += count;
+    }
+    this.total = total;
+  }
+
+  /** @return The pieces the range was counted in. */
+  @NonNull
+  public List<TokenRange> getRanges() {
+    return ranges;
+  }
+
+  /** @return The number of rows in the i-th piece. */
+  public long getCount(int i) {
+    return counts[i];
+  }
+
+  /** @return The total number of rows in the range. */
+  public long getTotal() {
+    return total;
+  }
+
+  @NonNull
+  @Override
+  public Optional<Row> getRow() {
+    return Optional.empty();
+  }
+
+  @Override
+  public long getPosition() {
+    return total;
+  }
+
+  @NonNull
+  @Override
+  public RangeReadBoundStatement getStatement() {
+    return statement;
+  }
+
+  @NonNull
+  @Override
+  public Optional<ExecutionInfo> getExecutionInfo() {
+    // the counts were possibly obtained with several requests
+    return Optional.empty();
+  }
+
+  @NonNull
+  @Override
+  public Optional<BulkExecutionException> getError() {
+    return Optional.empty();
+  }
+
+  @Override
+  public String toString() {
+    return "RangeCountResult[range=" + statement.getTokenRange() + ", total=" + total + ']';
+  }
+}
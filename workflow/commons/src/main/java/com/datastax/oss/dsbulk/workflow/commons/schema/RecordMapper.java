@@ -16,12 +16,27 @@
 package com.datastax.oss.dsbulk.workflow.commons.schema;
 
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.dsbulk.connectors.api.Field;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.Optional;
+import java.util.Set;
 import reactor.core.publisher.Flux;
 
 public interface RecordMapper {
 
   @NonNull
   Flux<BatchableStatement<?>> map(@NonNull Record record);
+
+  /**
+   * Returns the fields that this mapper actually uses, if records can be safely restricted to them,
+   * or empty if this mapper needs to inspect all the fields of each record, for example to detect
+   * extraneous fields.
+   *
+   * @return the fields that this mapper uses, or empty if records cannot be restricted.
+   */
+  @NonNull
+  default Optional<Set<Field>> getProjection() {
+    return Optional.empty();
+  }
 }
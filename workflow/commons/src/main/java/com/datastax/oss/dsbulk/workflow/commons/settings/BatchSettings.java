@@ -23,6 +23,7 @@ import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcherFactory;
 import com.datastax.oss.dsbulk.config.ConfigUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
+import java.time.Duration;
 import java.util.ServiceLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +60,7 @@ public class BatchSettings {
   private static final String MAX_SIZE_IN_BYTES = "maxSizeInBytes";
   private static final String MAX_BATCH_STATEMENTS = "maxBatchStatements";
   private static final String BUFFER_SIZE = "bufferSize";
+  private static final String MAX_BATCH_AGE = "maxBatchAge";
 
   private final Config config;
 
@@ -66,6 +68,7 @@ public class BatchSettings {
   private long maxSizeInBytes;
   private int maxBatchStatements;
   private int bufferSize;
+  private Duration maxBatchAge;
 
   public BatchSettings(Config config) {
     this.config = config;
@@ -123,6 +126,8 @@ public class BatchSettings {
                     + "See settings.md for more information.",
                 bufferSize, maxBatchStatements));
       }
+
+      maxBatchAge = config.getDuration(MAX_BATCH_AGE);
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.batch");
     }
@@ -136,6 +141,10 @@ public class BatchSettings {
     return bufferSize;
   }
 
+  public Duration getMaxBatchAge() {
+    return maxBatchAge;
+  }
+
   public ReactiveStatementBatcher newStatementBatcher(CqlSession session) {
     ServiceLoader<ReactiveStatementBatcherFactory> loader =
         ServiceLoader.load(ReactiveStatementBatcherFactory.class);
@@ -27,6 +27,7 @@ public class EngineSettings {
   private static final String EXECUTION_ID = "executionId";
   private static final String MAX_CONCURRENT_QUERIES = "maxConcurrentQueries";
   private static final String DATA_SIZE_SAMPLING_ENABLED = "dataSizeSamplingEnabled";
+  private static final String ADAPTIVE_CONCURRENCY = "adaptiveConcurrency";
 
   private final Config config;
 
@@ -34,6 +35,7 @@ public class EngineSettings {
   private String executionId;
   private int maxConcurrentQueries;
   private boolean dataSizeSamplingEnabled;
+  private boolean adaptiveConcurrency;
 
   EngineSettings(Config config) {
     this.config = config;
@@ -48,6 +50,7 @@ public class EngineSettings {
               ? -1
               : ConfigUtils.getThreads(config, MAX_CONCURRENT_QUERIES);
       dataSizeSamplingEnabled = config.getBoolean(DATA_SIZE_SAMPLING_ENABLED);
+      adaptiveConcurrency = config.getBoolean(ADAPTIVE_CONCURRENCY);
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.engine");
     }
@@ -68,4 +71,8 @@ public class EngineSettings {
   public boolean isDataSizeSamplingEnabled() {
     return dataSizeSamplingEnabled;
   }
+
+  public boolean isAdaptiveConcurrency() {
+    return adaptiveConcurrency;
+  }
 }
@@ -48,6 +48,7 @@ public class ExecutorSettings {
   private int maxPerSecond;
   private long maxBytesPerSecond;
   private int maxInFlight;
+  private int maxInFlightPerNode;
   private boolean continuousPagingEnabled;
 
   ExecutorSettings(Config config) {
@@ -59,6 +60,7 @@ public class ExecutorSettings {
       maxPerSecond = config.getInt("maxPerSecond");
       maxBytesPerSecond = ConfigUtils.getBytes(config, "maxBytesPerSecond");
       maxInFlight = config.getInt("maxInFlight");
+      maxInFlightPerNode = config.getInt("maxInFlightPerNode");
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.executor");
     }
@@ -126,6 +128,7 @@ public class ExecutorSettings {
     builder
         .withExecutionListener(executionListener)
         .withMaxInFlightRequests(maxInFlight)
+        .withMaxInFlightRequestsPerNode(maxInFlightPerNode)
         .withMaxRequestsPerSecond(maxPerSecond)
         .withMaxBytesPerSecond(maxBytesPerSecond)
         .failSafe();
@@ -52,12 +52,14 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
@@ -153,6 +155,8 @@ public class LogSettings {
   private boolean checkpointEnabled;
   private ReplayStrategy checkpointReplayStrategy;
   private CheckpointManager checkpointManager;
+  private Duration checkpointFlushInterval;
+  private boolean checkpointResumed;
 
   public LogSettings(Config config, String executionId) {
     this.config = config;
@@ -215,6 +219,7 @@ public class LogSettings {
       sources = config.getBoolean(SOURCES);
       checkpointEnabled = config.getBoolean("checkpoint.enabled");
       checkpointReplayStrategy = config.getEnum(ReplayStrategy.class, "checkpoint.replayStrategy");
+      checkpointFlushInterval = config.getDuration("checkpoint.flushInterval");
       if (config.hasPath("checkpoint.file")) {
         Path path = ConfigUtils.getPath(config, "checkpoint.file");
         try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
@@ -226,13 +231,15 @@ public class LogSettings {
                   "Nothing to replay using replay strategy %s in checkpoint file: %s.",
                   checkpointReplayStrategy, path));
         }
+        checkpointResumed = true;
         LOGGER.warn("Replaying from checkpoint file: {}.", path);
         LOGGER.warn(
             "Record metrics will reflect totals from the previous operation; other metrics won't be affected.");
         LOGGER.warn(
             "Only errors and rejected records generated by the current operation will be reported in its log files.");
       } else {
-        checkpointManager = new CheckpointManager();
+        // use a concurrent map since this instance will be used in LogManager by multiple threads.
+        checkpointManager = new CheckpointManager(new ConcurrentHashMap<>());
       }
     } catch (ConfigException e) {
       throw ConfigUtils.convertConfigException(e, "dsbulk.log");
@@ -289,7 +296,8 @@ public class LogSettings {
         rowFormatter,
         checkpointEnabled,
         checkpointManager,
-        checkpointReplayStrategy);
+        checkpointReplayStrategy,
+        checkpointFlushInterval);
   }
 
   @NonNull
@@ -307,6 +315,11 @@ public class LogSettings {
     return sources;
   }
 
+  /** Whether the operation is resuming from a checkpoint file created by a previous operation. */
+  public boolean isResumingFromCheckpoint() {
+    return checkpointResumed;
+  }
+
   @VisibleForTesting
   public static void createMainLogFileAppender(Path mainLogFile) {
     ch.qos.logback.classic.Logger root =
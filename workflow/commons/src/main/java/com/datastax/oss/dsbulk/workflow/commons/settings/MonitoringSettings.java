@@ -45,6 +45,7 @@ public class MonitoringSettings {
   private static final String EXPECTED_WRITES = "expectedWrites";
   private static final String EXPECTED_READS = "expectedReads";
   private static final String TRACK_BYTES = "trackBytes";
+  private static final String RECORD_READS_PER_PAGE = "recordReadsPerPage";
   private static final String JMX = "jmx";
   private static final String CSV = "csv";
   private static final String CONSOLE = "console";
@@ -59,6 +60,7 @@ public class MonitoringSettings {
   private long expectedWrites;
   private long expectedReads;
   private boolean trackBytes;
+  private boolean recordReadsPerPage;
   private boolean jmx;
   private boolean csv;
   private boolean console;
@@ -88,6 +90,7 @@ public class MonitoringSettings {
       expectedWrites = config.getLong(EXPECTED_WRITES);
       expectedReads = config.getLong(EXPECTED_READS);
       trackBytes = config.getBoolean(TRACK_BYTES);
+      recordReadsPerPage = config.getBoolean(RECORD_READS_PER_PAGE);
       jmx = config.getBoolean(JMX);
       csv = config.getBoolean(CSV);
       console = config.getBoolean(CONSOLE);
@@ -156,6 +159,7 @@ public class MonitoringSettings {
         expectedWrites,
         expectedReads,
         trackBytes,
+        recordReadsPerPage,
         jmx,
         csv,
         console,
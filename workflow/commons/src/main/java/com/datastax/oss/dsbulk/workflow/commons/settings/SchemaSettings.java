@@ -44,6 +44,7 @@ import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.IndexMetadata;
 import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
@@ -58,6 +59,7 @@ import com.datastax.oss.driver.api.core.type.MapType;
 import com.datastax.oss.driver.api.core.type.SetType;
 import com.datastax.oss.driver.api.core.type.UserDefinedType;
 import com.datastax.oss.driver.api.core.type.reflect.GenericType;
+import com.datastax.oss.driver.internal.core.metadata.token.DefaultTokenMap;
 import com.datastax.oss.driver.shaded.guava.common.base.Preconditions;
 import com.datastax.oss.driver.shaded.guava.common.base.Predicates;
 import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableList;
@@ -84,7 +86,9 @@ import com.datastax.oss.dsbulk.mapping.MappingField;
 import com.datastax.oss.dsbulk.mapping.MappingInspector;
 import com.datastax.oss.dsbulk.mapping.MappingPreference;
 import com.datastax.oss.dsbulk.mapping.TypedCQLLiteral;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
 import com.datastax.oss.dsbulk.partitioner.TokenRangeReadStatementGenerator;
+import com.datastax.oss.dsbulk.partitioner.TokenRangeSizeEstimates;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultCounter;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.schema.DefaultRecordMapper;
@@ -96,6 +100,7 @@ import com.datastax.oss.dsbulk.workflow.commons.schema.RecordMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode;
 import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
 import com.datastax.oss.dsbulk.workflow.commons.utils.GraphUtils;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
@@ -147,6 +152,8 @@ public class SchemaSettings {
   private static final String PRESERVE_TTL = "preserveTtl";
   private static final String CORE = "Core";
   private static final String SPLITS = "splits";
+  private static final String SPLIT_BY_SIZE = "splitBySize";
+  private static final String SPLIT_SLOW_RANGES = "splitSlowRanges";
 
   private static final Predicate<FunctionCall> WRITETIME_OR_TTL =
       fc -> fc.getFunctionName().equals(WRITETIME) || fc.getFunctionName().equals(TTL);
@@ -158,6 +165,8 @@ public class SchemaSettings {
   private boolean allowExtraFields;
   private boolean allowMissingFields;
   private int splits;
+  private boolean splitBySize;
+  private boolean splitSlowRanges;
   private MappingInspector mapping;
   private int ttlSeconds;
   private long timestampMicros;
@@ -172,6 +181,7 @@ public class SchemaSettings {
   private List<PreparedStatement> preparedStatements;
   private MappingPreference mappingPreference;
   private ConvertingCodecFactory codecFactory;
+  private boolean countPushDown;
 
   public SchemaSettings(Config config, SchemaGenerationStrategy schemaGenerationStrategy) {
     this.config = config;
@@ -473,6 +483,8 @@ public class SchemaSettings {
       allowExtraFields = config.getBoolean(ALLOW_EXTRA_FIELDS);
       allowMissingFields = config.getBoolean(ALLOW_MISSING_FIELDS);
       splits = ConfigUtils.getThreads(config, SPLITS);
+      splitBySize = config.getBoolean(SPLIT_BY_SIZE);
+      splitSlowRanges = config.getBoolean(SPLIT_SLOW_RANGES);
 
       // Final checks related to graph operations
 
@@ -576,11 +588,31 @@ public class SchemaSettings {
       ConvertingCodecFactory codecFactory,
       EnumSet<StatsSettings.StatisticsMode> modes,
       int numPartitions) {
+    return createReadResultCounter(session, codecFactory, modes, numPartitions, false);
+  }
+
+  /**
+   * Creates a read result counter, optionally pushing the counting down to the server.
+   *
+   * <p>When {@code pushDown} is true, the generated read statements will be of the form {@code
+   * SELECT count(*) FROM ks.t WHERE token(...) > :start AND token(...) <= :end}; push-down is only
+   * possible if {@link #isCountPushDownSupported(EnumSet)} returns true for the given modes.
+   */
+  public ReadResultCounter createReadResultCounter(
+      CqlSession session,
+      ConvertingCodecFactory codecFactory,
+      EnumSet<StatsSettings.StatisticsMode> modes,
+      int numPartitions,
+      boolean pushDown) {
     if (!schemaGenerationStrategy.isReading() || !schemaGenerationStrategy.isCounting()) {
       throw new IllegalStateException(
           "Cannot create read result counter when schema generation strategy is "
               + schemaGenerationStrategy);
     }
+    if (pushDown && !isCountPushDownSupported(modes)) {
+      throw new IllegalStateException("Cannot push down counting with stats.modes = " + modes);
+    }
+    countPushDown = pushDown;
     prepareStatementAndCreateMapping(session, false, modes);
     if (modes.contains(StatisticsMode.partitions) && table.getClusteringColumns().isEmpty()) {
       throw new IllegalArgumentException(
@@ -597,6 +629,14 @@ public class SchemaSettings {
         codecFactory);
   }
 
+  /**
+   * Whether counting can be pushed down to the server: this is only possible when counting global
+   * totals, ranges or hosts, and when the query is generated by DSBulk.
+   */
+  public boolean isCountPushDownSupported(EnumSet<StatisticsMode> modes) {
+    return !config.hasPath(QUERY) && !modes.contains(StatisticsMode.partitions);
+  }
+
   public List<RangeReadBoundStatement> createReadStatements(@NonNull CqlSession session) {
     PreparedStatement preparedStatement = preparedStatements.get(0);
     ColumnDefinitions variables = preparedStatement.getVariableDefinitions();
@@ -628,18 +668,17 @@ public class SchemaSettings {
                 + "the WHERE clause is only allowed to contain one token range restriction "
                 + "of the form: WHERE token(...) > ? AND token(...) <= ?");
       }
-      statements =
-          generator.generate(
-              splits,
-              range ->
-                  preparedStatement
-                      .bind()
-                      .setToken(
-                          queryInspector.getTokenRangeRestrictionStartVariableIndex(),
-                          range.getStart())
-                      .setToken(
-                          queryInspector.getTokenRangeRestrictionEndVariableIndex(),
-                          range.getEnd()));
+      TokenRangeSizeEstimates estimates = null;
+      if (splitBySize) {
+        estimates = generator.fetchSizeEstimates(session);
+        if (estimates.isEmpty()) {
+          LOGGER.warn(
+              "No size estimates available for table {}, splitting token ranges by ring fraction",
+              tableName.render(VARIABLE));
+          estimates = null;
+        }
+      }
+      statements = generator.generate(splits, estimates, this::bindReadStatement);
     }
 
     LOGGER.debug("Generated {} token range read statements", statements.size());
@@ -652,12 +691,72 @@ public class SchemaSettings {
       RangeReadBoundStatement stmt = new RangeReadBoundStatement(bs, range, resource);
       statementsList.add(stmt);
     }
-    // Shuffle the statements to avoid hitting the same replicas sequentially when
-    // the statements will be executed.
+    // Shuffle the statements so that ranges sharing the same replicas are not read in ring
+    // order; RangeReadScheduler then balances concurrent scans across replica sets.
     Collections.shuffle(statementsList);
     return statementsList;
   }
 
+  /**
+   * Creates a splitter for the statements returned by {@link #createReadStatements(CqlSession)}, to
+   * read sub-ranges of their token ranges.
+   *
+   * @return the splitter, or {@code null} if the read statements cannot be split, because they
+   *     don't restrict token ranges, or because they don't select all the partition key columns.
+   */
+  @Nullable
+  public RangeReadStatementSplitter createReadStatementSplitter(@NonNull CqlSession session) {
+    PreparedStatement preparedStatement = preparedStatements.get(0);
+    if (preparedStatement.getVariableDefinitions().size() == 0) {
+      return null;
+    }
+    ColumnDefinitions columns = preparedStatement.getResultSetDefinitions();
+    List<ColumnMetadata> partitionKey = table.getPartitionKey();
+    int[] partitionKeyIndices = new int[partitionKey.size()];
+    for (int i = 0; i < partitionKey.size(); i++) {
+      ColumnMetadata pk = partitionKey.get(i);
+      int index = columns.firstIndexOf(pk.getName());
+      if (index == -1 || !columns.get(index).getType().equals(pk.getType())) {
+        if (splitSlowRanges) {
+          LOGGER.warn(
+              "Slow token ranges cannot be split because the read query does not select "
+                  + "all the partition key columns of table {}",
+              tableName.render(VARIABLE));
+        }
+        return null;
+      }
+      partitionKeyIndices[i] = index;
+    }
+    TokenMap tokenMap =
+        session
+            .getMetadata()
+            .getTokenMap()
+            .orElseThrow(() -> new IllegalStateException("Token metadata not present"));
+    BulkTokenFactory tokenFactory =
+        BulkTokenFactory.forPartitioner(
+            ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+    return new RangeReadStatementSplitter(
+        tokenFactory,
+        table.getKeyspace(),
+        table.getName(),
+        this::bindReadStatement,
+        partitionKeyIndices);
+  }
+
+  /** Whether to split the remainder of slow token ranges at the end of read operations. */
+  public boolean isSplitSlowRanges() {
+    return splitSlowRanges;
+  }
+
+  @NonNull
+  private BoundStatement bindReadStatement(@NonNull TokenRange range) {
+    return preparedStatements
+        .get(0)
+        .bind()
+        .setToken(queryInspector.getTokenRangeRestrictionStartVariableIndex(), range.getStart())
+        .setToken(queryInspector.getTokenRangeRestrictionEndVariableIndex(), range.getEnd());
+  }
+
   @NonNull
   public RowType getRowType() {
     boolean isTable = table instanceof DseTableMetadata;
@@ -1583,7 +1682,11 @@ public class SchemaSettings {
   private String inferCountQuery(EnumSet<StatisticsMode> modes) {
     StringBuilder sb = new StringBuilder("SELECT ");
     List<ColumnMetadata> partitionKey = table.getPartitionKey();
-    if (modes.contains(StatisticsMode.ranges)
+    if (countPushDown) {
+      // the server counts the rows in each range; when counting ranges or hosts, read statements
+      // are further split at ring boundaries so that each count belongs to one single range.
+      sb.append("count(*)");
+    } else if (modes.contains(StatisticsMode.ranges)
         || modes.contains(StatisticsMode.hosts)
         || modes.contains(StatisticsMode.partitions)) {
       if (modes.contains(StatisticsMode.partitions)) {
@@ -0,0 +1,181 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.statement;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.util.RoutingKey;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Creates range read statements for arbitrary sub-ranges of a table's token ranges, and locates the
+ * rows they return on the token ring. Used to split the unread remainder of a range read into
+ * smaller range reads.
+ *
+ * <p>Rows are located by hashing their partition key, which must therefore be fully selected by the
+ * read statements.
+ */
+public class RangeReadStatementSplitter {
+
+  private final BulkTokenFactory tokenFactory;
+  private final CqlIdentifier keyspace;
+  private final CqlIdentifier table;
+  private final Function<TokenRange, BoundStatement> statementFactory;
+  private final int[] partitionKeyIndices;
+
+  /**
+   * @param tokenFactory The token factory of the cluster's partitioner.
+   * @param keyspace The keyspace of the table to read.
+   * @param table The table to read.
+   * @param statementFactory The factory to use to create a read statement for a given range.
+   * @param partitionKeyIndices The indices of the partition key columns in the rows returned by the
+   *     read statements, in partition key order.
+   */
+  public RangeReadStatementSplitter(
+      @NonNull BulkTokenFactory tokenFactory,
+      @NonNull CqlIdentifier keyspace,
+      @NonNull CqlIdentifier table,
+      @NonNull Function<TokenRange, BoundStatement> statementFactory,
+      @NonNull int[] partitionKeyIndices) {
+    this.tokenFactory = tokenFactory;
+    this.keyspace = keyspace;
+    this.table = table;
+    this.statementFactory = statementFactory;
+    this.partitionKeyIndices = partitionKeyIndices;
+  }
+
+  /** @return the token of the given row, computed from its partition key. */
+  @NonNull
+  public Token getToken(@NonNull Row row) {
+    ByteBuffer key;
+    if (partitionKeyIndices.length == 1) {
+      key = row.getBytesUnsafe(partitionKeyIndices[0]);
+    } else {
+      ByteBuffer[] components = new ByteBuffer[partitionKeyIndices.length];
+      for (int i = 0; i < partitionKeyIndices.length; i++) {
+        components[i] = row.getBytesUnsafe(partitionKeyIndices[i]);
+      }
+      key = RoutingKey.compose(components);
+    }
+    return tokenFactory.hash(key);
+  }
+
+  /**
+   * Returns whether the given range can be split. Rows are returned in token order only for ranges
+   * that do not wrap around the ring.
+   */
+  public boolean isSplittable(@NonNull TokenRange range) {
+    return range.getStart().compareTo(range.getEnd()) < 0
+        || (range.getEnd().equals(tokenFactory.minToken())
+            && !range.getStart().equals(range.getEnd()));
+  }
+
+  /**
+   * Returns the ring fraction covered by the range {@code (start, end]}; this is zero if both
+   * tokens are equal.
+   */
+  public double fraction(@NonNull Token start, @NonNull Token end) {
+    if (start.equals(end)) {
+      return 0;
+    }
+    return range(start, end).fraction();
+  }
+
+  /** @return the range {@code (start, end]}. */
+  @NonNull
+  public BulkTokenRange range(@NonNull Token start, @NonNull Token end) {
+    return tokenFactory.range(start, end, Collections.emptySet());
+  }
+
+  /**
+   * Splits the range {@code (start, end]} into {@code splitCount} sub-ranges of roughly the same
+   * size.
+   */
+  @NonNull
+  public List<BulkTokenRange> split(@NonNull Token start, @NonNull Token end, int splitCount) {
+    BulkTokenRange range = range(start, end);
+    if (splitCount <= 1) {
+      return Collections.singletonList(range);
+    }
+    return tokenFactory.splitter().split(range, splitCount);
+  }
+
+  /**
+   * Creates a statement reading the given range.
+   *
+   * @param range The range to read.
+   * @param resource The resource URI of the statement; usually, the URI of the range itself.
+   */
+  @NonNull
+  public RangeReadBoundStatement newStatement(@NonNull TokenRange range, @NonNull URI resource) {
+    BoundStatement bs = statementFactory.apply(range);
+    if (bs.getKeyspace() == null) {
+      bs = bs.setRoutingKeyspace(keyspace);
+    }
+    bs = bs.setRoutingToken(range.getEnd());
+    return new RangeReadBoundStatement(bs, range, resource);
+  }
+
+  /** @return the resource URI of the given range. */
+  @NonNull
+  public URI getResource(@NonNull TokenRange range) {
+    return RangeReadStatement.rangeReadResource(keyspace, table, range);
+  }
+
+  /**
+   * Parses a resource URI created by {@link #getResource(TokenRange)}.
+   *
+   * @return the range designated by the URI, or {@code null} if the URI does not designate a range
+   *     of the table read by this splitter.
+   */
+  @Nullable
+  public TokenRange parseResource(@NonNull URI resource) {
+    if (!"cql".equals(resource.getScheme())
+        || !keyspace.asInternal().equals(resource.getAuthority())
+        || !("/" + table.asInternal()).equals(resource.getPath())
+        || resource.getQuery() == null) {
+      return null;
+    }
+    String start = null;
+    String end = null;
+    for (String param : resource.getQuery().split("&")) {
+      if (param.startsWith("start=")) {
+        start = param.substring("start=".length());
+      } else if (param.startsWith("end=")) {
+        end = param.substring("end=".length());
+      }
+    }
+    if (start == null || end == null) {
+      return null;
+    }
+    try {
+      return range(tokenFactory.parse(start), tokenFactory.parse(end));
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  void should_increase_limit_when_latency_is_stable() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+    for (int i = 0; i < 100; i++) {
+      limiter.sample(LATENCY, false);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void should_decrease_limit_when_overloaded() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 10);
+    for (int i = 0; i < 8; i++) {
+      limiter.sample(LATENCY, i == 0);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(6);
+  }
+
+  @Test
+  void should_decrease_limit_when_latency_increases() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20);
+    for (int i = 0; i < 10; i++) {
+      limiter.sample(LATENCY, false);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(11);
+    for (int i = 0; i < 11; i++) {
+      limiter.sample(LATENCY * 2, false);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(9);
+  }
+
+  @Test
+  void should_not_go_below_min_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 10);
+    for (int i = 0; i < 100; i++) {
+      limiter.sample(LATENCY, true);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  void should_reject_invalid_bounds() {
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(1, 0, 10))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("minLimit must be strictly positive");
+    assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(1, 5, 4))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("maxLimit must be >= minLimit");
+  }
+
+  @Test
+  void should_register_limit_gauge() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+    MetricRegistry registry = new MetricRegistry();
+    limiter.registerMetrics(registry);
+    Gauge<?> gauge = registry.getGauges().get("executor/concurrency-limit");
+    assertThat(gauge.getValue()).isEqualTo(4);
+  }
+
+  @Test
+  void should_execute_all_operations_without_exceeding_limit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 4);
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    List<Integer> results =
+        limiter
+            .execute(
+                Flux.range(0, 100),
+                i ->
+                    Mono.fromCallable(
+                            () -> {
+                              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                              return i;
+                            })
+                        .delayElement(Duration.ofMillis(1), Schedulers.parallel())
+                        .doOnNext(v -> inFlight.decrementAndGet()))
+            .collectList()
+            .block(Duration.ofSeconds(10));
+    assertThat(results).hasSize(100).containsOnlyElementsOf(Flux.range(0, 100).toIterable());
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void should_propagate_operation_errors() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 4);
+    IllegalStateException error = new IllegalStateException("boom");
+    assertThatThrownBy(
+            () ->
+                limiter
+                    .execute(
+                        Flux.range(0, 100),
+                        i -> i == 50 ? Mono.<Integer>error(error) : Mono.just(i))
+                    .blockLast(Duration.ofSeconds(10)))
+        .isSameAs(error);
+  }
+}
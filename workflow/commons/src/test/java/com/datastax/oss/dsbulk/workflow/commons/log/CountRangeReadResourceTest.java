@@ -0,0 +1,214 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newToken;
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newTokenRange;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.dsbulk.executor.api.exception.BulkExecutionException;
+import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.workflow.commons.schema.RangeCountResult;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+class CountRangeReadResourceTest {
+
+  private static final Token MIN = newToken(Long.MIN_VALUE);
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+  private final List<Token> ring = Arrays.asList(newToken(-100), newToken(0), newToken(100));
+  private final List<TokenRange> executed = new ArrayList<>();
+
+  private BulkReader executor;
+  private PreparedStatement ps;
+
+  @BeforeEach
+  void setUp() {
+    executor = mock(BulkReader.class);
+    ps = mock(PreparedStatement.class);
+    when(ps.bind()).thenAnswer(invocation -> mock(BoundStatement.class, RETURNS_SELF));
+  }
+
+  @Test
+  void should_split_range_at_ring_boundaries() {
+    CountRangeReadResource resource =
+        new CountRangeReadResource(statement(-50, 50), executor, tokenFactory, ring);
+    assertThat(resource.pieces(range(-50, 50))).containsExactly(range(-50, 0), range(0, 50));
+    assertThat(resource.pieces(range(-100, 0))).containsExactly(range(-100, 0));
+    assertThat(resource.pieces(range(50, -50)))
+        .containsExactly(
+            range(50, 100),
+            newTokenRange(newToken(100), MIN),
+            newTokenRange(MIN, newToken(-100)),
+            range(-100, -50));
+    assertThat(resource.pieces(newTokenRange(MIN, MIN)))
+        .containsExactly(
+            newTokenRange(MIN, newToken(-100)),
+            range(-100, 0),
+            range(0, 100),
+            newTokenRange(newToken(100), MIN));
+  }
+
+  @Test
+  void should_not_split_range_when_ring_is_empty() {
+    CountRangeReadResource resource =
+        new CountRangeReadResource(
+            statement(-50, 50), executor, tokenFactory, Collections.emptyList());
+    assertThat(resource.pieces(range(-50, 50))).containsExactly(range(-50, 50));
+  }
+
+  @Test
+  void should_count_range_in_pieces() {
+    mockExecutor(range -> 10L);
+    RangeReadBoundStatement statement = statement(-50, 50);
+    CountRangeReadResource resource =
+        new CountRangeReadResource(statement, executor, tokenFactory, ring);
+    ReadResult result = Flux.from(resource.read()).single().block();
+    assertThat(result).isInstanceOf(RangeCountResult.class);
+    RangeCountResult count = (RangeCountResult) result;
+    assertThat(count.getStatement()).isSameAs(statement);
+    assertThat(count.getRanges()).containsExactly(range(-50, 0), range(0, 50));
+    assertThat(count.getCount(0)).isEqualTo(10);
+    assertThat(count.getCount(1)).isEqualTo(10);
+    assertThat(count.getTotal()).isEqualTo(20);
+    assertThat(count.getPosition()).isEqualTo(20);
+    assertThat(executed).containsExactly(range(-50, 0), range(0, 50));
+  }
+
+  @Test
+  void should_split_range_when_count_times_out() {
+    // ranges wider than 100 tokens time out
+    mockExecutor(range -> size(range) > 100 ? null : 10L);
+    CountRangeReadResource resource =
+        new CountRangeReadResource(
+            statement(0, 400), executor, tokenFactory, Collections.emptyList());
+    ReadResult result = Flux.from(resource.read()).single().block();
+    assertThat(result).isInstanceOf(RangeCountResult.class);
+    RangeCountResult count = (RangeCountResult) result;
+    assertThat(count.getRanges()).containsExactly(range(0, 400));
+    assertThat(count.getTotal()).isEqualTo(40);
+    assertThat(executed)
+        .containsExactly(
+            range(0, 400), range(0, 100), range(100, 200), range(200, 300), range(300, 400));
+  }
+
+  @Test
+  void should_emit_failed_result_when_count_keeps_timing_out() {
+    mockExecutor(range -> null);
+    RangeReadBoundStatement statement = statement(0, 1_000_000);
+    CountRangeReadResource resource =
+        new CountRangeReadResource(statement, executor, tokenFactory, Collections.emptyList());
+    ReadResult result = Flux.from(resource.read()).single().block();
+    assertThat(result).isNotInstanceOf(RangeCountResult.class);
+    assertThat(result.isSuccess()).isFalse();
+    assertThat(result.getPosition()).isEqualTo(-1);
+    assertThat(result.getError())
+        .hasValueSatisfying(
+            error -> assertThat(error).hasCauseInstanceOf(DriverTimeoutException.class));
+    // the first sub-range at each depth fails, and the remaining ones are never counted
+    assertThat(executed).hasSize(1 + CountRangeReadResource.MAX_SPLIT_DEPTH);
+  }
+
+  @Test
+  void should_emit_failed_result_when_count_fails() {
+    when(executor.readReactive(any(Statement.class)))
+        .thenAnswer(
+            invocation -> {
+              throw new IllegalStateException("boom");
+            });
+    CountRangeReadResource resource =
+        new CountRangeReadResource(statement(-50, 50), executor, tokenFactory, ring);
+    ReadResult result = Flux.from(resource.read()).single().block();
+    assertThat(result.isSuccess()).isFalse();
+    assertThat(result.getError())
+        .hasValueSatisfying(
+            error -> assertThat(error).hasRootCauseInstanceOf(IllegalStateException.class));
+  }
+
+  /** Mocks the executor; the count function returns null to simulate a timeout. */
+  private void mockExecutor(Function<TokenRange, Long> counts) {
+    when(executor.readReactive(any(Statement.class)))
+        .thenAnswer(
+            invocation -> {
+              Statement<?> stmt = invocation.getArgument(0);
+              TokenRange range = newTokenRange(token(stmt, "start"), token(stmt, "end"));
+              executed.add(range);
+              Long count = counts.apply(range);
+              ReadResult result;
+              if (count == null) {
+                result =
+                    new DefaultReadResult(
+                        new BulkExecutionException(new DriverTimeoutException("timeout"), stmt));
+              } else {
+                Row row = mock(Row.class);
+                when(row.getLong(0)).thenReturn(count);
+                result = new DefaultReadResult(stmt, mock(ExecutionInfo.class), row, 1);
+              }
+              return (Publisher<ReadResult>) Flux.just(result);
+            });
+  }
+
+  private RangeReadBoundStatement statement(long start, long end) {
+    BoundStatement bs = mock(BoundStatement.class);
+    when(bs.getPreparedStatement()).thenReturn(ps);
+    return new RangeReadBoundStatement(
+        bs, range(start, end), URI.create("cql://ks/t?start=" + start + "&end=" + end));
+  }
+
+  private static TokenRange range(long start, long end) {
+    return newTokenRange(newToken(start), newToken(end));
+  }
+
+  private static long size(TokenRange range) {
+    return ((Murmur3Token) range.getEnd()).getValue()
+        - ((Murmur3Token) range.getStart()).getValue();
+  }
+
+  private static Token token(Statement<?> stmt, String name) {
+    return mockingDetails(stmt).getInvocations().stream()
+        .filter(i -> i.getMethod().getName().equals("setToken") && i.getArgument(0).equals(name))
+        .map(i -> (Token) i.getArgument(1))
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+  }
+}
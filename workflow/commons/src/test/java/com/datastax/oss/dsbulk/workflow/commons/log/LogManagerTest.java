@@ -23,6 +23,7 @@ import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.mockSession;
 import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.ReplayStrategy.resume;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Fail.fail;
+import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.slf4j.event.Level.WARN;
@@ -80,6 +81,8 @@ import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.assertj.core.api.Assertions;
@@ -89,7 +92,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 @ExtendWith(LogInterceptingExtension.class)
 class LogManagerTest {
@@ -1161,6 +1166,115 @@ class LogManagerTest {
         .contains("java.lang.RuntimeException: error 1");
   }
 
+  @Test
+  void should_flush_checkpoints_periodically() throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    LogManager logManager =
+        new LogManager(
+            session,
+            outputDir,
+            ErrorThreshold.forAbsoluteValue(3),
+            ErrorThreshold.forAbsoluteValue(0),
+            statementFormatter,
+            EXTENDED,
+            rowFormatter,
+            true,
+            new CheckpointManager(),
+            ReplayStrategy.resume,
+            Duration.ofMillis(50));
+    logManager.init();
+    MockAsyncResultSet rs = new MockAsyncResultSet(0, null, null);
+    Path checkpointFile = outputDir.resolve("checkpoint.csv");
+    // a flow that never terminates, as if the process was killed while loading
+    Disposable running =
+        Flux.<WriteResult>just(
+                new DefaultWriteResult(mockMappedBoundStatement(1, "line1", resource1), rs),
+                new DefaultWriteResult(mockMappedBoundStatement(2, "line2", resource1), rs))
+            .concatWith(Flux.never())
+            .transform(logManager.newSuccessfulWritesHandler())
+            .subscribe();
+    try {
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () ->
+                  assertThat(
+                          Files.exists(checkpointFile)
+                              ? Files.readAllLines(checkpointFile, UTF_8)
+                              : Lists.emptyList())
+                      .containsExactly("file:///file1.csv;0;0;1:2;"));
+      // terminated flows are accounted for too
+      Flux.<WriteResult>just(
+              new DefaultWriteResult(mockMappedBoundStatement(3, "line3", resource1), rs))
+          .transform(logManager.newSuccessfulWritesHandler())
+          .blockLast();
+      await()
+          .atMost(Duration.ofSeconds(10))
+          .untilAsserted(
+              () ->
+                  assertThat(Files.readAllLines(checkpointFile, UTF_8))
+                      .containsExactly("file:///file1.csv;0;0;1:3;"));
+    } finally {
+      running.dispose();
+      logManager.close();
+    }
+    assertThat(FileUtils.listAllFilesInDirectory(outputDir)).containsOnly(checkpointFile);
+  }
+
+  @Test
+  void should_copy_consistent_checkpoints_while_resources_are_being_read() throws Exception {
+    Path outputDir = Files.createTempDirectory("test");
+    LogManager logManager =
+        new LogManager(
+            session,
+            outputDir,
+            ErrorThreshold.forAbsoluteValue(3),
+            ErrorThreshold.forAbsoluteValue(0),
+            statementFormatter,
+            EXTENDED,
+            rowFormatter,
+            true,
+            new CheckpointManager(),
+            ReplayStrategy.resume);
+    logManager.init();
+    int numResources = 1_000;
+    int numRecords = 100;
+    List<Resource> resources = new ArrayList<>();
+    for (int i = 0; i < numResources; i++) {
+      URI resource = URI.create("file:///file" + i + ".csv");
+      resources.add(
+          new DefaultResource(
+              resource,
+              Flux.range(1, numRecords)
+                  .map(j -> DefaultRecord.indexed("line" + j, resource, j, "line" + j))));
+    }
+    Disposable running =
+        Flux.fromIterable(resources)
+            .transform(logManager.newConnectorCheckpointHandler())
+            .flatMap(records -> records.subscribeOn(Schedulers.parallel()))
+            .subscribe();
+    try {
+      // emulate the flush thread
+      while (!running.isDisposed()) {
+        Map<URI, Checkpoint> checkpoints = getCheckpoints(logManager.mergeCheckpointManagers());
+        for (Checkpoint checkpoint : checkpoints.values()) {
+          if (checkpoint.isComplete()) {
+            assertThat(checkpoint.getProduced()).isEqualTo(numRecords);
+          }
+        }
+      }
+      Map<URI, Checkpoint> checkpoints = getCheckpoints(logManager.mergeCheckpointManagers());
+      assertThat(checkpoints).hasSize(numResources);
+      for (Checkpoint checkpoint : checkpoints.values()) {
+        assertThat(checkpoint.isComplete()).isTrue();
+        assertThat(checkpoint.getProduced()).isEqualTo(numRecords);
+      }
+    } finally {
+      running.dispose();
+      logManager.close();
+    }
+  }
+
   @ParameterizedTest
   @EnumSource(ReplayStrategy.class)
   void should_resume_operation_when_loading(ReplayStrategy strategy) throws Exception {
@@ -0,0 +1,321 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.log;
+
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newToken;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.EndPoint;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.internal.core.metadata.DefaultEndPoint;
+import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
+import com.datastax.oss.dsbulk.executor.api.result.DefaultReadResult;
+import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import com.datastax.oss.dsbulk.partitioner.utils.TokenUtils;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class RangeReadSchedulerTest {
+
+  private static final CqlIdentifier KS = CqlIdentifier.fromInternal("ks");
+  private static final CqlIdentifier TABLE = CqlIdentifier.fromInternal("t");
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+  private final RangeReadStatementSplitter splitter =
+      new RangeReadStatementSplitter(
+          tokenFactory,
+          KS,
+          TABLE,
+          range -> mock(BoundStatement.class, RETURNS_SELF),
+          new int[] {0});
+  private final List<Row> rows = new ArrayList<>();
+  private final List<TokenRange> executed = new CopyOnWriteArrayList<>();
+
+  private BulkReader executor;
+
+  @BeforeEach
+  void setUp() {
+    for (long pk = 0; pk < 100; pk++) {
+      Row row = mock(Row.class);
+      ByteBuffer key = TypeCodecs.BIGINT.encode(pk, ProtocolVersion.DEFAULT);
+      when(row.getBytesUnsafe(0)).thenReturn(key);
+      when(row.getLong(0)).thenReturn(pk);
+      rows.add(row);
+    }
+    // range reads return rows in token order
+    rows.sort(Comparator.comparing(splitter::getToken));
+    executor = mock(BulkReader.class);
+    when(executor.readReactive(any(Statement.class)))
+        .thenAnswer(
+            invocation -> {
+              RangeReadBoundStatement stmt = invocation.getArgument(0);
+              TokenRange range = stmt.getTokenRange();
+              executed.add(range);
+              List<ReadResult> results = new ArrayList<>();
+              for (Row row : rows) {
+                if (range.contains(splitter.getToken(row))) {
+                  results.add(
+                      new DefaultReadResult(
+                          stmt, mock(ExecutionInfo.class), row, results.size() + 1));
+                }
+              }
+              return (Publisher<ReadResult>)
+                  Flux.fromIterable(results).delayElements(Duration.ofMillis(2));
+            });
+  }
+
+  @Test
+  void should_read_all_ranges_without_splitting() {
+    RangeReadScheduler scheduler =
+        new RangeReadScheduler(
+            statements(), executor, splitter, false, Collections.emptySet(), resource -> {});
+    List<Long> pks = readAll(scheduler);
+    assertThat(pks).hasSize(100).doesNotHaveDuplicates();
+    assertThat(executed).hasSize(2);
+  }
+
+  @Test
+  void should_split_remainder_of_slow_range() {
+    List<RangeReadBoundStatement> statements = statements();
+    List<URI> registered = new CopyOnWriteArrayList<>();
+    RangeReadScheduler scheduler =
+        new RangeReadScheduler(
+            statements, executor, splitter, true, Collections.emptySet(), registered::add);
+    List<RangeReadResource> resources = new CopyOnWriteArrayList<>();
+    List<URI> unregistered = new CopyOnWriteArrayList<>();
+    List<Long> pks =
+        scheduler
+            .resources()
+            .doOnNext(resources::add)
+            .doOnNext(
+                resource -> {
+                  if (statements.stream()
+                          .noneMatch(stmt -> stmt.getResource().equals(resource.getURI()))
+                      && !registered.contains(resource.getURI())) {
+                    unregistered.add(resource.getURI());
+                  }
+                })
+            .flatMap(RangeReadResource::read, 2)
+            .map(result -> result.getRow().orElseThrow(AssertionError::new).getLong(0))
+            .collectList()
+            .block(Duration.ofSeconds(30));
+    // every row is read exactly once
+    assertThat(pks).hasSize(100).doesNotHaveDuplicates();
+    assertThat(executed).hasSizeGreaterThan(2);
+    RangeReadResource slow =
+        resources.stream()
+            .filter(resource -> resource.getURI().equals(statements.get(1).getResource()))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+    assertThat(slow.getSplits()).isNotEmpty();
+    for (RangeReadResource split : slow.getSplits()) {
+      TokenRange range = ((SplittableRangeReadResource) split).getStatement().getTokenRange();
+      assertThat(split.getURI()).isEqualTo(splitter.getResource(range));
+      assertThat(registered).contains(split.getURI());
+    }
+    // sub-ranges are registered before they are emitted
+    assertThat(unregistered).isEmpty();
+  }
+
+  @Test
+  void should_resume_sub_ranges_recorded_in_checkpoint() {
+    List<RangeReadBoundStatement> statements =
+        Arrays.asList(statement(0, 1000), statement(1000, 2000));
+    List<URI> checkpointed =
+        Arrays.asList(
+            resource(0, 1000),
+            resource(1000, 2000),
+            resource(400, 700),
+            resource(700, 1000),
+            resource(500, 600),
+            resource(600, 700),
+            URI.create("cql://ks/other?start=100&end=200"));
+    RangeReadScheduler scheduler =
+        new RangeReadScheduler(statements, executor, splitter, false, checkpointed, resource -> {});
+    List<RangeReadResource> resources =
+        scheduler.resources().collectList().block(Duration.ofSeconds(10));
+    assertThat(resources)
+        .extracting(
+            RangeReadResource::getURI, resource -> start(resource), resource -> end(resource))
+        .containsExactlyInAnyOrder(
+            tuple(resource(0, 1000), 0L, 400L),
+            tuple(resource(400, 700), 400L, 500L),
+            tuple(resource(500, 600), 500L, 600L),
+            tuple(resource(600, 700), 600L, 700L),
+            tuple(resource(700, 1000), 700L, 1000L),
+            tuple(resource(1000, 2000), 1000L, 2000L));
+  }
+
+  @Test
+  void should_read_parts_of_range_not_covered_by_sub_ranges_recorded_in_checkpoint() {
+    List<RangeReadBoundStatement> statements =
+        Arrays.asList(statement(0, 1000), statement(1000, 2000));
+    // the trailing sub-ranges (600,700] and (700,1000] are missing
+    List<URI> checkpointed =
+        Arrays.asList(
+            resource(0, 1000), resource(1000, 2000), resource(400, 700), resource(500, 600));
+    RangeReadScheduler scheduler =
+        new RangeReadScheduler(statements, executor, splitter, false, checkpointed, resource -> {});
+    List<RangeReadResource> resources =
+        scheduler.resources().collectList().block(Duration.ofSeconds(10));
+    assertThat(resources)
+        .extracting(
+            RangeReadResource::getURI, resource -> start(resource), resource -> end(resource))
+        .containsExactlyInAnyOrder(
+            tuple(resource(0, 1000), 0L, 400L),
+            tuple(resource(400, 700), 400L, 500L),
+            tuple(resource(500, 600), 500L, 600L),
+            tuple(resource(600, 1000), 600L, 1000L),
+            tuple(resource(1000, 2000), 1000L, 2000L));
+  }
+
+  @Test
+  void should_balance_concurrent_scans_across_replicas() {
+    EndPoint node1 = endPoint("10.0.0.1");
+    EndPoint node2 = endPoint("10.0.0.2");
+    EndPoint node3 = endPoint("10.0.0.3");
+    // ranges are sorted by replica, as if they were not shuffled
+    List<RangeReadBoundStatement> statements = new ArrayList<>();
+    long start = 0;
+    for (EndPoint node : Arrays.asList(node1, node2, node3)) {
+      for (int i = 0; i < 4; i++) {
+        TokenRange range =
+            tokenFactory.range(newToken(start), newToken(start + 100), Collections.singleton(node));
+        statements.add(splitter.newStatement(range, resource(start, start + 100)));
+        start += 100;
+      }
+    }
+    Map<EndPoint, AtomicInteger> scans = new ConcurrentHashMap<>();
+    Map<EndPoint, AtomicInteger> maxScans = new ConcurrentHashMap<>();
+    RangeReadScheduler scheduler =
+        new RangeReadScheduler(
+            statements,
+            stmt -> {
+              EndPoint node = ((BulkTokenRange) stmt.getTokenRange()).replicas().iterator().next();
+              return new DefaultRangeReadResource(stmt, executor) {
+                @NonNull
+                @Override
+                public Publisher<ReadResult> read() {
+                  return Flux.<ReadResult>empty()
+                      .delaySubscription(Duration.ofMillis(10))
+                      .doOnSubscribe(
+                          s -> {
+                            int n =
+                                scans
+                                    .computeIfAbsent(node, k -> new AtomicInteger())
+                                    .incrementAndGet();
+                            maxScans
+                                .computeIfAbsent(node, k -> new AtomicInteger())
+                                .accumulateAndGet(n, Math::max);
+                          })
+                      .doOnTerminate(() -> scans.get(node).decrementAndGet());
+                }
+              };
+            });
+    List<RangeReadResource> resources =
+        scheduler
+            .resources()
+            .flatMap(resource -> Flux.from(resource.read()).then(Mono.just(resource)), 3)
+            .collectList()
+            .block(Duration.ofSeconds(10));
+    assertThat(resources).hasSize(12);
+    assertThat(maxScans).containsOnlyKeys(node1, node2, node3);
+    assertThat(maxScans.values()).allSatisfy(max -> assertThat(max).hasValue(1));
+  }
+
+  private List<Long> readAll(RangeReadScheduler scheduler) {
+    return scheduler
+        .resources()
+        .flatMap(RangeReadResource::read, 2)
+        .map(result -> result.getRow().orElseThrow(AssertionError::new).getLong(0))
+        .collectList()
+        .block(Duration.ofSeconds(30));
+  }
+
+  /**
+   * Creates two statements: the first one reads an empty range and completes immediately, the
+   * second one reads all the rows.
+   */
+  private List<RangeReadBoundStatement> statements() {
+    return Arrays.asList(
+        statement(Long.MIN_VALUE, Long.MIN_VALUE + 1),
+        statement(Long.MIN_VALUE + 1, Long.MAX_VALUE));
+  }
+
+  private RangeReadBoundStatement statement(long start, long end) {
+    return splitter.newStatement(
+        splitter.range(newToken(start), newToken(end)), resource(start, end));
+  }
+
+  private static EndPoint endPoint(String address) {
+    return new DefaultEndPoint(InetSocketAddress.createUnresolved(address, 9042));
+  }
+
+  private static URI resource(long start, long end) {
+    return URI.create("cql://ks/t?start=" + start + "&end=" + end);
+  }
+
+  private static long start(RangeReadResource resource) {
+    return (long) tokenValue(tokenRange(resource).getStart());
+  }
+
+  private static long end(RangeReadResource resource) {
+    return (long) tokenValue(tokenRange(resource).getEnd());
+  }
+
+  private static TokenRange tokenRange(RangeReadResource resource) {
+    RangeReadResource delegate = ((RangeReadScheduler.ScheduledResource) resource).getResource();
+    return ((SplittableRangeReadResource) delegate).getStatement().getTokenRange();
+  }
+
+  private static Object tokenValue(Token token) {
+    return TokenUtils.getTokenValue(token);
+  }
+}
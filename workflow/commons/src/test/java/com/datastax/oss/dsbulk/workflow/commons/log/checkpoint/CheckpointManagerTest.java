@@ -15,7 +15,7 @@
  */
 package com.datastax.oss.dsbulk.workflow.commons.log.checkpoint;
 
-import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.RangeUtilsTest.r;
+import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.RangeSetTest.r;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
@@ -92,6 +92,26 @@ class CheckpointManagerTest {
         .containsExactly(new Range(1L, 6L));
   }
 
+  @Test
+  void should_update_manager_with_position_ranges() {
+    CheckpointManager manager = new CheckpointManager();
+    manager.update(RESOURCE1, 5, 10, true);
+    assertThat(manager.checkpoints.get(RESOURCE1).getConsumedSuccessful().stream())
+        .containsExactly(new Range(5L, 10L));
+    manager.update(RESOURCE1, 1, 3, true);
+    assertThat(manager.checkpoints.get(RESOURCE1).getConsumedSuccessful().stream())
+        .containsExactly(new Range(1L, 3L), new Range(5L, 10L));
+    manager.update(RESOURCE1, 4, 4, true);
+    assertThat(manager.checkpoints.get(RESOURCE1).getConsumedSuccessful().stream())
+        .containsExactly(new Range(1L, 10L));
+    manager.update(RESOURCE1, 8, 12, false);
+    assertThat(manager.checkpoints.get(RESOURCE1).getConsumedFailed().stream())
+        .containsExactly(new Range(8L, 12L));
+    // empty ranges are ignored
+    manager.update(RESOURCE2, 1, 0, true);
+    assertThat(manager.checkpoints).doesNotContainKey(RESOURCE2);
+  }
+
   @ParameterizedTest
   @MethodSource
   void should_merge_managers(
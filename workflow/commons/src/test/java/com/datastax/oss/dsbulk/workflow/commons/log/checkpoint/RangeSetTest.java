@@ -16,8 +16,15 @@
 package com.datastax.oss.dsbulk.workflow.commons.log.checkpoint;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
+import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -61,7 +68,6 @@ class RangeSetTest {
   }
 
   static Stream<Arguments> should_contain() {
-    // Note: more test cases are covered in RangeUtilsTest.
     return Stream.of(
         Arguments.of(RangeSet.of(), 0, false),
         Arguments.of(RangeSet.of(new Range(0, 0)), 0, true),
@@ -79,7 +85,6 @@ class RangeSetTest {
   }
 
   static Stream<Arguments> should_update() {
-    // Note: more test cases are covered in RangeUtilsTest.
     return Stream.of(
         Arguments.of(RangeSet.of(), 0, new Range[] {new Range(0, 0)}),
         Arguments.of(RangeSet.of(new Range(0, 0)), 0, new Range[] {new Range(0, 0)}),
@@ -99,7 +104,6 @@ class RangeSetTest {
   }
 
   static Stream<Arguments> should_merge() {
-    // Note: more test cases are covered in RangeUtilsTest.
     return Stream.of(
         Arguments.of(RangeSet.of(), RangeSet.of(), new Range[] {}),
         Arguments.of(
@@ -175,4 +179,173 @@ class RangeSetTest {
     assertThat(RangeSet.of(new Range(0), new Range(1)).sum()).isEqualTo(2);
     assertThat(RangeSet.of(new Range(1), new Range(2, 5), new Range(6, 10)).sum()).isEqualTo(10);
   }
+
+  @Test
+  void should_update_positions_out_of_order() {
+    Random random = new Random(42);
+    List<Long> positions = new ArrayList<>();
+    for (long i = 1; i <= 10_000; i++) {
+      // leave a few gaps
+      if (i % 997 != 0) {
+        positions.add(i);
+      }
+    }
+    Collections.shuffle(positions, random);
+    RangeSet rs = new RangeSet();
+    positions.forEach(rs::update);
+    assertThat(rs.asText())
+        .isEqualTo(
+            "1:996,998:1993,1995:2990,2992:3987,3989:4984,4986:5981,5983:6978,6980:7975,7977:8972,8974:9969,9971:10000");
+    assertThat(rs.sum()).isEqualTo(positions.size());
+    RangeSet merged = new RangeSet();
+    for (int i = 0; i < positions.size(); i += 100) {
+      merged.merge(
+          RangeSet.of(
+              positions.subList(i, Math.min(i + 100, positions.size())).stream()
+                  .map(Range::new)
+                  .toArray(Range[]::new)));
+    }
+    assertThat(merged).isEqualTo(rs);
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  final void should_update_positions(long[] positions, List<Range> expected) {
+    RangeSet actual = new RangeSet();
+    for (long position : positions) {
+      actual.update(position);
+    }
+    assertThat(actual.stream()).containsExactlyElementsOf(expected);
+  }
+
+  @SuppressWarnings("unused")
+  static List<Arguments> should_update_positions() {
+    return Lists.newArrayList(
+        arguments(new long[] {1, 2, 3, 4}, ranges(new Range(1L, 4L))),
+        arguments(new long[] {1, 1, 2, 2, 3, 3, 4, 4}, ranges(new Range(1L, 4L))),
+        arguments(new long[] {1, 2, 3, 5}, ranges(new Range(1L, 3L), new Range(5L))),
+        arguments(new long[] {1, 2, 3, 5, 1, 2, 3, 5}, ranges(new Range(1L, 3L), new Range(5L))),
+        arguments(new long[] {4, 3, 2, 1}, ranges(new Range(1L, 4L))),
+        arguments(new long[] {4, 3, 2, 1, 4, 3, 2, 1}, ranges(new Range(1L, 4L))),
+        arguments(new long[] {5, 3, 2, 1}, ranges(new Range(1L, 3L), new Range(5L))),
+        arguments(new long[] {1, 3, 5, 4, 2}, ranges(new Range(1L, 5L))),
+        arguments(new long[] {1, 2, 4, 5, 3}, ranges(new Range(1L, 5L))),
+        arguments(new long[] {1, 2, 5, 6, 3}, ranges(new Range(1L, 3L), new Range(5L, 6L))),
+        arguments(new long[] {1, 2, 4, 5, 8, 3}, ranges(new Range(1L, 5L), new Range(8L))),
+        arguments(
+            new long[] {1, 2, 5, 6, 8, 4},
+            ranges(new Range(1L, 2L), new Range(4L, 6L), new Range(8L))),
+        arguments(
+            new long[] {1, 2, 5, 6, 8, 3},
+            ranges(new Range(1L, 3L), new Range(5L, 6L), new Range(8L))),
+        arguments(new long[] {2, 4, 5, 3, 1}, ranges(new Range(1L, 5L))),
+        arguments(new long[] {3, 2}, ranges(new Range(2L, 3L))),
+        arguments(new long[] {3, 5, 4, 2}, ranges(new Range(2L, 5L))));
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  final void should_add_ranges(List<Range> initial, Range range, List<Range> expected) {
+    RangeSet actual = RangeSet.of(initial);
+    actual.merge(RangeSet.of(range));
+    assertThat(actual.stream()).containsExactlyElementsOf(expected);
+    List<Range> all = new ArrayList<>(initial);
+    all.add(range);
+    assertThat(RangeSet.of(all).stream()).containsExactlyElementsOf(expected);
+  }
+
+  @SuppressWarnings("unused")
+  static List<Arguments> should_add_ranges() {
+    return Lists.newArrayList(
+        arguments(ranges(), r(1, 3), ranges(r(1, 3))),
+
+        // disjoint insertion
+
+        arguments(ranges(r(1, 3)), r(5, 8), ranges(r(1, 3), r(5, 8))),
+        arguments(ranges(r(5, 8)), r(1, 3), ranges(r(1, 3), r(5, 8))),
+        arguments(ranges(r(1, 3), r(10, 13)), r(5, 8), ranges(r(1, 3), r(5, 8), r(10, 13))),
+
+        // contiguous before
+        arguments(ranges(r(5, 8)), r(2, 4), ranges(r(2, 8))),
+        arguments(ranges(r(5, 8)), r(4, 4), ranges(r(4, 8))),
+        arguments(ranges(r(0, 0), r(5, 8)), r(2, 4), ranges(r(0, 0), r(2, 8))),
+        arguments(ranges(r(0, 0), r(5, 8)), r(2, 5), ranges(r(0, 0), r(2, 8))),
+        arguments(
+            ranges(r(0, 0), r(5, 8), r(10, 13)), r(2, 8), ranges(r(0, 0), r(2, 8), r(10, 13))),
+        arguments(
+            ranges(r(0, 2), r(5, 8), r(10, 13)), r(4, 8), ranges(r(0, 2), r(4, 8), r(10, 13))),
+
+        // contained
+        arguments(
+            ranges(r(1, 3), r(5, 8), r(10, 13)), r(5, 8), ranges(r(1, 3), r(5, 8), r(10, 13))),
+        arguments(
+            ranges(r(1, 3), r(5, 8), r(10, 13)), r(6, 7), ranges(r(1, 3), r(5, 8), r(10, 13))),
+
+        // spanning
+        arguments(
+            ranges(r(0, 2), r(5, 8), r(11, 13)), r(4, 9), ranges(r(0, 2), r(4, 9), r(11, 13))),
+        arguments(
+            ranges(r(0, 1), r(5, 8), r(12, 13)), r(3, 10), ranges(r(0, 1), r(3, 10), r(12, 13))),
+
+        // contiguous
+        arguments(ranges(r(0, 2)), r(3, 3), ranges(r(0, 3))),
+        arguments(ranges(r(0, 2)), r(0, 3), ranges(r(0, 3))),
+        arguments(ranges(r(0, 2)), r(2, 3), ranges(r(0, 3))),
+        arguments(ranges(r(0, 2), r(5, 8)), r(3, 3), ranges(r(0, 3), r(5, 8))),
+        arguments(ranges(r(0, 2), r(5, 8)), r(0, 3), ranges(r(0, 3), r(5, 8))),
+        arguments(ranges(r(0, 2), r(5, 8)), r(1, 3), ranges(r(0, 3), r(5, 8))),
+        arguments(ranges(r(1, 3)), r(0, 0), ranges(r(0, 3))),
+        arguments(ranges(r(1, 3)), r(0, 3), ranges(r(0, 3))),
+        arguments(ranges(r(1, 3)), r(0, 1), ranges(r(0, 3))),
+
+        // merges
+        arguments(ranges(r(0, 2), r(4, 5)), r(3, 3), ranges(r(0, 5))),
+        arguments(ranges(r(0, 2), r(4, 5)), r(1, 3), ranges(r(0, 5))),
+        arguments(ranges(r(0, 2), r(4, 5)), r(3, 4), ranges(r(0, 5))),
+        arguments(ranges(r(0, 2), r(4, 5)), r(3, 5), ranges(r(0, 5))),
+        arguments(ranges(r(0, 2), r(4, 5)), r(3, 6), ranges(r(0, 6))),
+        arguments(ranges(r(0, 2), r(6, 8)), r(3, 5), ranges(r(0, 8))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(3, 7), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(3, 8), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(3, 9), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(3, 10), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(3, 11), ranges(r(0, 11))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(2, 7), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(1, 7), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(0, 7), ranges(r(0, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(-1, 7), ranges(r(-1, 10))),
+        arguments(ranges(r(0, 2), r(4, 6), r(8, 10)), r(0, 100), ranges(r(0, 100))));
+  }
+
+  @ParameterizedTest
+  @MethodSource
+  void should_contain_position(List<Range> ranges, long position, boolean expected) {
+    assertThat(RangeSet.of(ranges).contains(position)).isEqualTo(expected);
+  }
+
+  static Stream<Arguments> should_contain_position() {
+    return Stream.of(
+        Arguments.of(ranges(), 0, false),
+        Arguments.of(ranges(new Range(0, 0)), 0, true),
+        Arguments.of(ranges(new Range(1, 1)), 0, false),
+        Arguments.of(ranges(new Range(0, 0)), 1, false),
+        Arguments.of(ranges(new Range(0, 0), new Range(2, 2)), 1, false),
+        Arguments.of(ranges(new Range(0, 0), new Range(2, 2)), 2, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 2, false),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 5, false),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 0, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 1, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 3, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 4, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 6, true),
+        Arguments.of(ranges(new Range(0, 1), new Range(3, 4), new Range(6, 7)), 7, true));
+  }
+
+  private static List<Range> ranges(Range... ranges) {
+    return new ArrayList<>(Arrays.asList(ranges));
+  }
+
+  static Range r(int lower, int upper) {
+    return new Range(lower, upper);
+  }
 }
@@ -15,7 +15,7 @@
  */
 package com.datastax.oss.dsbulk.workflow.commons.log.checkpoint;
 
-import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.RangeUtilsTest.r;
+import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.RangeSetTest.r;
 import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.ReplayStrategy.resume;
 import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.ReplayStrategy.retry;
 import static com.datastax.oss.dsbulk.workflow.commons.log.checkpoint.ReplayStrategy.retryAll;
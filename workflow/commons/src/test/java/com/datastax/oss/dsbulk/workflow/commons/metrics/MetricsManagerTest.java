@@ -128,6 +128,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             null,
@@ -172,6 +173,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             null,
@@ -219,6 +221,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             null,
@@ -263,6 +266,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             null,
@@ -308,6 +312,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             executionDirectory,
@@ -366,6 +371,7 @@ class MetricsManagerTest {
             false,
             false,
             false,
+            false,
             null,
             executionDirectory,
             LogSettings.Verbosity.quiet,
@@ -412,6 +418,7 @@ class MetricsManagerTest {
             false,
             false,
             false,
+            false,
             null,
             executionDirectory,
             LogSettings.Verbosity.high,
@@ -456,6 +463,7 @@ class MetricsManagerTest {
             true,
             false,
             false,
+            false,
             true,
             null,
             executionDirectory,
@@ -512,6 +520,7 @@ class MetricsManagerTest {
             false,
             false,
             false,
+            false,
             prometheus,
             executionDirectory,
             LogSettings.Verbosity.high,
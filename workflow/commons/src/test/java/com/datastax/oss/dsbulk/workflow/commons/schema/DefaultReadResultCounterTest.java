@@ -27,6 +27,7 @@ import static com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.St
 import static java.net.InetSocketAddress.createUnresolved;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
@@ -48,9 +49,11 @@ import com.datastax.oss.dsbulk.tests.logging.StreamInterceptingExtension;
 import com.datastax.oss.dsbulk.tests.logging.StreamInterceptor;
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
 import com.typesafe.config.Config;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
@@ -265,6 +268,35 @@ class DefaultReadResultCounterTest {
             String.format("%s 0 0.00", node3.getEndPoint()));
   }
 
+  @Test
+  void should_count_ranges_and_nodes_counted_server_side() {
+    DefaultReadResultCounter counter =
+        new DefaultReadResultCounter(
+            ks, metadata, EnumSet.of(global, ranges, hosts), 10, V4, codecFactory);
+    ReadResultCounter.CountingUnit unit = counter.newCountingUnit(0L);
+    // a range that spans range1 and range2
+    RangeReadBoundStatement statement = mock(RangeReadBoundStatement.class);
+    unit.update(
+        new RangeCountResult(
+            statement,
+            Arrays.asList(newTokenRange(token1a, token2), newTokenRange(token2, token2a)),
+            new long[] {10, 5}));
+    // a range that ends at the end of the ring, in range3
+    unit.update(
+        new RangeCountResult(
+            statement, Collections.singletonList(newTokenRange(token3, token1)), new long[] {7}));
+    counter.consolidateUnitCounts();
+    assertThat(counter.totalRows).isEqualTo(22);
+    assertThat(counter.totalsByRange)
+        .containsEntry(range1, 10L)
+        .containsEntry(range2, 5L)
+        .containsEntry(range3, 7L);
+    assertThat(counter.totalsByNode)
+        .containsEntry(addr1, 10L)
+        .containsEntry(addr2, 5L)
+        .containsEntry(addr3, 7L);
+  }
+
   @Test
   void should_count_ranges(StreamInterceptor stdout) {
     DefaultReadResultCounter counter =
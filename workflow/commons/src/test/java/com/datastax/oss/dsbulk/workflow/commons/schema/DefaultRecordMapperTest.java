@@ -24,11 +24,13 @@ import static java.math.RoundingMode.HALF_EVEN;
 import static java.time.Instant.EPOCH;
 import static java.time.ZoneOffset.UTC;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static java.util.Locale.US;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -59,8 +61,10 @@ import com.datastax.oss.dsbulk.codecs.api.util.OverflowStrategy;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToIntegerCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToLongCodec;
 import com.datastax.oss.dsbulk.codecs.text.string.StringToStringCodec;
+import com.datastax.oss.dsbulk.connectors.api.ArrayBackedRecord;
 import com.datastax.oss.dsbulk.connectors.api.DefaultMappedField;
 import com.datastax.oss.dsbulk.connectors.api.Field;
+import com.datastax.oss.dsbulk.connectors.api.FieldTable;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.RecordMetadata;
 import com.datastax.oss.dsbulk.mapping.CQLWord;
@@ -69,6 +73,7 @@ import com.datastax.oss.dsbulk.tests.utils.ReflectionUtils;
 import com.datastax.oss.dsbulk.workflow.commons.statement.MappedBoundStatement;
 import com.datastax.oss.dsbulk.workflow.commons.statement.UnmappableStatement;
 import io.netty.util.concurrent.FastThreadLocal;
+import java.net.URI;
 import java.nio.ByteBuffer;
 import java.text.NumberFormat;
 import java.time.Instant;
@@ -243,6 +248,91 @@ class DefaultRecordMapperTest {
     assertParameter(2, C3, TypeCodecs.TEXT.encode("foo", V4));
   }
 
+  @Test
+  void should_map_array_backed_records_with_binding_plan() {
+    when(variables.allIndicesOf(C1.asIdentifier())).thenReturn(singletonList(0));
+    when(variables.allIndicesOf(C2.asIdentifier())).thenReturn(singletonList(1));
+    when(variables.allIndicesOf(C3.asIdentifier())).thenReturn(singletonList(2));
+    when(boundStatementBuilder.setBytesUnsafe(anyInt(), any())).thenReturn(boundStatementBuilder);
+    ArgumentCaptor<Integer> indexCaptor = ArgumentCaptor.forClass(Integer.class);
+    FieldTable fields = FieldTable.mapped(F1, F2, F3);
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            Collections.singletonList(insertStatement),
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    for (int i = 1; i <= 2; i++) {
+      Record record =
+          new ArrayBackedRecord(
+              "source",
+              URI.create("file://file1.csv"),
+              i,
+              fields,
+              new Object[] {"42", "4242", "foo"});
+      Statement<?> result = mapper.map(record).single().block();
+      assertThat(result).isInstanceOf(MappedBoundStatement.class);
+      assertThat(ReflectionUtils.getInternalState(result, "delegate")).isSameAs(boundStatement);
+      // data size is computed while binding: int + bigint + "foo"
+      assertThat(((MappedBoundStatement) result).getDataSize()).isEqualTo(4 + 8 + 3);
+      // record should have been cleared
+      assertThat(record.fields()).isEmpty();
+    }
+    verify(boundStatementBuilder, times(6))
+        .setBytesUnsafe(indexCaptor.capture(), valueCaptor.capture());
+    assertThat(indexCaptor.getAllValues()).containsExactly(0, 1, 2, 0, 1, 2);
+    assertThat(valueCaptor.getAllValues())
+        .containsExactly(
+            TypeCodecs.INT.encode(42, V4),
+            TypeCodecs.BIGINT.encode(4242L, V4),
+            TypeCodecs.TEXT.encode("foo", V4),
+            TypeCodecs.INT.encode(42, V4),
+            TypeCodecs.BIGINT.encode(4242L, V4),
+            TypeCodecs.TEXT.encode("foo", V4));
+    // lookups are resolved only once for all records sharing the same field table
+    verify(mapping, times(1)).fieldToVariables(F1);
+    verify(mapping, times(1)).codec(C1, DataTypes.INT, GenericType.STRING);
+  }
+
+  @Test
+  void should_return_unmappable_statement_when_array_backed_record_has_null_pk() {
+    when(variables.allIndicesOf(C1.asIdentifier())).thenReturn(singletonList(0));
+    when(variables.allIndicesOf(C2.asIdentifier())).thenReturn(singletonList(1));
+    when(variables.allIndicesOf(C3.asIdentifier())).thenReturn(singletonList(2));
+    when(boundStatementBuilder.setBytesUnsafe(anyInt(), any())).thenReturn(boundStatementBuilder);
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            Collections.singletonList(insertStatement),
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            true,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    Record record =
+        new ArrayBackedRecord(
+            "source",
+            URI.create("file://file1.csv"),
+            1,
+            FieldTable.mapped(F1, F2, F3),
+            new Object[] {null, "4242", "foo"});
+    Statement<?> result = mapper.map(record).single().block();
+    assertThat(result).isNotNull().isInstanceOf(UnmappableStatement.class);
+    UnmappableStatement unmappableStatement = (UnmappableStatement) result;
+    assertThat(unmappableStatement.getError())
+        .isInstanceOf(InvalidMappingException.class)
+        .hasMessageContaining("Primary key column col1 cannot be set to null");
+  }
+
   @Test
   void should_bind_mapped_numeric_timestamp() {
     when(record.fields()).thenReturn(set(F1));
@@ -610,6 +700,40 @@ class DefaultRecordMapperTest {
                 + "or set schema.allowMissingFields to true.");
   }
 
+  @Test
+  void should_project_records_on_mapped_fields_when_extra_fields_allowed() {
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            Collections.singletonList(insertStatement),
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            false,
+            true,
+            false,
+            statement -> boundStatementBuilder);
+    assertThat(mapper.getProjection()).contains(set(F1, F2, F3));
+  }
+
+  @Test
+  void should_not_project_records_when_extra_fields_not_allowed() {
+    RecordMapper mapper =
+        new DefaultRecordMapper(
+            Collections.singletonList(insertStatement),
+            set(C1),
+            set(C2, C3),
+            V4,
+            mapping,
+            recordMetadata,
+            false,
+            false,
+            false,
+            statement -> boundStatementBuilder);
+    assertThat(mapper.getProjection()).isEmpty();
+  }
+
   @Test
   void should_map_to_multiple_statements() {
     when(record.fields()).thenReturn(set(F1, F2, F3));
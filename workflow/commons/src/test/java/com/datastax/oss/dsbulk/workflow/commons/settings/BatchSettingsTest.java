@@ -28,6 +28,7 @@ import com.datastax.oss.dsbulk.tests.logging.LogInterceptingExtension;
 import com.datastax.oss.dsbulk.tests.utils.ReflectionUtils;
 import com.datastax.oss.dsbulk.tests.utils.TestConfigUtils;
 import com.typesafe.config.Config;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -48,6 +49,7 @@ class BatchSettingsTest {
     BatchSettings settings = new BatchSettings(config);
     settings.init();
     assertThat(settings.getBufferSize()).isEqualTo(128);
+    assertThat(settings.getMaxBatchAge()).isEqualTo(Duration.ofSeconds(1));
     ReactiveStatementBatcher batcher = settings.newStatementBatcher(session);
     assertThat(batcher).isInstanceOf(ReactorStatementBatcher.class);
     assertThat(ReflectionUtils.getInternalState(batcher, "batchMode")).isEqualTo(PARTITION_KEY);
@@ -230,6 +232,23 @@ class BatchSettingsTest {
             "Invalid value for dsbulk.batch.bufferSize, expecting NUMBER, got STRING");
   }
 
+  @Test
+  void should_load_max_batch_age() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.batch", "maxBatchAge", "250ms");
+    BatchSettings settings = new BatchSettings(config);
+    settings.init();
+    assertThat(settings.getMaxBatchAge()).isEqualTo(Duration.ofMillis(250));
+  }
+
+  @Test
+  void should_throw_exception_when_max_batch_age_not_a_duration() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.batch", "maxBatchAge", "NotADuration");
+    BatchSettings settings = new BatchSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageStartingWith("Invalid value for dsbulk.batch.maxBatchAge");
+  }
+
   @Test
   void should_throw_exception_when_batch_mode_invalid() {
     Config config = TestConfigUtils.createTestConfig("dsbulk.batch", "mode", "NotAMode");
@@ -84,4 +84,20 @@ class EngineSettingsTest {
     settings.init();
     assertThat(settings.isDataSizeSamplingEnabled()).isFalse();
   }
+
+  @Test
+  void should_report_default_adaptive_concurrency() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.engine");
+    EngineSettings settings = new EngineSettings(config);
+    settings.init();
+    assertThat(settings.isAdaptiveConcurrency()).isTrue();
+  }
+
+  @Test
+  void should_create_adaptive_concurrency_disabled() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.engine", "adaptiveConcurrency", false);
+    EngineSettings settings = new EngineSettings(config);
+    settings.init();
+    assertThat(settings.isAdaptiveConcurrency()).isFalse();
+  }
 }
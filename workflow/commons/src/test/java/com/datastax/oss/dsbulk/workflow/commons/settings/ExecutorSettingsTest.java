@@ -241,6 +241,35 @@ class ExecutorSettingsTest {
             "Invalid value for dsbulk.executor.maxInFlight, expecting NUMBER, got STRING");
   }
 
+  @Test
+  void should_enable_maxInFlightPerNode() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor", "maxInFlightPerNode", 100);
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "nodeInFlightLimiter")).isNotNull();
+  }
+
+  @Test
+  void should_disable_maxInFlightPerNode_by_default() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.executor");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    settings.init();
+    ReactiveBulkWriter executor = settings.newWriteExecutor(session, null);
+    assertThat(getInternalState(executor, "nodeInFlightLimiter")).isNull();
+  }
+
+  @Test
+  void should_throw_exception_when_maxInFlightPerNode_not_a_number() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.executor", "maxInFlightPerNode", "NotANumber");
+    ExecutorSettings settings = new ExecutorSettings(config);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(
+            "Invalid value for dsbulk.executor.maxInFlightPerNode, expecting NUMBER, got STRING");
+  }
+
   @Test
   void should_log_warning_when_concurrentMaxQueries_is_user_defined(
       @LogCapture LogInterceptor logs) {
@@ -304,6 +304,16 @@ class LogSettingsTest {
         .anySatisfy(line -> assertThat(line).endsWith("this is a test 4"));
   }
 
+  @Test
+  void should_throw_exception_when_checkpoint_flushInterval_not_a_duration() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.log", "checkpoint.flushInterval", "NotADuration");
+    LogSettings settings = new LogSettings(config, executionId);
+    assertThatThrownBy(settings::init)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Invalid value for dsbulk.log.checkpoint.flushInterval");
+  }
+
   @Test
   void should_throw_exception_when_maxQueryStringLength_not_a_number() {
     Config config =
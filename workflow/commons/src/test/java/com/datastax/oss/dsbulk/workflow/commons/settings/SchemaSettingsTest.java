@@ -1202,6 +1202,40 @@ class SchemaSettingsTest {
         .isEqualTo("SELECT c1 FROM ks.t1 WHERE token(c1) > :start AND token(c1) <= :end");
   }
 
+  @Test
+  void should_create_row_counter_with_push_down() {
+    Config config =
+        TestConfigUtils.createTestConfig("dsbulk.schema", "keyspace", "ks", "table", "t1");
+    SchemaSettings settings = new SchemaSettings(config, READ_AND_COUNT);
+    settings.init(session, codecFactory, false, true);
+    assertThat(settings.isCountPushDownSupported(EnumSet.of(global, hosts, ranges))).isTrue();
+    assertThat(settings.isCountPushDownSupported(EnumSet.of(global, partitions))).isFalse();
+    ReadResultCounter counter =
+        settings.createReadResultCounter(
+            session, codecFactory, EnumSet.of(global, hosts, ranges), 10, true);
+    assertThat(counter).isNotNull();
+    ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+    verify(session).prepare(argument.capture());
+    assertThat(argument.getValue())
+        .isEqualTo("SELECT count(*) FROM ks.t1 WHERE token(c1) > :start AND token(c1) <= :end");
+  }
+
+  @Test
+  void should_not_support_push_down_when_custom_query_provided() {
+    Config config =
+        TestConfigUtils.createTestConfig(
+            "dsbulk.schema", "query", "\"SELECT c1, c3 FROM ks.t1 WHERE c1 = 0\"");
+    SchemaSettings settings = new SchemaSettings(config, READ_AND_COUNT);
+    settings.init(session, codecFactory, false, true);
+    assertThat(settings.isCountPushDownSupported(EnumSet.of(global))).isFalse();
+    assertThatThrownBy(
+            () ->
+                settings.createReadResultCounter(
+                    session, codecFactory, EnumSet.of(global), 10, true))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Cannot push down counting with stats.modes = [global]");
+  }
+
   @Test
   void should_use_custom_query_when_mode_is_global() {
     when(table.getClusteringColumns()).thenReturn(ImmutableMap.of(col2, ClusteringOrder.ASC));
@@ -44,4 +44,16 @@ class StatsSettingsTest {
     settings.init();
     assertThat(settings.getNumPartitions()).isEqualTo(20);
   }
+
+  @Test
+  void should_report_push_down() {
+    Config config = TestConfigUtils.createTestConfig("dsbulk.stats");
+    StatsSettings settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.isPushDown()).isTrue();
+    config = TestConfigUtils.createTestConfig("dsbulk.stats", "pushDown", false);
+    settings = new StatsSettings(config);
+    settings.init();
+    assertThat(settings.isPushDown()).isFalse();
+  }
 }
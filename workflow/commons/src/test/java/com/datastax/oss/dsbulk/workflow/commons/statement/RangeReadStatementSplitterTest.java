@@ -0,0 +1,101 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.dsbulk.workflow.commons.statement;
+
+import static com.datastax.oss.dsbulk.tests.driver.DriverUtils.newToken;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.internal.core.util.RoutingKey;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenRange;
+import com.datastax.oss.dsbulk.partitioner.murmur3.Murmur3BulkTokenFactory;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class RangeReadStatementSplitterTest {
+
+  private static final CqlIdentifier KS = CqlIdentifier.fromInternal("ks");
+  private static final CqlIdentifier TABLE = CqlIdentifier.fromInternal("t");
+
+  private final Murmur3BulkTokenFactory tokenFactory = new Murmur3BulkTokenFactory();
+
+  @Test
+  void should_compute_token_of_row() {
+    ByteBuffer pk1 = TypeCodecs.INT.encode(42, ProtocolVersion.DEFAULT);
+    ByteBuffer pk2 = TypeCodecs.TEXT.encode("foo", ProtocolVersion.DEFAULT);
+    Row row = mock(Row.class);
+    when(row.getBytesUnsafe(1)).thenReturn(pk1);
+    when(row.getBytesUnsafe(2)).thenReturn(pk2);
+    assertThat(splitter(1).getToken(row)).isEqualTo(tokenFactory.hash(pk1));
+    assertThat(splitter(2, 1).getToken(row))
+        .isEqualTo(tokenFactory.hash(RoutingKey.compose(pk2, pk1)));
+  }
+
+  @Test
+  void should_split_non_wrapping_ranges_only() {
+    RangeReadStatementSplitter splitter = splitter(0);
+    assertThat(splitter.isSplittable(range(0, 100))).isTrue();
+    assertThat(splitter.isSplittable(range(0, Long.MIN_VALUE))).isTrue();
+    assertThat(splitter.isSplittable(range(100, 0))).isFalse();
+    assertThat(splitter.isSplittable(range(Long.MIN_VALUE, Long.MIN_VALUE))).isFalse();
+    assertThat(splitter.split(newToken(0), newToken(100), 4))
+        .containsExactly(range(0, 25), range(25, 50), range(50, 75), range(75, 100));
+    assertThat(splitter.fraction(newToken(100), newToken(100))).isZero();
+  }
+
+  @Test
+  void should_create_statement_for_range() {
+    RangeReadStatementSplitter splitter = splitter(0);
+    URI resource = URI.create("cql://ks/t?start=0&end=1000");
+    RangeReadBoundStatement statement = splitter.newStatement(range(0, 100), resource);
+    assertThat(statement.getTokenRange()).isEqualTo(range(0, 100));
+    assertThat(statement.getResource()).isEqualTo(resource);
+  }
+
+  @Test
+  void should_parse_resource() {
+    RangeReadStatementSplitter splitter = splitter(0);
+    URI resource = splitter.getResource(range(-100, 100));
+    assertThat(resource).isEqualTo(URI.create("cql://ks/t?start=-100&end=100"));
+    assertThat(splitter.parseResource(resource)).isEqualTo(range(-100, 100));
+    assertThat(splitter.parseResource(URI.create("cql://ks/other?start=-100&end=100"))).isNull();
+    assertThat(splitter.parseResource(URI.create("cql://other/t?start=-100&end=100"))).isNull();
+    assertThat(splitter.parseResource(URI.create("file:///tmp/t.csv"))).isNull();
+    assertThat(splitter.parseResource(URI.create("cql://ks/t?start=foo&end=100"))).isNull();
+  }
+
+  private RangeReadStatementSplitter splitter(int... partitionKeyIndices) {
+    return new RangeReadStatementSplitter(
+        tokenFactory,
+        KS,
+        TABLE,
+        range -> mock(BoundStatement.class, RETURNS_SELF),
+        partitionKeyIndices);
+  }
+
+  private BulkTokenRange range(long start, long end) {
+    return tokenFactory.range(newToken(start), newToken(end), Collections.emptySet());
+  }
+}
@@ -16,15 +16,22 @@
 package com.datastax.oss.dsbulk.workflow.count;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.metadata.token.DefaultTokenMap;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.executor.api.reader.BulkReader;
 import com.datastax.oss.dsbulk.executor.api.result.ReadResult;
+import com.datastax.oss.dsbulk.partitioner.BulkTokenFactory;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
+import com.datastax.oss.dsbulk.workflow.commons.log.CountRangeReadResource;
 import com.datastax.oss.dsbulk.workflow.commons.log.DefaultRangeReadResource;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.log.RangeReadResource;
+import com.datastax.oss.dsbulk.workflow.commons.log.RangeReadScheduler;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultCounter;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
@@ -37,17 +44,21 @@ import com.datastax.oss.dsbulk.workflow.commons.settings.SchemaGenerationStrateg
 import com.datastax.oss.dsbulk.workflow.commons.settings.SchemaSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.SettingsManager;
 import com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings;
+import com.datastax.oss.dsbulk.workflow.commons.settings.StatsSettings.StatisticsMode;
 import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
 import com.datastax.oss.dsbulk.workflow.commons.utils.CloseableUtils;
 import com.datastax.oss.dsbulk.workflow.commons.utils.ClusterInformationUtils;
 import com.typesafe.config.Config;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
@@ -70,6 +81,7 @@ public class CountWorkflow implements Workflow {
   private CqlSession session;
   private BulkReader executor;
   private List<RangeReadBoundStatement> readStatements;
+  private RangeReadScheduler readScheduler;
   private volatile boolean success;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsMonitor;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsCounter;
@@ -80,6 +92,9 @@ public class CountWorkflow implements Workflow {
   private Function<Flux<Void>, Flux<Void>> terminationHandler;
   private Function<Flux<ReadResult>, Flux<Void>> successfulReadsHandler;
   private int readConcurrency;
+  private boolean pushDown;
+  private BulkTokenFactory tokenFactory;
+  private List<Token> ring;
 
   CountWorkflow(Config config) {
     settingsManager = new SettingsManager(config);
@@ -137,11 +152,57 @@ public class CountWorkflow implements Workflow {
         executorSettings.newReadExecutor(session, metricsManager.getExecutionListener(), false);
     EnumSet<StatsSettings.StatisticsMode> modes = statsSettings.getStatisticsModes();
     int numPartitions = statsSettings.getNumPartitions();
+    // Counting is pushed down to the server when possible; it is however disabled when resuming
+    // from a checkpoint, since ranges that were partially read by the previous operation would be
+    // counted twice.
+    pushDown =
+        statsSettings.isPushDown()
+            && schemaSettings.isCountPushDownSupported(modes)
+            && !logSettings.isResumingFromCheckpoint();
+    LOGGER.debug("Using server-side count push-down: {}", pushDown);
     readResultCounter =
-        schemaSettings.createReadResultCounter(session, codecFactory, modes, numPartitions);
+        schemaSettings.createReadResultCounter(
+            session, codecFactory, modes, numPartitions, pushDown);
     // incorporate totals from the previous run
     readResultCounter.newCountingUnit(logManager.getTotalItems());
     readStatements = schemaSettings.createReadStatements(session);
+    if (pushDown) {
+      TokenMap tokenMap =
+          session
+              .getMetadata()
+              .getTokenMap()
+              .orElseThrow(() -> new IllegalStateException("Token metadata not present"));
+      tokenFactory =
+          BulkTokenFactory.forPartitioner(
+              ((DefaultTokenMap) tokenMap).getTokenFactory().getPartitionerName());
+      if (modes.contains(StatisticsMode.ranges) || modes.contains(StatisticsMode.hosts)) {
+        // ranges must be counted in pieces that belong to one single range of the ring
+        ring =
+            tokenMap.getTokenRanges().stream()
+                .map(TokenRange::getEnd)
+                .sorted()
+                .collect(Collectors.toList());
+      } else {
+        ring = Collections.emptyList();
+      }
+    }
+    RangeReadStatementSplitter splitter = null;
+    if (!pushDown
+        && (schemaSettings.isSplitSlowRanges() || logSettings.isResumingFromCheckpoint())) {
+      splitter = schemaSettings.createReadStatementSplitter(session);
+    }
+    if (splitter == null) {
+      readScheduler = new RangeReadScheduler(readStatements, this::newRangeReadResource);
+    } else {
+      readScheduler =
+          new RangeReadScheduler(
+              readStatements,
+              executor,
+              splitter,
+              schemaSettings.isSplitSlowRanges(),
+              logManager.getCheckpointedResources(),
+              logManager.newRangeSplitHandler());
+    }
     closed.set(false);
     success = false;
     totalItemsMonitor = metricsManager.newTotalItemsMonitor();
@@ -168,8 +229,8 @@ public class CountWorkflow implements Workflow {
     LOGGER.debug("{} started.", this);
     metricsManager.start();
     Stopwatch timer = Stopwatch.createStarted();
-    Flux.fromIterable(readStatements)
-        .map(stmt -> (RangeReadResource) new DefaultRangeReadResource(stmt, executor))
+    readScheduler
+        .resources()
         .transform(checkpointHandler)
         .flatMap(
             results ->
@@ -184,7 +245,8 @@ public class CountWorkflow implements Workflow {
                     // instantiating a new counting unit below for each inner flow.
                     // 2) When counting partitions or ranges, a partition cannot be split in two
                     // inner flows; this is guaranteed since statements are split by token range
-                    // (users cannot supply a custom query for these counting modes).
+                    // (users cannot supply a custom query for these counting modes), and slow
+                    // ranges are only split between two partitions.
                     .doOnNext(readResultCounter.newCountingUnit(0L)::update)
                     .subscribeOn(scheduler),
             readConcurrency)
@@ -210,6 +272,13 @@ public class CountWorkflow implements Workflow {
     return totalErrors == 0;
   }
 
+  private RangeReadResource newRangeReadResource(RangeReadBoundStatement stmt) {
+    if (pushDown) {
+      return new CountRangeReadResource(stmt, executor, tokenFactory, ring);
+    }
+    return new DefaultRangeReadResource(stmt, executor);
+  }
+
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
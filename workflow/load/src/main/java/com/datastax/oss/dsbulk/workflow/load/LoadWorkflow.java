@@ -22,11 +22,14 @@ import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.shaded.guava.common.base.Stopwatch;
+import com.datastax.oss.dsbulk.batcher.api.ReactiveStatementBatcher;
 import com.datastax.oss.dsbulk.codecs.api.ConvertingCodecFactory;
 import com.datastax.oss.dsbulk.connectors.api.CommonConnectorFeature;
 import com.datastax.oss.dsbulk.connectors.api.Connector;
 import com.datastax.oss.dsbulk.connectors.api.Record;
 import com.datastax.oss.dsbulk.connectors.api.Resource;
+import com.datastax.oss.dsbulk.executor.api.listener.CompositeExecutionListener;
+import com.datastax.oss.dsbulk.executor.api.listener.ExecutionListener;
 import com.datastax.oss.dsbulk.executor.api.result.EmptyWriteResult;
 import com.datastax.oss.dsbulk.executor.api.result.WriteResult;
 import com.datastax.oss.dsbulk.executor.api.writer.BulkWriter;
@@ -34,6 +37,7 @@ import com.datastax.oss.dsbulk.sampler.DataSizeSampler;
 import com.datastax.oss.dsbulk.workflow.api.Workflow;
 import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.api.utils.ThrowableUtils;
+import com.datastax.oss.dsbulk.workflow.commons.executor.AdaptiveConcurrencyLimiter;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.NestedBatchException;
@@ -90,10 +94,12 @@ public class LoadWorkflow implements Workflow {
   private int numCores;
   private int readConcurrency;
   private int writeConcurrency;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
   private boolean hasManyReaders;
 
   private Function<Record, Flux<BatchableStatement<?>>> mapper;
   private Function<Publisher<BatchableStatement<?>>, Publisher<Statement<?>>> batcher;
+  private Function<Publisher<BatchableStatement<?>>, Publisher<Statement<?>>> streamingBatcher;
   private Function<Flux<Record>, Flux<Record>> totalItemsMonitor;
   private Function<Flux<Record>, Flux<Record>> totalItemsCounter;
   private Function<Flux<Record>, Flux<Record>> failedRecordsMonitor;
@@ -166,9 +172,16 @@ public class LoadWorkflow implements Workflow {
       recordMapper =
           schemaSettings.createRecordMapper(session, connector.getRecordMetadata(), false);
     }
+    if (connector.supports(CommonConnectorFeature.FIELD_PROJECTION)) {
+      recordMapper.getProjection().ifPresent(connector::project);
+    }
     mapper = recordMapper::map;
     if (batchingEnabled) {
-      batcher = batchSettings.newStatementBatcher(session)::batchByGroupingKey;
+      ReactiveStatementBatcher statementBatcher = batchSettings.newStatementBatcher(session);
+      Duration maxBatchAge = batchSettings.getMaxBatchAge();
+      batcher = statementBatcher::batchByGroupingKey;
+      streamingBatcher =
+          stmts -> statementBatcher.batchByGroupingKey(stmts, batchBufferSize, maxBatchAge);
     }
     if (executorSettings.isTrackingBytes()) {
       monitoringSettings.forceTrackBytes();
@@ -186,7 +199,6 @@ public class LoadWorkflow implements Workflow {
     if (driverSettings.isCloud()) {
       executorSettings.enforceCloudRateLimit(session.getMetadata().getNodes().size());
     }
-    executor = executorSettings.newWriteExecutor(session, metricsManager.getExecutionListener());
     dryRun = engineSettings.isDryRun();
     if (dryRun) {
       LOGGER.info("Dry-run mode enabled.");
@@ -219,6 +231,19 @@ public class LoadWorkflow implements Workflow {
         "Using write concurrency: {} (user-supplied: {})",
         writeConcurrency,
         engineSettings.getMaxConcurrentQueries().isPresent());
+    ExecutionListener executionListener = metricsManager.getExecutionListener();
+    if (engineSettings.isAdaptiveConcurrency()
+        && !engineSettings.getMaxConcurrentQueries().isPresent()
+        && !dryRun) {
+      // start from the heuristic value, then let the limiter probe for a better one
+      concurrencyLimiter =
+          new AdaptiveConcurrencyLimiter(writeConcurrency, numCores, writeConcurrency * 4);
+      concurrencyLimiter.registerMetrics(metricsManager.getExecutionListener().getRegistry());
+      executionListener = new CompositeExecutionListener(executionListener, concurrencyLimiter);
+      LOGGER.debug(
+          "Adaptive write concurrency enabled, maximum: {}", concurrencyLimiter.getMaxLimit());
+    }
+    executor = executorSettings.newWriteExecutor(session, executionListener);
   }
 
   @Override
@@ -319,13 +344,11 @@ public class LoadWorkflow implements Workflow {
   /**
    * Batches the given statement flow, if batching is enabled; otherwise do nothing.
    *
-   * <p>The flow is expected to be unbuffered, so this method first applies buffering by {@code
-   * batchBufferSize} before batching the resulting chunks.
+   * <p>The flow is expected to be unbuffered, so this method keeps batches open across the whole
+   * flow, holding at most {@code batchBufferSize} statements at a time.
    */
   private Flux<? extends Statement<?>> bufferAndBatch(Flux<BatchableStatement<?>> stmts) {
-    return batchingEnabled
-        ? stmts.window(batchBufferSize).flatMap(batcher).transform(batcherMonitor)
-        : stmts;
+    return batchingEnabled ? stmts.transform(streamingBatcher).transform(batcherMonitor) : stmts;
   }
 
   /**
@@ -343,9 +366,13 @@ public class LoadWorkflow implements Workflow {
    * successful write is emulated.
    */
   private Flux<WriteResult> executeStatements(Flux<? extends Statement<?>> stmts) {
-    return dryRun
-        ? stmts.map(EmptyWriteResult::new)
-        : stmts.flatMap(executor::writeReactive, writeConcurrency);
+    if (dryRun) {
+      return stmts.map(EmptyWriteResult::new);
+    }
+    if (concurrencyLimiter != null) {
+      return concurrencyLimiter.execute(stmts, executor::writeReactive);
+    }
+    return stmts.flatMap(executor::writeReactive, writeConcurrency);
   }
 
   @Override
@@ -29,6 +29,7 @@ import com.datastax.oss.dsbulk.workflow.api.utils.DurationUtils;
 import com.datastax.oss.dsbulk.workflow.commons.log.DefaultRangeReadResource;
 import com.datastax.oss.dsbulk.workflow.commons.log.LogManager;
 import com.datastax.oss.dsbulk.workflow.commons.log.RangeReadResource;
+import com.datastax.oss.dsbulk.workflow.commons.log.RangeReadScheduler;
 import com.datastax.oss.dsbulk.workflow.commons.metrics.MetricsManager;
 import com.datastax.oss.dsbulk.workflow.commons.schema.ReadResultMapper;
 import com.datastax.oss.dsbulk.workflow.commons.settings.CodecSettings;
@@ -42,6 +43,7 @@ import com.datastax.oss.dsbulk.workflow.commons.settings.SchemaGenerationStrateg
 import com.datastax.oss.dsbulk.workflow.commons.settings.SchemaSettings;
 import com.datastax.oss.dsbulk.workflow.commons.settings.SettingsManager;
 import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadBoundStatement;
+import com.datastax.oss.dsbulk.workflow.commons.statement.RangeReadStatementSplitter;
 import com.datastax.oss.dsbulk.workflow.commons.utils.CloseableUtils;
 import com.datastax.oss.dsbulk.workflow.commons.utils.ClusterInformationUtils;
 import com.typesafe.config.Config;
@@ -77,6 +79,7 @@ public class UnloadWorkflow implements Workflow {
   private CqlSession session;
   private BulkReader executor;
   private List<RangeReadBoundStatement> readStatements;
+  private RangeReadScheduler readScheduler;
   private Function<Publisher<Record>, Publisher<Record>> writer;
   private Function<Flux<ReadResult>, Flux<ReadResult>> totalItemsMonitor;
   private Function<Flux<Record>, Flux<Record>> failedRecordsMonitor;
@@ -159,6 +162,24 @@ public class UnloadWorkflow implements Workflow {
     executor =
         executorSettings.newReadExecutor(
             session, metricsManager.getExecutionListener(), schemaSettings.isSearchQuery());
+    RangeReadStatementSplitter splitter = null;
+    if (schemaSettings.isSplitSlowRanges() || logSettings.isResumingFromCheckpoint()) {
+      splitter = schemaSettings.createReadStatementSplitter(session);
+    }
+    if (splitter == null) {
+      readScheduler =
+          new RangeReadScheduler(
+              readStatements, stmt -> new DefaultRangeReadResource(stmt, executor));
+    } else {
+      readScheduler =
+          new RangeReadScheduler(
+              readStatements,
+              executor,
+              splitter,
+              schemaSettings.isSplitSlowRanges(),
+              logManager.getCheckpointedResources(),
+              logManager.newRangeSplitHandler());
+    }
     closed.set(false);
     writer = connector.write();
     totalItemsMonitor = metricsManager.newTotalItemsMonitor();
@@ -231,8 +252,8 @@ public class UnloadWorkflow implements Workflow {
             ? Schedulers.immediate()
             : Schedulers.newParallel(numThreads, new DefaultThreadFactory("workflow"));
     schedulers.add(scheduler);
-    return Flux.fromIterable(readStatements)
-        .map(stmt -> (RangeReadResource) new DefaultRangeReadResource(stmt, executor))
+    return readScheduler
+        .resources()
         .transform(checkpointHandler)
         .flatMap(
             results ->
@@ -266,8 +287,8 @@ public class UnloadWorkflow implements Workflow {
         Schedulers.newParallel(numThreadsForWrites, new DefaultThreadFactory("workflow-write"));
     schedulers.add(schedulerForReads);
     schedulers.add(schedulerForWrites);
-    return Flux.fromIterable(readStatements)
-        .map(stmt -> (RangeReadResource) new DefaultRangeReadResource(stmt, executor))
+    return readScheduler
+        .resources()
         .transform(checkpointHandler)
         .flatMap(
             results ->
@@ -303,8 +324,8 @@ public class UnloadWorkflow implements Workflow {
     int numThreads = Math.min(numCores * 2, actualConcurrency);
     Scheduler scheduler = Schedulers.newParallel(numThreads, new DefaultThreadFactory("workflow"));
     schedulers.add(scheduler);
-    return Flux.fromIterable(readStatements)
-        .map(stmt -> (RangeReadResource) new DefaultRangeReadResource(stmt, executor))
+    return readScheduler
+        .resources()
         .transform(checkpointHandler)
         .flatMap(
             results -> {